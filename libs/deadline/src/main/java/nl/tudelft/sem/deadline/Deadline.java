@@ -0,0 +1,169 @@
+package nl.tudelft.sem.deadline;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+import javax.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The Deadline class represents the point in time after which the caller of a request is no longer
+ * interested in its response.
+ *
+ * <p>The gateway attaches the deadline to every forwarded request in the <i>X-Request-Deadline</i>
+ * header, as the number of milliseconds since the epoch. Since the deadline is absolute, the header
+ * can be passed on to downstream calls as-is, and every downstream call is given the remaining
+ * budget. This assumes that the clocks of the machines are synchronized, which the expiry of the
+ * JWT tokens assumes as well.
+ *
+ * <p>Forward the deadline of a request to a downstream call as follows;
+ * <pre>{@code
+ * webClient.get()
+ *         .uri(...)
+ *         .headers(Deadline.propagate(headers)) // <-- Copies the deadline header, if any
+ *         .exchange()
+ * }</pre>
+ */
+@EqualsAndHashCode
+public final class Deadline {
+
+    // Name of the header that contains the deadline, in milliseconds since the epoch
+    public static final String HEADER = "X-Request-Deadline";
+
+    // Deadline, in milliseconds since the epoch
+    private final long epochMillis;
+
+    /**
+     * Creates a deadline.
+     *
+     * @param epochMillis is the deadline, in milliseconds since the epoch.
+     */
+    private Deadline(long epochMillis) {
+        this.epochMillis = epochMillis;
+    }
+
+    /**
+     * Creates a deadline at the given point in time.
+     *
+     * @param epochMillis is the deadline, in milliseconds since the epoch.
+     * @return the deadline.
+     */
+    public static Deadline at(long epochMillis) {
+        return new Deadline(epochMillis);
+    }
+
+    /**
+     * Creates a deadline that lies the given timeout from now.
+     *
+     * @param timeout is the time until the deadline.
+     * @return the deadline.
+     */
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.currentTimeMillis() + timeout.toMillis());
+    }
+
+    /**
+     * Reads the deadline from the headers of a request.
+     *
+     * @param headers is a collection of headers that is part of the request.
+     * @return the deadline, or null if the request does not have a (valid) deadline.
+     */
+    public static Deadline from(HttpHeaders headers) {
+        String value = headers.getFirst(HEADER);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new Deadline(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a consumer that copies the deadline of a request to the headers of a downstream
+     * call, if the request has a deadline.
+     *
+     * @param headers is a collection of headers that is part of the request.
+     * @return the consumer, which can be passed to the <i>headers</i> method of a web client.
+     */
+    public static Consumer<HttpHeaders> propagate(HttpHeaders headers) {
+        return propagate(headers.getFirst(HEADER));
+    }
+
+    /**
+     * Creates a consumer that copies the deadline of a request to the headers of a downstream
+     * call, if the request has a deadline.
+     *
+     * @param request is the request.
+     * @return the consumer, which can be passed to the <i>headers</i> method of a web client.
+     */
+    public static Consumer<HttpHeaders> propagate(HttpServletRequest request) {
+        return propagate(request.getHeader(HEADER));
+    }
+
+    /**
+     * Creates a consumer that sets the given deadline header value, if any.
+     *
+     * @param value is the value of the deadline header, or null.
+     * @return the consumer.
+     */
+    private static Consumer<HttpHeaders> propagate(String value) {
+        return forwarded -> {
+            if (value != null) {
+                forwarded.set(HEADER, value);
+            }
+        };
+    }
+
+    /**
+     * Returns the deadline, in milliseconds since the epoch.
+     *
+     * @return the deadline.
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * Returns the time that is left until the deadline.
+     *
+     * @return the remaining time, which is zero if the deadline has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofMillis(Math.max(0, epochMillis - System.currentTimeMillis()));
+    }
+
+    /**
+     * Checks whether the deadline has passed.
+     *
+     * @return true if the deadline has passed, false otherwise.
+     */
+    public boolean isExpired() {
+        return epochMillis <= System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the earliest of this deadline and another one.
+     *
+     * @param other is the other deadline, or null.
+     * @return the earliest deadline.
+     */
+    public Deadline earliest(Deadline other) {
+        return other != null && other.epochMillis < epochMillis ? other : this;
+    }
+
+    /**
+     * Sets the deadline in a collection of headers.
+     *
+     * @param headers is a collection of headers.
+     */
+    public void applyTo(HttpHeaders headers) {
+        headers.set(HEADER, String.valueOf(epochMillis));
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(epochMillis);
+    }
+}
@@ -0,0 +1,21 @@
+package nl.tudelft.sem.deadline;
+
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Configuration of the deadline propagation. Importing this configuration registers the
+ * {@link DeadlineFilter}, which rejects requests of which the deadline has passed. Calls to other
+ * microservices honour the deadline if they are performed by a web client that is created by
+ * {@link DeadlineExchangeFilter#createWebClient()}, and forward the deadline header.
+ *
+ * <p>To enable the deadline propagation, do the following;
+ * <pre>{@code
+ * @Import(DeadlineConfig.class) // <-- Include the configuration (+ local component scan)
+ * public class MyMicroserviceApplication {
+ *     ...
+ * }
+ * }</pre>
+ */
+@ComponentScan("nl.tudelft.sem.deadline")
+public class DeadlineConfig {
+}
@@ -0,0 +1,57 @@
+package nl.tudelft.sem.deadline;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Exchange filter that makes a web client honour the deadline of the calls that it performs (see
+ * {@link Deadline}). Calls of which the deadline has already passed are not sent at all, and calls
+ * that do not receive a response within the remaining budget are abandoned. Both fail with status
+ * 504 (Gateway Timeout). Calls without a deadline header are passed on unchanged.
+ *
+ * <p>The budget covers the call until the status and headers of the response have been received.
+ */
+public class DeadlineExchangeFilter implements ExchangeFilterFunction {
+
+    /**
+     * Creates a web client that honours the deadline of the calls that it performs.
+     *
+     * @return the web client.
+     */
+    public static WebClient createWebClient() {
+        return WebClient.builder()
+                .filter(new DeadlineExchangeFilter())
+                .build();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        HttpHeaders headers = request.headers();
+        Deadline deadline = Deadline.from(headers);
+        if (deadline == null) {
+            return next.exchange(request);
+        }
+        if (deadline.isExpired()) {
+            return Mono.error(deadlineExceeded());
+        }
+        return next.exchange(request)
+                .timeout(deadline.remaining(), Mono.error(deadlineExceeded()));
+    }
+
+    /**
+     * Creates the exception of a call of which the deadline has passed.
+     *
+     * @return the exception.
+     */
+    private static ResponseStatusException deadlineExceeded() {
+        return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                "The deadline of the request has passed");
+    }
+}
@@ -0,0 +1,49 @@
+package nl.tudelft.sem.deadline;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * The DeadlineFilter class rejects requests of which the deadline (see {@link Deadline}) has
+ * already passed with status 504 (Gateway Timeout), before any work is done for them. The caller
+ * has given up on these requests, hence handling them would only waste resources.
+ *
+ * <p>The filter is registered automatically in web applications that import the
+ * {@link DeadlineConfig}.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String value = request.getHeader(Deadline.HEADER);
+        if (value != null && isExpired(value)) {
+            response.sendError(HttpStatus.GATEWAY_TIMEOUT.value(),
+                    "The deadline of the request has passed");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Checks whether the deadline in a header value has passed. Invalid values are ignored.
+     *
+     * @param value is the value of the deadline header.
+     * @return true if the deadline has passed, false otherwise.
+     */
+    private static boolean isExpired(String value) {
+        try {
+            return Deadline.at(Long.parseLong(value.trim())).isExpired();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package nl.tudelft.sem.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+
+public class DeadlineExchangeFilterTest {
+
+    // Mock web server for testing
+    private transient MockWebServer mockWebServer;
+
+    private transient WebClient webClient;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        webClient = DeadlineExchangeFilter.createWebClient();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Performs a call to the mock web server with the given deadline.
+     *
+     * @param deadline is the deadline of the call, or null.
+     * @return the status of the response.
+     */
+    private HttpStatus call(Deadline deadline) {
+        return webClient.get()
+                .uri(mockWebServer.url("/api/courses").toString())
+                .headers(headers -> {
+                    if (deadline != null) {
+                        deadline.applyTo(headers);
+                    }
+                })
+                .exchange()
+                .flatMap(response -> response.releaseBody().thenReturn(response.statusCode()))
+                .block();
+    }
+
+    @Test
+    void testCallWithoutDeadline() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        assertEquals(HttpStatus.OK, call(null));
+        assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCallWithinDeadline() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        assertEquals(HttpStatus.OK, call(deadline));
+
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(deadline.toString(), recordedRequest.getHeader(Deadline.HEADER));
+    }
+
+    @Test
+    void testExpiredDeadlineIsNotSent() {
+        Deadline deadline = Deadline.at(System.currentTimeMillis() - 1);
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> call(deadline));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+        assertEquals(0, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testSlowCallIsAbandonedAtDeadline() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200)
+                .setHeadersDelay(5, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> call(Deadline.after(Duration.ofMillis(200))));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+    }
+}
@@ -0,0 +1,75 @@
+package nl.tudelft.sem.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class DeadlineTest {
+
+    @Test
+    void testFromHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        assertNull(Deadline.from(headers));
+
+        headers.set(Deadline.HEADER, "not-a-number");
+        assertNull(Deadline.from(headers));
+
+        headers.set(Deadline.HEADER, "1234");
+        assertEquals(Deadline.at(1234), Deadline.from(headers));
+    }
+
+    @Test
+    void testRemainingAndExpired() {
+        Deadline future = Deadline.after(Duration.ofMinutes(1));
+        assertFalse(future.isExpired());
+        assertTrue(future.remaining().compareTo(Duration.ofSeconds(50)) > 0);
+
+        Deadline past = Deadline.at(System.currentTimeMillis() - 1000);
+        assertTrue(past.isExpired());
+        assertEquals(Duration.ZERO, past.remaining());
+    }
+
+    @Test
+    void testEarliest() {
+        Deadline early = Deadline.at(1000);
+        Deadline late = Deadline.at(2000);
+        assertSame(early, early.earliest(late));
+        assertSame(early, late.earliest(early));
+        assertSame(late, late.earliest(null));
+    }
+
+    @Test
+    void testPropagate() {
+        HttpHeaders headers = new HttpHeaders();
+        Deadline.at(1234).applyTo(headers);
+
+        HttpHeaders forwarded = new HttpHeaders();
+        Deadline.propagate(headers).accept(forwarded);
+        assertEquals("1234", forwarded.getFirst(Deadline.HEADER));
+
+        HttpHeaders withoutDeadline = new HttpHeaders();
+        Deadline.propagate(new HttpHeaders()).accept(withoutDeadline);
+        assertFalse(withoutDeadline.containsKey(Deadline.HEADER));
+    }
+
+    @Test
+    void testPropagateServletRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(Deadline.HEADER, "1234");
+
+        HttpHeaders forwarded = new HttpHeaders();
+        Deadline.propagate(request).accept(forwarded);
+        assertEquals("1234", forwarded.getFirst(Deadline.HEADER));
+
+        HttpHeaders withoutDeadline = new HttpHeaders();
+        Deadline.propagate(new MockHttpServletRequest()).accept(withoutDeadline);
+        assertFalse(withoutDeadline.containsKey(Deadline.HEADER));
+    }
+}
@@ -0,0 +1,224 @@
+package nl.tudelft.sem.discovery;
+
+import com.google.gson.Gson;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PreDestroy;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * The DiscoveryClient class keeps a local copy of the registrations of the gateway, so that
+ * microservices can call each other directly instead of through the gateway. The copy is kept up
+ * to date by long polling the discovery feed of the gateway: the gateway holds back the response
+ * until the registrations change, hence changes are received almost immediately.
+ *
+ * <p><b>Important:</b> to enable the client, set the <i>discovery.enabled</i> property to true. The
+ * host and port of the gateway default to 'localhost' and '8080'. Override these by changing the
+ * <i>discovery.gatewayHost</i> and/or <i>discovery.gatewayPort</i> properties.
+ *
+ * <p>Calls are balanced over the instances of a target in a round-robin manner. If no instance of
+ * a target is known (e.g., because the client is disabled, or because the gateway has not been
+ * reachable for <i>discovery.staleAfterMillis</i>), callers should fall back to the gateway.
+ *
+ * <p>To register this client, do the following;
+ * <pre>{@code
+ * @Import(DiscoveryClientConfig.class) // <-- Include the configuration (+ local component scan)
+ * public class MyMicroserviceApplication {
+ *     ...
+ * }
+ * }</pre>
+ */
+@Component
+public class DiscoveryClient {
+    // Logger for reporting errors related to the remote gateway
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryClient.class);
+
+    // Used to parse the discovery feed
+    private static final Gson gson = new Gson();
+
+    // Create web client for executing asynchronous requests
+    private final transient WebClient webClient;
+
+    // Configuration for the client
+    private final transient DiscoveryClientConfig config;
+
+    // Position of the round-robin selection, per target
+    private final transient ConcurrentMap<String, AtomicInteger> positions;
+
+    // Instances that can be called directly, keyed by target
+    private transient volatile Map<String, List<ServiceInstance>> instances;
+
+    // Version of the discovery feed that the instances originate from, or null if unknown
+    private transient volatile Long version;
+
+    // Time (System.nanoTime) at which the discovery feed was received last
+    private transient volatile long lastUpdate;
+
+    // The pending poll, or null if the client has not been started
+    private transient volatile Disposable pending;
+
+    // Whether the client has been stopped
+    private transient volatile boolean stopped;
+
+    /**
+     * Constructs the DiscoveryClient class.
+     *
+     * @param config is the configuration of the client.
+     */
+    @Autowired
+    public DiscoveryClient(DiscoveryClientConfig config) {
+        this.config = config;
+        this.webClient = WebClient.create();
+        this.positions = new ConcurrentHashMap<>();
+        this.instances = Map.of();
+    }
+
+    /**
+     * Starts polling the discovery feed once the application is ready, if the client is enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (config.isEnabled()) {
+            scheduleNext(Duration.ZERO);
+        }
+    }
+
+    /**
+     * Stops polling the discovery feed.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        Disposable current = pending;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Selects an instance of the target to call directly.
+     *
+     * @param target is the name of the targeted microservice.
+     * @return the instance, or null if no instance of the target is known, in which case the call
+     *         should be sent to the gateway.
+     */
+    public ServiceInstance choose(String target) {
+        List<ServiceInstance> candidates = instances.get(target);
+        if (candidates == null || candidates.isEmpty()) {
+            return null;
+        }
+        AtomicInteger position = positions.computeIfAbsent(target, key -> new AtomicInteger());
+        return candidates.get(Math.floorMod(position.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Creates a URI builder for a call to the target, which points to an instance of the target if
+     * one is known, and to the gateway otherwise. The paths of the microservices are the same as
+     * the ones of the gateway.
+     *
+     * @param target is the name of the targeted microservice.
+     * @return the URI builder, of which the scheme, host and port are set.
+     */
+    public UriComponentsBuilder uriBuilder(String target) {
+        ServiceInstance instance = choose(target);
+        return UriComponentsBuilder.newInstance()
+                .scheme("http")
+                .host(instance != null ? instance.getHost() : config.getGatewayHost())
+                .port(instance != null ? instance.getPort() : config.getGatewayPort());
+    }
+
+    /**
+     * Retrieves the discovery feed once. If the current version is known, the gateway holds back
+     * the response until the registrations change.
+     *
+     * @return whether the feed was received, which becomes available in the future.
+     */
+    public Mono<Boolean> refresh() {
+        UriComponentsBuilder uri = UriComponentsBuilder.newInstance()
+                .scheme("http")
+                .host(config.getGatewayHost())
+                .port(config.getGatewayPort())
+                .pathSegment("discovery", "feed");
+        Long known = version;
+        if (known != null) {
+            uri.queryParam("version", known);
+        }
+
+        return webClient.get().uri(uri.toUriString())
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofMillis(config.getPollTimeoutMillis()))
+                .map(body -> {
+                    Feed feed = gson.fromJson(body, Feed.class);
+                    instances = feed.getTargets() != null
+                            ? Map.copyOf(feed.getTargets())
+                            : Map.of();
+                    version = feed.getVersion();
+                    lastUpdate = System.nanoTime();
+                    return true;
+                })
+                .onErrorResume(error -> {
+                    onFailure();
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Handles a failed poll. Once the gateway has not been reachable for a while, the local copy
+     * is discarded, so that calls are sent to the gateway instead of to instances that may be gone.
+     */
+    private void onFailure() {
+        logger.error("Unable to retrieve the discovery feed from: {}:{}",
+                config.getGatewayHost(), config.getGatewayPort());
+        long staleAfter = TimeUnit.MILLISECONDS.toNanos(config.getStaleAfterMillis());
+        if (!instances.isEmpty() && System.nanoTime() - lastUpdate > staleAfter) {
+            instances = Map.of();
+            version = null;
+        }
+    }
+
+    /**
+     * Schedules the next poll. Polls follow each other immediately, as the gateway holds back the
+     * response until a change happens; failed polls are retried after <i>discovery.retryMillis</i>.
+     *
+     * @param delay is the delay until the poll.
+     */
+    private void scheduleNext(Duration delay) {
+        if (stopped) {
+            return;
+        }
+        pending = Mono.delay(delay)
+                .flatMap(tick -> refresh())
+                .subscribe(success -> scheduleNext(success
+                        ? Duration.ZERO
+                        : Duration.ofMillis(config.getRetryMillis())));
+    }
+
+    /**
+     * The discovery feed of the gateway.
+     */
+    @Data
+    private static class Feed {
+
+        // Version of the registrations
+        private long version;
+
+        // Registrations that can be called, keyed by target
+        private Map<String, List<ServiceInstance>> targets;
+    }
+}
@@ -0,0 +1,28 @@
+package nl.tudelft.sem.discovery;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.PropertySource;
+
+@Getter
+@Setter
+@ComponentScan("nl.tudelft.sem.discovery")
+@ConfigurationProperties(prefix = "discovery")
+@PropertySource(value = "classpath:discovery_default.properties")
+public class DiscoveryClientConfig {
+
+    private boolean enabled;
+
+    private String gatewayHost;
+
+    private int gatewayPort;
+
+    private long pollTimeoutMillis = 60000;
+
+    private long retryMillis = 5000;
+
+    private long staleAfterMillis = 60000;
+
+}
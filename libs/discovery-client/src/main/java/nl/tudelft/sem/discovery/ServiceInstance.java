@@ -0,0 +1,20 @@
+package nl.tudelft.sem.discovery;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Instance of a microservice that can be called directly.
+ */
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+public class ServiceInstance {
+
+    // Hostname of the instance
+    private String host;
+
+    // Port of the instance
+    private int port;
+}
@@ -0,0 +1,104 @@
+package nl.tudelft.sem.discovery;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+public class DiscoveryClientTest {
+
+    private static final String FEED = "{\"version\":3,\"targets\":{\"courses\":["
+            + "{\"host\":\"courses-1\",\"port\":8081},{\"host\":\"courses-2\",\"port\":8082}],"
+            + "\"users\":[]}}";
+
+    // Mock web server for testing
+    private transient MockWebServer mockWebServer;
+
+    private transient DiscoveryClientConfig config;
+
+    private transient DiscoveryClient discoveryClient;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        HttpUrl url = mockWebServer.url("");
+
+        config = new DiscoveryClientConfig();
+        config.setGatewayHost(url.host());
+        config.setGatewayPort(url.port());
+        discoveryClient = new DiscoveryClient(config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testFallsBackToGatewayWithoutFeed() {
+        assertNull(discoveryClient.choose("courses"));
+        assertEquals("http://" + config.getGatewayHost() + ":" + config.getGatewayPort()
+                        + "/api/courses",
+                discoveryClient.uriBuilder("courses").path("/api/courses").toUriString());
+    }
+
+    @Test
+    void testRefreshBalancesOverInstances() throws Exception {
+        enqueueFeed();
+        assertTrue(discoveryClient.refresh().block());
+
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals("/discovery/feed", recordedRequest.getPath());
+
+        // Instances are selected in a round-robin manner, targets without instances are skipped
+        assertEquals("courses-1", discoveryClient.choose("courses").getHost());
+        assertEquals("courses-2", discoveryClient.choose("courses").getHost());
+        assertEquals("http://courses-1:8081", discoveryClient.uriBuilder("courses").toUriString());
+        assertNull(discoveryClient.choose("users"));
+        assertNull(discoveryClient.choose("auth"));
+
+        // The next poll waits for a change of the known version
+        enqueueFeed();
+        assertTrue(discoveryClient.refresh().block());
+        recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals("/discovery/feed?version=3", recordedRequest.getPath());
+    }
+
+    @Test
+    void testFailureKeepsInstancesUntilStale() {
+        enqueueFeed();
+        assertTrue(discoveryClient.refresh().block());
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(discoveryClient.refresh().block());
+        assertNotNull(discoveryClient.choose("courses"));
+
+        config.setStaleAfterMillis(0);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(discoveryClient.refresh().block());
+        assertNull(discoveryClient.choose("courses"));
+    }
+
+    private void enqueueFeed() {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(FEED));
+    }
+
+}
@@ -21,4 +21,18 @@ public class HeartbeatConfig {
 
     private String microserviceName;
 
+    private long intervalMillis = 55000;
+
+    private long initialDelay;
+
+    private double jitter = 0.1;
+
+    private long initialBackoffMillis = 1000;
+
+    private long maxBackoffMillis = 30000;
+
+    private long timeoutMillis = 5000;
+
+    private long drainTimeoutMillis = 20000;
+
 }
@@ -3,18 +3,26 @@ package nl.tudelft.sem.heartbeat;
 import com.google.gson.JsonObject;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 /**
  * The HeartbeatTask class is a class that periodically emits a heartbeat to a remote gateway server
@@ -26,7 +34,22 @@ import reactor.core.publisher.Mono;
  * <i>heartbeat.gatewayPort</i> properties.
  *
  * <p>Uses default scheduling time of 55 seconds. Override this by changing the
- * <i>heartbeat.intervalMillis</i> property.
+ * <i>heartbeat.intervalMillis</i> property. Every interval is shortened randomly by up to
+ * <i>heartbeat.jitter</i> (10% by default), so that services that were started together do not
+ * keep sending their heartbeats at the same time. The jitter never lengthens the interval, as the
+ * gateway expires a registration one minute after its last heartbeat. If the gateway cannot be
+ * reached, the heartbeat is retried with exponential backoff, from
+ * <i>heartbeat.initialBackoffMillis</i> up to <i>heartbeat.maxBackoffMillis</i>.
+ *
+ * <p>Every heartbeat reports the load of the microservice (see {@link LoadMonitor}), together with
+ * the delay with which the heartbeat timer fired, which the gateway uses to steer traffic away from
+ * overloaded instances.
+ *
+ * <p>When the application shuts down, the microservice deregisters itself from the gateway, and
+ * waits for its in-flight requests to complete before the web server stops.
+ *
+ * <p>Heartbeats are sent fully asynchronously: no thread ever blocks on the network, and the host
+ * name of the machine is only resolved once, on a thread that may block.
  *
  * <p>To register this task, do the following;
  * <pre>{@code
@@ -51,41 +74,202 @@ public class HeartbeatTask {
     // Environment reference
     private final transient Environment environment;
 
+    // Measures the load signals that are reported with the heartbeats
+    private final transient LoadMonitor loadMonitor;
+
+    // Host name of the machine, which is resolved once and then cached
+    private final transient Mono<String> hostName;
+
+    // The pending heartbeat, or null if the task has not been started
+    private transient volatile Disposable pending;
+
+    // Whether the task has been stopped
+    private transient volatile boolean stopped;
+
+    // Delay with which the latest heartbeat timer fired, in milliseconds
+    private transient volatile long eventLoopLagMillis;
+
     /**
      * Constructs the GatewayController class.
+     *
+     * @param heartbeatConfig is the configuration of the heartbeat.
+     * @param environment     is the environment, used to determine the port.
+     * @param loadMonitor     measures the load signals that are reported with the heartbeats.
      */
     @Autowired
-    public HeartbeatTask(HeartbeatConfig heartbeatConfig, Environment environment) {
+    public HeartbeatTask(HeartbeatConfig heartbeatConfig, Environment environment,
+                         LoadMonitor loadMonitor) {
         this.heartbeatConfig = heartbeatConfig;
         this.environment = environment;
+        this.loadMonitor = loadMonitor;
         this.webClient = WebClient.create();
+        this.hostName = Mono.fromCallable(HeartbeatTask::resolveHostName)
+                .subscribeOn(Schedulers.boundedElastic())
+                .cache();
+    }
+
+    /**
+     * Starts sending heartbeats once the application is ready, after the
+     * <i>heartbeat.initialDelay</i>.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduleNext(Duration.ofMillis(heartbeatConfig.getInitialDelay()), 0);
+    }
+
+    /**
+     * Stops sending heartbeats.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        Disposable current = pending;
+        if (current != null) {
+            current.dispose();
+        }
+    }
+
+    /**
+     * Sends a single heartbeat in the background, without waiting for the response.
+     */
+    public void sendHeartbeat() {
+        heartbeat().subscribe();
+    }
+
+    /**
+     * Sends a heartbeat to the gateway.
+     *
+     * @return whether the gateway accepted the heartbeat, which becomes available in the future.
+     */
+    public Mono<Boolean> heartbeat() {
+        return hostName.flatMap(host -> {
+            JsonObject clientInfo = new JsonObject();
+            clientInfo.addProperty("host", host);
+            clientInfo.addProperty("port", environment.getProperty("server.port"));
+            clientInfo.add("load", loadMonitor.createReport(eventLoopLagMillis));
+            return post("register", clientInfo);
+        }).doOnNext(success -> {
+            if (!success) {
+                logger.error("Unable to register to discovery server at: {}:{}",
+                        heartbeatConfig.getGatewayHost(), heartbeatConfig.getGatewayPort());
+            }
+        });
+    }
+
+    /**
+     * Deregisters the microservice from the gateway, which then stops forwarding new requests to
+     * it.
+     *
+     * @return whether the gateway accepted the deregistration, which becomes available in the
+     *         future.
+     */
+    public Mono<Boolean> deregister() {
+        return hostName.flatMap(host -> {
+            JsonObject clientInfo = new JsonObject();
+            clientInfo.addProperty("host", host);
+            clientInfo.addProperty("port", environment.getProperty("server.port"));
+            return post("deregister", clientInfo);
+        }).doOnNext(success -> {
+            if (!success) {
+                logger.error("Unable to deregister from discovery server at: {}:{}",
+                        heartbeatConfig.getGatewayHost(), heartbeatConfig.getGatewayPort());
+            }
+        });
     }
 
     /**
-     * Send a heartbeat to the discovery server every <i>heartbeat.interval.milliseconds</i> ms.
-     * Can be configured.
+     * Drains the microservice when the application shuts down, before the web server stops: the
+     * heartbeats are stopped, the microservice is deregistered from the gateway, and the requests
+     * that are in flight are given at most <i>heartbeat.drainTimeoutMillis</i> to complete.
+     * Blocks the thread that closes the application, which is intended.
      */
-    @Scheduled(fixedRateString = "${heartbeat.intervalMillis}",
-            initialDelayString = "${heartbeat.initialDelay:0}")
-    public void sendHeartbeat() throws UnknownHostException {
-        JsonObject clientInfo = new JsonObject();
-        clientInfo.addProperty("host", InetAddress.getLocalHost().getHostName());
-        clientInfo.addProperty("port", environment.getProperty("server.port"));
-
-        // Send a scheduled request to the gateway registry server
-        webClient.post().uri(UriComponentsBuilder.newInstance()
+    @EventListener(ContextClosedEvent.class)
+    public void drain() {
+        if (pending == null || stopped) {
+            return;
+        }
+        stop();
+        if (Boolean.TRUE.equals(deregister().block())) {
+            loadMonitor.awaitIdle(Duration.ofMillis(heartbeatConfig.getDrainTimeoutMillis()));
+        }
+    }
+
+    /**
+     * Sends a request to the discovery endpoints of the gateway.
+     *
+     * @param action     is the action to perform (register or deregister).
+     * @param clientInfo is the registration info of the microservice.
+     * @return whether the gateway accepted the request, which becomes available in the future.
+     */
+    private Mono<Boolean> post(String action, JsonObject clientInfo) {
+        return webClient.post().uri(UriComponentsBuilder.newInstance()
                         .scheme("http")
                         .host(heartbeatConfig.getGatewayHost())
                         .port(heartbeatConfig.getGatewayPort())
-                        .pathSegment("discovery", "register", heartbeatConfig.getMicroserviceName())
+                        .pathSegment("discovery", action, heartbeatConfig.getMicroserviceName())
                         .toUriString())
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(BodyInserters.fromValue(clientInfo.toString()))
                 .exchange()
-                .onErrorResume(clientResponse -> {
-                    logger.error("Unable to register to discovery server at: {}:{}",
-                            heartbeatConfig.getGatewayHost(), heartbeatConfig.getGatewayPort());
-                    return Mono.empty();
-                }).block();
+                .flatMap(response -> response.releaseBody()
+                        .thenReturn(response.statusCode().is2xxSuccessful()))
+                .timeout(Duration.ofMillis(heartbeatConfig.getTimeoutMillis()))
+                .onErrorResume(error -> Mono.just(false));
+    }
+
+    /**
+     * Determines the delay until the next heartbeat. After a successful heartbeat, this is the
+     * jittered interval. After failed heartbeats, this is an exponentially growing, jittered
+     * backoff, which never exceeds the interval. The jitter only shortens the delay.
+     *
+     * @param failures is the number of consecutive failed heartbeats.
+     * @return the delay.
+     */
+    Duration nextDelay(int failures) {
+        long delay = heartbeatConfig.getIntervalMillis();
+        if (failures > 0) {
+            long backoff = heartbeatConfig.getInitialBackoffMillis()
+                    << Math.min(failures - 1, 30);
+            delay = Math.min(delay, Math.min(backoff, heartbeatConfig.getMaxBackoffMillis()));
+        }
+        double jitter = heartbeatConfig.getJitter();
+        double factor = 1 - jitter * ThreadLocalRandom.current().nextDouble();
+        return Duration.ofMillis(Math.max(0, (long) (delay * factor)));
+    }
+
+    /**
+     * Schedules the next heartbeat. The delay is awaited on a timer, hence no thread is blocked.
+     *
+     * @param delay    is the delay until the heartbeat.
+     * @param failures is the number of consecutive failed heartbeats so far.
+     */
+    private void scheduleNext(Duration delay, int failures) {
+        if (stopped) {
+            return;
+        }
+        long due = System.nanoTime() + delay.toNanos();
+        pending = Mono.delay(delay)
+                .doOnNext(tick -> eventLoopLagMillis = Math.max(0,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - due)))
+                .flatMap(tick -> heartbeat())
+                .subscribe(success -> {
+                    int updated = success ? 0 : failures + 1;
+                    scheduleNext(nextDelay(updated), updated);
+                });
+    }
+
+    /**
+     * Resolves the host name of the machine. Falls back to the loopback address if the host name
+     * cannot be resolved.
+     *
+     * @return the host name.
+     */
+    private static String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            logger.error("Unable to resolve the host name, falling back to the loopback address");
+            return InetAddress.getLoopbackAddress().getHostName();
+        }
     }
 }
@@ -0,0 +1,171 @@
+package nl.tudelft.sem.heartbeat;
+
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * The LoadMonitor class measures the lightweight load signals that are reported to the gateway
+ * with every heartbeat: the number of in-flight requests, the CPU load of the process and the
+ * heap usage. Signals that cannot be measured are reported as -1.
+ *
+ * <p>The in-flight requests are counted by registering this class as a servlet filter, which
+ * happens automatically in web applications. Asynchronous requests (e.g., of controllers that
+ * return a Mono) are counted until their response has been completed, not just until the handler
+ * has returned.
+ */
+@Component
+public class LoadMonitor extends OncePerRequestFilter {
+
+    // Interval at which the in-flight requests are checked while waiting for them to complete
+    private static final long IDLE_POLL_MILLIS = 10;
+
+    // Number of requests that are being handled
+    private final transient AtomicInteger inFlightRequests = new AtomicInteger();
+
+    // Operating system bean, used to measure the CPU load of the process
+    private final transient OperatingSystemMXBean operatingSystem =
+            ManagementFactory.getOperatingSystemMXBean();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        inFlightRequests.incrementAndGet();
+        boolean asyncStarted = false;
+        try {
+            filterChain.doFilter(request, response);
+            asyncStarted = request.isAsyncStarted();
+        } finally {
+            if (asyncStarted) {
+                request.getAsyncContext().addListener(new CompletionListener());
+            } else {
+                inFlightRequests.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of requests that are being handled.
+     *
+     * @return the number of in-flight requests.
+     */
+    public int getInFlightRequests() {
+        return inFlightRequests.get();
+    }
+
+    /**
+     * Waits until no requests are in flight anymore, or until the timeout has passed.
+     *
+     * @param timeout is the maximum time to wait.
+     * @return true if no requests are in flight, false if the timeout has passed.
+     */
+    public boolean awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlightRequests.get() > 0) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            try {
+                Thread.sleep(IDLE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the recent CPU load of the process.
+     *
+     * @return the load between 0 and 1, or -1 if it cannot be measured.
+     */
+    public double getCpuLoad() {
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean) {
+            double load = ((com.sun.management.OperatingSystemMXBean) operatingSystem)
+                    .getProcessCpuLoad();
+            return load >= 0 ? load : -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the used fraction of the maximum heap size.
+     *
+     * @return the usage between 0 and 1, or -1 if it cannot be measured.
+     */
+    public double getHeapUsage() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        long max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        return max > 0 ? (double) heap.getUsed() / max : -1;
+    }
+
+    /**
+     * Creates the load report that is sent with a heartbeat.
+     *
+     * @param eventLoopLagMillis is the delay with which the heartbeat timer fired.
+     * @return the load report.
+     */
+    public JsonObject createReport(long eventLoopLagMillis) {
+        JsonObject load = new JsonObject();
+        load.addProperty("inFlightRequests", getInFlightRequests());
+        load.addProperty("cpuLoad", getCpuLoad());
+        load.addProperty("heapUsage", getHeapUsage());
+        load.addProperty("eventLoopLagMillis", eventLoopLagMillis);
+        return load;
+    }
+
+    /**
+     * Stops counting an asynchronous request once it has completed, failed or timed out. The
+     * request is only counted down once, as a failure or timeout is followed by the completion.
+     */
+    private class CompletionListener implements AsyncListener {
+
+        // Whether the request has been counted down
+        private final transient AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            finish();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Keep listening if the request is dispatched asynchronously once more
+            event.getAsyncContext().addListener(this);
+        }
+
+        /**
+         * Counts the request down, unless it already has been.
+         */
+        private void finish() {
+            if (done.compareAndSet(false, true)) {
+                inFlightRequests.decrementAndGet();
+            }
+        }
+    }
+}
@@ -2,11 +2,20 @@ package nl.tudelft.sem.heartbeat;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import okhttp3.HttpUrl;
 import okhttp3.mockwebserver.MockResponse;
@@ -19,7 +28,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 
 @ActiveProfiles("test")
 @EnableAutoConfiguration
@@ -41,6 +59,9 @@ public class HeartbeatTaskTest {
     @Autowired
     private transient HeartbeatTask heartbeatTask;
 
+    @Autowired
+    private transient LoadMonitor loadMonitor;
+
     @BeforeAll
     static void setup() throws IOException {
         mockWebServer = new MockWebServer();
@@ -52,6 +73,8 @@ public class HeartbeatTaskTest {
         HttpUrl url = mockWebServer.url("");
         heartbeatConfig.setGatewayHost(url.host());
         heartbeatConfig.setGatewayPort(url.port());
+        heartbeatConfig.setIntervalMillis(10000);
+        heartbeatConfig.setJitter(0.1);
         //heartbeatConfig.setMicroserviceName(MICROSERVICE_NAME);
     }
 
@@ -80,6 +103,13 @@ public class HeartbeatTaskTest {
                         .readUtf8())
                 .getAsJsonObject();
         assertEquals(PORT, parsed.get("port").getAsInt());
+
+        // Verify the reported load
+        JsonObject load = parsed.getAsJsonObject("load");
+        assertEquals(0, load.get("inFlightRequests").getAsInt());
+        assertTrue(load.get("heapUsage").getAsDouble() > 0);
+        assertTrue(load.has("cpuLoad"));
+        assertTrue(load.has("eventLoopLagMillis"));
     }
 
     @Test
@@ -104,4 +134,163 @@ public class HeartbeatTaskTest {
         assertEquals(PORT, parsed.get("port").getAsInt());
     }
 
+    @Test
+    void testHeartbeatReportsOutcome() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        assertTrue(heartbeatTask.heartbeat().block());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        assertFalse(heartbeatTask.heartbeat().block());
+
+        // Both heartbeats should have reached the gateway
+        assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+        assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testIntervalIsJittered() {
+        for (int i = 0; i < 100; i++) {
+            Duration delay = heartbeatTask.nextDelay(0);
+            assertTrue(delay.toMillis() >= 9000 && delay.toMillis() <= 10000);
+        }
+    }
+
+    @Test
+    void testDefaultIntervalStaysWithinRegistrationExpiry() throws IOException {
+        Properties defaults = new Properties();
+        try (InputStream inputStream = getClass().getResourceAsStream(
+                "/heartbeat_default.properties")) {
+            defaults.load(inputStream);
+        }
+        heartbeatConfig.setIntervalMillis(
+                Long.parseLong(defaults.getProperty("heartbeat.intervalMillis")));
+        heartbeatConfig.setJitter(Double.parseDouble(defaults.getProperty("heartbeat.jitter")));
+
+        // The gateway expires a registration one minute after its last heartbeat
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(heartbeatTask.nextDelay(0).toMillis() < 60000);
+        }
+    }
+
+    @Test
+    void testBackoffGrowsExponentially() {
+        heartbeatConfig.setJitter(0);
+        assertEquals(1000, heartbeatTask.nextDelay(1).toMillis());
+        assertEquals(2000, heartbeatTask.nextDelay(2).toMillis());
+        assertEquals(8000, heartbeatTask.nextDelay(4).toMillis());
+
+        // The backoff never exceeds the interval
+        assertEquals(10000, heartbeatTask.nextDelay(10).toMillis());
+        assertEquals(10000, heartbeatTask.nextDelay(100).toMillis());
+    }
+
+    @Test
+    void testDeregister() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        assertTrue(heartbeatTask.deregister().block());
+
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals("POST", recordedRequest.getMethod());
+        assertEquals("/discovery/deregister/test-microservice", recordedRequest.getPath());
+        JsonObject parsed = JsonParser.parseString(recordedRequest
+                        .getBody()
+                        .readUtf8())
+                .getAsJsonObject();
+        assertEquals(PORT, parsed.get("port").getAsInt());
+    }
+
+    @Test
+    void testAwaitIdle() throws Exception {
+        assertTrue(loadMonitor.awaitIdle(Duration.ZERO));
+
+        // Keep a request in flight until it is released
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread request = new Thread(() -> {
+            try {
+                loadMonitor.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            started.countDown();
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        request.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(1, loadMonitor.getInFlightRequests());
+        assertFalse(loadMonitor.awaitIdle(Duration.ofMillis(50)));
+
+        release.countDown();
+        assertTrue(loadMonitor.awaitIdle(Duration.ofSeconds(1)));
+        request.join();
+    }
+
+    @Test
+    void testAsyncRequestCountedUntilCompleted() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        loadMonitor.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> req.startAsync());
+
+        // The handler returned, but the response has not been completed yet
+        assertEquals(1, loadMonitor.getInFlightRequests());
+        assertFalse(loadMonitor.awaitIdle(Duration.ofMillis(50)));
+
+        request.getAsyncContext().complete();
+        assertEquals(0, loadMonitor.getInFlightRequests());
+    }
+
+    @Test
+    void testDrainWaitsForDeferredResponse() throws Exception {
+        DeferredController controller = new DeferredController();
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(loadMonitor)
+                .build();
+
+        // Start a request of which the Mono has not completed yet
+        final MvcResult result = mockMvc.perform(get("/deferred"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, loadMonitor.getInFlightRequests());
+
+        // Drain while the request is pending
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        heartbeatConfig.setDrainTimeoutMillis(5000);
+        Thread drain = new Thread(heartbeatTask::drain);
+        drain.start();
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals("/discovery/deregister/test-microservice", recordedRequest.getPath());
+        drain.join(200);
+        assertTrue(drain.isAlive());
+
+        // Completing the response ends the drain
+        controller.response.onNext("done");
+        mockMvc.perform(asyncDispatch(result));
+        drain.join(1000);
+        assertFalse(drain.isAlive());
+        assertEquals(0, loadMonitor.getInFlightRequests());
+    }
+
+    /**
+     * Controller of which the response only completes once the test completes it.
+     */
+    @RestController
+    private static class DeferredController {
+
+        // The pending response
+        private final transient MonoProcessor<String> response = MonoProcessor.create();
+
+        @GetMapping("/deferred")
+        public Mono<String> deferred() {
+            return response;
+        }
+    }
+
 }
@@ -0,0 +1,17 @@
+package nl.tudelft.sem.jwt;
+
+import lombok.Data;
+
+/**
+ * The Identity class holds the user ID and role of an authenticated user,
+ *   as resolved from either a JWT token or an identity header of the gateway.
+ */
+@Data
+public class Identity {
+
+    // The user ID of the user
+    private final long userId;
+
+    // The role of the user (STUDENT, LECTURER, TA, ADMIN)
+    private final String role;
+}
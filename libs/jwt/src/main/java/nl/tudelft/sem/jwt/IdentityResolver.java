@@ -0,0 +1,69 @@
+package nl.tudelft.sem.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The IdentityResolver class resolves the identity of the user that performed a request.
+ *
+ * <p>If the gateway has already validated the JWT token, it attaches a signed identity header
+ *   (see {@link JwtUtils#createIdentity}) to the forwarded request. This header is trusted
+ *   without parsing and verifying the JWT token again. Requests without a valid identity header
+ *   fall back to validating the JWT token in the <i>Authorization</i> header.</p>
+ */
+public class IdentityResolver {
+
+    // Name of the header that contains the identity of the user
+    public static final String IDENTITY_HEADER = "X-Authenticated-Identity";
+
+    private final transient JwtUtils jwtUtils;
+
+    /**
+     * Creates an identity resolver.
+     *
+     * @param jwtUtils  the JWT utilities used to verify identity headers and tokens.
+     */
+    public IdentityResolver(JwtUtils jwtUtils) {
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * Resolves the identity of the user from the headers of a request.
+     *
+     * @param headers   the headers of the request.
+     * @return the identity of the user, null if neither the identity header nor the JWT token
+     *         is valid.
+     */
+    public Identity resolve(HttpHeaders headers) {
+        return resolve(headers.getFirst(HttpHeaders.AUTHORIZATION),
+                headers.getFirst(IDENTITY_HEADER));
+    }
+
+    /**
+     * Resolves the identity of the user from the headers of a request.
+     *
+     * @param bearerToken       the value of the Authorization header (prefixed with 'Bearer ').
+     * @param identityHeader    the value of the identity header, or null if there is none.
+     * @return the identity of the user, null if neither the identity header nor the JWT token
+     *         is valid.
+     */
+    public Identity resolve(String bearerToken, String identityHeader) {
+        if (identityHeader != null) {
+            Identity identity = jwtUtils.verifyIdentity(identityHeader);
+            if (identity != null) {
+                return identity;
+            }
+        }
+
+        String token = jwtUtils.resolveToken(bearerToken);
+        if (token == null) {
+            return null;
+        }
+        Jws<Claims> claims = jwtUtils.validateAndParseClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        return new Identity(jwtUtils.getUserId(claims), jwtUtils.getRole(claims));
+    }
+}
@@ -4,7 +4,13 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Date;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,12 +38,32 @@ import org.springframework.context.annotation.PropertySource;
 @PropertySource(value = "classpath:jwt_default.properties")
 public class JwtUtils {
 
+    // Prefix of the signed content of identity headers, which separates them from JWT tokens
+    private static final String IDENTITY_PREFIX = "identity.";
+
     private final transient Key secretKey;
 
+    // Mac instances are not thread-safe, hence every thread gets its own instance
+    private final transient ThreadLocal<Mac> identityMac;
+
+    /**
+     * Creates the JWT utilities.
+     *
+     * @param secretKeyString   the secret key that is shared by all microservices.
+     */
     @Autowired
     public JwtUtils(@Value("${jwt.secretKeyString}") String secretKeyString) {
         this.secretKey = new SecretKeySpec(secretKeyString.getBytes(),
                 SignatureAlgorithm.HS256.getJcaName());
+        this.identityMac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(secretKey.getAlgorithm());
+                mac.init(secretKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
     }
 
     /**
@@ -100,10 +126,67 @@ public class JwtUtils {
      * @return the role of the user from JWT (STUDENT, LECTURER, TA, ADMIN)
      */
     public String getRole(Jws<Claims> claims) {
-        return claims
+        Object role = claims
                 .getBody()
-                .get("role")
-                .toString();
+                .get("role");
+        return role == null ? null : role.toString();
+    }
+
+    /**
+     * Creates a compact identity header with the user ID and role from the parsed JWS claims,
+     *   which expires together with the token. The header is signed with the secret key,
+     *   so that it can be verified without parsing the token again.
+     * NB! Assumes that the token from which the claims have been parsed is valid.
+     *     Call validateAndParseClaims method above first.
+     *
+     * @param claims    parsed JWS claims.
+     * @return the identity header in the format 'userId.role.expiration.signature'.
+     */
+    public String createIdentity(Jws<Claims> claims) {
+        Date expiration = claims.getBody().getExpiration();
+        String content = getUserId(claims) + "." + getRole(claims) + "."
+                + (expiration == null ? Long.MAX_VALUE : expiration.getTime());
+        return content + "." + sign(content);
+    }
+
+    /**
+     * Verifies an identity header that has been created by the createIdentity method above.
+     *
+     * @param identity  the identity header.
+     * @return the identity from the header if it is valid (not expired and not corrupted),
+     *         null otherwise
+     */
+    public Identity verifyIdentity(String identity) {
+        try {
+            int signatureStart = identity.lastIndexOf('.');
+            String content = identity.substring(0, signatureStart);
+            byte[] signature = identity.substring(signatureStart + 1)
+                    .getBytes(StandardCharsets.US_ASCII);
+            if (!MessageDigest.isEqual(sign(content).getBytes(StandardCharsets.US_ASCII),
+                    signature)) {
+                return null;
+            }
+
+            String[] parts = content.split("\\.");
+            if (parts.length != 3 || Long.parseLong(parts[2]) <= System.currentTimeMillis()) {
+                return null;
+            }
+            return new Identity(Long.parseLong(parts[0]), parts[1]);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Signs the content of an identity header.
+     *
+     * @param content   the content to sign.
+     * @return the Base64URL-encoded signature.
+     */
+    private String sign(String content) {
+        byte[] signature = identityMac.get()
+                .doFinal((IDENTITY_PREFIX + content).getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
     }
 
 }
@@ -0,0 +1,85 @@
+package nl.tudelft.sem.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Date;
+import javax.crypto.spec.SecretKeySpec;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+
+class IdentityResolverTest {
+    private final transient String secretKeyString =
+            "correcthorsebatterystaplecorrecthorsebatterystaple";
+    private final transient JwtUtils jwtUtils = new JwtUtils(secretKeyString);
+    private final transient IdentityResolver identityResolver = new IdentityResolver(jwtUtils);
+
+    private final transient long userId = 4242L;
+
+
+    /**
+     * A helper method to create a JWT token that is valid for 10 minutes.
+     *
+     * @param userId    the user ID of the user
+     * @param role      the role of the user
+     * @return the created and signed JWT token
+     */
+    private String createToken(long userId, String role) {
+        Claims claims = Jwts.claims().setSubject(String.valueOf(userId));
+        claims.put("role", role);
+        return Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(new Date(System.currentTimeMillis() + 600000))
+                .signWith(new SecretKeySpec(secretKeyString.getBytes(),
+                        SignatureAlgorithm.HS256.getJcaName()))
+                .compact();
+    }
+
+    @Test
+    void resolveFromTokenTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(createToken(userId, "STUDENT"));
+
+        Assertions
+            .assertThat(identityResolver.resolve(headers))
+            .isEqualTo(new Identity(userId, "STUDENT"));
+    }
+
+    @Test
+    void resolveFromIdentityHeaderTest() {
+        String jwt = createToken(userId, "LECTURER");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdentityResolver.IDENTITY_HEADER,
+                jwtUtils.createIdentity(jwtUtils.validateAndParseClaims(jwt)));
+
+        Assertions
+            .assertThat(identityResolver.resolve(headers))
+            .isEqualTo(new Identity(userId, "LECTURER"));
+    }
+
+    @Test
+    void resolveInvalidIdentityHeaderFallsBackTest() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(createToken(userId, "TA"));
+        headers.set(IdentityResolver.IDENTITY_HEADER, "1.ADMIN.9999999999999.forged");
+
+        Assertions
+            .assertThat(identityResolver.resolve(headers))
+            .isEqualTo(new Identity(userId, "TA"));
+    }
+
+    @Test
+    void resolveInvalidTest() {
+        Assertions
+            .assertThat(identityResolver.resolve(new HttpHeaders()))
+            .isNull();
+        Assertions
+            .assertThat(identityResolver.resolve("Bear " + createToken(userId, "TA"), null))
+            .isNull();
+        Assertions
+            .assertThat(identityResolver.resolve("Bearer corrupted", null))
+            .isNull();
+    }
+}
@@ -114,4 +114,65 @@ class JwtUtilsTest {
             .assertThat(jwtUtils.getRole(claimsJws))
             .isEqualTo("ADMIN");
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRoleMissingTest() {
+        Claims claims = Jwts.claims().setSubject(String.valueOf(userId));
+        String jwt = Jwts.builder().setClaims(claims).signWith(secretKey).compact();
+
+        Assertions
+            .assertThat(jwtUtils.getRole(jwtUtils.validateAndParseClaims(jwt)))
+            .isNull();
+    }
+
+    @Test
+    void verifyIdentityValidTest() {
+        String jwt = createToken(userId, "LECTURER", new Date(), 10);
+        String identity = jwtUtils.createIdentity(jwtUtils.validateAndParseClaims(jwt));
+
+        Assertions
+            .assertThat(jwtUtils.verifyIdentity(identity))
+            .isEqualTo(new Identity(userId, "LECTURER"));
+    }
+
+    @Test
+    void verifyIdentityTamperedTest() {
+        String jwt = createToken(userId, "STUDENT", new Date(), 10);
+        String identity = jwtUtils.createIdentity(jwtUtils.validateAndParseClaims(jwt));
+
+        Assertions
+            .assertThat(jwtUtils.verifyIdentity(identity.replace("STUDENT", "ADMIN")))
+            .isNull();
+    }
+
+    @Test
+    void verifyIdentityOtherKeyTest() {
+        String jwt = createToken(userId, "STUDENT", new Date(), 10);
+        String identity = jwtUtils.createIdentity(jwtUtils.validateAndParseClaims(jwt));
+
+        Assertions
+            .assertThat(new JwtUtils(secretKeyString + "other").verifyIdentity(identity))
+            .isNull();
+    }
+
+    @Test
+    void verifyIdentityExpiredTest() {
+        String jwt = createToken(userId, "TA", new Date(), 10);
+        Jws<Claims> claims = jwtUtils.validateAndParseClaims(jwt);
+        claims.getBody().setExpiration(new Date(System.currentTimeMillis() - 1000));
+
+        Assertions
+            .assertThat(jwtUtils.verifyIdentity(jwtUtils.createIdentity(claims)))
+            .isNull();
+    }
+
+    @Test
+    void verifyIdentityCorruptedTest() {
+        Assertions
+            .assertThat(jwtUtils.verifyIdentity("not an identity"))
+            .isNull();
+        Assertions
+            .assertThat(jwtUtils.verifyIdentity(""))
+            .isNull();
+    }
+}
@@ -0,0 +1,91 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Contention benchmark for the registration lookups of the discovery registry. Compares the
+ * lock-free lookups against a round robin that is guarded by a single monitor (which is how the
+ * registry used to select registrations), using one thread and all available cores.
+ *
+ * <p>The throughput of the lock-free lookups should scale with the number of threads, whereas the
+ * throughput of the monitor-based lookups should stay flat or even decrease.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiscoveryRegistryBenchmark {
+
+    // Number of registrations of the benchmarked target
+    private static final int REGISTRATIONS = 4;
+
+    private transient DiscoveryRegistry registry;
+
+    private transient SynchronizedRoundRobin synchronizedRoundRobin;
+
+    /**
+     * Fills both registries with the same registrations.
+     */
+    @Setup
+    public void setup() {
+        registry = new DiscoveryRegistry(1);
+        synchronizedRoundRobin = new SynchronizedRoundRobin();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            Registration registration = new Registration("localhost", 8000 + i);
+            registry.addRegistration(registration);
+            synchronizedRoundRobin.add(registration);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Registration lockFreeSingleThread() {
+        return registry.getRegistration();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Registration lockFreeAllCores() {
+        return registry.getRegistration();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Registration synchronizedSingleThread() {
+        return synchronizedRoundRobin.next();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Registration synchronizedAllCores() {
+        return synchronizedRoundRobin.next();
+    }
+
+    /**
+     * Round robin over a queue guarded by a single monitor, used as the baseline.
+     */
+    private static class SynchronizedRoundRobin {
+
+        private final transient Queue<Registration> queue = new LinkedList<>();
+
+        synchronized void add(Registration registration) {
+            queue.add(registration);
+        }
+
+        synchronized Registration next() {
+            Registration registration = queue.poll();
+            queue.add(registration);
+            return registration;
+        }
+    }
+
+}
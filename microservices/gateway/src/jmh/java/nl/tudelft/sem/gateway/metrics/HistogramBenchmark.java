@@ -0,0 +1,50 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Overhead benchmark for recording latencies in the histograms of the gateway metrics, using one
+ * thread and all available cores. Every forwarded call records a few values, hence a single
+ * recording should take a small fraction of a microsecond, also when all cores record into the
+ * same histogram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistogramBenchmark {
+
+    // Highest recorded latency in nanoseconds
+    private static final long MAX_LATENCY = TimeUnit.SECONDS.toNanos(1);
+
+    private transient LatencyHistogram histogram;
+
+    /**
+     * Creates an empty histogram.
+     */
+    @Setup
+    public void setup() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void recordSingleThread() {
+        histogram.record(ThreadLocalRandom.current().nextLong(MAX_LATENCY));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void recordAllCores() {
+        histogram.record(ThreadLocalRandom.current().nextLong(MAX_LATENCY));
+    }
+
+}
@@ -1,9 +1,14 @@
 package nl.tudelft.sem.gateway;
 
+import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
+@Import(JwtUtils.class)
 public class GatewayMain {
 
     public static void main(String[] args) {
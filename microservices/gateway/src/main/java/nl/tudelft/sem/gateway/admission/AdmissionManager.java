@@ -0,0 +1,107 @@
+package nl.tudelft.sem.gateway.admission;
+
+import com.google.common.base.Ticker;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import nl.tudelft.sem.gateway.config.AdmissionConfig;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Manages the admission control of all targets. Every target receives its own concurrency limit
+ * and queue, so a slow target cannot exhaust the gateway for the other targets.
+ */
+@Component
+public class AdmissionManager {
+
+    // Settings of the admission control
+    private final transient AdmissionConfig config;
+
+    // Source of time used to measure the latency of the calls
+    private final transient Ticker ticker;
+
+    // The admission control per target
+    private final transient ConcurrentMap<String, TargetLimiter> limiters;
+
+    /**
+     * Constructs the admission manager.
+     *
+     * @param config is the configuration of the admission control.
+     */
+    @Autowired
+    public AdmissionManager(AdmissionConfig config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs the admission manager.
+     *
+     * @param config is the configuration of the admission control.
+     * @param ticker is the source of time used to measure the latency of the calls.
+     */
+    public AdmissionManager(AdmissionConfig config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+        this.limiters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Admits a call to a target, once the concurrency limit of the target allows it.
+     *
+     * @param target is the name of the target.
+     * @param call   is the call to the target.
+     * @param <T>    is the type of the response.
+     * @return the admitted call, which fails with status 503 if it is shed.
+     */
+    public <T> Mono<T> admit(String target, Mono<T> call) {
+        if (!config.isEnabled()) {
+            return call;
+        }
+        return limiters.computeIfAbsent(target, this::createLimiter).admit(call);
+    }
+
+    /**
+     * Admits a call to an instance of a target, once the concurrency limit of the target allows
+     * it. The call counts as outstanding on the instance while it waits in the queue, so the
+     * balancing strategies see the calls that are about to reach the instance.
+     *
+     * @param target   is the name of the target.
+     * @param instance is the instance that the call is forwarded to.
+     * @param call     is the call to the instance.
+     * @param <T>      is the type of the response.
+     * @return the admitted call, which fails with status 503 if it is shed.
+     */
+    public <T> Mono<T> admit(String target, RegisteredInstance instance, Mono<T> call) {
+        return instance.track(admit(target, call));
+    }
+
+    /**
+     * Returns the statistics of all targets that have received calls.
+     *
+     * @return the statistics, keyed by the name of the target.
+     */
+    public Map<String, AdmissionStatistics> getStatistics() {
+        Map<String, AdmissionStatistics> statistics = new TreeMap<>();
+        limiters.forEach((target, limiter) -> statistics.put(target, limiter.getStatistics()));
+        return statistics;
+    }
+
+    /**
+     * Creates the admission control of a new target.
+     *
+     * @param target is the name of the target.
+     * @return the admission control.
+     */
+    private TargetLimiter createLimiter(String target) {
+        ConcurrencyLimit limit = config.getAlgorithm() == LimitAlgorithm.AIMD
+                ? new AimdLimit(config)
+                : new FixedLimit(config.getInitialLimit());
+        return new TargetLimiter(target, limit, config.getMaxQueueSize(),
+                config.getQueueTimeout(), ticker);
+    }
+
+}
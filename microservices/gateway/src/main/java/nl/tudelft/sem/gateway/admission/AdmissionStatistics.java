@@ -0,0 +1,24 @@
+package nl.tudelft.sem.gateway.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Statistics of the admission control of a single target.
+ */
+@AllArgsConstructor
+@Data
+public class AdmissionStatistics {
+
+    // Current concurrency limit
+    private int limit;
+
+    // Number of calls that are currently in flight
+    private int inFlight;
+
+    // Number of calls that are waiting for the concurrency limit
+    private int queued;
+
+    // Number of calls that have been shed
+    private long rejected;
+}
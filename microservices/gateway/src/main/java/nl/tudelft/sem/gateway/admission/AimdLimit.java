@@ -0,0 +1,54 @@
+package nl.tudelft.sem.gateway.admission;
+
+import nl.tudelft.sem.gateway.config.AdmissionConfig;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit. The limit grows by one for every
+ * fast call that completes while the limit is being used, and shrinks by the backoff ratio for
+ * every call that fails or exceeds the latency threshold. The limit only grows while at least half
+ * of it is in use, so that an idle target does not build up a limit it cannot sustain.
+ */
+public class AimdLimit implements ConcurrencyLimit {
+
+    // Lower bound of the limit
+    private final transient int minLimit;
+
+    // Upper bound of the limit
+    private final transient int maxLimit;
+
+    // Latency at which a call signals overload, in nanoseconds
+    private final transient long latencyThresholdNanos;
+
+    // Factor by which the limit is decreased on overload
+    private final transient double backoffRatio;
+
+    // The concurrency limit, which is kept fractional so that repeated backoffs compound
+    private transient double limit;
+
+    /**
+     * Constructs an AIMD concurrency limit.
+     *
+     * @param config is the configuration of the admission control.
+     */
+    public AimdLimit(AdmissionConfig config) {
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.backoffRatio = config.getBackoffRatio();
+        this.limit = config.getInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        if (dropped || latencyNanos >= latencyThresholdNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= getLimit()) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+}
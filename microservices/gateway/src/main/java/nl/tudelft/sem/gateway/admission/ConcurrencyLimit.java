@@ -0,0 +1,26 @@
+package nl.tudelft.sem.gateway.admission;
+
+/**
+ * The interface that provides the maximum number of concurrent calls to a target. Adaptive
+ * implementations size the limit from the outcomes of the calls.
+ *
+ * <p>Implementations are only invoked while holding the lock of their {@link TargetLimiter}.
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return the maximum number of concurrent calls.
+     */
+    int getLimit();
+
+    /**
+     * Feeds the outcome of a call to the limit.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     * @param inFlight     is the number of calls that were in flight when the call completed.
+     * @param dropped      is whether the call failed.
+     */
+    void onSample(long latencyNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,29 @@
+package nl.tudelft.sem.gateway.admission;
+
+/**
+ * Concurrency limit that never changes.
+ */
+public class FixedLimit implements ConcurrencyLimit {
+
+    // The concurrency limit
+    private final transient int limit;
+
+    /**
+     * Constructs a fixed concurrency limit.
+     *
+     * @param limit is the maximum number of concurrent calls.
+     */
+    public FixedLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        // The limit does not depend on the outcomes of the calls
+    }
+}
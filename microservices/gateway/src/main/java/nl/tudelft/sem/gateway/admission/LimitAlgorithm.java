@@ -0,0 +1,11 @@
+package nl.tudelft.sem.gateway.admission;
+
+/**
+ * An enum that represents the algorithms that determine the concurrency limit of a target.
+ */
+public enum LimitAlgorithm {
+    // The limit is fixed to the initial limit
+    FIXED,
+    // The limit grows by one while calls are fast, and shrinks by a ratio when they fail or slow
+    AIMD
+}
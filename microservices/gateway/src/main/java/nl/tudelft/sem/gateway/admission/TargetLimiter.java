@@ -0,0 +1,214 @@
+package nl.tudelft.sem.gateway.admission;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Admission control of a single target. At most <i>limit</i> calls are forwarded to the target
+ * concurrently. Further calls wait in a bounded FIFO queue, without blocking a thread, until a
+ * call completes. Calls that find the queue full, or that wait longer than the queue timeout, are
+ * shed with status 503 (Service Unavailable), instead of piling up in the gateway.
+ */
+public class TargetLimiter {
+
+    // States of a queued call
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int DELIVERED = 2;
+    private static final int ABANDONED = 3;
+
+    // Name of the target
+    private final transient String target;
+
+    // Determines the maximum number of concurrent calls
+    private final transient ConcurrencyLimit limit;
+
+    // Maximum number of queued calls
+    private final transient int maxQueueSize;
+
+    // Maximum time a call may wait in the queue
+    private final transient Duration queueTimeout;
+
+    // Source of time used to measure the latency of the calls
+    private final transient Ticker ticker;
+
+    // Calls that wait for the concurrency limit, in order of arrival
+    private final transient Deque<Waiter> queue;
+
+    // Number of calls in flight
+    private transient int inFlight;
+
+    // Number of calls that have been shed
+    private final transient LongAdder rejected;
+
+    /**
+     * Constructs the admission control of a target.
+     *
+     * @param target       is the name of the target.
+     * @param limit        determines the maximum number of concurrent calls.
+     * @param maxQueueSize is the maximum number of queued calls.
+     * @param queueTimeout is the maximum time a call may wait in the queue.
+     * @param ticker       is the source of time used to measure the latency of the calls.
+     */
+    public TargetLimiter(String target, ConcurrencyLimit limit, int maxQueueSize,
+                         Duration queueTimeout, Ticker ticker) {
+        this.target = target;
+        this.limit = limit;
+        this.maxQueueSize = maxQueueSize;
+        this.queueTimeout = queueTimeout;
+        this.ticker = ticker;
+        this.queue = new ArrayDeque<>();
+        this.rejected = new LongAdder();
+    }
+
+    /**
+     * Admits a call to the target, once the concurrency limit allows it. The outcome of the call is
+     * fed to the concurrency limit.
+     *
+     * @param call is the call to the target.
+     * @param <T>  is the type of the response.
+     * @return the admitted call, which fails with status 503 if it is shed.
+     */
+    public <T> Mono<T> admit(Mono<T> call) {
+        return acquire().flatMap(permit -> {
+            long start = ticker.read();
+            return call.doFinally(signal ->
+                    release(ticker.read() - start, signal == SignalType.ON_ERROR));
+        });
+    }
+
+    /**
+     * Returns the statistics of the admission control.
+     *
+     * @return the statistics.
+     */
+    public synchronized AdmissionStatistics getStatistics() {
+        return new AdmissionStatistics(limit.getLimit(), inFlight, queue.size(), rejected.sum());
+    }
+
+    /**
+     * Acquires a permit to forward a call, or waits in the queue for one.
+     *
+     * @return a permit that becomes available in the future.
+     */
+    private Mono<Boolean> acquire() {
+        return Mono.defer(() -> {
+            Waiter waiter;
+            synchronized (this) {
+                if (queue.isEmpty() && inFlight < limit.getLimit()) {
+                    inFlight++;
+                    return Mono.just(true);
+                }
+                if (queue.size() >= maxQueueSize) {
+                    return Mono.error(shed());
+                }
+                waiter = new Waiter();
+                queue.add(waiter);
+            }
+
+            return waiter.permit
+                    .timeout(queueTimeout)
+                    .doOnNext(permit -> waiter.state.compareAndSet(GRANTED, DELIVERED))
+                    .doOnError(TimeoutException.class, error -> abandon(waiter))
+                    .doOnCancel(() -> abandon(waiter))
+                    .onErrorMap(TimeoutException.class, error -> shed());
+        });
+    }
+
+    /**
+     * Releases the permit of a completed call, and admits queued calls if the limit allows it.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     * @param dropped      is whether the call failed.
+     */
+    private void release(long latencyNanos, boolean dropped) {
+        List<Waiter> admitted;
+        synchronized (this) {
+            limit.onSample(latencyNanos, inFlight, dropped);
+            inFlight--;
+            admitted = drain();
+        }
+
+        // Resume the admitted calls outside of the lock, as they start forwarding right away
+        admitted.forEach(waiter -> waiter.permit.onNext(true));
+    }
+
+    /**
+     * Removes a queued call that timed out or was cancelled. If a permit was granted to it in the
+     * meantime, but has not reached the call, the permit is released again.
+     *
+     * @param waiter is the queued call.
+     */
+    private void abandon(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, ABANDONED)) {
+            synchronized (this) {
+                queue.remove(waiter);
+            }
+            return;
+        }
+        if (!waiter.state.compareAndSet(GRANTED, ABANDONED)) {
+            return;
+        }
+
+        List<Waiter> admitted;
+        synchronized (this) {
+            inFlight--;
+            admitted = drain();
+        }
+        admitted.forEach(next -> next.permit.onNext(true));
+    }
+
+    /**
+     * Grants permits to queued calls, in order of arrival, while the limit allows it. Must be
+     * invoked while holding the lock.
+     *
+     * @return the calls that have been granted a permit.
+     */
+    private List<Waiter> drain() {
+        List<Waiter> admitted = new ArrayList<>();
+        while (!queue.isEmpty() && inFlight < limit.getLimit()) {
+            Waiter waiter = queue.poll();
+            if (waiter.state.compareAndSet(WAITING, GRANTED)) {
+                inFlight++;
+                admitted.add(waiter);
+            }
+        }
+        return admitted;
+    }
+
+    /**
+     * Creates the exception of a call that is shed.
+     *
+     * @return the exception.
+     */
+    private ResponseStatusException shed() {
+        rejected.increment();
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent requests to '" + target + "', please try again later");
+    }
+
+    /**
+     * A call that waits in the queue.
+     */
+    private static class Waiter {
+
+        // Completed once the call has been granted a permit
+        private final transient MonoProcessor<Boolean> permit = MonoProcessor.create();
+
+        // Whether the call is waiting, has been granted or delivered a permit, or was abandoned
+        private final transient AtomicInteger state = new AtomicInteger(WAITING);
+    }
+
+}
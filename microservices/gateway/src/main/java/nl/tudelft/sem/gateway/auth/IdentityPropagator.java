@@ -0,0 +1,161 @@
+package nl.tudelft.sem.gateway.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import java.time.Duration;
+import java.util.Date;
+import nl.tudelft.sem.gateway.config.IdentityConfig;
+import nl.tudelft.sem.jwt.IdentityResolver;
+import nl.tudelft.sem.jwt.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates the JWT token of a call once, and forwards the identity of the user as a signed
+ * identity header. The microservices trust this header (see {@link IdentityResolver}), instead of
+ * parsing and verifying the JWT token over and over again. Identity headers sent by callers are
+ * always removed. The verified user ID is also used by the gateway itself (e.g., to rate limit
+ * callers).
+ */
+@Component
+public class IdentityPropagator {
+
+    // Maximum number of tokens of which the identity is cached
+    private static final int CACHE_SIZE = 10_000;
+
+    // Time after which the identity of a token is determined again, unless the token expires
+    // earlier
+    private static final Duration CACHE_TTL = Duration.ofMinutes(1);
+
+    // Value that is cached for invalid tokens
+    private static final VerifiedToken INVALID = new VerifiedToken(null, null, Long.MAX_VALUE);
+
+    // Settings of the identity propagation
+    private final transient IdentityConfig config;
+
+    // Used to validate tokens and to sign identity headers
+    private final transient JwtUtils jwtUtils;
+
+    // Recently seen tokens, as callers send the same token many times
+    private final transient Cache<String, VerifiedToken> identities;
+
+    /**
+     * Constructs the identity propagator.
+     *
+     * @param config   is the configuration of the identity propagation.
+     * @param jwtUtils is used to validate tokens and to sign identity headers.
+     */
+    @Autowired
+    public IdentityPropagator(IdentityConfig config, JwtUtils jwtUtils) {
+        this.config = config;
+        this.jwtUtils = jwtUtils;
+        this.identities = CacheBuilder.newBuilder()
+                .maximumSize(CACHE_SIZE)
+                .expireAfterWrite(CACHE_TTL)
+                .build();
+    }
+
+    /**
+     * Creates the headers that are forwarded to the microservice.
+     *
+     * @param headers is a collection of headers that is part of the initial request.
+     * @return a copy of the headers, which contains the identity header if the propagation is
+     *         enabled and the call has a valid JWT token.
+     */
+    public HttpHeaders propagate(HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        forwarded.addAll(headers);
+        forwarded.remove(IdentityResolver.IDENTITY_HEADER);
+        if (!config.isEnabled()) {
+            return forwarded;
+        }
+
+        String identity = verify(headers).identity;
+        if (identity != null) {
+            forwarded.set(IdentityResolver.IDENTITY_HEADER, identity);
+        }
+        return forwarded;
+    }
+
+    /**
+     * Resolves the user ID of the caller from its JWT token.
+     *
+     * @param headers is a collection of headers that is part of the initial request.
+     * @return the user ID, or null if the call does not have a valid JWT token.
+     */
+    public Long resolveUserId(HttpHeaders headers) {
+        return verify(headers).userId;
+    }
+
+    /**
+     * Verifies the JWT token of a call, or retrieves the outcome of an earlier verification. The
+     * outcome is not reused once the token has expired, even if the cache still holds it.
+     *
+     * @param headers is a collection of headers that is part of the initial request.
+     * @return the verified token, or INVALID if the call does not have a valid token.
+     */
+    private VerifiedToken verify(HttpHeaders headers) {
+        String token = jwtUtils.resolveToken(headers.getFirst(HttpHeaders.AUTHORIZATION));
+        if (token == null) {
+            return INVALID;
+        }
+
+        VerifiedToken verified = identities.getIfPresent(token);
+        if (verified == null || verified.expiresAt <= System.currentTimeMillis()) {
+            verified = createVerifiedToken(token);
+            identities.put(token, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * Validates a token, and creates the identity header of the user.
+     *
+     * @param token is the JWT token, without prefix.
+     * @return the verified token, or INVALID if the token is invalid.
+     */
+    private VerifiedToken createVerifiedToken(String token) {
+        Jws<Claims> claims = jwtUtils.validateAndParseClaims(token);
+        if (claims == null) {
+            return INVALID;
+        }
+        String identity = config.isEnabled() && jwtUtils.getRole(claims) != null
+                ? jwtUtils.createIdentity(claims)
+                : null;
+        Date expiration = claims.getBody().getExpiration();
+        return new VerifiedToken(jwtUtils.getUserId(claims), identity,
+                expiration == null ? Long.MAX_VALUE : expiration.getTime());
+    }
+
+    /**
+     * Outcome of the verification of a token.
+     */
+    private static class VerifiedToken {
+
+        // User ID of the user, or null if the token is invalid
+        private final transient Long userId;
+
+        // Identity header of the user, or null if none should be forwarded
+        private final transient String identity;
+
+        // Time (epoch milliseconds) at which the token expires
+        private final transient long expiresAt;
+
+        /**
+         * Constructs the outcome of the verification of a token.
+         *
+         * @param userId    is the user ID of the user, or null if the token is invalid.
+         * @param identity  is the identity header of the user, or null.
+         * @param expiresAt is the time (epoch milliseconds) at which the token expires.
+         */
+        VerifiedToken(Long userId, String identity, long expiresAt) {
+            this.userId = userId;
+            this.identity = identity;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package nl.tudelft.sem.gateway.balancing.factory;
+
+import nl.tudelft.sem.gateway.balancing.strategies.BalancingStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.ConsistentHashStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.LeastOutstandingStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.PeakEwmaStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.RoundRobinStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.StrategyType;
+import nl.tudelft.sem.gateway.balancing.strategies.WeightedLoadStrategy;
+import nl.tudelft.sem.gateway.config.BalancingConfig;
+
+/**
+ * A factory class that creates balancing strategies based on their type. Every target receives
+ * its own strategy instance, as strategies may keep state.
+ */
+public class BalancingStrategyFactory {
+
+    private BalancingStrategyFactory() {
+
+    }
+
+    /**
+     * Creates a balancing strategy of the given type.
+     *
+     * @param strategyType      the type of the balancing strategy
+     * @return balancing strategy of the required type
+     */
+    public static BalancingStrategy create(StrategyType strategyType) {
+        return create(strategyType, new BalancingConfig());
+    }
+
+    /**
+     * Creates a balancing strategy of the given type.
+     *
+     * @param strategyType      the type of the balancing strategy
+     * @param balancingConfig   the configuration of the balancing strategies
+     * @return balancing strategy of the required type
+     */
+    public static BalancingStrategy create(StrategyType strategyType,
+                                           BalancingConfig balancingConfig) {
+        switch (strategyType) {
+            case LEAST_OUTSTANDING:
+                return new LeastOutstandingStrategy();
+            case PEAK_EWMA:
+                return new PeakEwmaStrategy();
+            case CONSISTENT_HASH:
+                return new ConsistentHashStrategy(balancingConfig.getHashLoadFactor());
+            case WEIGHTED_LOAD:
+                return new WeightedLoadStrategy();
+            //ROUND_ROBIN
+            default:
+                return new RoundRobinStrategy();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import java.util.List;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * The interface that provides functionality for selecting the instance of a target that a call is
+ * forwarded to. The strategies that implement this interface are based on a certain metric (order
+ * of registration, number of outstanding requests or latency).
+ *
+ * <p>Implementations are invoked concurrently for every forwarded call, hence they must be
+ * thread-safe and should not block.
+ */
+public interface BalancingStrategy {
+
+    /**
+     * Selects one of the given instances.
+     *
+     * @param instances the non-empty, immutable list of registered instances
+     * @return the selected instance.
+     */
+    RegisteredInstance select(List<RegisteredInstance> instances);
+
+    /**
+     * Selects one of the given instances for a call with a hash key (e.g., the user ID of the
+     * caller). Strategies that do not route by key ignore it.
+     *
+     * @param instances the non-empty, immutable list of registered instances
+     * @param key       the hash key of the call, or null if the call does not have one
+     * @return the selected instance.
+     */
+    default RegisteredInstance select(List<RegisteredInstance> instances, String key) {
+        return select(instances);
+    }
+}
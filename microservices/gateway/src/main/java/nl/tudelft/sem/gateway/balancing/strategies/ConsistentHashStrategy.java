@@ -0,0 +1,96 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * Strategy that routes all calls with the same key (the user ID of the caller) to the same
+ * instance, so that per-user caches of the microservices stay warm. Uses rendezvous hashing: every
+ * instance receives a score for the key, and the instance with the highest score is selected. When
+ * an instance joins or leaves, only the keys for which it has the highest score are remapped.
+ *
+ * <p>Loads are bounded: an instance is skipped if it has more outstanding requests than the load
+ * factor times the average, in which case the instance with the next highest score is selected.
+ * Calls without a key are sent to the instance with the least outstanding requests.
+ */
+public class ConsistentHashStrategy implements BalancingStrategy {
+
+    // Hash function used for the keys and scores
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    // Maximum load of an instance, relative to the average load
+    private final transient double loadFactor;
+
+    // Strategy used for calls without a key
+    private final transient BalancingStrategy fallback;
+
+    /**
+     * Constructs a consistent hashing strategy.
+     *
+     * @param loadFactor is the maximum number of outstanding requests of an instance, relative to
+     *                   the average. Must be at least 1.
+     */
+    public ConsistentHashStrategy(double loadFactor) {
+        if (loadFactor < 1) {
+            throw new IllegalArgumentException("The load factor must be at least 1");
+        }
+        this.loadFactor = loadFactor;
+        this.fallback = new LeastOutstandingStrategy();
+    }
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances) {
+        return fallback.select(instances);
+    }
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances, String key) {
+        if (key == null) {
+            return select(instances);
+        }
+
+        // Including the call that is being routed, no instance may exceed the capacity
+        int size = instances.size();
+        long totalLoad = 1;
+        long[] scores = new long[size];
+        long keyHash = HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+        for (int i = 0; i < size; i++) {
+            RegisteredInstance instance = instances.get(i);
+            totalLoad += instance.getOutstandingRequests();
+            scores[i] = score(keyHash, instance);
+        }
+        long capacity = (long) Math.ceil(loadFactor * totalLoad / size);
+
+        // Select the instance with the highest score that has capacity left. As the capacity is
+        // at least the average load, at least one instance always has capacity left.
+        RegisteredInstance best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            RegisteredInstance instance = instances.get(i);
+            if (instance.getOutstandingRequests() < capacity
+                    && (best == null || scores[i] > bestScore)) {
+                best = instance;
+                bestScore = scores[i];
+            }
+        }
+        return best != null ? best : fallback.select(instances);
+    }
+
+    /**
+     * Computes the score of an instance for a key.
+     *
+     * @param keyHash  is the hash of the key.
+     * @param instance is the instance.
+     * @return the score.
+     */
+    private static long score(long keyHash, RegisteredInstance instance) {
+        return HASH_FUNCTION.newHasher()
+                .putLong(keyHash)
+                .putString(instance.getRegistration().remoteAddress(), StandardCharsets.UTF_8)
+                .hash()
+                .asLong();
+    }
+}
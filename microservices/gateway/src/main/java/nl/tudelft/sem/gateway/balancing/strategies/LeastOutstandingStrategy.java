@@ -0,0 +1,30 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * Strategy that selects the instance with the least outstanding requests. Slow instances build up
+ * outstanding requests, and therefore automatically receive a smaller share of the traffic.
+ */
+public class LeastOutstandingStrategy implements BalancingStrategy {
+
+    // Rotating start position, so that ties are not always won by the same instance
+    private final transient AtomicInteger offset = new AtomicInteger();
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances) {
+        int size = instances.size();
+        int start = Math.floorMod(offset.getAndIncrement(), size);
+
+        RegisteredInstance best = instances.get(start);
+        for (int i = 1; i < size; i++) {
+            RegisteredInstance candidate = instances.get((start + i) % size);
+            if (candidate.getOutstandingRequests() < best.getOutstandingRequests()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,52 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * Strategy that selects instances based on their peak EWMA latency, weighted by the number of
+ * outstanding requests. Picks two random instances and selects the cheaper one (power of two
+ * choices), which avoids herding all traffic onto the instance that was fastest most recently.
+ */
+public class PeakEwmaStrategy implements BalancingStrategy {
+
+    // Latency assumed for instances that have outstanding requests, but no samples yet
+    private static final double UNKNOWN_LATENCY_PENALTY = TimeUnit.SECONDS.toNanos(1);
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+
+        // Pick two distinct instances at random
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        RegisteredInstance a = instances.get(first);
+        RegisteredInstance b = instances.get(second);
+        return cost(a) <= cost(b) ? a : b;
+    }
+
+    /**
+     * Computes the expected cost of sending a call to the instance.
+     *
+     * @param instance the instance
+     * @return the cost of the instance.
+     */
+    static double cost(RegisteredInstance instance) {
+        int outstanding = instance.getOutstandingRequests();
+        double latency = instance.getPeakEwmaLatency();
+        if (latency == 0 && outstanding > 0) {
+            latency = UNKNOWN_LATENCY_PENALTY;
+        }
+        return latency * (outstanding + 1);
+    }
+}
@@ -0,0 +1,24 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * Strategy that cycles through the instances in the order in which they were registered.
+ *
+ * <p>Every thread keeps its own cursor, which starts at a random offset, so concurrent lookups do
+ * not contend on a shared counter while the calls are still spread evenly over the instances.
+ */
+public class RoundRobinStrategy implements BalancingStrategy {
+
+    // Position of the round-robin cursor of the calling thread
+    private final transient ThreadLocal<int[]> index = ThreadLocal.withInitial(
+            () -> new int[] { ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE) });
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances) {
+        int[] cursor = index.get();
+        return instances.get(Math.floorMod(cursor[0]++, instances.size()));
+    }
+}
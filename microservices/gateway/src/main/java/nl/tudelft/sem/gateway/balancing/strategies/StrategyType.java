@@ -0,0 +1,12 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+/**
+ * An enum that represents load balancing strategies.
+ */
+public enum StrategyType {
+    ROUND_ROBIN,
+    LEAST_OUTSTANDING,
+    PEAK_EWMA,
+    CONSISTENT_HASH,
+    WEIGHTED_LOAD
+}
@@ -0,0 +1,67 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import nl.tudelft.sem.gateway.discovery.LoadReport;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+
+/**
+ * Strategy that selects instances at random, weighted by the load that they report with their
+ * heartbeats. The weight of an instance is its headroom (the complement of its highest CPU load,
+ * heap usage or event loop lag) divided by its number of in-flight requests, so overloaded
+ * instances shed traffic before they start timing out. Instances that do not report their load are
+ * weighted by their number of outstanding requests only.
+ */
+public class WeightedLoadStrategy implements BalancingStrategy {
+
+    // Event loop lag at which an instance is considered fully loaded
+    private static final double MAX_LAG_MILLIS = 100;
+
+    // Minimum headroom, so that overloaded instances still receive some traffic
+    private static final double MIN_HEADROOM = 0.05;
+
+    @Override
+    public RegisteredInstance select(List<RegisteredInstance> instances) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+
+        double[] weights = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = weight(instances.get(i));
+            total += weights[i];
+        }
+
+        // Select the instance in which the random point falls
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < size - 1; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return instances.get(i);
+            }
+        }
+        return instances.get(size - 1);
+    }
+
+    /**
+     * Computes the weight of an instance.
+     *
+     * @param instance the instance
+     * @return the weight of the instance.
+     */
+    static double weight(RegisteredInstance instance) {
+        int inFlight = instance.getOutstandingRequests();
+        double headroom = 1;
+
+        LoadReport load = instance.getLoad();
+        if (load != null) {
+            inFlight = Math.max(inFlight, load.getInFlightRequests());
+            double utilization = Math.max(load.getCpuLoad(),
+                    Math.max(load.getHeapUsage(), load.getEventLoopLagMillis() / MAX_LAG_MILLIS));
+            headroom = Math.max(MIN_HEADROOM, 1 - Math.max(0, Math.min(utilization, 1)));
+        }
+        return headroom / (inFlight + 1);
+    }
+}
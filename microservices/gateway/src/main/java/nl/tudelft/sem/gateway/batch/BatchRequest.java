@@ -0,0 +1,32 @@
+package nl.tudelft.sem.gateway.batch;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+/**
+ * A single sub-request of a batch, which is forwarded as if it was sent to the gateway on its own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequest {
+
+    // Identifier that is echoed in the response, which defaults to the index in the batch
+    private String id;
+
+    // Method of the sub-request
+    private HttpMethod method = HttpMethod.GET;
+
+    // Path (and query) of the sub-request, e.g. /api/courses/get/1
+    private String path;
+
+    // Headers of the sub-request, which inherit the Authorization header of the batch
+    private Map<String, String> headers = new HashMap<>();
+
+    // Body of the sub-request, if any
+    private String body;
+}
@@ -0,0 +1,26 @@
+package nl.tudelft.sem.gateway.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * The response to a single sub-request of a batch. Sub-requests that could not be forwarded
+ * receive the status code and message that the gateway would have responded with.
+ */
+@Data
+@AllArgsConstructor
+public class BatchResponse {
+
+    // Identifier of the sub-request
+    private String id;
+
+    // Status code of the response
+    private int status;
+
+    // Headers of the response
+    private HttpHeaders headers;
+
+    // Body of the response
+    private String body;
+}
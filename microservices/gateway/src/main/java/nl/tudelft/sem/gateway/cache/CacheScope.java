@@ -0,0 +1,11 @@
+package nl.tudelft.sem.gateway.cache;
+
+/**
+ * Scope in which a cached response may be shared.
+ */
+public enum CacheScope {
+    // Responses are shared by all callers, regardless of their authorization
+    SHARED,
+    // Responses are only shared by callers with the same Authorization header
+    AUTHORIZATION
+}
@@ -0,0 +1,22 @@
+package nl.tudelft.sem.gateway.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Statistics of the response cache of a single route.
+ */
+@AllArgsConstructor
+@Data
+public class CacheStatistics {
+
+    // Number of calls that were served from the cache without contacting the destination
+    private long hits;
+
+    // Number of calls that were forwarded, because no (valid) response was cached
+    private long misses;
+
+    // Number of calls that were served from the cache after the destination confirmed that the
+    // cached response is still valid
+    private long revalidations;
+}
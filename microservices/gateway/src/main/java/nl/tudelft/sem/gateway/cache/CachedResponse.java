@@ -0,0 +1,38 @@
+package nl.tudelft.sem.gateway.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Response in the cache, together with the time at which it was stored or last revalidated.
+ */
+@AllArgsConstructor
+@Getter
+class CachedResponse {
+
+    // The cached response
+    private final ResponseEntity<String> response;
+
+    // Ticker time at which the response was stored or last revalidated
+    private final long storedAt;
+
+    /**
+     * Returns the entity tag of the response.
+     *
+     * @return the entity tag, or null if the response has none.
+     */
+    String getEtag() {
+        return response.getHeaders().getETag();
+    }
+
+    /**
+     * Returns the approximate size of the response in memory.
+     *
+     * @return the size in bytes.
+     */
+    int getWeight() {
+        String body = response.getBody();
+        return (body != null ? 2 * body.length() : 0) + response.getHeaders().size() * 64;
+    }
+}
@@ -0,0 +1,231 @@
+package nl.tudelft.sem.gateway.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import nl.tudelft.sem.gateway.config.ResponseCacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache for the responses of GET calls to the configured routes. Responses are served from the
+ * cache during the time to live of their route. Afterwards, responses with an entity tag are
+ * revalidated against the destination using <i>If-None-Match</i>, whereas other responses are
+ * fetched again. The size of the cache is bounded, and least recently used responses are evicted
+ * first.
+ */
+@Component
+public class ResponseCache {
+
+    // Settings of the cache
+    private final transient ResponseCacheConfig config;
+
+    // Source of time used to determine whether responses are fresh
+    private final transient Ticker ticker;
+
+    // Matches paths against the patterns of the routes
+    private final transient PathMatcher pathMatcher;
+
+    // The cached responses, keyed by route, path, query and scope
+    private final transient Cache<String, CachedResponse> responses;
+
+    // Counters per route
+    private final transient ConcurrentMap<String, RouteCounters> counters;
+
+    /**
+     * Constructs the response cache.
+     *
+     * @param config is the configuration of the cache.
+     */
+    @Autowired
+    public ResponseCache(ResponseCacheConfig config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs the response cache.
+     *
+     * @param config is the configuration of the cache.
+     * @param ticker is the source of time used to determine whether responses are fresh.
+     */
+    public ResponseCache(ResponseCacheConfig config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+        this.pathMatcher = new AntPathMatcher();
+        this.responses = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse response) ->
+                        2 * key.length() + response.getWeight())
+                .expireAfterWrite(config.getRetention())
+                .ticker(ticker)
+                .build();
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Finds the cached route that a call belongs to.
+     *
+     * @param method is the method of the call.
+     * @param path   is the path of the call.
+     * @return the name of the route, or null if the responses of the call are not cached.
+     */
+    public String findRoute(HttpMethod method, String path) {
+        if (method != HttpMethod.GET) {
+            return null;
+        }
+        for (Map.Entry<String, ResponseCacheConfig.Route> route : config.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getValue().getPattern(), path)) {
+                return route.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Serves a call to a cached route from the cache, or forwards it to the destination.
+     *
+     * @param route   is the name of the route, as returned by {@link #findRoute}.
+     * @param path    is the path of the call.
+     * @param query   is the raw query string of the call, or null if it has none.
+     * @param headers is a collection of headers that is part of the call.
+     * @param call    forwards the call with the given additional (conditional) headers.
+     * @return response that will become available in the future.
+     */
+    public Mono<ResponseEntity<String>> execute(String route, String path, String query,
+                                                HttpHeaders headers,
+                                                Function<HttpHeaders,
+                                                        Mono<ResponseEntity<String>>> call) {
+        ResponseCacheConfig.Route settings = config.getRoutes().get(route);
+        RouteCounters routeCounters = counters.computeIfAbsent(route, name -> new RouteCounters());
+        String key = key(route, settings.getScope(), path, query, headers);
+
+        // Serve fresh responses without contacting the destination
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && ticker.read() - cached.getStoredAt()
+                < settings.getTtl().toNanos()) {
+            routeCounters.hits.increment();
+            return Mono.just(notModifiedIfMatches(cached.getResponse(), headers));
+        }
+
+        // Revalidate stale responses that have an entity tag, and fetch all others again
+        CachedResponse stale = cached != null && cached.getEtag() != null ? cached : null;
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        if (stale != null) {
+            conditionalHeaders.setIfNoneMatch(stale.getEtag());
+        }
+
+        return call.apply(conditionalHeaders).map(response -> {
+            if (stale != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                routeCounters.revalidations.increment();
+                responses.put(key, new CachedResponse(stale.getResponse(), ticker.read()));
+                return notModifiedIfMatches(stale.getResponse(), headers);
+            }
+
+            routeCounters.misses.increment();
+            if (isStorable(response)) {
+                responses.put(key, new CachedResponse(response, ticker.read()));
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Returns the statistics of all routes that have received calls.
+     *
+     * @return the statistics, keyed by the name of the route.
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new TreeMap<>();
+        counters.forEach((route, routeCounters) -> statistics.put(route, new CacheStatistics(
+                routeCounters.hits.sum(), routeCounters.misses.sum(),
+                routeCounters.revalidations.sum())));
+        return statistics;
+    }
+
+    /**
+     * Creates the cache key of a call. The Authorization header is hashed, so that tokens are not
+     * kept in memory longer than needed.
+     *
+     * @param route   is the name of the route.
+     * @param scope   is the scope in which responses of the route are shared.
+     * @param path    is the path of the call.
+     * @param query   is the raw query string of the call, or null if it has none.
+     * @param headers is a collection of headers that is part of the call.
+     * @return the key.
+     */
+    private static String key(String route, CacheScope scope, String path, String query,
+                              HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(route).append(' ').append(path);
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        if (scope == CacheScope.AUTHORIZATION) {
+            String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+            key.append(' ').append(authorization == null ? "-" : Hashing.sha256()
+                    .hashString(authorization, StandardCharsets.UTF_8).toString());
+        }
+        return key.toString();
+    }
+
+    /**
+     * Checks whether a response may be stored in the cache.
+     *
+     * @param response is the response of the destination.
+     * @return true if the response is successful and does not forbid storing it.
+     */
+    private static boolean isStorable(ResponseEntity<String> response) {
+        String cacheControl = response.getHeaders().getCacheControl();
+        return response.getStatusCode() == HttpStatus.OK
+                && (cacheControl == null
+                || !cacheControl.contains(CacheControl.noStore().getHeaderValue()));
+    }
+
+    /**
+     * Replaces a cached response with a 304 (Not Modified) response, in case the caller already
+     * has the same version of it.
+     *
+     * @param response is the cached response.
+     * @param headers  is a collection of headers that is part of the call.
+     * @return the response to return to the caller.
+     */
+    private static ResponseEntity<String> notModifiedIfMatches(ResponseEntity<String> response,
+                                                               HttpHeaders headers) {
+        String etag = response.getHeaders().getETag();
+        if (etag == null || !headers.getIfNoneMatch().contains(etag)) {
+            return response;
+        }
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * Counters of the calls to a single route.
+     */
+    private static class RouteCounters {
+
+        // Calls served from the cache
+        private final transient LongAdder hits = new LongAdder();
+
+        // Calls forwarded to the destination
+        private final transient LongAdder misses = new LongAdder();
+
+        // Calls served from the cache after revalidation
+        private final transient LongAdder revalidations = new LongAdder();
+    }
+
+}
@@ -0,0 +1,49 @@
+package nl.tudelft.sem.gateway.capture;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A request that was captured by the gateway, which is written to the capture file as a single
+ * line of JSON. Fields without a value are left out, to keep the file compact.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class CapturedRequest {
+
+    // ID of the run of the gateway that captured the request
+    private String runId;
+
+    // Time at which the request was received, in milliseconds since the capture started
+    private long offsetMillis;
+
+    // Method of the request
+    private String method;
+
+    // Path of the request, e.g. /api/courses/get/1
+    private String path;
+
+    // Query of the request, if any
+    private String query;
+
+    // Captured headers of the request, of which tokens are replaced by placeholders
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    // Body of the request, of which tokens are replaced by placeholders, if any
+    private String body;
+
+    // Whether the body was left out because it exceeded the maximum size
+    private boolean bodyOmitted;
+
+    // Status code that the gateway responded with
+    private int status;
+
+    // Time until the gateway responded, in milliseconds
+    private long latencyMillis;
+}
@@ -0,0 +1,129 @@
+package nl.tudelft.sem.gateway.capture;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import nl.tudelft.sem.gateway.metrics.LatencyHistogram;
+
+/**
+ * Latencies and errors per route of a replay of captured traffic.
+ */
+public class ReplayReport {
+
+    // Latencies of the responses, per route
+    private final transient ConcurrentMap<String, LatencyHistogram> histograms;
+
+    // Number of failed requests (server errors and connection errors), per route
+    private final transient ConcurrentMap<String, LongAdder> errors;
+
+    // Time that the replay took
+    private transient volatile Duration elapsed = Duration.ZERO;
+
+    /**
+     * Constructs an empty report.
+     */
+    public ReplayReport() {
+        this.histograms = new ConcurrentHashMap<>();
+        this.errors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds the response to a replayed request to the report.
+     *
+     * @param route        is the route of the request.
+     * @param latencyNanos is the latency of the response in nanoseconds.
+     * @param status       is the status code of the response, or -1 if no response was received.
+     */
+    public void record(String route, long latencyNanos, int status) {
+        histograms.computeIfAbsent(route, key -> new LatencyHistogram()).record(latencyNanos);
+        LongAdder failures = errors.computeIfAbsent(route, key -> new LongAdder());
+        if (status < 0 || status >= 500) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Returns the latencies of the responses per route.
+     *
+     * @return the histograms, sorted by route.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Returns the number of failed requests of a route.
+     *
+     * @param route is the route.
+     * @return the number of server errors and connection errors.
+     */
+    public long getErrors(String route) {
+        LongAdder failures = errors.get(route);
+        return failures != null ? failures.sum() : 0;
+    }
+
+    /**
+     * Returns the time that the replay took.
+     *
+     * @return the elapsed time.
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Sets the time that the replay took.
+     *
+     * @param elapsed is the elapsed time.
+     */
+    public void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Formats the report as a table with the latency percentiles per route, followed by the
+     * histogram of every route.
+     *
+     * @return the formatted report.
+     */
+    public String format() {
+        Map<String, LatencyHistogram> sorted = getHistograms();
+        long total = sorted.values().stream().mapToLong(LatencyHistogram::getCount).sum();
+        double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                "Replayed %d requests in %.1fs (%.1f requests/s)%n%n", total, seconds,
+                total / seconds));
+        report.append(String.format(Locale.ROOT, "%-50s %8s %8s %10s %10s %10s %10s%n",
+                "route", "count", "errors", "p50", "p90", "p99", "max"));
+        sorted.forEach((route, histogram) -> report.append(String.format(Locale.ROOT,
+                "%-50s %8d %8d %10s %10s %10s %10s%n", route, histogram.getCount(),
+                getErrors(route), LatencyHistogram.formatMillis(histogram.percentile(0.5)),
+                LatencyHistogram.formatMillis(histogram.percentile(0.9)),
+                LatencyHistogram.formatMillis(histogram.percentile(0.99)),
+                LatencyHistogram.formatMillis(histogram.getMax()))));
+
+        sorted.forEach((route, histogram) -> {
+            report.append(String.format("%n%s%n", route));
+            long[] bounds = histogram.getBounds();
+            long[] cumulative = histogram.getCumulativeCounts();
+            long previous = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                long count = cumulative[i] - previous;
+                previous = cumulative[i];
+                if (count > 0) {
+                    String bucket = i < bounds.length
+                            ? "<= " + LatencyHistogram.formatMillis(bounds[i])
+                            : "> " + LatencyHistogram.formatMillis(bounds[bounds.length - 1]);
+                    report.append(String.format(Locale.ROOT, "  %12s %8d%n", bucket, count));
+                }
+            }
+        });
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,151 @@
+package nl.tudelft.sem.gateway.capture;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Replaces tokens in captured requests by placeholders, so that capture files do not contain any
+ * credentials. Every distinct token is replaced by its own placeholder, e.g.
+ * <i>${token:1a2b3c4d-3}</i>, hence the replay can still tell the users apart, and can rewrite the
+ * placeholders into tokens that are valid for the deployment under test. The placeholders are
+ * prefixed with the ID of the run, as the capture file is appended to by every run of the gateway.
+ *
+ * <p>The tokens themselves are not kept: the placeholders are looked up by an HMAC of the token,
+ * with a key that only exists in memory. Only the most recently seen tokens keep their
+ * placeholder, so a token that has been forgotten receives a new placeholder.
+ */
+public class TokenRedactor {
+
+    // Pattern of the placeholders of the tokens, of which the second group is the index
+    public static final Pattern PLACEHOLDER_PATTERN =
+            Pattern.compile("\\$\\{token:(?:([0-9a-f]+)-)?(\\d+)}");
+
+    // Placeholder of the n-th distinct token of a run
+    private static final String PLACEHOLDER = "${token:%s-%d}";
+
+    // Algorithm of the HMAC by which the tokens are looked up
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    // Placeholder that replaces the redacted fields of JSON bodies
+    static final String REDACTED = "${redacted}";
+
+    // Prefix of bearer tokens, which is kept
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    // Matches the string values of the redacted fields of JSON bodies
+    private final transient Pattern fieldPattern;
+
+    // ID of the run, which prefixes the placeholders
+    private final transient String runId;
+
+    // Computes the HMAC of the tokens
+    private final transient Mac mac;
+
+    // Index of the placeholder of each distinct token, keyed by its HMAC, in order of access
+    private final transient Map<String, Integer> placeholders;
+
+    // Index of the next distinct token
+    private transient int next;
+
+    /**
+     * Constructs a token redactor for a new run.
+     *
+     * @param redactedFields are the fields of JSON bodies of which the values are replaced.
+     * @param maxTokens      is the maximum number of distinct tokens that keep their placeholder.
+     */
+    public TokenRedactor(List<String> redactedFields, int maxTokens) {
+        this(redactedFields, maxTokens, UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    /**
+     * Constructs a token redactor.
+     *
+     * @param redactedFields are the fields of JSON bodies of which the values are replaced.
+     * @param maxTokens      is the maximum number of distinct tokens that keep their placeholder.
+     * @param runId          is the ID of the run (hexadecimal), which prefixes the placeholders.
+     */
+    public TokenRedactor(List<String> redactedFields, int maxTokens, String runId) {
+        this.fieldPattern = redactedFields.isEmpty() ? null : Pattern.compile("(\"(?:"
+                + redactedFields.stream().map(Pattern::quote).collect(Collectors.joining("|"))
+                + ")\"\\s*:\\s*)\"(?:[^\"\\\\]|\\\\.)*\"", Pattern.CASE_INSENSITIVE);
+        this.runId = runId;
+        this.placeholders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > Math.max(1, maxTokens);
+            }
+        };
+        try {
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            this.mac = Mac.getInstance(HMAC_ALGORITHM);
+            this.mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the ID of the run, which prefixes the placeholders.
+     *
+     * @return the ID of the run.
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Replaces the token in a header value by the placeholder of that token. The <i>Bearer</i>
+     * prefix is kept.
+     *
+     * @param value is the header value.
+     * @return the redacted header value.
+     */
+    public String redactHeader(String value) {
+        if (value.startsWith(BEARER_PREFIX)) {
+            return BEARER_PREFIX + placeholder(value.substring(BEARER_PREFIX.length()));
+        }
+        return placeholder(value);
+    }
+
+    /**
+     * Replaces the string values of the redacted fields of a JSON body.
+     *
+     * @param body is the body.
+     * @return the redacted body.
+     */
+    public String redactBody(String body) {
+        if (fieldPattern == null) {
+            return body;
+        }
+        return fieldPattern.matcher(body)
+                .replaceAll(match -> Matcher.quoteReplacement(match.group(1)
+                        + "\"" + REDACTED + "\""));
+    }
+
+    /**
+     * Returns the placeholder of a token, which is the same for every occurrence of the token as
+     * long as it is among the most recently seen tokens.
+     *
+     * @param token is the token.
+     * @return the placeholder.
+     */
+    private synchronized String placeholder(String token) {
+        String key = Base64.getEncoder().encodeToString(
+                mac.doFinal(token.getBytes(StandardCharsets.UTF_8)));
+        return String.format(PLACEHOLDER, runId,
+                placeholders.computeIfAbsent(key, hash -> next++));
+    }
+
+}
@@ -0,0 +1,245 @@
+package nl.tudelft.sem.gateway.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import nl.tudelft.sem.gateway.config.CaptureConfig;
+import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Captures the requests that the gateway forwards, so that realistic traffic can be replayed
+ * against a test deployment (see {@link TrafficReplayer}). Used if <i>gateway.capture.enabled</i>
+ * is true.
+ *
+ * <p>Captured requests are queued in memory, and appended to the capture file periodically, hence
+ * the forwarded requests never wait for the disk. Tokens are replaced by placeholders before they
+ * are written. Requests are dropped if the queue is full.
+ */
+@Component
+public class TrafficRecorder {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(TrafficRecorder.class);
+
+    // Settings of the capture
+    private final transient CaptureConfig config;
+
+    // Replaces the tokens in the captured requests by placeholders
+    private final transient TokenRedactor redactor;
+
+    // Converts the captured requests to JSON
+    private final transient ObjectMapper objectMapper;
+
+    // Captured requests that have not been written yet
+    private final transient BlockingQueue<CapturedRequest> pending;
+
+    // Number of requests that were dropped since the last write
+    private final transient AtomicLong dropped;
+
+    // Time (System.nanoTime) at which the capture started
+    private final transient long startNanos;
+
+    /**
+     * Constructs the traffic recorder.
+     *
+     * @param config is the configuration of the capture.
+     */
+    @Autowired
+    public TrafficRecorder(CaptureConfig config) {
+        this.config = config;
+        this.redactor = new TokenRedactor(config.getRedactedFields(), config.getMaxTokens());
+        this.objectMapper = new ObjectMapper();
+        this.pending = new ArrayBlockingQueue<>(Math.max(1, config.getMaxPending()));
+        this.dropped = new AtomicLong();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Performs a call, and captures the request together with the status and latency of the
+     * response, if the capture is enabled. Exceptions that the call throws are passed on as is.
+     *
+     * @param method  is the method of the request.
+     * @param path    is the path of the request.
+     * @param query   is the query of the request, if any.
+     * @param headers is a collection of headers that is part of the request.
+     * @param body    is the body of the request, if any.
+     * @param call    performs the call.
+     * @return the response of the call, which becomes available in the future.
+     */
+    public Mono<ResponseEntity<String>> record(HttpMethod method, String path, String query,
+                                               HttpHeaders headers, String body,
+                                               Supplier<Mono<ResponseEntity<String>>> call) {
+        if (!config.isEnabled()) {
+            return call.get();
+        }
+
+        long start = System.nanoTime();
+        CapturedRequest captured = capture(method, path, query, headers, body, start);
+        Mono<ResponseEntity<String>> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            // Requests that are rejected right away are captured as well
+            complete(captured, start, statusOf(e));
+            throw e;
+        }
+        return result
+                .doOnSuccess(entity -> complete(captured, start, entity != null
+                        ? entity.getStatusCodeValue()
+                        : HttpStatus.OK.value()))
+                .doOnError(error -> complete(captured, start, statusOf(error)));
+    }
+
+    /**
+     * Periodically appends the captured requests to the capture file.
+     */
+    @Scheduled(fixedDelayString = "${gateway.capture.flush-interval-millis:1000}")
+    public synchronized void flush() {
+        long droppedSinceLastWrite = dropped.getAndSet(0);
+        if (droppedSinceLastWrite > 0) {
+            logger.warn("Dropped {} captured requests, as they could not be written in time",
+                    droppedSinceLastWrite);
+        }
+
+        List<CapturedRequest> requests = new ArrayList<>();
+        pending.drainTo(requests);
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(config.getFile()),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (CapturedRequest request : requests) {
+                writer.write(objectMapper.writeValueAsString(redact(request)));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            logger.error("Unable to write the captured requests to {}", config.getFile(), e);
+        }
+    }
+
+    /**
+     * Writes the remaining captured requests when the gateway shuts down.
+     */
+    @PreDestroy
+    public void close() {
+        if (config.isEnabled()) {
+            flush();
+        }
+    }
+
+    /**
+     * Captures the metadata and body of a request. Tokens are only redacted when the request is
+     * written, to keep the forwarded requests fast.
+     *
+     * @param method  is the method of the request.
+     * @param path    is the path of the request.
+     * @param query   is the query of the request, if any.
+     * @param headers is a collection of headers that is part of the request.
+     * @param body    is the body of the request, if any.
+     * @param start   is the time (System.nanoTime) at which the request was received.
+     * @return the captured request, without the status and latency of the response.
+     */
+    private CapturedRequest capture(HttpMethod method, String path, String query,
+                                    HttpHeaders headers, String body, long start) {
+        CapturedRequest captured = new CapturedRequest();
+        captured.setRunId(redactor.getRunId());
+        captured.setOffsetMillis(TimeUnit.NANOSECONDS.toMillis(start - startNanos));
+        captured.setMethod(method.name());
+        captured.setPath(path);
+        captured.setQuery(query);
+        for (String header : config.getHeaders()) {
+            String value = headers.getFirst(header);
+            if (value != null) {
+                captured.getHeaders().put(header, value);
+            }
+        }
+        if (body != null && !body.isEmpty()) {
+            if (body.getBytes(StandardCharsets.UTF_8).length > config.getMaxBodySize().toBytes()) {
+                captured.setBodyOmitted(true);
+            } else {
+                captured.setBody(body);
+            }
+        }
+        return captured;
+    }
+
+    /**
+     * Completes a captured request with the status and latency of the response, and queues it to
+     * be written.
+     *
+     * @param captured is the captured request.
+     * @param start    is the time (System.nanoTime) at which the request was received.
+     * @param status   is the status code of the response.
+     */
+    private void complete(CapturedRequest captured, long start, int status) {
+        captured.setStatus(status);
+        captured.setLatencyMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!pending.offer(captured)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Replaces the tokens in the headers and body of a captured request by placeholders.
+     *
+     * @param captured is the captured request.
+     * @return the same captured request, which has been redacted.
+     */
+    private CapturedRequest redact(CapturedRequest captured) {
+        TreeSet<String> redactedHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        redactedHeaders.addAll(config.getRedactedHeaders());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        captured.getHeaders().forEach((name, value) -> headers.put(name,
+                redactedHeaders.contains(name) ? redactor.redactHeader(value) : value));
+        captured.setHeaders(headers);
+        if (captured.getBody() != null) {
+            captured.setBody(redactor.redactBody(captured.getBody()));
+        }
+        return captured;
+    }
+
+    /**
+     * Determines the status code that the gateway responds with when a call fails.
+     *
+     * @param error is the error of the call.
+     * @return the status code.
+     */
+    private static int statusOf(Throwable error) {
+        if (error instanceof MonoForwardingException) {
+            return ((MonoForwardingException) error).getErrorStatus().value();
+        }
+        if (error instanceof ResponseStatusException) {
+            return ((ResponseStatusException) error).getStatus().value();
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR.value();
+    }
+
+}
@@ -0,0 +1,246 @@
+package nl.tudelft.sem.gateway.capture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Replays the requests that were captured by the {@link TrafficRecorder} against a (local)
+ * deployment, at a multiple of the recorded rate, and reports the latencies per route.
+ *
+ * <p>The placeholders of the tokens in the capture file are rewritten into the tokens that are
+ * passed to the replayer, so that each recorded user is consistently replayed as the same user of
+ * the deployment under test. As every run of the gateway appends to the capture file, and the
+ * placeholders are numbered per run, the runs are replayed one after another and the tokens are
+ * assigned per run and placeholder. Run the replayer with:
+ * <pre>{@code
+ * gradle :microservices:gateway:replay --args="<capture file> <base URL> [speed] [tokens file]"
+ * }</pre>
+ */
+public class TrafficReplayer {
+
+    // Maximum number of replayed requests that are in flight at the same time
+    private static final int MAX_IN_FLIGHT = 1024;
+
+    // Performs the replayed requests
+    private final transient WebClient webClient;
+
+    // Base URL of the deployment under test, e.g. http://localhost:8080
+    private final transient String baseUrl;
+
+    // Multiple of the recorded rate at which the requests are replayed
+    private final transient double speed;
+
+    // Tokens that replace the placeholders of the recorded tokens
+    private final transient List<String> tokens;
+
+    // Token assigned to each placeholder, keyed by run and index, in order of first occurrence
+    private final transient Map<String, String> assignedTokens;
+
+    /**
+     * Constructs a traffic replayer.
+     *
+     * @param webClient is the web client that performs the replayed requests.
+     * @param baseUrl   is the base URL of the deployment under test.
+     * @param speed     is the multiple of the recorded rate, e.g. 2 to replay twice as fast.
+     * @param tokens    are the tokens that replace the placeholders of the recorded tokens.
+     */
+    public TrafficReplayer(WebClient webClient, String baseUrl, double speed,
+                           List<String> tokens) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("The speed must be positive");
+        }
+        this.webClient = webClient;
+        this.baseUrl = baseUrl.endsWith("/")
+                ? baseUrl.substring(0, baseUrl.length() - 1)
+                : baseUrl;
+        this.speed = speed;
+        this.tokens = List.copyOf(tokens);
+        this.assignedTokens = new HashMap<>();
+    }
+
+    /**
+     * Replays captured traffic from the command line, and prints the report.
+     *
+     * @param args are the capture file, the base URL, and optionally the speed and a file with
+     *             one token per line.
+     * @throws IOException if the capture file or tokens file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TrafficReplayer <capture file> <base URL> [speed] "
+                    + "[tokens file]");
+            System.exit(1);
+        }
+        double speed = args.length > 2 ? Double.parseDouble(args[2]) : 1;
+        List<String> tokens = args.length > 3
+                ? Files.readAllLines(Paths.get(args[3]), StandardCharsets.UTF_8).stream()
+                        .map(String::trim)
+                        .filter(token -> !token.isEmpty())
+                        .collect(Collectors.toList())
+                : List.of();
+
+        TrafficReplayer replayer = new TrafficReplayer(WebClient.create(), args[1], speed,
+                tokens);
+        ReplayReport report = replayer.replay(readCapture(Paths.get(args[0]))).block();
+        if (report != null) {
+            System.out.print(report.format());
+        }
+    }
+
+    /**
+     * Reads the requests of a capture file. The offsets of each run start over, so the runs are
+     * shifted to follow each other, in the order in which they appear in the file.
+     *
+     * @param file is the capture file.
+     * @return the captured requests, in the order in which they were received.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<CapturedRequest> readCapture(Path file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, List<CapturedRequest>> runs = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                CapturedRequest request = objectMapper.readValue(line, CapturedRequest.class);
+                runs.computeIfAbsent(String.valueOf(request.getRunId()), runId -> new ArrayList<>())
+                        .add(request);
+            }
+        }
+
+        List<CapturedRequest> requests = new ArrayList<>();
+        for (List<CapturedRequest> run : runs.values()) {
+            run.sort(Comparator.comparingLong(CapturedRequest::getOffsetMillis));
+            long shift = requests.isEmpty() ? 0
+                    : requests.get(requests.size() - 1).getOffsetMillis()
+                            - run.get(0).getOffsetMillis();
+            for (CapturedRequest request : run) {
+                request.setOffsetMillis(request.getOffsetMillis() + shift);
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Replays captured requests, keeping the (scaled) time between them. Requests are sent
+     * without waiting for the previous responses.
+     *
+     * @param requests are the captured requests, in the order in which they were received.
+     * @return the report, which becomes available once all responses have been received.
+     */
+    public Mono<ReplayReport> replay(List<CapturedRequest> requests) {
+        ReplayReport report = new ReplayReport();
+        if (requests.isEmpty()) {
+            return Mono.just(report);
+        }
+
+        long firstOffset = requests.get(0).getOffsetMillis();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(requests)
+                    .concatMap(request -> Mono.defer(() -> {
+                        long due = start + (long) ((request.getOffsetMillis() - firstOffset)
+                                * 1_000_000 / speed);
+                        return Mono.delay(Duration.ofNanos(Math.max(0, due - System.nanoTime())))
+                                .thenReturn(request);
+                    }))
+                    .flatMap(request -> send(request, report), MAX_IN_FLIGHT)
+                    .then(Mono.fromSupplier(() -> {
+                        report.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+                        return report;
+                    }));
+        });
+    }
+
+    /**
+     * Sends a single replayed request, and adds its latency to the report.
+     *
+     * @param request is the captured request.
+     * @param report  is the report.
+     * @return a signal that completes once the response has been received.
+     */
+    private Mono<Void> send(CapturedRequest request, ReplayReport report) {
+        String uri = baseUrl + request.getPath()
+                + (request.getQuery() != null ? "?" + request.getQuery() : "");
+        WebClient.RequestBodySpec spec = webClient
+                .method(HttpMethod.valueOf(request.getMethod()))
+                .uri(URI.create(uri))
+                .headers(headers -> request.getHeaders()
+                        .forEach((name, value) -> headers.set(name, rewrite(value))));
+        WebClient.RequestHeadersSpec<?> call = request.getBody() != null
+                ? spec.bodyValue(rewrite(request.getBody()))
+                : spec;
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.exchange()
+                    .flatMap(response -> response.releaseBody()
+                            .thenReturn(response.rawStatusCode()))
+                    .onErrorReturn(-1)
+                    .doOnNext(status -> report.record(route(request),
+                            System.nanoTime() - start, status))
+                    .then();
+        });
+    }
+
+    /**
+     * Replaces the placeholders of the recorded tokens by the tokens of the replay. Each
+     * placeholder, identified by its run and its index within the run, is consistently replaced
+     * by the same token, and the tokens are handed out in turn so that the users of different runs
+     * are replayed as different users as long as there are enough tokens. Placeholders are kept
+     * if no tokens were given.
+     *
+     * @param value is a header value or body.
+     * @return the rewritten value.
+     */
+    String rewrite(String value) {
+        if (tokens.isEmpty()) {
+            return value;
+        }
+        return TokenRedactor.PLACEHOLDER_PATTERN.matcher(value).replaceAll(match ->
+                Matcher.quoteReplacement(assignToken(match.group(1), match.group(2))));
+    }
+
+    /**
+     * Returns the token that replaces a placeholder, and assigns the next token if the
+     * placeholder has not been seen before.
+     *
+     * @param runId is the ID of the run of the placeholder, or null if it has none.
+     * @param index is the index of the placeholder within its run.
+     * @return the token.
+     */
+    private synchronized String assignToken(String runId, String index) {
+        return assignedTokens.computeIfAbsent(runId + "-" + Integer.parseInt(index),
+                placeholder -> tokens.get(assignedTokens.size() % tokens.size()));
+    }
+
+    /**
+     * Determines the route of a request, in which identifiers in the path are replaced by
+     * <i>{id}</i>, e.g. GET /api/courses/get/{id}.
+     *
+     * @param request is the captured request.
+     * @return the route.
+     */
+    static String route(CapturedRequest request) {
+        return request.getMethod() + " " + GatewayMetrics.routeTemplate(request.getPath());
+    }
+
+}
@@ -0,0 +1,301 @@
+package nl.tudelft.sem.gateway.circuit;
+
+import com.google.common.base.Ticker;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+
+/**
+ * Circuit breaker of a single registered instance. The outcomes of the most recent calls are kept
+ * in a sliding window. Once the error rate or the configured latency percentile of the window
+ * exceeds its threshold, the circuit opens and the instance is ejected. After the open duration,
+ * a single probe call is let through (half-open): if it succeeds in time the circuit closes, and
+ * otherwise it opens again.
+ *
+ * <p>The probe is reserved when the instance is selected, so that every other lookup skips the
+ * instance while the probe is outstanding. The reservation is claimed when the call is dispatched,
+ * and released when the call is cancelled, so that another probe can be let through right away. A
+ * probe that is never dispatched or never completes is considered lost after the open duration.
+ * Only the outcome of the probe call decides the half-open state; calls that were forwarded before
+ * the circuit opened complete without effect.
+ *
+ * <p>The latency percentile is evaluated by counting slow calls: the p-th percentile of n calls
+ * reaches the threshold exactly when at least n - ceil(p * n) + 1 calls are slow. This keeps the
+ * bookkeeping constant in time and space per call.
+ */
+public class CircuitBreaker {
+
+    // Permit of a call that is not the probe call
+    public static final long NO_PROBE = 0;
+
+    // Settings of the circuit breaker
+    private final transient CircuitBreakerConfig config;
+
+    // Source of time used for the open duration
+    private final transient Ticker ticker;
+
+    // Whether the calls in the window failed, in a circular buffer
+    private final transient boolean[] failures;
+
+    // Whether the calls in the window were slow, in a circular buffer
+    private final transient boolean[] slowCalls;
+
+    // Position in the window of the next call
+    private transient int next;
+
+    // Number of calls in the window
+    private transient int count;
+
+    // Number of failed calls in the window
+    private transient int failureCount;
+
+    // Number of slow calls in the window
+    private transient int slowCount;
+
+    // Current state of the circuit
+    private transient volatile CircuitState state;
+
+    // Ticker time at which the circuit opened, or at which the probe call was let through
+    private transient long since;
+
+    // Permit of the probe call that is reserved or in flight, or NO_PROBE if there is none
+    private transient long probe;
+
+    // Whether the reserved probe call has been dispatched
+    private transient boolean claimed;
+
+    // Permit that was handed out last
+    private transient long lastProbe;
+
+    /**
+     * Constructs a closed circuit breaker.
+     *
+     * @param config is the configuration of the circuit breaker.
+     * @param ticker is the source of time used for the open duration.
+     */
+    public CircuitBreaker(CircuitBreakerConfig config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+        this.failures = new boolean[config.getWindowSize()];
+        this.slowCalls = new boolean[config.getWindowSize()];
+        this.state = CircuitState.CLOSED;
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return the state.
+     */
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * Checks whether a call may be forwarded to the instance while selecting it. If the open
+     * duration has passed, the probe call is reserved for the caller, and the instance is not
+     * permitted for any other caller until the probe is released or lost.
+     *
+     * @return true if the call may be forwarded, false if the instance is ejected.
+     */
+    public boolean isCallPermitted() {
+        if (state == CircuitState.CLOSED) {
+            return true;
+        }
+
+        synchronized (this) {
+            if (state == CircuitState.CLOSED) {
+                return true;
+            }
+            long now = ticker.read();
+            if (!isProbeAvailable(now)) {
+                return false;
+            }
+            reserve(now);
+            return true;
+        }
+    }
+
+    /**
+     * Takes the permit for a call that is dispatched to the instance. The call claims the reserved
+     * probe if it has not been dispatched yet, or becomes the probe call itself if one may be let
+     * through.
+     *
+     * @return the permit of the probe call, or NO_PROBE if the call is not the probe call.
+     */
+    public long acquire() {
+        if (state == CircuitState.CLOSED) {
+            return NO_PROBE;
+        }
+
+        synchronized (this) {
+            if (state == CircuitState.CLOSED) {
+                return NO_PROBE;
+            }
+            long now = ticker.read();
+            if (probe == NO_PROBE || claimed) {
+                if (!isProbeAvailable(now)) {
+                    return NO_PROBE;
+                }
+                reserve(now);
+            }
+            claimed = true;
+            return probe;
+        }
+    }
+
+    /**
+     * Returns the permit of a call that was cancelled before it completed, so that another probe
+     * call can be let through right away.
+     *
+     * @param permit is the permit of the call.
+     */
+    public synchronized void release(long permit) {
+        if (permit != NO_PROBE && permit == probe) {
+            probe = NO_PROBE;
+        }
+    }
+
+    /**
+     * Records the outcome of a successful call that is not the probe call.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     */
+    public void onSuccess(long latencyNanos) {
+        onSuccess(latencyNanos, NO_PROBE);
+    }
+
+    /**
+     * Records the outcome of a successful call.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     * @param permit       is the permit of the call.
+     */
+    public void onSuccess(long latencyNanos, long permit) {
+        record(latencyNanos, false, permit);
+    }
+
+    /**
+     * Records the outcome of a failed call that is not the probe call.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     */
+    public void onFailure(long latencyNanos) {
+        onFailure(latencyNanos, NO_PROBE);
+    }
+
+    /**
+     * Records the outcome of a failed call.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     * @param permit       is the permit of the call.
+     */
+    public void onFailure(long latencyNanos, long permit) {
+        record(latencyNanos, true, permit);
+    }
+
+    /**
+     * Reserves the probe call, which moves the circuit to the half-open state.
+     *
+     * @param now is the current ticker time.
+     */
+    private void reserve(long now) {
+        state = CircuitState.HALF_OPEN;
+        since = now;
+        probe = ++lastProbe;
+        claimed = false;
+    }
+
+    /**
+     * Checks whether a probe call may be let through, which is the case once the open duration
+     * has passed and no probe call is reserved, or the reserved probe call is considered lost.
+     *
+     * @param now is the current ticker time.
+     * @return true if a probe call may be let through.
+     */
+    private boolean isProbeAvailable(long now) {
+        return (state == CircuitState.HALF_OPEN && probe == NO_PROBE)
+                || now - since >= config.getOpenDuration().toNanos();
+    }
+
+    /**
+     * Records the outcome of a call, and opens or closes the circuit if needed.
+     *
+     * @param latencyNanos is the latency of the call in nanoseconds.
+     * @param failed       is whether the call failed.
+     * @param permit       is the permit of the call.
+     */
+    private synchronized void record(long latencyNanos, boolean failed, long permit) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        boolean slow = latencyNanos >= config.getLatencyThreshold().toNanos();
+
+        // Only the probe call decides whether the instance has recovered
+        if (state == CircuitState.HALF_OPEN) {
+            if (permit == NO_PROBE || permit != probe) {
+                return;
+            }
+            probe = NO_PROBE;
+            if (failed || slow) {
+                open();
+            } else {
+                state = CircuitState.CLOSED;
+            }
+            return;
+        }
+
+        // Calls that were forwarded before the circuit opened are ignored
+        if (state == CircuitState.OPEN) {
+            return;
+        }
+
+        // Replace the oldest call in the window once it is full
+        if (count == failures.length) {
+            failureCount -= failures[next] ? 1 : 0;
+            slowCount -= slowCalls[next] ? 1 : 0;
+        } else {
+            count++;
+        }
+        failures[next] = failed;
+        slowCalls[next] = slow;
+        failureCount += failed ? 1 : 0;
+        slowCount += slow ? 1 : 0;
+        next = (next + 1) % failures.length;
+
+        if (count >= config.getMinimumCalls() && (isFailureRateExceeded() || isTooSlow())) {
+            open();
+        }
+    }
+
+    /**
+     * Checks whether the error rate of the window has reached its threshold.
+     *
+     * @return true if too many calls failed.
+     */
+    private boolean isFailureRateExceeded() {
+        return failureCount >= config.getFailureRateThreshold() * count;
+    }
+
+    /**
+     * Checks whether the latency percentile of the window has reached its threshold.
+     *
+     * @return true if too many calls were slow.
+     */
+    private boolean isTooSlow() {
+        int rank = (int) Math.ceil(config.getLatencyPercentile() * count);
+        return slowCount >= count - Math.max(rank, 1) + 1;
+    }
+
+    /**
+     * Opens the circuit, and clears the window so that the instance starts with a clean slate
+     * once it has recovered.
+     */
+    private void open() {
+        state = CircuitState.OPEN;
+        since = ticker.read();
+        probe = NO_PROBE;
+        next = 0;
+        count = 0;
+        failureCount = 0;
+        slowCount = 0;
+    }
+
+}
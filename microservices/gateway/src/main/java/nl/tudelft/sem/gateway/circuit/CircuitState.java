@@ -0,0 +1,13 @@
+package nl.tudelft.sem.gateway.circuit;
+
+/**
+ * State of the circuit breaker of a registered instance.
+ */
+public enum CircuitState {
+    // Calls are forwarded to the instance
+    CLOSED,
+    // The instance is ejected, and calls are not forwarded to it
+    OPEN,
+    // A single probe call has been forwarded to the instance, to determine whether it recovered
+    HALF_OPEN
+}
@@ -0,0 +1,85 @@
+package nl.tudelft.sem.gateway.coalescing;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import nl.tudelft.sem.gateway.config.CoalescingConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces identical concurrent GET calls (single-flight). The first call is forwarded to the
+ * destination, and calls that arrive while it is in flight receive the same response instead of
+ * being forwarded themselves.
+ */
+@Component
+public class RequestCoalescer {
+
+    // Settings of the coalescing
+    private final transient CoalescingConfig config;
+
+    // Calls that are in flight, keyed by path, query and caller
+    private final transient ConcurrentMap<String, Mono<ResponseEntity<String>>> inFlight;
+
+    /**
+     * Constructs the request coalescer.
+     *
+     * @param config is the configuration of the coalescing.
+     */
+    @Autowired
+    public RequestCoalescer(CoalescingConfig config) {
+        this.config = config;
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the key that identifies identical calls. Calls are only identical if they are made
+     * by the same caller (Authorization header) and are conditional on the same entity tags. The
+     * Authorization header is hashed, so that tokens are not kept in memory.
+     *
+     * @param path    is the path of the call, which includes the target.
+     * @param query   is the raw query string of the call, or null if it has none.
+     * @param headers is a collection of headers that is sent to the destination.
+     * @return the key.
+     */
+    public static String key(String path, String query, HttpHeaders headers) {
+        StringBuilder key = new StringBuilder(path);
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        key.append(' ').append(authorization == null ? "-" : Hashing.sha256()
+                .hashString(authorization, StandardCharsets.UTF_8).toString());
+        key.append(' ').append(String.join(",", headers.getIfNoneMatch()));
+        return key.toString();
+    }
+
+    /**
+     * Executes a GET call, unless an identical call is already in flight, in which case the
+     * response of that call is shared.
+     *
+     * @param key  is the key that identifies identical calls, as created by {@link #key}.
+     * @param call is the call to the destination.
+     * @return response that will become available in the future.
+     */
+    public Mono<ResponseEntity<String>> execute(String key, Mono<ResponseEntity<String>> call) {
+        if (!config.isEnabled()) {
+            return call;
+        }
+
+        return Mono.defer(() -> {
+            // The flight is removed as soon as the call completes, so later calls are forwarded
+            AtomicReference<Mono<ResponseEntity<String>>> flight = new AtomicReference<>();
+            flight.set(call.doFinally(signal -> inFlight.remove(key, flight.get())).cache());
+
+            Mono<ResponseEntity<String>> existing = inFlight.putIfAbsent(key, flight.get());
+            return existing != null ? existing : flight.get();
+        });
+    }
+
+}
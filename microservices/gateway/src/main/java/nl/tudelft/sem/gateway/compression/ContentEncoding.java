@@ -0,0 +1,122 @@
+package nl.tudelft.sem.gateway.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.util.StringUtils;
+
+/**
+ * Content encoding that the gateway can compress responses with, in order of preference.
+ */
+public enum ContentEncoding {
+    // The gzip format (RFC 1952)
+    GZIP("gzip"),
+    // The zlib format (RFC 1950), which HTTP calls deflate
+    DEFLATE("deflate");
+
+    // Token of the encoding in the Accept-Encoding and Content-Encoding headers
+    private final String token;
+
+    /**
+     * Creates a content encoding.
+     *
+     * @param token is the token of the encoding in the headers.
+     */
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Returns the token of the encoding in the Accept-Encoding and Content-Encoding headers.
+     *
+     * @return the token.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Wraps an output stream, so that everything written to it is compressed. Closing the returned
+     * stream finishes the compressed body and closes the given stream.
+     *
+     * @param outputStream is the stream that receives the compressed body.
+     * @return the stream to write the uncompressed body to.
+     * @throws IOException if the header of the compressed body cannot be written.
+     */
+    public OutputStream encode(OutputStream outputStream) throws IOException {
+        return this == GZIP
+                ? new GZIPOutputStream(outputStream)
+                : new DeflaterOutputStream(outputStream);
+    }
+
+    /**
+     * Selects the encoding to compress a response with, based on the Accept-Encoding headers of
+     * the request. The encoding with the highest quality value wins, and ties are resolved in
+     * order of preference. A wildcard (*) applies to the encodings that are not listed.
+     *
+     * @param acceptEncoding are the values of the Accept-Encoding headers of the request.
+     * @return the encoding, or null if the caller does not accept any supported encoding.
+     */
+    public static ContentEncoding negotiate(List<String> acceptEncoding) {
+        ContentEncoding selected = null;
+        double best = 0;
+        for (ContentEncoding encoding : values()) {
+            double quality = quality(acceptEncoding, encoding.token);
+            if (quality > best) {
+                selected = encoding;
+                best = quality;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Determines the quality value that the caller assigned to an encoding.
+     *
+     * @param acceptEncoding are the values of the Accept-Encoding headers of the request.
+     * @param token          is the token of the encoding.
+     * @return the quality value, which is zero if the encoding is not acceptable.
+     */
+    private static double quality(List<String> acceptEncoding, String token) {
+        Double wildcard = null;
+        for (String header : acceptEncoding) {
+            for (String element : StringUtils.tokenizeToStringArray(header, ",")) {
+                String[] parts = StringUtils.tokenizeToStringArray(element, ";");
+                if (parts.length == 0) {
+                    continue;
+                }
+                String coding = parts[0].toLowerCase(Locale.ROOT);
+                if (coding.equals(token)) {
+                    return parseQuality(parts);
+                }
+                if (coding.equals("*")) {
+                    wildcard = parseQuality(parts);
+                }
+            }
+        }
+        return wildcard != null ? wildcard : 0;
+    }
+
+    /**
+     * Parses the quality value of an element of the Accept-Encoding header.
+     *
+     * @param parts are the coding and the parameters of the element.
+     * @return the quality value, which defaults to one.
+     */
+    private static double parseQuality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].replace(" ", "").toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
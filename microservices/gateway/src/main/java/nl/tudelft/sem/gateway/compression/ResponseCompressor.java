@@ -0,0 +1,159 @@
+package nl.tudelft.sem.gateway.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import nl.tudelft.sem.gateway.config.CompressionConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compresses the responses of the gateway with the encoding that the caller prefers (gzip or
+ * deflate, see {@link ContentEncoding}), if the compression is enabled. Only responses of the
+ * configured media types of at least <i>gateway.compression.min-response-size</i> are compressed,
+ * and responses that already have a content encoding are sent as-is.
+ *
+ * <p>The microservices are asked for uncompressed responses, unless
+ * <i>gateway.compression.passthrough</i> is enabled, in which case the encodings of the caller are
+ * forwarded, and the bodies that the microservices compress themselves are passed through without
+ * compressing them again. Bodies can only be passed through in streaming mode, as the buffering
+ * controller handles bodies as text.
+ */
+@Component
+public class ResponseCompressor {
+
+    // Settings of the response compression
+    private final transient CompressionConfig config;
+
+    // Media types that are compressed
+    private final transient List<MediaType> mimeTypes;
+
+    /**
+     * Constructs the response compressor.
+     *
+     * @param config is the configuration of the response compression.
+     */
+    @Autowired
+    public ResponseCompressor(CompressionConfig config) {
+        this.config = config;
+        this.mimeTypes = MediaType.parseMediaTypes(config.getMimeTypes());
+    }
+
+    /**
+     * Removes the Accept-Encoding header from the headers that are forwarded to the microservice,
+     * unless the bodies that the microservices compress are passed through.
+     *
+     * @param headers is a collection of headers that is forwarded.
+     * @return the same collection of headers.
+     */
+    public HttpHeaders negotiateUpstream(HttpHeaders headers) {
+        if (config.isEnabled() && !config.isPassthrough()) {
+            headers.remove(HttpHeaders.ACCEPT_ENCODING);
+        }
+        return headers;
+    }
+
+    /**
+     * Selects the encoding to compress a response with.
+     *
+     * @param requestHeaders  is a collection of headers that is part of the initial request.
+     * @param responseHeaders is a collection of headers that is part of the response.
+     * @param size            is the size of the body of the response, or -1 if it is unknown.
+     * @return the encoding, or null if the response is sent as-is.
+     */
+    public ContentEncoding select(HttpHeaders requestHeaders, HttpHeaders responseHeaders,
+                                  long size) {
+        if (!config.isEnabled() || !isCompressible(responseHeaders)
+                || (size >= 0 && size < config.getMinResponseSize().toBytes())) {
+            return null;
+        }
+        return ContentEncoding.negotiate(requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Creates the headers of a compressed response. The content length of the uncompressed body
+     * no longer applies, and caches must take the encodings of the caller into account.
+     *
+     * @param responseHeaders is a collection of headers that is part of the response.
+     * @param encoding        is the encoding of the compressed body.
+     * @return the headers of the compressed response.
+     */
+    public HttpHeaders encodedHeaders(HttpHeaders responseHeaders, ContentEncoding encoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(responseHeaders);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.set(HttpHeaders.CONTENT_ENCODING, encoding.getToken());
+        if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return headers;
+    }
+
+    /**
+     * Compresses a buffered response, if the caller accepts a supported encoding and the response
+     * is eligible for compression.
+     *
+     * @param requestHeaders is a collection of headers that is part of the initial request.
+     * @param response       is the response.
+     * @return the compressed response, or the same response if it is sent as-is.
+     */
+    public ResponseEntity<?> compress(HttpHeaders requestHeaders,
+                                      ResponseEntity<String> response) {
+        if (!config.isEnabled() || response.getBody() == null) {
+            return response;
+        }
+
+        // Encode the body with the charset that the message converter would have used
+        MediaType contentType = response.getHeaders().getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset()
+                : StandardCharsets.UTF_8;
+        byte[] body = response.getBody().getBytes(charset);
+        ContentEncoding encoding = select(requestHeaders, response.getHeaders(), body.length);
+        if (encoding == null) {
+            return response;
+        }
+        return new ResponseEntity<>(encode(body, encoding),
+                encodedHeaders(response.getHeaders(), encoding), response.getStatusCode());
+    }
+
+    /**
+     * Checks whether a response is eligible for compression, based on its headers.
+     *
+     * @param responseHeaders is a collection of headers that is part of the response.
+     * @return true if the response has a compressible media type and no content encoding.
+     */
+    private boolean isCompressible(HttpHeaders responseHeaders) {
+        if (responseHeaders.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        MediaType contentType = responseHeaders.getContentType();
+        return contentType != null && mimeTypes.stream().anyMatch(type ->
+                type.includes(contentType));
+    }
+
+    /**
+     * Compresses a body.
+     *
+     * @param body     is the uncompressed body.
+     * @param encoding is the encoding to compress the body with.
+     * @return the compressed body.
+     */
+    private static byte[] encode(byte[] body, ContentEncoding encoding) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream outputStream = encoding.encode(compressed)) {
+            outputStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,46 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import nl.tudelft.sem.gateway.admission.LimitAlgorithm;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the admission control from the properties file.
+ * Every target receives its own concurrency limit with these settings.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionConfig {
+
+    // Whether the number of concurrent calls per target is limited
+    private boolean enabled = true;
+
+    // Algorithm that determines the concurrency limit
+    private LimitAlgorithm algorithm = LimitAlgorithm.AIMD;
+
+    // Concurrency limit of a target before any calls have been observed
+    private int initialLimit = 50;
+
+    // Lower bound of the adaptive concurrency limit
+    private int minLimit = 5;
+
+    // Upper bound of the adaptive concurrency limit
+    private int maxLimit = 500;
+
+    // Maximum number of calls per target that may wait for the concurrency limit
+    private int maxQueueSize = 100;
+
+    // Maximum time a call may wait for the concurrency limit, before it is shed
+    private Duration queueTimeout = Duration.ofSeconds(1);
+
+    // Latency at which a call signals overload to the adaptive concurrency limit
+    private Duration latencyThreshold = Duration.ofSeconds(2);
+
+    // Factor by which the adaptive concurrency limit is decreased on overload
+    private double backoffRatio = 0.9;
+}
@@ -0,0 +1,38 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import nl.tudelft.sem.gateway.balancing.strategies.StrategyType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the load balancing strategies from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.balancing")
+public class BalancingConfig {
+
+    // Strategy of targets that do not have a strategy configured
+    private StrategyType defaultStrategy = StrategyType.ROUND_ROBIN;
+
+    // Strategies per target
+    private Map<String, StrategyType> strategies = new HashMap<>();
+
+    // Maximum load of an instance relative to the average, for the consistent hashing strategy
+    private double hashLoadFactor = 1.25;
+
+    /**
+     * Returns the strategy type that is configured for the target.
+     *
+     * @param target the name of the target
+     * @return the configured strategy type, or the default strategy type.
+     */
+    public StrategyType getStrategy(String target) {
+        return strategies.getOrDefault(target, defaultStrategy);
+    }
+}
@@ -0,0 +1,22 @@
+package nl.tudelft.sem.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the batch endpoint from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.batch")
+public class BatchConfig {
+
+    // Maximum number of sub-requests in a single batch
+    private int maxRequests = 50;
+
+    // Maximum number of sub-requests of a batch that are forwarded concurrently
+    private int concurrency = 10;
+}
@@ -0,0 +1,45 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A class that is used to read the settings of the traffic capture from the properties file. The
+ * captured requests are appended to the file every <i>gateway.capture.flush-interval-millis</i>.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.capture")
+public class CaptureConfig {
+
+    // Whether the forwarded requests are captured
+    private boolean enabled = false;
+
+    // Path of the file that the captured requests are appended to (one JSON object per line)
+    private String file = "gateway-capture.jsonl";
+
+    // Maximum size of a captured body; larger bodies are left out
+    private DataSize maxBodySize = DataSize.ofKilobytes(64);
+
+    // Maximum number of captured requests waiting to be written; further requests are dropped
+    private int maxPending = 10000;
+
+    // Headers that are captured
+    private List<String> headers = List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ACCEPT, HttpHeaders.IF_NONE_MATCH);
+
+    // Captured headers of which the values are replaced by placeholders
+    private List<String> redactedHeaders = List.of(HttpHeaders.AUTHORIZATION);
+
+    // Fields of JSON bodies of which the values are replaced by placeholders
+    private List<String> redactedFields = List.of("password", "token", "jwt");
+
+    // Maximum number of distinct tokens that keep their placeholder; older ones get a new one
+    private int maxTokens = 10000;
+}
@@ -0,0 +1,39 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the circuit breakers from the properties file.
+ * Every registered instance receives its own circuit breaker with these settings.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.circuit-breaker")
+public class CircuitBreakerConfig {
+
+    // Whether instances are ejected when their calls fail or slow down
+    private boolean enabled = true;
+
+    // Number of most recent calls on which the error rate and latency are evaluated
+    private int windowSize = 50;
+
+    // Minimum number of calls in the window before the circuit may open
+    private int minimumCalls = 20;
+
+    // Fraction of failed calls (between 0 and 1) at which the circuit opens
+    private double failureRateThreshold = 0.5;
+
+    // Percentile (between 0 and 1) of the latency that is compared to the latency threshold
+    private double latencyPercentile = 0.95;
+
+    // Latency at which the percentile is considered too slow, and the circuit opens
+    private Duration latencyThreshold = Duration.ofSeconds(10);
+
+    // Time during which an instance is ejected, before a probe call is let through
+    private Duration openDuration = Duration.ofSeconds(30);
+}
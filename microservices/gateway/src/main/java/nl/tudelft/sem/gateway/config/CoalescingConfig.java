@@ -0,0 +1,19 @@
+package nl.tudelft.sem.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the request coalescing from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingConfig {
+
+    // Whether identical concurrent GET calls share a single call to the destination
+    private boolean enabled = true;
+}
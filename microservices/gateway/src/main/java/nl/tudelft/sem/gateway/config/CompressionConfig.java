@@ -0,0 +1,33 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A class that is used to read the settings of the response compression from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionConfig {
+
+    // Whether the gateway compresses responses for callers that accept a supported encoding
+    private boolean enabled = false;
+
+    // Minimum size of a compressed response; smaller responses are sent as-is
+    private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+    // Media types that are compressed (e.g. text/*), other media types are sent as-is
+    private List<String> mimeTypes = List.of(MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_XML_VALUE, "application/javascript", "text/*");
+
+    // Whether the encodings of the caller are forwarded, so that bodies that the microservices
+    // compress themselves are passed through (only in streaming mode)
+    private boolean passthrough = false;
+}
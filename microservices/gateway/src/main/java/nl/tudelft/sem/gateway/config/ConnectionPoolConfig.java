@@ -0,0 +1,42 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the upstream connection pools from the properties
+ * file. Every registration receives its own pool with these settings.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.pool")
+public class ConnectionPoolConfig {
+
+    // Maximum number of connections per registration
+    private int maxConnections = 50;
+
+    // Maximum number of calls that may wait for a connection per registration
+    private int pendingAcquireMaxCount = 500;
+
+    // Maximum time a call may wait for a connection
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    // Time after which idle connections are closed
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    // Time after which connections are closed, regardless of their activity
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    // Interval at which idle and expired connections are evicted in the background
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    // Maximum time to establish a connection
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    // Maximum time between sending a request and receiving its response
+    private Duration responseTimeout = Duration.ofSeconds(30);
+}
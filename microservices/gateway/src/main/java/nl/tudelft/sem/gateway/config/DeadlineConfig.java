@@ -0,0 +1,23 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the request deadlines from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.deadline")
+public class DeadlineConfig {
+
+    // Whether the gateway attaches a deadline to every forwarded call
+    private boolean enabled = false;
+
+    // Maximum time that a forwarded call (including its downstream calls) may take
+    private Duration timeout = Duration.ofSeconds(30);
+}
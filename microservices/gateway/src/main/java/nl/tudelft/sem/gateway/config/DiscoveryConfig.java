@@ -0,0 +1,22 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the discovery feed from the properties file. The
+ * interval at which expired registrations are evicted is set by
+ * <i>gateway.discovery.evictionIntervalMillis</i>.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.discovery")
+public class DiscoveryConfig {
+
+    // Maximum time that a request to the discovery feed waits for a change
+    private Duration feedTimeout = Duration.ofSeconds(25);
+}
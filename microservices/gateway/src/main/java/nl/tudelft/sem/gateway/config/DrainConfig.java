@@ -0,0 +1,21 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the draining of deregistered instances from the
+ * properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.drain")
+public class DrainConfig {
+
+    // Maximum time that a deregistered instance is kept while its calls complete
+    private Duration timeout = Duration.ofSeconds(30);
+}
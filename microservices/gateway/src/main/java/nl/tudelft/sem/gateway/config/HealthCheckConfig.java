@@ -0,0 +1,33 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the active health checks from the properties file.
+ * The interval of the health checks is set by <i>gateway.health-check.interval-millis</i>.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.health-check")
+public class HealthCheckConfig {
+
+    // Whether the registered instances are probed periodically
+    private boolean enabled = false;
+
+    // Path that is probed, which should be cheap to serve; every response below 500 counts as up
+    private String path = "/";
+
+    // Time after which a probe without response counts as failed
+    private Duration timeout = Duration.ofSeconds(1);
+
+    // Number of consecutive failed probes after which an instance is marked down
+    private int unhealthyThreshold = 2;
+
+    // Number of consecutive successful probes after which an instance is marked up again
+    private int healthyThreshold = 1;
+}
@@ -0,0 +1,47 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the request hedging from the properties file. Only
+ * GET calls to the configured routes are hedged.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.hedging")
+public class HedgingConfig {
+
+    // Whether slow GET calls to the configured routes are sent to a second instance
+    private boolean enabled = false;
+
+    // Ant-style path patterns of the hedged routes, keyed by their name
+    private Map<String, String> routes = new HashMap<>();
+
+    // Percentile of the recent latencies of a target after which a call is hedged
+    private double delayPercentile = 0.95;
+
+    // Lower bound of the hedging delay
+    private Duration minDelay = Duration.ofMillis(10);
+
+    // Upper bound of the hedging delay, which is also used until enough calls have been observed
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    // Number of recent calls per target of which the latency is kept
+    private int windowSize = 100;
+
+    // Minimum number of observed calls of a target before the percentile is used as delay
+    private int minimumCalls = 20;
+
+    // Maximum number of hedged calls, as a fraction of the number of calls to the hedged routes
+    private double budgetRatio = 0.1;
+
+    // Maximum number of hedged calls that may be sent in a burst
+    private int maxBudget = 10;
+}
@@ -0,0 +1,19 @@
+package nl.tudelft.sem.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the identity propagation from the properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.identity")
+public class IdentityConfig {
+
+    // Whether the gateway validates JWT tokens, and forwards the identity of the user
+    private boolean enabled = false;
+}
@@ -0,0 +1,27 @@
+package nl.tudelft.sem.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the metrics of the forwarded calls from the
+ * properties file.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.metrics")
+public class MetricsConfig {
+
+    // Whether the latencies, sizes and statuses of the forwarded calls are recorded
+    private boolean enabled = false;
+
+    // Maximum number of series (target, method, route and instance), after which the routes of
+    // new series are recorded as 'other'
+    private int maxSeries = 1000;
+
+    // Whether the metrics endpoint only responds to callers on the same machine
+    private boolean localOnly = true;
+}
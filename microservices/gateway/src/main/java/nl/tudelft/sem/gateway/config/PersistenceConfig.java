@@ -0,0 +1,24 @@
+package nl.tudelft.sem.gateway.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the persistence of the registrations from the
+ * properties file. The interval of the snapshots is set by
+ * <i>gateway.persistence.interval-millis</i>.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.persistence")
+public class PersistenceConfig {
+
+    // Whether the registrations are saved to, and restored from, a local file
+    private boolean enabled = false;
+
+    // Path of the file that the registrations are saved to
+    private String file = "gateway-registrations.json";
+}
@@ -0,0 +1,43 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * A class that is used to read the settings of the rate limiter from the properties file. Only
+ * the calls to the configured routes are rate limited.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitConfig {
+
+    // Maximum number of token buckets (one per caller and route) that are kept in memory
+    private long maxBuckets = 100_000;
+
+    // Rate limited routes, keyed by their name
+    private Map<String, Route> routes = new HashMap<>();
+
+    /**
+     * Settings of a single rate limited route.
+     */
+    @Getter
+    @Setter
+    public static class Route {
+
+        // Ant-style pattern of the paths of the route, e.g. /api/hour-management/declaration/**
+        private String pattern;
+
+        // Maximum number of calls per caller within a period, which may be used in a burst
+        private int limit = 60;
+
+        // Period in which the limit of a caller is replenished
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
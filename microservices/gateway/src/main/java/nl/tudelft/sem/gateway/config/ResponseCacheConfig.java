@@ -0,0 +1,48 @@
+package nl.tudelft.sem.gateway.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import nl.tudelft.sem.gateway.cache.CacheScope;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A class that is used to read the settings of the response cache from the properties file.
+ * Only the responses of the configured routes are cached.
+ */
+@Getter
+@Setter
+@Configuration
+@ConfigurationProperties(prefix = "gateway.cache")
+public class ResponseCacheConfig {
+
+    // Approximate maximum size of all cached responses together
+    private DataSize maxSize = DataSize.ofMegabytes(10);
+
+    // Time after which a response is discarded, unless it has been revalidated
+    private Duration retention = Duration.ofHours(1);
+
+    // Cached routes, keyed by their name
+    private Map<String, Route> routes = new HashMap<>();
+
+    /**
+     * Settings of a single cached route.
+     */
+    @Getter
+    @Setter
+    public static class Route {
+
+        // Ant-style pattern of the paths of the route, e.g. /api/courses/get/**
+        private String pattern;
+
+        // Time during which a response is served without revalidation
+        private Duration ttl = Duration.ofMinutes(1);
+
+        // Scope in which responses are shared
+        private CacheScope scope = CacheScope.AUTHORIZATION;
+    }
+}
@@ -1,6 +1,9 @@
 package nl.tudelft.sem.gateway.controller;
 
 import javax.validation.Valid;
+import nl.tudelft.sem.gateway.config.DiscoveryConfig;
+import nl.tudelft.sem.gateway.config.DrainConfig;
+import nl.tudelft.sem.gateway.discovery.DiscoveryFeed;
 import nl.tudelft.sem.gateway.discovery.Registration;
 import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
 import org.slf4j.Logger;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/discovery")
@@ -28,14 +33,47 @@ public class DiscoveryRegistrarController {
     // Registrar service class
     private final transient DiscoveryRegistrarService discoveryRegistrarService;
 
+    // Configuration of the draining of deregistered instances
+    private final transient DrainConfig drainConfig;
+
+    // Configuration of the discovery feed
+    private final transient DiscoveryConfig discoveryConfig;
+
     /**
      * Constructs a DiscoveryRegistrarController instance.
      *
      * @param discoveryRegistrarService is an automatically injected dependency.
+     * @param drainConfig               is the configuration of the draining of deregistered
+     *                                  instances.
+     * @param discoveryConfig           is the configuration of the discovery feed.
      */
     @Autowired
-    public DiscoveryRegistrarController(DiscoveryRegistrarService discoveryRegistrarService) {
+    public DiscoveryRegistrarController(DiscoveryRegistrarService discoveryRegistrarService,
+                                        DrainConfig drainConfig,
+                                        DiscoveryConfig discoveryConfig) {
         this.discoveryRegistrarService = discoveryRegistrarService;
+        this.drainConfig = drainConfig;
+        this.discoveryConfig = discoveryConfig;
+    }
+
+    /**
+     * Request handler for the /discovery/feed endpoint. Returns all registrations that calls can
+     * be forwarded to, so that clients can call the microservices directly. If the client already
+     * knows the current version, the response is held back until the registrations change, or
+     * until the feed timeout has passed (long polling).
+     *
+     * @param version is the version that the client knows of, if any.
+     * @return the discovery feed, which becomes available in the future.
+     */
+    @GetMapping("/feed")
+    public @ResponseBody
+    Mono<DiscoveryFeed> getFeed(@RequestParam(value = "version", required = false) Long version) {
+        if (version == null) {
+            return Mono.just(discoveryRegistrarService.getFeed());
+        }
+        return discoveryRegistrarService
+                .awaitChange(version, discoveryConfig.getFeedTimeout())
+                .map(changed -> discoveryRegistrarService.getFeed());
     }
 
     /**
@@ -80,4 +118,30 @@ public class DiscoveryRegistrarController {
         // Add the registration
         discoveryRegistrarService.addRegistration(target, registration);
     }
+
+    /**
+     * Deregisters an endpoint of the specified target, typically because the microservice is
+     * shutting down. The endpoint no longer receives new calls, and is removed once its
+     * outstanding calls have completed, or once the drain timeout has passed.
+     *
+     * @param target       is the targeted microservice base that the microservice is registered
+     *                     to.
+     * @param registration is the registration info of the to-be-deregistered microservice.
+     */
+    @PostMapping("/deregister/{target}")
+    @ResponseStatus(HttpStatus.OK)
+    private void deregisterMicroservice(@PathVariable("target") String target,
+                                        @RequestBody @Valid Registration registration) {
+        // Log action
+        logger.debug("Draining entry for target: '{}' pointing to: '{}:{}'", target,
+                registration.getHost(), registration.getPort());
+
+        // Drain the registration
+        if (!discoveryRegistrarService.drainRegistration(target, registration,
+                drainConfig.getTimeout())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Could not find microservice registration for '" + target
+                            + "' to deregister");
+        }
+    }
 }
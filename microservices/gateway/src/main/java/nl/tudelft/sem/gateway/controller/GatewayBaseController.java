@@ -0,0 +1,194 @@
+package nl.tudelft.sem.gateway.controller;
+
+import java.time.Duration;
+import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.auth.IdentityPropagator;
+import nl.tudelft.sem.gateway.compression.ResponseCompressor;
+import nl.tudelft.sem.gateway.deadline.DeadlinePropagator;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.ratelimit.RateLimiter;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Base controller class for the gateway. Parent class for the different forwarding controllers.
+ */
+public abstract class GatewayBaseController {
+
+    // Manages the registrations
+    protected final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Manages the connection pools (and web clients) of the registrations
+    protected final transient ConnectionPoolManager connectionPoolManager;
+
+    // Forwards the identity of the user
+    protected final transient IdentityPropagator identityPropagator;
+
+    // Limits the rate of the calls to the configured routes
+    protected final transient RateLimiter rateLimiter;
+
+    // Limits the number of concurrent calls per target
+    protected final transient AdmissionManager admissionManager;
+
+    // Attaches the deadline to the forwarded calls
+    protected final transient DeadlinePropagator deadlinePropagator;
+
+    // Compresses the responses for the callers that accept it
+    protected final transient ResponseCompressor responseCompressor;
+
+    /**
+     * Instantiates a new gateway controller object.
+     *
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     * @param connectionPoolManager     is the manager of the connection pools.
+     * @param identityPropagator        is used to forward the identity of the user.
+     * @param rateLimiter               is used to limit the rate of the calls.
+     * @param admissionManager          is used to limit the number of concurrent calls.
+     * @param deadlinePropagator        is used to attach the deadline to the forwarded calls.
+     * @param responseCompressor        is used to compress the responses.
+     */
+    public GatewayBaseController(DiscoveryRegistrarService discoveryRegistrarService,
+                                 ConnectionPoolManager connectionPoolManager,
+                                 IdentityPropagator identityPropagator,
+                                 RateLimiter rateLimiter,
+                                 AdmissionManager admissionManager,
+                                 DeadlinePropagator deadlinePropagator,
+                                 ResponseCompressor responseCompressor) {
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.connectionPoolManager = connectionPoolManager;
+        this.identityPropagator = identityPropagator;
+        this.rateLimiter = rateLimiter;
+        this.admissionManager = admissionManager;
+        this.deadlinePropagator = deadlinePropagator;
+        this.responseCompressor = responseCompressor;
+    }
+
+    /**
+     * Request handler for the base /api/ URL.
+     *
+     * @return response from gateway.
+     */
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    String getHelloMessage() {
+        return "Hello from Gateway!";
+    }
+
+    /**
+     * Applies the rate limit of the route of a request, if it has one.
+     *
+     * @param request is the request info object.
+     * @param headers is a collection of headers that is part of the request.
+     * @return an exception with status 429 (Too Many Requests) if the caller exceeded the rate
+     *         limit, or null if the request may be forwarded.
+     */
+    protected MonoForwardingException checkRateLimit(HttpServletRequest request,
+                                                     HttpHeaders headers) {
+        return checkRateLimit(request.getRequestURI(), request.getRemoteAddr(), headers);
+    }
+
+    /**
+     * Applies the rate limit of the route of a path, if it has one.
+     *
+     * @param path          is the path of the request.
+     * @param remoteAddress is the remote address of the caller.
+     * @param headers       is a collection of headers that is part of the request.
+     * @return an exception with status 429 (Too Many Requests) if the caller exceeded the rate
+     *         limit, or null if the request may be forwarded.
+     */
+    protected MonoForwardingException checkRateLimit(String path, String remoteAddress,
+                                                     HttpHeaders headers) {
+        String route = rateLimiter.findRoute(path);
+        if (route == null) {
+            return null;
+        }
+
+        Duration retryAfter = rateLimiter.tryAcquire(route,
+                identityPropagator.resolveUserId(headers), remoteAddress);
+        if (retryAfter == null) {
+            return null;
+        }
+        HttpHeaders errorHeaders = new HttpHeaders();
+        errorHeaders.set(HttpHeaders.RETRY_AFTER, RateLimiter.toRetryAfter(retryAfter));
+        return new MonoForwardingException(HttpStatus.TOO_MANY_REQUESTS, errorHeaders,
+                "Rate limit exceeded, please try again later");
+    }
+
+    /**
+     * Selects an active instance of the target to forward a request to. The user ID of the caller
+     * is used as hash key, so that targets with a consistent hashing strategy route all requests
+     * of a user to the same instance.
+     *
+     * @param target  is the name of the targeted microservice.
+     * @param headers is a collection of headers that is part of the request.
+     * @return the selected instance.
+     * @throws ResponseStatusException if no active registration exists for the target.
+     */
+    protected RegisteredInstance resolveInstance(String target, HttpHeaders headers) {
+        // Attempt to retrieve registration
+        Long userId = identityPropagator.resolveUserId(headers);
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target,
+                userId != null ? userId.toString() : null);
+        if (instance == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Could not find active microservice registration for '"
+                            + target
+                            + "' to forward request to");
+        }
+        return instance;
+    }
+
+    /**
+     * Determines the destination of a request, by replacing the host and port of the initial
+     * request with the ones of the registration.
+     *
+     * @param registration is the registration of the selected instance.
+     * @param request      is the request info object.
+     * @return the destination address.
+     */
+    protected String resolveDestination(Registration registration, HttpServletRequest request) {
+        return ServletUriComponentsBuilder
+                .fromRequest(request)
+                .host(registration.getHost())
+                .port(registration.getPort())
+                .toUriString();
+    }
+
+    /**
+     * Creates the headers that are forwarded to the microservice, which include the identity of
+     * the user if the identity propagation is enabled, and the deadline of the call if the
+     * deadlines are enabled. The encodings of the caller are only forwarded if the gateway does
+     * not compress the responses itself.
+     *
+     * @param headers is a collection of headers that is part of the initial request.
+     * @return the headers to forward.
+     */
+    protected HttpHeaders forwardedHeaders(HttpHeaders headers) {
+        return responseCompressor.negotiateUpstream(
+                deadlinePropagator.apply(identityPropagator.propagate(headers)));
+    }
+
+    /**
+     * Returns the web client for executing asynchronous requests to the instance, which uses the
+     * connection pool of the instance.
+     *
+     * @param instance is the instance that the call is forwarded to.
+     * @return the web client.
+     */
+    protected WebClient webClient(RegisteredInstance instance) {
+        return connectionPoolManager.getWebClient(instance.getRegistration());
+    }
+
+}
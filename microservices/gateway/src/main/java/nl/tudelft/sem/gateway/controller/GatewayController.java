@@ -1,57 +1,119 @@
 package nl.tudelft.sem.gateway.controller;
 
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.auth.IdentityPropagator;
+import nl.tudelft.sem.gateway.batch.BatchRequest;
+import nl.tudelft.sem.gateway.batch.BatchResponse;
+import nl.tudelft.sem.gateway.cache.ResponseCache;
+import nl.tudelft.sem.gateway.capture.TrafficRecorder;
+import nl.tudelft.sem.gateway.coalescing.RequestCoalescer;
+import nl.tudelft.sem.gateway.compression.ResponseCompressor;
+import nl.tudelft.sem.gateway.config.BatchConfig;
+import nl.tudelft.sem.gateway.deadline.DeadlinePropagator;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
 import nl.tudelft.sem.gateway.discovery.Registration;
 import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
+import nl.tudelft.sem.gateway.hedging.RequestHedger;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.ratelimit.RateLimiter;
 import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
-import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+/**
+ * Controller that forwards calls by buffering the request and response bodies. Used unless the
+ * streaming mode is enabled by setting <i>gateway.streaming.enabled</i> to true.
+ */
 @RestController
 @RequestMapping("/api")
-public class GatewayController {
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "gateway.streaming", name = "enabled", havingValue = "false",
+        matchIfMissing = true)
+public class GatewayController extends GatewayBaseController {
 
-    // Create web client for executing asynchronous requests
-    private final transient WebClient webClient;
+    // Media type of batch responses that are streamed as newline-delimited JSON
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
 
-    // Manages the registrations
-    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+    // Prefix of the paths of the sub-requests of a batch
+    private static final String API_PREFIX = "/api/";
+
+    // Methods of the sub-requests of a batch that are forwarded
+    private static final Set<HttpMethod> FORWARDED_METHODS = EnumSet.of(HttpMethod.GET,
+            HttpMethod.PUT, HttpMethod.POST, HttpMethod.DELETE);
+
+    // Caches the responses of the configured routes
+    private final transient ResponseCache responseCache;
+
+    // Lets identical concurrent GET calls share a single call to the destination
+    private final transient RequestCoalescer requestCoalescer;
+
+    // Sends slow GET calls to the configured routes to a second instance
+    private final transient RequestHedger requestHedger;
+
+    // Settings of the batch endpoint
+    private final transient BatchConfig batchConfig;
+
+    // Captures the forwarded requests, if enabled
+    private final transient TrafficRecorder trafficRecorder;
+
+    // Records the latencies, sizes and statuses of the forwarded calls
+    private final transient GatewayMetrics gatewayMetrics;
 
     /**
      * Constructs the GatewayController class.
      */
     @Autowired
-    public GatewayController(DiscoveryRegistrarService discoveryRegistrarService) {
-        this.webClient = WebClient.create();
-        this.discoveryRegistrarService = discoveryRegistrarService;
-    }
-
-    /**
-     * Request handler for the base /api/ URL.
-     *
-     * @return response from gateway.
-     */
-    @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public @ResponseBody
-    String getHelloMessage() {
-        return "Hello from Gateway!";
+    public GatewayController(DiscoveryRegistrarService discoveryRegistrarService,
+                             ConnectionPoolManager connectionPoolManager,
+                             IdentityPropagator identityPropagator,
+                             RateLimiter rateLimiter,
+                             AdmissionManager admissionManager,
+                             DeadlinePropagator deadlinePropagator,
+                             ResponseCompressor responseCompressor,
+                             ResponseCache responseCache,
+                             RequestCoalescer requestCoalescer,
+                             RequestHedger requestHedger,
+                             BatchConfig batchConfig,
+                             TrafficRecorder trafficRecorder,
+                             GatewayMetrics gatewayMetrics) {
+        super(discoveryRegistrarService, connectionPoolManager, identityPropagator,
+                rateLimiter, admissionManager, deadlinePropagator, responseCompressor);
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.requestHedger = requestHedger;
+        this.batchConfig = batchConfig;
+        this.trafficRecorder = trafficRecorder;
+        this.gatewayMetrics = gatewayMetrics;
     }
 
     /**
@@ -62,68 +124,337 @@ public class GatewayController {
      * @param body    is the body to forward.
      * @param headers is a collection of headers that is part of the request.
      * @param request is the request info object.
-     * @return Response entity containing a string that becomes available in the future.
+     * @return Response entity containing a string, or the compressed body if the caller accepts
+     *         it, that becomes available in the future.
      */
     @RequestMapping(value = "/{target}/**", method = {
             RequestMethod.GET, RequestMethod.PUT, RequestMethod.POST, RequestMethod.DELETE
     })
     public @ResponseBody
-    Mono<ResponseEntity<String>> getRequest(@PathVariable("target") String target,
-                                            @RequestBody(required = false) String body,
-                                            @RequestHeader HttpHeaders headers,
-                                            HttpServletRequest request) {
-        // Attempt to retrieve registration
-        Registration registration = discoveryRegistrarService.getRegistrationIfExists(target);
-        if (registration == null) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                    "Could not find active microservice registration for '"
-                            + target
-                            + "' to forward request to");
+    Mono<ResponseEntity<?>> getRequest(@PathVariable("target") String target,
+                                       @RequestBody(required = false) String body,
+                                       @RequestHeader HttpHeaders headers,
+                                       HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        return trafficRecorder.record(method, request.getRequestURI(), request.getQueryString(),
+                headers, body, () -> {
+                    // Reject the request if the caller exceeded the rate limit of the route
+                    MonoForwardingException rateLimitExceeded = checkRateLimit(request, headers);
+                    if (rateLimitExceeded != null) {
+                        return Mono.error(rateLimitExceeded);
+                    }
+
+                    // Select an instance and determine the destination
+                    RegisteredInstance instance = resolveInstance(target, headers);
+                    String destination = resolveDestination(instance.getRegistration(), request);
+
+                    // Forward the request, and pass errors of the microservice on to the caller
+                    return forwardCall(target, instance, destination, method,
+                            request.getRequestURI(), request.getQueryString(), body,
+                            forwardedHeaders(headers))
+                            .flatMap(responseEntity -> {
+                                if (responseEntity.getStatusCode() != HttpStatus.OK) {
+                                    return Mono.error(new MonoForwardingException(
+                                            responseEntity.getStatusCode(),
+                                            responseEntity.getHeaders(),
+                                            responseEntity.getBody()));
+                                }
+                                return Mono.just(responseEntity);
+                            });
+                })
+                .map(responseEntity -> responseCompressor.compress(headers, responseEntity));
+    }
+
+    /**
+     * Creates the headers that are forwarded to the microservice. Bodies are handled as text (to
+     * cache, coalesce and batch them), hence the microservice is always asked for an uncompressed
+     * body; the gateway compresses the response itself.
+     *
+     * @param headers is a collection of headers that is part of the initial request.
+     * @return the headers to forward.
+     */
+    @Override
+    protected HttpHeaders forwardedHeaders(HttpHeaders headers) {
+        HttpHeaders forwarded = super.forwardedHeaders(headers);
+        forwarded.remove(HttpHeaders.ACCEPT_ENCODING);
+        return forwarded;
+    }
+
+    /**
+     * Batch endpoint that forwards several sub-requests concurrently, and returns their responses
+     * in a single round trip, in the order of the sub-requests.
+     *
+     * @param batch   are the sub-requests.
+     * @param headers is a collection of headers that is part of the request.
+     * @param request is the request info object.
+     * @return the responses to the sub-requests, which become available in the future.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public @ResponseBody
+    Mono<List<BatchResponse>> batch(@RequestBody List<BatchRequest> batch,
+                                    @RequestHeader HttpHeaders headers,
+                                    HttpServletRequest request) {
+        validateBatch(batch);
+        String remoteAddress = request.getRemoteAddr();
+        return Flux.range(0, batch.size())
+                .flatMapSequential(index -> forwardSubRequest(index, batch.get(index), headers,
+                        remoteAddress), batchConfig.getConcurrency())
+                .collectList();
+    }
+
+    /**
+     * Batch endpoint that forwards several sub-requests concurrently, and streams their responses
+     * as newline-delimited JSON, in the order in which they complete. Used if the caller accepts
+     * <i>application/x-ndjson</i>.
+     *
+     * @param batch   are the sub-requests.
+     * @param headers is a collection of headers that is part of the request.
+     * @param request is the request info object.
+     * @return an emitter that streams the responses to the sub-requests.
+     */
+    @PostMapping(value = "/batch", produces = APPLICATION_NDJSON)
+    public ResponseEntity<ResponseBodyEmitter> streamBatch(@RequestBody List<BatchRequest> batch,
+                                                           @RequestHeader HttpHeaders headers,
+                                                           HttpServletRequest request) {
+        validateBatch(batch);
+        String remoteAddress = request.getRemoteAddr();
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        Disposable subscription = Flux.range(0, batch.size())
+                .flatMap(index -> forwardSubRequest(index, batch.get(index), headers,
+                        remoteAddress), batchConfig.getConcurrency())
+                .concatMap(response -> {
+                    try {
+                        emitter.send(response, MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                        return Mono.empty();
+                    } catch (IOException e) {
+                        return Mono.error(e);
+                    }
+                })
+                .subscribe(null, emitter::completeWithError, emitter::complete);
+
+        // Stop forwarding the remaining sub-requests if the caller went away
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(emitter);
+    }
+
+    /**
+     * Validates the size of a batch.
+     *
+     * @param batch are the sub-requests.
+     * @throws ResponseStatusException if the batch is empty or too large.
+     */
+    private void validateBatch(List<BatchRequest> batch) {
+        if (batch.isEmpty() || batch.size() > batchConfig.getMaxRequests()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A batch must contain "
+                    + "between 1 and " + batchConfig.getMaxRequests() + " requests");
         }
+    }
 
-        // Determine the destination
-        String destination = ServletUriComponentsBuilder
-                .fromRequest(request)
-                .host(registration.getHost())
-                .port(registration.getPort())
-                .toUriString();
+    /**
+     * Forwards a sub-request of a batch through the same path as a request that is sent to the
+     * gateway on its own. The sub-request inherits the Authorization and deadline headers of the
+     * batch, unless it has its own. Sub-requests that cannot be forwarded receive an error
+     * response instead of failing the batch.
+     *
+     * @param index         is the index of the sub-request in the batch.
+     * @param subRequest    is the sub-request.
+     * @param batchHeaders  is a collection of headers that is part of the batch request.
+     * @param remoteAddress is the remote address of the caller.
+     * @return the response to the sub-request, which becomes available in the future.
+     */
+    private Mono<BatchResponse> forwardSubRequest(int index, BatchRequest subRequest,
+                                                  HttpHeaders batchHeaders,
+                                                  String remoteAddress) {
+        String id = subRequest.getId() != null ? subRequest.getId() : String.valueOf(index);
+        return Mono.defer(() -> {
+            HttpMethod method = subRequest.getMethod();
+            String path = subRequest.getPath();
+            if (!FORWARDED_METHODS.contains(method) || path == null
+                    || !path.startsWith(API_PREFIX)) {
+                throw invalidSubRequest();
+            }
+
+            // The route and target are taken from the path as the microservice will interpret it
+            String normalizedPath = RateLimiter.normalizePath(
+                    UriComponentsBuilder.fromUriString(path).build().getPath());
+            UriComponents uri = UriComponentsBuilder.fromPath(normalizedPath).build();
+            if (!normalizedPath.startsWith(API_PREFIX) || uri.getPathSegments().size() < 2) {
+                throw invalidSubRequest();
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            subRequest.getHeaders().forEach(headers::set);
+            if (!headers.containsKey(HttpHeaders.AUTHORIZATION)
+                    && batchHeaders.containsKey(HttpHeaders.AUTHORIZATION)) {
+                headers.put(HttpHeaders.AUTHORIZATION,
+                        batchHeaders.get(HttpHeaders.AUTHORIZATION));
+            }
+            if (!headers.containsKey(Deadline.HEADER)
+                    && batchHeaders.containsKey(Deadline.HEADER)) {
+                headers.put(Deadline.HEADER, batchHeaders.get(Deadline.HEADER));
+            }
+
+            // Apply the rate limit of the sub-request, and select an instance
+            MonoForwardingException rateLimitExceeded = checkRateLimit(uri.getPath(),
+                    remoteAddress, headers);
+            if (rateLimitExceeded != null) {
+                return Mono.error(rateLimitExceeded);
+            }
+            String target = uri.getPathSegments().get(1);
+            RegisteredInstance instance = resolveInstance(target, headers);
+            String destination = UriComponentsBuilder
+                    .fromUriString(path)
+                    .scheme("http")
+                    .host(instance.getRegistration().getHost())
+                    .port(instance.getRegistration().getPort())
+                    .toUriString();
+
+            return forwardCall(target, instance, destination, method, uri.getPath(),
+                    uri.getQuery(), subRequest.getBody(), forwardedHeaders(headers))
+                    .map(responseEntity -> new BatchResponse(id,
+                            responseEntity.getStatusCodeValue(), responseEntity.getHeaders(),
+                            responseEntity.getBody()));
+        }).onErrorResume(error -> Mono.just(toBatchResponse(id, error)));
+    }
 
-        // Forward the request
-        return forwardCall(destination, request, body, headers);
+    /**
+     * Creates the exception of a sub-request without a valid method or path.
+     *
+     * @return the exception.
+     */
+    private static ResponseStatusException invalidSubRequest() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "A request must have a method "
+                + "(GET, PUT, POST or DELETE) and a path starting with " + API_PREFIX);
+    }
+
+    /**
+     * Converts an error of a sub-request into the response that the gateway would have responded
+     * with.
+     *
+     * @param id    is the identifier of the sub-request.
+     * @param error is the error that occurred.
+     * @return the response to the sub-request.
+     */
+    private static BatchResponse toBatchResponse(String id, Throwable error) {
+        if (error instanceof MonoForwardingException) {
+            MonoForwardingException exception = (MonoForwardingException) error;
+            return new BatchResponse(id, exception.getErrorStatus().value(),
+                    exception.getErrorHeaders(), exception.getMessage());
+        }
+        if (error instanceof ResponseStatusException) {
+            ResponseStatusException exception = (ResponseStatusException) error;
+            return new BatchResponse(id, exception.getStatus().value(), new HttpHeaders(),
+                    exception.getReason());
+        }
+        return new BatchResponse(id, HttpStatus.BAD_GATEWAY.value(), new HttpHeaders(),
+                "Could not forward the request");
     }
 
     /**
-     * Forwards call to the appropriate microservice.
+     * Forwards call to the appropriate microservice, or serves it from the response cache if
+     * the route of the call is cached. Identical concurrent GET calls are coalesced into a single
+     * call, and slow GET calls to hedged routes are sent to a second instance.
      *
+     * @param target      is the name of the targeted microservice.
+     * @param instance    is the instance that the call is forwarded to.
      * @param destination is the destination address.
-     * @param request     is the initial request.
+     * @param method      is the method of the initial request.
+     * @param path        is the path of the initial request.
+     * @param query       is the query of the initial request, if any.
      * @param body        is the body of the initial request.
      * @param headers     is a collection of headers that is part of the initial request.
      * @return response that will become available in the future.
      */
-    private Mono<ResponseEntity<String>> forwardCall(String destination, HttpServletRequest request,
+    private Mono<ResponseEntity<String>> forwardCall(String target,
+                                                     RegisteredInstance instance,
+                                                     String destination,
+                                                     HttpMethod method,
+                                                     String path,
+                                                     String query,
                                                      String body,
                                                      HttpHeaders headers) {
-        // Forward call
-        return webClient
-                .method(HttpMethod.valueOf(request.getMethod()))
+        Function<HttpHeaders, Mono<ResponseEntity<String>>> call = conditionalHeaders -> {
+            HttpHeaders sentHeaders = new HttpHeaders();
+            sentHeaders.addAll(headers);
+            sentHeaders.putAll(conditionalHeaders);
+
+            if (method != HttpMethod.GET || StringUtils.hasLength(body)) {
+                return exchange(target, instance, destination, method, path, body,
+                        sentHeaders);
+            }
+
+            String hedgedRoute = requestHedger.findRoute(method, path);
+            Mono<ResponseEntity<String>> exchange = hedgedRoute == null
+                    ? exchange(target, instance, destination, method, path, body, sentHeaders)
+                    : requestHedger.execute(hedgedRoute, target, instance, hedged ->
+                            exchange(target, hedged,
+                                    redirect(destination, hedged.getRegistration()),
+                                    method, path, body, sentHeaders));
+            return requestCoalescer.execute(RequestCoalescer.key(path, query, sentHeaders),
+                    exchange);
+        };
+
+        String route = responseCache.findRoute(method, path);
+        return route == null
+                ? call.apply(new HttpHeaders())
+                : responseCache.execute(route, path, query, headers, call);
+    }
+
+    /**
+     * Performs the call to the microservice, once the admission control of the target admits it.
+     * The queue time, latency, sizes and status of the call are recorded in the metrics.
+     *
+     * @param target      is the name of the targeted microservice.
+     * @param instance    is the instance that the call is forwarded to.
+     * @param destination is the destination address.
+     * @param method      is the method of the initial request.
+     * @param path        is the path of the initial request.
+     * @param body        is the body of the initial request.
+     * @param headers     is a collection of headers that is sent to the microservice.
+     * @return response that will become available in the future.
+     */
+    private Mono<ResponseEntity<String>> exchange(String target,
+                                                  RegisteredInstance instance,
+                                                  String destination,
+                                                  HttpMethod method,
+                                                  String path,
+                                                  String body,
+                                                  HttpHeaders headers) {
+        // Forward call, and measure it until the complete response has been received
+        Mono<ResponseEntity<String>> call = instance.measure(webClient(instance)
+                .method(method)
                 .uri(destination)
                 .body(Mono.justOrEmpty(body), String.class)
                 .headers(header -> header.addAll(headers))
                 .exchange()
                 .flatMap(response -> response.bodyToMono(String.class)
                         .switchIfEmpty(Mono.just(""))
-                        .flatMap(responseBody -> {
-                            var responseHeaders = response.headers().asHttpHeaders();
-
-                            if (response.statusCode() != HttpStatus.OK) {
-                                return Mono.error(new MonoForwardingException(
-                                        response.statusCode(), responseHeaders, responseBody));
-                            }
-                            return Mono.just(new ResponseEntity<>(responseBody, responseHeaders,
-                                    response.statusCode()));
-                        })
-                );
+                        .map(responseBody -> new ResponseEntity<>(responseBody,
+                                response.headers().asHttpHeaders(), response.statusCode()))),
+                responseEntity -> responseEntity.getStatusCode().is5xxServerError());
+
+        // Admit the call, and record it in the metrics
+        return gatewayMetrics.measure(target, method, path, instance.getRegistration(), body,
+                admitted -> admissionManager.admit(target, instance, admitted), call);
+    }
+
+    /**
+     * Replaces the host and port of a destination address with the ones of another registration.
+     *
+     * @param destination  is the destination address.
+     * @param registration is the registration of the other instance.
+     * @return the destination address at the other instance.
+     */
+    private static String redirect(String destination, Registration registration) {
+        return UriComponentsBuilder
+                .fromHttpUrl(destination)
+                .host(registration.getHost())
+                .port(registration.getPort())
+                .toUriString();
     }
 
 }
@@ -0,0 +1,81 @@
+package nl.tudelft.sem.gateway.controller;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.gateway.config.MetricsConfig;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Controller that exposes the metrics of the forwarded calls in the text format of Prometheus.
+ */
+@RestController
+@RequestMapping("/gateway")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MetricsController {
+
+    // Content type of the text format of Prometheus
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Records the metrics of the forwarded calls
+    private final transient GatewayMetrics gatewayMetrics;
+
+    // Settings of the metrics
+    private final transient MetricsConfig config;
+
+    /**
+     * Constructs a MetricsController instance.
+     *
+     * @param gatewayMetrics is an automatically injected dependency.
+     * @param config         is an automatically injected dependency.
+     */
+    @Autowired
+    public MetricsController(GatewayMetrics gatewayMetrics, MetricsConfig config) {
+        this.gatewayMetrics = gatewayMetrics;
+        this.config = config;
+    }
+
+    /**
+     * Request handler for the /gateway/metrics endpoint. Returns the latency, queue time, size
+     * and status histograms of the forwarded calls, per target, method, route and instance.
+     *
+     * @param request is the request info object.
+     * @return the metrics in the text format of Prometheus.
+     * @throws ResponseStatusException if the caller is not on the same machine, while the
+     *                                 endpoint is only served locally.
+     */
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_TEXT)
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    String getMetrics(HttpServletRequest request) {
+        if (config.isLocalOnly() && !isLoopback(request.getRemoteAddr())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "The metrics are only served locally");
+        }
+        return gatewayMetrics.toPrometheusText();
+    }
+
+    /**
+     * Checks whether an address is a loopback address.
+     *
+     * @param address is the IP address.
+     * @return true if the address is a loopback address, false otherwise.
+     */
+    private static boolean isLoopback(String address) {
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,191 @@
+package nl.tudelft.sem.gateway.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.admission.AdmissionStatistics;
+import nl.tudelft.sem.gateway.cache.CacheStatistics;
+import nl.tudelft.sem.gateway.cache.ResponseCache;
+import nl.tudelft.sem.gateway.circuit.CircuitState;
+import nl.tudelft.sem.gateway.discovery.LoadReport;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.health.HealthState;
+import nl.tudelft.sem.gateway.hedging.HedgingStatistics;
+import nl.tudelft.sem.gateway.hedging.RequestHedger;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.pool.PoolStatistics;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller that exposes internal statistics of the gateway.
+ */
+@RestController
+@RequestMapping("/gateway")
+public class StatisticsController {
+
+    // Manages the connection pools of the registrations
+    private final transient ConnectionPoolManager connectionPoolManager;
+
+    // Caches the responses of the configured routes
+    private final transient ResponseCache responseCache;
+
+    // Manages the registrations
+    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Limits the number of concurrent calls per target
+    private final transient AdmissionManager admissionManager;
+
+    // Sends slow GET calls to the configured routes to a second instance
+    private final transient RequestHedger requestHedger;
+
+    /**
+     * Constructs a StatisticsController instance.
+     *
+     * @param connectionPoolManager     is an automatically injected dependency.
+     * @param responseCache             is an automatically injected dependency.
+     * @param discoveryRegistrarService is an automatically injected dependency.
+     * @param admissionManager          is an automatically injected dependency.
+     * @param requestHedger             is an automatically injected dependency.
+     */
+    @Autowired
+    public StatisticsController(ConnectionPoolManager connectionPoolManager,
+                                ResponseCache responseCache,
+                                DiscoveryRegistrarService discoveryRegistrarService,
+                                AdmissionManager admissionManager,
+                                RequestHedger requestHedger) {
+        this.connectionPoolManager = connectionPoolManager;
+        this.responseCache = responseCache;
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.admissionManager = admissionManager;
+        this.requestHedger = requestHedger;
+    }
+
+    /**
+     * Request handler for the /gateway/pools endpoint. Returns the statistics of the connection
+     * pools of all registrations.
+     *
+     * @return the statistics, keyed by the remote address of the registration.
+     */
+    @GetMapping("/pools")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, PoolStatistics> getPoolStatistics() {
+        return connectionPoolManager.getStatistics();
+    }
+
+    /**
+     * Request handler for the /gateway/cache endpoint. Returns the hit and miss statistics of the
+     * cached routes.
+     *
+     * @return the statistics, keyed by the name of the route.
+     */
+    @GetMapping("/cache")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, CacheStatistics> getCacheStatistics() {
+        return responseCache.getStatistics();
+    }
+
+    /**
+     * Request handler for the /gateway/circuits endpoint. Returns the states of the circuit
+     * breakers of all registrations.
+     *
+     * @return the states, keyed by target and by the remote address of the registration.
+     */
+    @GetMapping("/circuits")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, Map<String, CircuitState>> getCircuitStates() {
+        Map<String, Map<String, CircuitState>> states = new TreeMap<>();
+        discoveryRegistrarService.getRegistries().forEach((target, registry) -> {
+            Map<String, CircuitState> targetStates = new TreeMap<>();
+            for (RegisteredInstance instance : registry.getInstances()) {
+                targetStates.put(instance.getRegistration().remoteAddress(),
+                        instance.getCircuitBreaker().getState());
+            }
+            states.put(target, targetStates);
+        });
+        return states;
+    }
+
+    /**
+     * Request handler for the /gateway/health endpoint. Returns the health of all registrations,
+     * as determined by the active health checks.
+     *
+     * @return the health, keyed by target and by the remote address of the registration.
+     */
+    @GetMapping("/health")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, Map<String, HealthState>> getHealth() {
+        Map<String, Map<String, HealthState>> health = new TreeMap<>();
+        discoveryRegistrarService.getRegistries().forEach((target, registry) -> {
+            Map<String, HealthState> targetHealth = new TreeMap<>();
+            for (RegisteredInstance instance : registry.getInstances()) {
+                targetHealth.put(instance.getRegistration().remoteAddress(),
+                        instance.getHealth());
+            }
+            health.put(target, targetHealth);
+        });
+        return health;
+    }
+
+    /**
+     * Request handler for the /gateway/load endpoint. Returns the load signals that all
+     * registrations reported with their latest heartbeats.
+     *
+     * @return the load signals, keyed by target and by the remote address of the registration.
+     *         Registrations that do not report their load are omitted.
+     */
+    @GetMapping("/load")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, Map<String, LoadReport>> getLoad() {
+        Map<String, Map<String, LoadReport>> loads = new TreeMap<>();
+        discoveryRegistrarService.getRegistries().forEach((target, registry) -> {
+            Map<String, LoadReport> targetLoads = new TreeMap<>();
+            for (RegisteredInstance instance : registry.getInstances()) {
+                if (instance.getLoad() != null) {
+                    targetLoads.put(instance.getRegistration().remoteAddress(),
+                            instance.getLoad());
+                }
+            }
+            loads.put(target, targetLoads);
+        });
+        return loads;
+    }
+
+    /**
+     * Request handler for the /gateway/admission endpoint. Returns the concurrency limits, queue
+     * lengths and numbers of shed calls of all targets.
+     *
+     * @return the statistics, keyed by the name of the target.
+     */
+    @GetMapping("/admission")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, AdmissionStatistics> getAdmissionStatistics() {
+        return admissionManager.getStatistics();
+    }
+
+    /**
+     * Request handler for the /gateway/hedging endpoint. Returns the hedging statistics of the
+     * hedged routes.
+     *
+     * @return the statistics, keyed by the name of the route.
+     */
+    @GetMapping("/hedging")
+    @ResponseStatus(HttpStatus.OK)
+    public @ResponseBody
+    Map<String, HedgingStatistics> getHedgingStatistics() {
+        return requestHedger.getStatistics();
+    }
+
+}
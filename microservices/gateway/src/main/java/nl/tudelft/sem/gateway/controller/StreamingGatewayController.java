@@ -0,0 +1,316 @@
+package nl.tudelft.sem.gateway.controller;
+
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.auth.IdentityPropagator;
+import nl.tudelft.sem.gateway.compression.ContentEncoding;
+import nl.tudelft.sem.gateway.compression.ResponseCompressor;
+import nl.tudelft.sem.gateway.deadline.DeadlinePropagator;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.pool.HopByHopHeaders;
+import nl.tudelft.sem.gateway.pool.StreamedExchange;
+import nl.tudelft.sem.gateway.ratelimit.RateLimiter;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Controller that forwards calls by piping the request and response bodies through as raw data
+ * buffers, without decoding or buffering them as a whole. Enabled by setting
+ * <i>gateway.streaming.enabled</i> to true.
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "gateway.streaming", name = "enabled", havingValue = "true")
+public class StreamingGatewayController extends GatewayBaseController {
+
+    // Size of the chunks in which the request body is read
+    private static final int BUFFER_SIZE = 8192;
+
+    // Records the latencies, sizes and statuses of the forwarded calls
+    private final transient GatewayMetrics gatewayMetrics;
+
+    /**
+     * Constructs the StreamingGatewayController class.
+     */
+    @Autowired
+    public StreamingGatewayController(DiscoveryRegistrarService discoveryRegistrarService,
+                                      ConnectionPoolManager connectionPoolManager,
+                                      IdentityPropagator identityPropagator,
+                                      RateLimiter rateLimiter,
+                                      AdmissionManager admissionManager,
+                                      DeadlinePropagator deadlinePropagator,
+                                      ResponseCompressor responseCompressor,
+                                      GatewayMetrics gatewayMetrics) {
+        super(discoveryRegistrarService, connectionPoolManager, identityPropagator,
+                rateLimiter, admissionManager, deadlinePropagator, responseCompressor);
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    /**
+     * Request forwarder used to intercept all api calls and stream them to their appropriate
+     * destination.
+     *
+     * @param target  is the name of the targeted microservice.
+     * @param headers is a collection of headers that is part of the request.
+     * @param request is the request info object.
+     * @return Response entity containing the streamed body that becomes available in the future.
+     */
+    @RequestMapping(value = "/{target}/**", method = {
+            RequestMethod.GET, RequestMethod.PUT, RequestMethod.POST, RequestMethod.DELETE
+    })
+    public @ResponseBody
+    DeferredResult<ResponseEntity<StreamingResponseBody>> getRequest(
+            @PathVariable("target") String target,
+            @RequestHeader HttpHeaders headers,
+            HttpServletRequest request) {
+        // Reject the request if the caller exceeded the rate limit of the route
+        AtomicReference<Runnable> releaseBody = new AtomicReference<>(() -> { });
+        MonoForwardingException rateLimitExceeded = checkRateLimit(request, headers);
+        if (rateLimitExceeded != null) {
+            return toDeferredResult(Mono.error(rateLimitExceeded), releaseBody);
+        }
+
+        // Select an instance and determine the destination
+        RegisteredInstance instance = resolveInstance(target, headers);
+        String destination = resolveDestination(instance.getRegistration(), request);
+
+        // Forward the request
+        return toDeferredResult(forwardCall(target, instance, destination, request, headers,
+                forwardedHeaders(headers), releaseBody), releaseBody);
+    }
+
+    /**
+     * Completes a deferred result with the response of a forwarded call. If the request times out
+     * or fails, or completes without the response being streamed (e.g., because the caller
+     * disconnected), the call is cancelled and the body of the response is released, so that the
+     * connection returns to the pool and the admission permit and measurements end.
+     *
+     * @param response    is the response that will become available in the future.
+     * @param releaseBody releases the body of the response once it is available, at most once.
+     * @return the deferred result.
+     */
+    private static DeferredResult<ResponseEntity<StreamingResponseBody>> toDeferredResult(
+            Mono<ResponseEntity<StreamingResponseBody>> response,
+            AtomicReference<Runnable> releaseBody) {
+        DeferredResult<ResponseEntity<StreamingResponseBody>> deferredResult =
+                new DeferredResult<>();
+        Disposable call = response.subscribe(responseEntity -> {
+            if (!deferredResult.setResult(responseEntity)) {
+                releaseBody.get().run();
+            }
+        }, deferredResult::setErrorResult);
+
+        Runnable abort = () -> {
+            call.dispose();
+            releaseBody.get().run();
+        };
+        deferredResult.onTimeout(abort);
+        deferredResult.onError(error -> abort.run());
+        deferredResult.onCompletion(abort);
+        return deferredResult;
+    }
+
+    /**
+     * Forwards call to the appropriate microservice. The status code and headers of the response
+     * are passed through unchanged, regardless of the status code, unless the body is compressed.
+     *
+     * @param target         is the name of the targeted microservice.
+     * @param instance       is the instance that the call is forwarded to.
+     * @param destination    is the destination address.
+     * @param request        is the initial request.
+     * @param requestHeaders is a collection of headers that is part of the initial request.
+     * @param headers        is a collection of headers that is forwarded to the microservice.
+     * @param releaseBody    receives the release of the body of the response.
+     * @return response that will become available in the future.
+     */
+    private Mono<ResponseEntity<StreamingResponseBody>> forwardCall(String target,
+                                                                    RegisteredInstance instance,
+                                                                    String destination,
+                                                                    HttpServletRequest request,
+                                                                    HttpHeaders requestHeaders,
+                                                                    HttpHeaders headers,
+                                                                    AtomicReference<Runnable>
+                                                                            releaseBody) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        WebClient.RequestBodySpec spec = webClient(instance)
+                .method(method)
+                .uri(destination)
+                .headers(header -> header.addAll(headers));
+
+        // Only attach a body if the initial request has one, to avoid sending chunked empty bodies
+        if (headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            spec.body(BodyInserters.fromDataBuffers(readBody(request)));
+        }
+
+        // Admit the call, and measure it until the response body has been streamed
+        return StreamedExchange.stream(spec.exchange(),
+                call -> gatewayMetrics.measure(target, method, request.getRequestURI(),
+                        instance.getRegistration(), Math.max(headers.getContentLength(), 0),
+                        admitted -> admissionManager.admit(target, instance, admitted),
+                        instance.measure(call,
+                                response -> HttpStatus.Series.resolve(response.rawStatusCode())
+                                        == HttpStatus.Series.SERVER_ERROR),
+                        ClientResponse::rawStatusCode,
+                        response -> response.headers().contentLength().orElse(-1)),
+                (response, body) -> toResponseEntity(response, body, request, requestHeaders,
+                        releaseBody));
+    }
+
+    /**
+     * Creates the response to the initial request, which streams the body of the response of the
+     * microservice. The body is compressed while it is streamed, if the caller accepts a supported
+     * encoding and the response is eligible for compression.
+     *
+     * <p>If the streaming never starts, because the caller disconnected or the request timed out,
+     * the body is released instead, so that the connection returns to the pool. The body is either
+     * streamed or released, exactly once.
+     *
+     * @param response       is the response of the microservice.
+     * @param body           is the body of the response.
+     * @param request        is the initial request.
+     * @param requestHeaders is a collection of headers that is part of the initial request.
+     * @param releaseBody    receives the release of the body, for when the request is aborted
+     *                       before the streaming starts.
+     * @return the response to the initial request.
+     */
+    private ResponseEntity<StreamingResponseBody> toResponseEntity(ClientResponse response,
+                                                                   Flux<DataBuffer> body,
+                                                                   HttpServletRequest request,
+                                                                   HttpHeaders requestHeaders,
+                                                                   AtomicReference<Runnable>
+                                                                           releaseBody) {
+        int status = response.rawStatusCode();
+        HttpHeaders headers = HopByHopHeaders
+                .withoutHopByHopHeaders(response.headers().asHttpHeaders());
+        AtomicBoolean consumed = new AtomicBoolean();
+        Runnable release = () -> {
+            if (consumed.compareAndSet(false, true)) {
+                releaseBody(body);
+            }
+        };
+        releaseBody.set(release);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(consumed,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+                        release.run();
+                    }
+                });
+
+        ContentEncoding encoding = hasBody(status)
+                ? responseCompressor.select(requestHeaders, headers, headers.getContentLength())
+                : null;
+        if (encoding == null) {
+            return ResponseEntity
+                    .status(status)
+                    .headers(headers)
+                    .body(outputStream -> {
+                        if (consumed.compareAndSet(false, true)) {
+                            writeBody(body, outputStream);
+                        }
+                    });
+        }
+
+        // Closing the encoding stream finishes the compressed body, but keeps the response open
+        return ResponseEntity
+                .status(status)
+                .headers(responseCompressor.encodedHeaders(headers, encoding))
+                .body(outputStream -> {
+                    if (!consumed.compareAndSet(false, true)) {
+                        return;
+                    }
+                    try (OutputStream encoded = encoding.encode(
+                            StreamUtils.nonClosing(outputStream))) {
+                        writeBody(body, encoded);
+                    }
+                });
+    }
+
+    /**
+     * Checks whether a response with the given status code has a body.
+     *
+     * @param status is the status code of the response.
+     * @return false for informational, 204 (No Content) and 304 (Not Modified) responses.
+     */
+    private static boolean hasBody(int status) {
+        return status >= HttpStatus.OK.value() && status != HttpStatus.NO_CONTENT.value()
+                && status != HttpStatus.NOT_MODIFIED.value();
+    }
+
+    /**
+     * Reads the body of the initial request as a stream of data buffers. The servlet input
+     * stream is blocking, hence it is read on a scheduler that allows for blocking calls.
+     *
+     * @param request is the initial request.
+     * @return the body of the request.
+     */
+    private Flux<DataBuffer> readBody(HttpServletRequest request) {
+        return DataBufferUtils
+                .readInputStream(request::getInputStream, new DefaultDataBufferFactory(),
+                        BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Writes the body of the response to the output stream of the initial request, releasing
+     * each buffer as soon as it has been written.
+     *
+     * @param body         is the body of the response.
+     * @param outputStream is the output stream to write to.
+     */
+    private static void writeBody(Flux<DataBuffer> body, OutputStream outputStream) {
+        DataBufferUtils.write(body, outputStream)
+                .doOnNext(DataBufferUtils::release)
+                .then()
+                .block();
+    }
+
+    /**
+     * Reads and discards the body of a response that is not streamed to the caller, like
+     * {@link ClientResponse#releaseBody()} does, but through the measured body so that the call
+     * completes.
+     *
+     * @param body is the body of the response.
+     */
+    private static void releaseBody(Flux<DataBuffer> body) {
+        body.doOnNext(DataBufferUtils::release)
+                .subscribe(buffer -> { }, error -> { });
+    }
+
+}
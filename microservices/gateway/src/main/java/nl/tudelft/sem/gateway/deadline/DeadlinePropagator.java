@@ -0,0 +1,48 @@
+package nl.tudelft.sem.gateway.deadline;
+
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.gateway.config.DeadlineConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attaches a deadline (see {@link Deadline}) to every forwarded call, which the microservices pass
+ * on to their downstream calls. The deadline lies <i>gateway.deadline.timeout</i> after the call
+ * arrived at the gateway, unless the caller sent an earlier deadline itself. The calls of the
+ * gateway honour the deadline as well, so callers receive a 504 (Gateway Timeout) response once it
+ * has passed.
+ */
+@Component
+public class DeadlinePropagator {
+
+    // Settings of the request deadlines
+    private final transient DeadlineConfig config;
+
+    /**
+     * Constructs the deadline propagator.
+     *
+     * @param config is the configuration of the request deadlines.
+     */
+    @Autowired
+    public DeadlinePropagator(DeadlineConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Sets the deadline in the headers that are forwarded to the microservice, if the deadlines
+     * are enabled.
+     *
+     * @param headers is a collection of headers that is forwarded, which may contain the deadline
+     *                of the caller.
+     * @return the same collection of headers.
+     */
+    public HttpHeaders apply(HttpHeaders headers) {
+        if (config.isEnabled()) {
+            Deadline.after(config.getTimeout())
+                    .earliest(Deadline.from(headers))
+                    .applyTo(headers);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,23 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the registrations that calls can be forwarded to, which clients use to call the
+ * microservices directly. The version changes whenever the registrations change.
+ */
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+public class DiscoveryFeed {
+
+    // Version of the snapshot
+    private long version;
+
+    // Registrations that are up and not draining, keyed by target
+    private Map<String, List<Registration>> targets;
+}
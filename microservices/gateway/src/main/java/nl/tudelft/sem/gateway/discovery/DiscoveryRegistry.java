@@ -1,106 +1,354 @@
 package nl.tudelft.sem.gateway.discovery;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import java.util.LinkedList;
-import java.util.Queue;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import javax.validation.Valid;
 import lombok.Getter;
-import lombok.SneakyThrows;
+import nl.tudelft.sem.gateway.balancing.strategies.BalancingStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.RoundRobinStrategy;
+import nl.tudelft.sem.gateway.circuit.CircuitState;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+import nl.tudelft.sem.gateway.health.HealthState;
 
 /**
  * Class for managing registrations for a single endpoint. Uses time-based eviction methods.
+ *
+ * <p>Lookups are lock-free: the balancing strategy selects from an immutable snapshot of the live
+ * registrations. The snapshot is only rebuilt when a heartbeat adds a new registration, or when a
+ * lookup encounters a registration whose heartbeat has expired. Registrations that have been
+ * ejected by their circuit breaker are skipped by the lookups until a probe call succeeds, and
+ * registrations that failed their active health checks are skipped until they pass them again.
+ * Strategies that route by key fall back to the next instance for the key in both cases.
+ * Registrations that deregistered themselves are drained: they are skipped by the lookups, and
+ * removed once their outstanding calls have completed.
  */
 public class DiscoveryRegistry {
 
-    // Time at which a cache entry is invalidated (-1 if unused)
+    // Time at which a registration is invalidated
     @Getter
     private final int cacheEvictionTimeMinutes;
 
-    // Queue and cache for storing the entries in a FIFO like manner + time-based eviction
-    private transient Queue<Registration> registrationQueue;
-    private final transient Cache<String, Registration> registrations;
+    // Source of time used to determine whether registrations have expired
+    private final transient Ticker ticker;
+
+    // Strategy used to select a registration
+    @Getter
+    private final transient BalancingStrategy balancingStrategy;
+
+    // Invoked with every registration that is evicted
+    private final transient Consumer<Registration> evictionListener;
+
+    // Configuration of the circuit breakers of the registrations
+    private final transient CircuitBreakerConfig circuitBreakerConfig;
+
+    // All registrations, keyed by their remote address
+    private final transient Map<String, RegisteredInstance> entries;
+
+    // Immutable copy of the registrations (in order of registration) that is used by the lookups
+    private transient volatile List<RegisteredInstance> snapshot;
 
     /**
      * Constructs a discovery registry instance that keeps track of all registrations for a
-     * particular endpoint.
+     * particular endpoint. Registrations are selected in a round-robin manner.
      *
      * @param cacheEvictionTimeMinutes The time in minutes after which a registration is removed.
      */
     public DiscoveryRegistry(int cacheEvictionTimeMinutes) {
-        this.cacheEvictionTimeMinutes = cacheEvictionTimeMinutes;
-        this.registrationQueue = new LinkedList<>();
-        this.registrations = CacheBuilder.newBuilder()
-                .expireAfterAccess(cacheEvictionTimeMinutes, TimeUnit.MINUTES)
-                .build();
+        this(cacheEvictionTimeMinutes, new RoundRobinStrategy());
+    }
+
+    /**
+     * Constructs a discovery registry instance that keeps track of all registrations for a
+     * particular endpoint.
+     *
+     * @param cacheEvictionTimeMinutes The time in minutes after which a registration is removed.
+     * @param balancingStrategy        The strategy used to select a registration.
+     */
+    public DiscoveryRegistry(int cacheEvictionTimeMinutes, BalancingStrategy balancingStrategy) {
+        this(cacheEvictionTimeMinutes, balancingStrategy, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs a discovery registry instance that keeps track of all registrations for a
+     * particular endpoint.
+     *
+     * @param cacheEvictionTimeMinutes The time in minutes after which a registration is removed.
+     * @param balancingStrategy        The strategy used to select a registration.
+     * @param ticker                   The source of time used for the eviction.
+     */
+    public DiscoveryRegistry(int cacheEvictionTimeMinutes, BalancingStrategy balancingStrategy,
+                             Ticker ticker) {
+        this(cacheEvictionTimeMinutes, balancingStrategy, ticker, registration -> { });
     }
 
     /**
      * Constructs a discovery registry instance that keeps track of all registrations for a
      * particular endpoint.
      *
-     * @param registrationQueue The queue to use for storing the registrations.
-     * @param registrations     Custom cache for storing entities.
-     * @implNote sets the cacheEvictionTimeMinutes to -1, as it is not used in this case
-     *         (covered by the cache).
+     * @param cacheEvictionTimeMinutes The time in minutes after which a registration is removed.
+     * @param balancingStrategy        The strategy used to select a registration.
+     * @param ticker                   The source of time used for the eviction.
+     * @param evictionListener         Invoked with every registration that is evicted.
+     */
+    public DiscoveryRegistry(int cacheEvictionTimeMinutes, BalancingStrategy balancingStrategy,
+                             Ticker ticker, Consumer<Registration> evictionListener) {
+        this(cacheEvictionTimeMinutes, balancingStrategy, ticker, evictionListener,
+                new CircuitBreakerConfig());
+    }
+
+    /**
+     * Constructs a discovery registry instance that keeps track of all registrations for a
+     * particular endpoint.
+     *
+     * @param cacheEvictionTimeMinutes The time in minutes after which a registration is removed.
+     * @param balancingStrategy        The strategy used to select a registration.
+     * @param ticker                   The source of time used for the eviction.
+     * @param evictionListener         Invoked with every registration that is evicted.
+     * @param circuitBreakerConfig     The configuration of the circuit breakers.
      */
-    public DiscoveryRegistry(Queue<Registration> registrationQueue,
-                             Cache<String, Registration> registrations) {
-        this.cacheEvictionTimeMinutes = -1;
-        this.registrationQueue = registrationQueue;
-        this.registrations = registrations;
+    public DiscoveryRegistry(int cacheEvictionTimeMinutes, BalancingStrategy balancingStrategy,
+                             Ticker ticker, Consumer<Registration> evictionListener,
+                             CircuitBreakerConfig circuitBreakerConfig) {
+        this.cacheEvictionTimeMinutes = cacheEvictionTimeMinutes;
+        this.balancingStrategy = balancingStrategy;
+        this.ticker = ticker;
+        this.evictionListener = evictionListener;
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.entries = new ConcurrentHashMap<>();
+        this.snapshot = List.of();
     }
 
     /**
-     * Adds a new registration to the discovery registry.
+     * Adds a new registration to the discovery registry, or postpones the invalidation of the
+     * registration in case it already exists (heartbeat).
      *
      * @param registration is a valid registration instance that contains information regarding the
      *                     to be registered endpoint.
-     * @implNote only one thread can call this function at a time.
+     * @return true if the registration was added, or stopped draining, false otherwise.
      */
-    @SneakyThrows
-    public synchronized void addRegistration(@Valid Registration registration) {
-        // Updates the entry in case of a heartbeat. If entry does not exist, load it into the queue
-        // and add it to the cache
-        registrations.get(registration.remoteAddress(), () -> {
-            registrationQueue.add(registration);
-            return registration;
-        });
+    public boolean addRegistration(@Valid Registration registration) {
+        long expiresAt = ticker.read()
+                + TimeUnit.MINUTES.toNanos(cacheEvictionTimeMinutes);
+
+        // Heartbeats of existing registrations do not require the snapshot to be rebuilt. The
+        // entry is refreshed atomically with respect to the eviction check, so a refreshed entry
+        // is never evicted (and an evicted entry is added again below)
+        AtomicBoolean wasDraining = new AtomicBoolean();
+        RegisteredInstance existing = entries.computeIfPresent(registration.remoteAddress(),
+            (address, instance) -> {
+                wasDraining.set(instance.isDraining());
+                instance.reportLoad(registration.getLoad());
+                instance.setDraining(false);
+                instance.setExpiresAt(expiresAt);
+                return instance;
+            });
+        if (existing != null) {
+            return wasDraining.get();
+        }
+
+        synchronized (entries) {
+            RegisteredInstance instance = entries.get(registration.remoteAddress());
+            final boolean added = instance == null || instance.isDraining();
+            if (instance == null) {
+                instance = new RegisteredInstance(registration, ticker, circuitBreakerConfig);
+                entries.put(registration.remoteAddress(), instance);
+
+                // Append the new entry to a copy of the snapshot, retaining the FIFO order
+                List<RegisteredInstance> updated = new ArrayList<>(snapshot);
+                updated.add(instance);
+                snapshot = List.copyOf(updated);
+            }
+            instance.reportLoad(registration.getLoad());
+            instance.setDraining(false);
+            instance.setExpiresAt(expiresAt);
+            return added;
+        }
     }
 
     /**
-     * Retrieves a registration in a FIFO like manner. If no registration exists, or all
+     * Drains a registration: it no longer receives new calls, and is removed once its outstanding
+     * calls have completed, or once the timeout has passed. A subsequent heartbeat
+     * of the registration cancels the draining.
+     *
+     * @param registration is the registration to drain.
+     * @param timeout      is the maximum time that the registration is kept.
+     * @return true if the registration existed, false otherwise.
+     */
+    public boolean drain(Registration registration, Duration timeout) {
+        RegisteredInstance instance = entries.get(registration.remoteAddress());
+        if (instance == null) {
+            return false;
+        }
+        long now = ticker.read();
+        instance.setDraining(true);
+        instance.setExpiresAt(now + timeout.toNanos());
+        if (instance.isDrained()) {
+            evict(instance, now);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves a registration using the balancing strategy. If no registration exists, or all
      * registrations are invalidated, null is returned.
      *
      * @return Registration object that contains information with respect to the registration.
-     * @implNote only one thread can call this function at a time.
      */
-    public synchronized Registration getRegistration() {
-        // If cache is empty, then empty the pq as well to avoid doing extra work
-        if (registrations.size() == 0) {
-            registrationQueue = new LinkedList<>();
-            return null;
+    public Registration getRegistration() {
+        RegisteredInstance instance = getInstance();
+        return instance != null ? instance.getRegistration() : null;
+    }
+
+    /**
+     * Retrieves a registered instance using the balancing strategy. If no registration exists, or
+     * all registrations are invalidated, ejected or down, null is returned.
+     *
+     * @return the instance, including its load statistics.
+     */
+    public RegisteredInstance getInstance() {
+        return getInstance(null, null);
+    }
+
+    /**
+     * Retrieves a registered instance using the balancing strategy, for a call with a hash key.
+     * Strategies that route by key select the same instance for the same key, as long as it is
+     * live. If no registration exists, or all registrations are invalidated, ejected or down, null
+     * is returned.
+     *
+     * @param hashKey is the hash key of the call (e.g., the user ID of the caller), or null.
+     * @return the instance, including its load statistics.
+     */
+    public RegisteredInstance getInstance(String hashKey) {
+        return getInstance(null, hashKey);
+    }
+
+    /**
+     * Retrieves a registered instance other than the given one using the balancing strategy. If
+     * no other registration exists, or all others are invalidated, ejected or down, null is
+     * returned.
+     *
+     * @param excluded is the instance that must not be selected, or null to allow all instances.
+     * @return the instance, including its load statistics.
+     */
+    public RegisteredInstance getInstance(RegisteredInstance excluded) {
+        return getInstance(excluded, null);
+    }
+
+    /**
+     * Retrieves a registered instance other than the given one using the balancing strategy, for
+     * a call with a hash key. If no other registration exists, or all others are invalidated,
+     * ejected or down, null is returned.
+     *
+     * @param excluded is the instance that must not be selected, or null to allow all instances.
+     * @param hashKey  is the hash key of the call, or null.
+     * @return the instance, including its load statistics.
+     */
+    private RegisteredInstance getInstance(RegisteredInstance excluded, String hashKey) {
+        List<RegisteredInstance> candidates = snapshot;
+        if (excluded != null && candidates.contains(excluded)) {
+            List<RegisteredInstance> remaining = new ArrayList<>(candidates);
+            remaining.remove(excluded);
+            candidates = remaining;
         }
+        long now = ticker.read();
 
-        // Targeted registration object
-        Registration target = null;
+        // Evict expired registrations and skip ejected ones until a live one is selected
+        while (!candidates.isEmpty()) {
+            RegisteredInstance instance = balancingStrategy.select(candidates, hashKey);
+            if (instance.isExpired(now) || instance.isDrained()) {
+                evict(instance, now);
+            } else if (!instance.isDraining() && instance.getHealth() == HealthState.UP
+                    && instance.getCircuitBreaker().isCallPermitted()) {
+                return instance;
+            }
 
-        // Attempt to find the service that was least recently used
-        while (!registrationQueue.isEmpty() && target == null) {
-            Registration current = registrationQueue.poll();
-            target = registrations.getIfPresent(current.remoteAddress());
+            List<RegisteredInstance> remaining = new ArrayList<>(candidates);
+            remaining.remove(instance);
+            candidates = remaining;
         }
+        return null;
+    }
 
-        // If not null, add the successful candidate to the queue again and let the cache know to
-        // postpone invalidation
-        if (target != null) {
-            registrations.put(target.remoteAddress(), target);
-            registrationQueue.add(target);
+    /**
+     * Returns the registrations that calls may be routed to, in order of registration: those that
+     * have not expired, are not draining, are up, and whose circuit is closed. This applies the
+     * checks of the lookups without evicting or reserving anything. Half-open instances are left
+     * out as well, as every client of the feed would call them at once, while only a single probe
+     * call is let through.
+     *
+     * @return a list of the routable instances.
+     */
+    public List<RegisteredInstance> getRoutableInstances() {
+        long now = ticker.read();
+        List<RegisteredInstance> routable = new ArrayList<>();
+        for (RegisteredInstance instance : snapshot) {
+            if (!instance.isExpired(now) && !instance.isDrained() && !instance.isDraining()
+                    && instance.getHealth() == HealthState.UP
+                    && instance.getCircuitBreaker().getState() == CircuitState.CLOSED) {
+                routable.add(instance);
+            }
+        }
+        return routable;
+    }
+
+    /**
+     * Returns all registrations that have not been evicted yet, in order of registration.
+     *
+     * @return an immutable list of the instances.
+     */
+    public List<RegisteredInstance> getInstances() {
+        return snapshot;
+    }
+
+    /**
+     * Removes all expired and drained registrations from the registry. These are also removed
+     * lazily by the lookups, but targets that receive no traffic rely on this method.
+     */
+    public void evictExpired() {
+        long now = ticker.read();
+        for (RegisteredInstance instance : snapshot) {
+            if (instance.isExpired(now) || instance.isDrained()) {
+                evict(instance, now);
+            }
+        }
+    }
+
+    /**
+     * Removes an expired or drained entry from the registry, unless it received a heartbeat in the
+     * meantime.
+     *
+     * @param instance is the entry to evict.
+     * @param now      is the current time of the ticker.
+     */
+    private void evict(RegisteredInstance instance, long now) {
+        // The check and the removal run in the same compute as the refresh of a heartbeat
+        AtomicBoolean evicted = new AtomicBoolean();
+        synchronized (entries) {
+            entries.computeIfPresent(instance.getRegistration().remoteAddress(),
+                (address, current) -> {
+                    if (current != instance || !instance.isExpired(now) && !instance.isDrained()) {
+                        return current;
+                    }
+                    List<RegisteredInstance> updated = new ArrayList<>(snapshot);
+                    updated.remove(instance);
+                    snapshot = List.copyOf(updated);
+                    evicted.set(true);
+                    return null;
+                });
+        }
+        if (!evicted.get()) {
+            return;
         }
 
-        // Return the target object
-        return target;
+        // Notify the listener outside of the lock
+        evictionListener.accept(instance.getRegistration());
     }
 
 }
@@ -0,0 +1,27 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Load signals that a microservice reports with its heartbeats. Signals that a microservice
+ * cannot measure are negative.
+ */
+@AllArgsConstructor
+@Data
+@NoArgsConstructor
+public class LoadReport {
+
+    // Number of requests that the microservice is handling
+    private int inFlightRequests;
+
+    // Recent CPU load of the process, between 0 and 1
+    private double cpuLoad = -1;
+
+    // Used fraction of the maximum heap size, between 0 and 1
+    private double heapUsage = -1;
+
+    // Delay with which the timers of the microservice fire, in milliseconds
+    private long eventLoopLagMillis = -1;
+}
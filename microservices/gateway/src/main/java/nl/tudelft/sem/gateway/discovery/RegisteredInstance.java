@@ -0,0 +1,320 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import lombok.Getter;
+import nl.tudelft.sem.gateway.circuit.CircuitBreaker;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+import nl.tudelft.sem.gateway.health.HealthState;
+import reactor.core.publisher.Mono;
+
+/**
+ * Registered instance of a microservice, together with the load statistics that are used by the
+ * balancing strategies and its circuit breaker. Both are fed by the gateway for every forwarded
+ * call. The health of the instance is determined separately by the active health checks, and its
+ * load signals are reported by the instance itself with its heartbeats.
+ */
+public class RegisteredInstance {
+
+    // Time after which a latency sample has decayed to roughly a third of its weight
+    private static final long DECAY_TIME_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // Latency that is recorded for failed calls, to steer traffic away from failing instances
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // The registration of the instance
+    @Getter
+    private final Registration registration;
+
+    // Source of time used for expiry and decay
+    private final transient Ticker ticker;
+
+    // Ejects the instance when its calls fail or slow down
+    @Getter
+    private final transient CircuitBreaker circuitBreaker;
+
+    // Health of the instance, as determined by the active health checks
+    @Getter
+    private transient volatile HealthState health;
+
+    // Number of consecutive health checks with the same outcome that contradict the health
+    private transient int contradictingProbes;
+
+    // Load signals of the latest heartbeat, or null if the instance does not report them
+    @Getter
+    private transient volatile LoadReport load;
+
+    // Whether the instance deregistered itself, and only completes its outstanding calls
+    private transient volatile boolean draining;
+
+    // Ticker time at which the registration expires
+    private transient volatile long expiresAt;
+
+    // Number of calls that have been forwarded to the instance, but have not completed yet
+    private final transient AtomicInteger outstandingRequests;
+
+    // Peak exponentially weighted moving average of the latency, in nanoseconds
+    private transient volatile double peakEwmaLatency;
+
+    // Ticker time of the last latency sample
+    private transient long lastSampleTime;
+
+    /**
+     * Constructs a registered instance.
+     *
+     * @param registration is the registration of the instance.
+     * @param ticker       is the source of time used for expiry and decay.
+     */
+    public RegisteredInstance(Registration registration, Ticker ticker) {
+        this(registration, ticker, new CircuitBreakerConfig());
+    }
+
+    /**
+     * Constructs a registered instance.
+     *
+     * @param registration         is the registration of the instance.
+     * @param ticker               is the source of time used for expiry and decay.
+     * @param circuitBreakerConfig is the configuration of the circuit breaker of the instance.
+     */
+    public RegisteredInstance(Registration registration, Ticker ticker,
+                              CircuitBreakerConfig circuitBreakerConfig) {
+        this.registration = registration;
+        this.ticker = ticker;
+        this.circuitBreaker = new CircuitBreaker(circuitBreakerConfig, ticker);
+        this.outstandingRequests = new AtomicInteger();
+        this.lastSampleTime = ticker.read();
+        this.health = HealthState.UP;
+        this.load = registration.getLoad();
+    }
+
+    /**
+     * Stores the load signals that the instance reported with a heartbeat. Heartbeats without
+     * load signals retain the previous ones.
+     *
+     * @param load is the reported load, or null if the heartbeat did not report it.
+     */
+    public void reportLoad(LoadReport load) {
+        if (load != null) {
+            this.load = load;
+        }
+    }
+
+    /**
+     * Records the outcome of a health check. The health only changes after the given number of
+     * consecutive health checks contradict it.
+     *
+     * @param success   is whether the instance responded to the health check.
+     * @param threshold is the number of consecutive contradicting health checks that is required
+     *                  to change the health.
+     * @return true if the health changed, false otherwise.
+     */
+    public synchronized boolean recordProbe(boolean success, int threshold) {
+        if (success == (health == HealthState.UP)) {
+            contradictingProbes = 0;
+            return false;
+        }
+        if (++contradictingProbes < threshold) {
+            return false;
+        }
+        contradictingProbes = 0;
+        health = success ? HealthState.UP : HealthState.DOWN;
+        return true;
+    }
+
+    /**
+     * Checks whether the instance deregistered itself. Draining instances do not receive new
+     * calls, and are removed once their outstanding calls have completed.
+     *
+     * @return true if the instance is draining, false otherwise.
+     */
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Sets whether the instance is draining.
+     *
+     * @param draining is whether the instance is draining.
+     */
+    void setDraining(boolean draining) {
+        this.draining = draining;
+    }
+
+    /**
+     * Checks whether the instance is draining and all of its outstanding calls have completed.
+     *
+     * @return true if the instance has been drained, false otherwise.
+     */
+    boolean isDrained() {
+        return draining && outstandingRequests.get() == 0;
+    }
+
+    /**
+     * Sets the ticker time at which the registration expires.
+     *
+     * @param expiresAt is the time of expiry.
+     */
+    void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Checks whether the registration has expired.
+     *
+     * @param now is the current ticker time.
+     * @return true if the registration has expired, false otherwise.
+     */
+    boolean isExpired(long now) {
+        return now - expiresAt >= 0;
+    }
+
+    /**
+     * Returns the number of calls to the instance that have not completed yet.
+     *
+     * @return the number of outstanding requests.
+     */
+    public int getOutstandingRequests() {
+        return outstandingRequests.get();
+    }
+
+    /**
+     * Returns the peak EWMA latency of the instance. Latency spikes are adopted immediately,
+     * whereas improvements are only adopted gradually.
+     *
+     * @return the latency in nanoseconds, or 0 if no calls have completed yet.
+     */
+    public double getPeakEwmaLatency() {
+        return peakEwmaLatency;
+    }
+
+    /**
+     * Registers that a call has been forwarded to the instance.
+     */
+    public void onRequestStarted() {
+        outstandingRequests.incrementAndGet();
+    }
+
+    /**
+     * Registers that a call to the instance has completed, regardless of its outcome.
+     */
+    public void onRequestFinished() {
+        outstandingRequests.decrementAndGet();
+    }
+
+    /**
+     * Records the latency of a successful call that is not the probe call of the circuit breaker.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     */
+    public void recordLatency(long latencyNanos) {
+        recordLatency(latencyNanos, CircuitBreaker.NO_PROBE);
+    }
+
+    /**
+     * Records the latency of a successful call.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     * @param permit       is the permit of the call that was taken from the circuit breaker.
+     */
+    public void recordLatency(long latencyNanos, long permit) {
+        updatePeakEwma(latencyNanos);
+        circuitBreaker.onSuccess(latencyNanos, permit);
+    }
+
+    /**
+     * Records the latency of a failed call that is not the probe call of the circuit breaker.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     */
+    public void recordFailure(long latencyNanos) {
+        recordFailure(latencyNanos, CircuitBreaker.NO_PROBE);
+    }
+
+    /**
+     * Records the latency of a failed call. The latency is raised to a penalty, as failures tend
+     * to be fast and would otherwise attract more traffic.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     * @param permit       is the permit of the call that was taken from the circuit breaker.
+     */
+    public void recordFailure(long latencyNanos, long permit) {
+        updatePeakEwma(Math.max(latencyNanos, FAILURE_PENALTY_NANOS));
+        circuitBreaker.onFailure(latencyNanos, permit);
+    }
+
+    /**
+     * Counts a call as outstanding for as long as it is subscribed to. Calls are tracked from the
+     * moment the instance is selected, so calls that still wait for admission count as well, and
+     * a burst of calls is not sent to the same idle instance.
+     *
+     * @param call is the call to the instance, including its admission.
+     * @param <T>  is the type of the response.
+     * @return the tracked call.
+     */
+    public <T> Mono<T> track(Mono<T> call) {
+        return Mono.defer(() -> {
+            onRequestStarted();
+            return call.doFinally(signal -> onRequestFinished());
+        });
+    }
+
+    /**
+     * Measures a call to the instance, and feeds its outcome to the load statistics that are used
+     * by the balancing strategies and to the circuit breaker.
+     *
+     * @param call is the call to the instance.
+     * @param <T>  is the type of the response.
+     * @return the measured call.
+     */
+    public <T> Mono<T> measure(Mono<T> call) {
+        return measure(call, response -> false);
+    }
+
+    /**
+     * Measures a call to the instance, and feeds its outcome to the load statistics that are used
+     * by the balancing strategies and to the circuit breaker. The permit of the circuit breaker is
+     * taken when the call is subscribed to, and returned if the call is cancelled. The call is
+     * not counted as outstanding, see {@link #track(Mono)}.
+     *
+     * @param call      is the call to the instance.
+     * @param isFailure determines whether a response (e.g., a server error) counts as a failure.
+     * @param <T>       is the type of the response.
+     * @return the measured call.
+     */
+    public <T> Mono<T> measure(Mono<T> call, Predicate<T> isFailure) {
+        return Mono.defer(() -> {
+            final long permit = circuitBreaker.acquire();
+            long start = ticker.read();
+            return call
+                    .doOnSuccess(response -> {
+                        if (response != null && isFailure.test(response)) {
+                            recordFailure(ticker.read() - start, permit);
+                        } else {
+                            recordLatency(ticker.read() - start, permit);
+                        }
+                    })
+                    .doOnError(error -> recordFailure(ticker.read() - start, permit))
+                    .doOnCancel(() -> circuitBreaker.release(permit));
+        });
+    }
+
+    /**
+     * Updates the peak EWMA latency with a new sample.
+     *
+     * @param latencyNanos is the sampled latency in nanoseconds.
+     */
+    private synchronized void updatePeakEwma(long latencyNanos) {
+        long now = ticker.read();
+        double weight = Math.exp(-(double) Math.max(now - lastSampleTime, 0) / DECAY_TIME_NANOS);
+        lastSampleTime = now;
+
+        if (latencyNanos > peakEwmaLatency) {
+            peakEwmaLatency = latencyNanos;
+        } else {
+            peakEwmaLatency = peakEwmaLatency * weight + latencyNanos * (1 - weight);
+        }
+    }
+
+}
@@ -1,8 +1,10 @@
 package nl.tudelft.sem.gateway.discovery;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import javax.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @AllArgsConstructor
@@ -17,6 +19,22 @@ public class Registration {
     // Port of the registered microservice
     private int port;
 
+    // Load signals reported with the heartbeat (if any), which do not identify the registration
+    @EqualsAndHashCode.Exclude
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private LoadReport load;
+
+    /**
+     * Constructs a registration without load signals.
+     *
+     * @param host is the hostname of the registered microservice.
+     * @param port is the port of the registered microservice.
+     */
+    public Registration(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
     /**
      * Returns the remote address by appending the port to the host name.
      *
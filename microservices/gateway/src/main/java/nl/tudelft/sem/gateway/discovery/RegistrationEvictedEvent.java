@@ -0,0 +1,34 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event that is published when a registration is removed from the registry, because its
+ * heartbeat has expired.
+ */
+@Getter
+public class RegistrationEvictedEvent extends ApplicationEvent {
+
+    // Serialization id
+    public static final long serialVersionUID = 1;
+
+    // Target of the registration
+    private final String target;
+
+    // The evicted registration
+    private final Registration registration;
+
+    /**
+     * Constructs a RegistrationEvictedEvent object.
+     *
+     * @param source       is the object that published the event.
+     * @param target       is the target of the registration.
+     * @param registration is the evicted registration.
+     */
+    public RegistrationEvictedEvent(Object source, String target, Registration registration) {
+        super(source);
+        this.target = target;
+        this.registration = registration;
+    }
+}
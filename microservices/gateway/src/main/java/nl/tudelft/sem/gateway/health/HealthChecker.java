@@ -0,0 +1,124 @@
+package nl.tudelft.sem.gateway.health;
+
+import nl.tudelft.sem.gateway.config.HealthCheckConfig;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Actively probes all registered instances on a fixed interval, so that instances that stop
+ * responding are taken out of the rotation within seconds, instead of after their heartbeat
+ * expires. Every response below 500 counts as a successful probe. The lookups of the discovery
+ * registries skip instances that are down.
+ */
+@Component
+public class HealthChecker {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(HealthChecker.class);
+
+    // Settings of the health checks
+    private final transient HealthCheckConfig config;
+
+    // Manages the registrations
+    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Manages the connection pools (and web clients) of the registrations
+    private final transient ConnectionPoolManager connectionPoolManager;
+
+    /**
+     * Constructs the health checker.
+     *
+     * @param config                    is the configuration of the health checks.
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     * @param connectionPoolManager     is the manager of the connection pools.
+     */
+    @Autowired
+    public HealthChecker(HealthCheckConfig config,
+                         DiscoveryRegistrarService discoveryRegistrarService,
+                         ConnectionPoolManager connectionPoolManager) {
+        this.config = config;
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.connectionPoolManager = connectionPoolManager;
+    }
+
+    /**
+     * Periodically probes all registered instances, without waiting for the probes to complete.
+     */
+    @Scheduled(fixedRateString = "${gateway.health-check.interval-millis:5000}")
+    public void checkHealth() {
+        if (config.isEnabled()) {
+            probeAll().subscribe();
+        }
+    }
+
+    /**
+     * Probes all registered instances concurrently, and updates their health.
+     *
+     * @return a signal that completes once all probes have completed.
+     */
+    public Mono<Void> probeAll() {
+        return Flux.fromIterable(discoveryRegistrarService.getRegistries().entrySet())
+                .flatMap(entry -> Flux.fromIterable(entry.getValue().getInstances())
+                        .flatMap(instance -> probe(entry.getKey(), instance)))
+                .then();
+    }
+
+    /**
+     * Probes a single instance, and updates its health.
+     *
+     * @param target   is the name of the target of the instance.
+     * @param instance is the instance to probe.
+     * @return a signal that completes once the probe has completed.
+     */
+    private Mono<Void> probe(String target, RegisteredInstance instance) {
+        Registration registration = instance.getRegistration();
+        int threshold = instance.getHealth() == HealthState.UP
+                ? config.getUnhealthyThreshold()
+                : config.getHealthyThreshold();
+
+        return probe(registration)
+                .doOnNext(success -> {
+                    if (instance.recordProbe(success, threshold)) {
+                        logger.info("Instance '{}' of target '{}' is now {}",
+                                registration.remoteAddress(), target, instance.getHealth());
+                        discoveryRegistrarService.notifyChanged();
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Probes a registration once, regardless of whether the health checks are enabled.
+     *
+     * @param registration is the registration to probe.
+     * @return whether the registration responded with a status below 500 in time.
+     */
+    public Mono<Boolean> probe(Registration registration) {
+        return connectionPoolManager.getWebClient(registration)
+                .get()
+                .uri(UriComponentsBuilder.newInstance()
+                        .scheme("http")
+                        .host(registration.getHost())
+                        .port(registration.getPort())
+                        .path(config.getPath())
+                        .toUriString())
+                .exchange()
+                .flatMap(response -> response.releaseBody()
+                        .thenReturn(HttpStatus.Series.resolve(response.rawStatusCode())
+                                != HttpStatus.Series.SERVER_ERROR))
+                .timeout(config.getTimeout())
+                .onErrorReturn(false);
+    }
+
+}
@@ -0,0 +1,11 @@
+package nl.tudelft.sem.gateway.health;
+
+/**
+ * Health of a registered instance, as determined by the active health checks.
+ */
+public enum HealthState {
+    // The instance responds to the health checks, and calls are forwarded to it
+    UP,
+    // The instance failed consecutive health checks, and calls are not forwarded to it
+    DOWN
+}
@@ -0,0 +1,57 @@
+package nl.tudelft.sem.gateway.hedging;
+
+/**
+ * Budget that caps the extra load caused by hedging. Every call to a hedged route deposits a
+ * fraction of a token, and every hedged call withdraws a full token, so the number of hedged calls
+ * cannot exceed that fraction of the calls (apart from a bounded burst).
+ */
+class HedgeBudget {
+
+    // Fraction of a token that is deposited for every call
+    private final transient double ratio;
+
+    // Maximum number of tokens in the budget
+    private final transient int capacity;
+
+    // Number of tokens in the budget
+    private transient double tokens;
+
+    /**
+     * Constructs an empty hedging budget.
+     *
+     * @param ratio    is the fraction of a token that is deposited for every call.
+     * @param capacity is the maximum number of tokens in the budget.
+     */
+    HedgeBudget(double ratio, int capacity) {
+        this.ratio = ratio;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Deposits the share of a call to a hedged route.
+     */
+    synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    /**
+     * Attempts to withdraw a token for a hedged call.
+     *
+     * @return true if the call may be hedged, false if the budget is exhausted.
+     */
+    synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Returns a token of a hedged call that could not be sent.
+     */
+    synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+}
@@ -0,0 +1,24 @@
+package nl.tudelft.sem.gateway.hedging;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Statistics of the request hedging of a single route.
+ */
+@AllArgsConstructor
+@Data
+public class HedgingStatistics {
+
+    // Number of calls to the route
+    private long calls;
+
+    // Number of calls that were sent to a second instance
+    private long hedges;
+
+    // Number of hedged calls of which the second instance responded first
+    private long wins;
+
+    // Number of calls that could not be hedged, because the budget was exhausted
+    private long budgetExhausted;
+}
@@ -0,0 +1,68 @@
+package nl.tudelft.sem.gateway.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the latencies of the most recent calls to a target, from which the hedging
+ * delay is derived.
+ */
+class LatencyWindow {
+
+    // Ring buffer of the latencies in nanoseconds
+    private final transient long[] latencies;
+
+    // Number of latencies in the ring buffer
+    private transient int size;
+
+    // Position in the ring buffer at which the next latency is written
+    private transient int next;
+
+    /**
+     * Constructs an empty latency window.
+     *
+     * @param windowSize is the number of latencies that is kept.
+     */
+    LatencyWindow(int windowSize) {
+        this.latencies = new long[windowSize];
+    }
+
+    /**
+     * Adds the latency of a call to the window, replacing the oldest latency if it is full.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     */
+    synchronized void record(long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        size = Math.min(size + 1, latencies.length);
+    }
+
+    /**
+     * Returns the number of latencies in the window.
+     *
+     * @return the number of latencies.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Determines a percentile of the latencies in the window.
+     *
+     * @param percentile is the percentile, between 0 and 1.
+     * @return the latency in nanoseconds, or 0 if the window is empty.
+     */
+    long percentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(latencies, size);
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.min(Math.max(index, 0), sorted.length - 1)];
+    }
+
+}
@@ -0,0 +1,249 @@
+package nl.tudelft.sem.gateway.hedging;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import nl.tudelft.sem.gateway.config.HedgingConfig;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * Hedges GET calls to the configured routes. If the selected instance has not responded within the
+ * hedging delay, the call is sent to a second instance of the target as well. The first successful
+ * response wins, and the other call is cancelled. A failed call waits for the other call, and the
+ * call only fails once both have failed; if the first instance fails before the hedging delay, the
+ * second instance is called right away. The delay is a percentile of the recent latencies of the
+ * target, so only the slowest calls are hedged. A budget caps the number of hedged calls.
+ */
+@Component
+public class RequestHedger {
+
+    // Settings of the hedging
+    private final transient HedgingConfig config;
+
+    // Source of time used to measure the latency of the calls
+    private final transient Ticker ticker;
+
+    // Manages the registrations, from which the second instance is selected
+    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Matches paths against the patterns of the routes
+    private final transient PathMatcher pathMatcher;
+
+    // Caps the number of hedged calls
+    private final transient HedgeBudget budget;
+
+    // Recent latencies per target
+    private final transient ConcurrentMap<String, LatencyWindow> latencies;
+
+    // Counters per route
+    private final transient ConcurrentMap<String, RouteCounters> counters;
+
+    /**
+     * Constructs the request hedger.
+     *
+     * @param config                    is the configuration of the hedging.
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     */
+    @Autowired
+    public RequestHedger(HedgingConfig config,
+                         DiscoveryRegistrarService discoveryRegistrarService) {
+        this(config, discoveryRegistrarService, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs the request hedger.
+     *
+     * @param config                    is the configuration of the hedging.
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     * @param ticker                    is the source of time used to measure the latency.
+     */
+    public RequestHedger(HedgingConfig config,
+                         DiscoveryRegistrarService discoveryRegistrarService,
+                         Ticker ticker) {
+        this.config = config;
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.ticker = ticker;
+        this.pathMatcher = new AntPathMatcher();
+        this.budget = new HedgeBudget(config.getBudgetRatio(), config.getMaxBudget());
+        this.latencies = new ConcurrentHashMap<>();
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Finds the hedged route that a call belongs to.
+     *
+     * @param method is the method of the call.
+     * @param path   is the path of the call.
+     * @return the name of the route, or null if the call is not hedged.
+     */
+    public String findRoute(HttpMethod method, String path) {
+        if (!config.isEnabled() || method != HttpMethod.GET) {
+            return null;
+        }
+        for (Map.Entry<String, String> route : config.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getValue(), path)) {
+                return route.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Performs a call to a hedged route, and sends it to a second instance of the target if the
+     * first instance does not respond within the hedging delay.
+     *
+     * @param route    is the name of the route, as returned by {@link #findRoute}.
+     * @param target   is the name of the targeted microservice.
+     * @param instance is the instance that the call is sent to first.
+     * @param call     performs the call to a given instance.
+     * @param <T>      is the type of the response.
+     * @return the first response.
+     */
+    public <T> Mono<T> execute(String route, String target, RegisteredInstance instance,
+                               Function<RegisteredInstance, Mono<T>> call) {
+        return Mono.defer(() -> {
+            RouteCounters routeCounters = counters.computeIfAbsent(route,
+                    name -> new RouteCounters());
+            LatencyWindow window = latencies.computeIfAbsent(target,
+                    name -> new LatencyWindow(config.getWindowSize()));
+            routeCounters.calls.increment();
+            budget.deposit();
+
+            // A failed call waits for the other one, until both calls have failed
+            AtomicInteger running = new AtomicInteger(2);
+            AtomicReference<Throwable> firstError = new AtomicReference<>();
+            MonoProcessor<Long> primaryFailed = MonoProcessor.create();
+
+            // Record the latency of the first instance, only if its call has completed
+            long start = ticker.read();
+            Mono<T> primary = call.apply(instance)
+                    .doOnSuccess(response -> window.record(ticker.read() - start))
+                    .onErrorResume(error -> {
+                        primaryFailed.onNext(0L);
+                        return awaitOther(running, firstError, error);
+                    });
+
+            // The second call is sent after the delay, or as soon as the first call has failed
+            Mono<T> hedge = Mono.first(Mono.delay(getDelay(window)), primaryFailed)
+                    .flatMap(tick -> hedge(routeCounters, target, instance, call))
+                    .switchIfEmpty(Mono.defer(() -> awaitOther(running, firstError, null)))
+                    .onErrorResume(error -> awaitOther(running, firstError, error));
+
+            return Mono.first(primary, hedge);
+        });
+    }
+
+    /**
+     * Returns the statistics of all hedged routes that have received calls.
+     *
+     * @return the statistics, keyed by the name of the route.
+     */
+    public Map<String, HedgingStatistics> getStatistics() {
+        Map<String, HedgingStatistics> statistics = new TreeMap<>();
+        counters.forEach((route, routeCounters) -> statistics.put(route, new HedgingStatistics(
+                routeCounters.calls.sum(), routeCounters.hedges.sum(),
+                routeCounters.wins.sum(), routeCounters.budgetExhausted.sum())));
+        return statistics;
+    }
+
+    /**
+     * Determines the hedging delay of a target, which is the configured percentile of its recent
+     * latencies, bounded by the minimum and maximum delay.
+     *
+     * @param window contains the recent latencies of the target.
+     * @return the hedging delay.
+     */
+    private Duration getDelay(LatencyWindow window) {
+        if (window.size() < config.getMinimumCalls()) {
+            return config.getMaxDelay();
+        }
+        long delayNanos = Math.min(Math.max(window.percentile(config.getDelayPercentile()),
+                config.getMinDelay().toNanos()), config.getMaxDelay().toNanos());
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * Marks one of the calls as failed. The call waits for the other call, unless the other call
+     * has failed as well, in which case the first error is propagated.
+     *
+     * @param running    is the number of calls that have not failed yet.
+     * @param firstError is the error of the call that failed first.
+     * @param error      is the error of the call, or null if the call has not been sent.
+     * @param <T>        is the type of the response.
+     * @return a call that never responds, or the first error if both calls have failed.
+     */
+    private static <T> Mono<T> awaitOther(AtomicInteger running,
+                                          AtomicReference<Throwable> firstError,
+                                          Throwable error) {
+        if (error != null) {
+            firstError.compareAndSet(null, error);
+        }
+        if (running.decrementAndGet() > 0) {
+            return Mono.never();
+        }
+        return Mono.error(firstError.get());
+    }
+
+    /**
+     * Sends a call to a second instance of the target, if the budget allows it.
+     *
+     * @param routeCounters are the counters of the route.
+     * @param target        is the name of the targeted microservice.
+     * @param instance      is the instance that the call has been sent to first.
+     * @param call          performs the call to a given instance.
+     * @param <T>           is the type of the response.
+     * @return the response of the second instance, or an empty call if the call cannot be
+     *         hedged.
+     */
+    private <T> Mono<T> hedge(RouteCounters routeCounters, String target,
+                              RegisteredInstance instance,
+                              Function<RegisteredInstance, Mono<T>> call) {
+        if (!budget.tryWithdraw()) {
+            routeCounters.budgetExhausted.increment();
+            return Mono.empty();
+        }
+        RegisteredInstance other = discoveryRegistrarService
+                .getOtherInstanceIfExists(target, instance);
+        if (other == null) {
+            budget.refund();
+            return Mono.empty();
+        }
+
+        routeCounters.hedges.increment();
+        return call.apply(other).doOnSuccess(response -> routeCounters.wins.increment());
+    }
+
+    /**
+     * Counters of the request hedging of a single route.
+     */
+    private static class RouteCounters {
+
+        // Calls to the route
+        private final transient LongAdder calls = new LongAdder();
+
+        // Calls sent to a second instance
+        private final transient LongAdder hedges = new LongAdder();
+
+        // Hedged calls that were answered by the second instance first
+        private final transient LongAdder wins = new LongAdder();
+
+        // Calls that were not hedged due to the budget
+        private final transient LongAdder budgetExhausted = new LongAdder();
+    }
+
+}
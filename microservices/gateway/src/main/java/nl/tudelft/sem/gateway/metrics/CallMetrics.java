@@ -0,0 +1,49 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.Getter;
+
+/**
+ * Metrics of the calls of a single series (target, method, route and instance).
+ */
+@Getter
+public class CallMetrics {
+
+    // Upper bounds of the buckets of the queue time, which is usually far below a millisecond
+    private static final List<Duration> QUEUE_TIME_BUCKETS = List.of(Duration.ofNanos(100_000),
+            Duration.ofNanos(500_000), Duration.ofMillis(1), Duration.ofMillis(5),
+            Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1));
+
+    // Upper bounds of the buckets of the sizes, in bytes
+    private static final long[] SIZE_BUCKETS = {256, 1024, 4096, 16384, 65536, 262144, 1048576};
+
+    // Time until the complete response of the instance has been received
+    private final transient LatencyHistogram upstreamLatency;
+
+    // Time that the calls waited for admission to the target
+    private final transient LatencyHistogram queueTime;
+
+    // Size of the bodies of the calls, in bytes
+    private final transient Histogram requestSize;
+
+    // Size of the bodies of the responses, in bytes
+    private final transient Histogram responseSize;
+
+    // Number of responses per status class (index 1 to 5), and of calls without response (0)
+    private final transient AtomicLongArray statusClasses;
+
+    /**
+     * Constructs empty metrics.
+     */
+    public CallMetrics() {
+        this.upstreamLatency = new LatencyHistogram();
+        this.queueTime = new LatencyHistogram(QUEUE_TIME_BUCKETS);
+        this.requestSize = new Histogram(SIZE_BUCKETS);
+        this.responseSize = new Histogram(SIZE_BUCKETS);
+        this.statusClasses = new AtomicLongArray(6);
+    }
+
+}
@@ -0,0 +1,375 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import com.google.common.base.Utf8;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import lombok.Value;
+import nl.tudelft.sem.gateway.config.MetricsConfig;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records the latency, queue time, sizes and status of every call that the gateway forwards, per
+ * target, method, route and instance. Routes are the paths of the calls in which identifiers are
+ * replaced by <i>{id}</i>, so that the number of series stays bounded. Recording a call only
+ * updates a few counters, without any locking.
+ *
+ * <p>Calls that are shed by the admission control are counted as 5xx responses, with the time that
+ * they waited, but without an upstream latency or sizes, as they never reached the instance.
+ *
+ * <p>The metrics are exposed in the text format of Prometheus.
+ */
+@Component
+public class GatewayMetrics {
+
+    // Route of the calls that are recorded once the maximum number of series has been reached
+    static final String OTHER_ROUTE = "other";
+
+    // Matches path segments that are identifiers (numbers or UUIDs)
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(?:\\d+|[0-9a-fA-F]{8}-"
+            + "[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})(?=/|$)");
+
+    // Settings of the metrics
+    private final transient MetricsConfig config;
+
+    // Metrics of each series
+    private final transient ConcurrentMap<Series, CallMetrics> series;
+
+    /**
+     * Constructs the gateway metrics.
+     *
+     * @param config is the configuration of the metrics.
+     */
+    @Autowired
+    public GatewayMetrics(MetricsConfig config) {
+        this.config = config;
+        this.series = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Measures a buffered call to an instance, from the moment that it waits for admission until
+     * the complete response has been received.
+     *
+     * @param target       is the name of the target.
+     * @param method       is the method of the call.
+     * @param path         is the path of the call.
+     * @param registration is the registration of the instance.
+     * @param requestBody  is the body of the call, if any.
+     * @param admission    admits the call to the target.
+     * @param call         is the call to the instance.
+     * @return the measured call.
+     */
+    public Mono<ResponseEntity<String>> measure(
+            String target, HttpMethod method, String path, Registration registration,
+            String requestBody,
+            Function<Mono<ResponseEntity<String>>, Mono<ResponseEntity<String>>> admission,
+            Mono<ResponseEntity<String>> call) {
+        return measure(target, method, path, registration,
+                requestBody != null ? Utf8.encodedLength(requestBody) : 0, admission, call,
+                ResponseEntity::getStatusCodeValue,
+                response -> response.getBody() != null
+                        ? Utf8.encodedLength(response.getBody())
+                        : 0);
+    }
+
+    /**
+     * Measures a call to an instance, from the moment that it waits for admission until the call
+     * completes, which for streamed calls is once the body has been streamed.
+     *
+     * @param target       is the name of the target.
+     * @param method       is the method of the call.
+     * @param path         is the path of the call.
+     * @param registration is the registration of the instance.
+     * @param requestSize  is the size of the body of the call in bytes.
+     * @param admission    admits the call to the target.
+     * @param call         is the call to the instance.
+     * @param status       determines the status code of a response.
+     * @param responseSize determines the size of the body of a response in bytes, or -1 if it is
+     *                     unknown.
+     * @param <T>          is the type of the response.
+     * @return the measured call.
+     */
+    public <T> Mono<T> measure(String target, HttpMethod method, String path,
+                               Registration registration, long requestSize,
+                               Function<Mono<T>, Mono<T>> admission, Mono<T> call,
+                               ToIntFunction<T> status, ToLongFunction<T> responseSize) {
+        if (!config.isEnabled()) {
+            return admission.apply(call);
+        }
+
+        return Mono.defer(() -> {
+            long queued = System.nanoTime();
+            AtomicLong started = new AtomicLong();
+            return admission.apply(Mono.defer(() -> {
+                started.set(System.nanoTime());
+                return call;
+            }))
+                    .doOnSuccess(response -> {
+                        if (response != null) {
+                            record(target, method, path, registration, queued, started.get(),
+                                    status.applyAsInt(response), requestSize,
+                                    responseSize.applyAsLong(response));
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (started.get() != 0) {
+                            record(target, method, path, registration, queued, started.get(),
+                                    0, requestSize, -1);
+                        } else {
+                            recordShed(target, method, path, registration, queued);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Records a completed call.
+     *
+     * @param target       is the name of the target.
+     * @param method       is the method of the call.
+     * @param path         is the path of the call.
+     * @param registration is the registration of the instance.
+     * @param queued       is the time (System.nanoTime) at which the call started to wait.
+     * @param started      is the time (System.nanoTime) at which the call was admitted.
+     * @param status       is the status code of the response, or 0 if no response was received.
+     * @param requestSize  is the size of the body of the call in bytes.
+     * @param responseSize is the size of the body of the response in bytes, or -1 if it is unknown.
+     */
+    private void record(String target, HttpMethod method, String path, Registration registration,
+                        long queued, long started, int status, long requestSize,
+                        long responseSize) {
+        long now = System.nanoTime();
+        CallMetrics metrics = getMetrics(target, method, path, registration);
+        metrics.getQueueTime().record(started - queued);
+        metrics.getUpstreamLatency().record(now - started);
+        metrics.getRequestSize().record(requestSize);
+        if (status != 0 && responseSize >= 0) {
+            metrics.getResponseSize().record(responseSize);
+        }
+        metrics.getStatusClasses().incrementAndGet(Math.min(status / 100, 5));
+    }
+
+    /**
+     * Records a call that was shed by the admission control, which responds with status 503.
+     *
+     * @param target       is the name of the target.
+     * @param method       is the method of the call.
+     * @param path         is the path of the call.
+     * @param registration is the registration of the instance.
+     * @param queued       is the time (System.nanoTime) at which the call started to wait.
+     */
+    private void recordShed(String target, HttpMethod method, String path,
+                            Registration registration, long queued) {
+        CallMetrics metrics = getMetrics(target, method, path, registration);
+        metrics.getQueueTime().record(System.nanoTime() - queued);
+        metrics.getStatusClasses().incrementAndGet(HttpStatus.SERVICE_UNAVAILABLE.value() / 100);
+    }
+
+    /**
+     * Returns the metrics of the series of a call.
+     *
+     * @param target       is the name of the target.
+     * @param method       is the method of the call.
+     * @param path         is the path of the call.
+     * @param registration is the registration of the instance.
+     * @return the metrics of the series.
+     */
+    private CallMetrics getMetrics(String target, HttpMethod method, String path,
+                                   Registration registration) {
+        return getMetrics(new Series(target, method.name(), routeTemplate(path),
+                registration.remoteAddress()));
+    }
+
+    /**
+     * Returns the metrics of a series, and creates them if needed. Once the maximum number of
+     * series has been reached, the metrics of new series are merged into the 'other' route.
+     *
+     * @param key is the series.
+     * @return the metrics of the series.
+     */
+    private CallMetrics getMetrics(Series key) {
+        CallMetrics metrics = series.get(key);
+        if (metrics != null) {
+            return metrics;
+        }
+        Series actual = series.size() < config.getMaxSeries()
+                ? key
+                : new Series(key.getTarget(), key.getMethod(), OTHER_ROUTE, key.getInstance());
+        return series.computeIfAbsent(actual, ignored -> new CallMetrics());
+    }
+
+    /**
+     * Determines the route of a path, in which identifiers are replaced by <i>{id}</i>, e.g.
+     * /api/courses/get/{id}.
+     *
+     * @param path is the path.
+     * @return the route.
+     */
+    public static String routeTemplate(String path) {
+        return ID_SEGMENT.matcher(path).replaceAll("/{id}");
+    }
+
+    /**
+     * Returns the metrics of all series.
+     *
+     * @return the metrics, sorted by series.
+     */
+    public Map<Series, CallMetrics> getSeries() {
+        Map<Series, CallMetrics> sorted = new TreeMap<>();
+        sorted.putAll(series);
+        return sorted;
+    }
+
+    /**
+     * Formats the metrics in the text format of Prometheus (version 0.0.4).
+     *
+     * @return the formatted metrics.
+     */
+    public String toPrometheusText() {
+        Map<Series, CallMetrics> sorted = getSeries();
+        StringBuilder text = new StringBuilder();
+
+        appendHistogram(text, sorted, "gateway_upstream_latency_seconds",
+                "Time until the complete response of the instance has been received.",
+                CallMetrics::getUpstreamLatency, true);
+        appendHistogram(text, sorted, "gateway_queue_time_seconds",
+                "Time that calls waited for admission to the target.",
+                CallMetrics::getQueueTime, true);
+        appendHistogram(text, sorted, "gateway_request_size_bytes",
+                "Size of the bodies of the forwarded calls.",
+                CallMetrics::getRequestSize, false);
+        appendHistogram(text, sorted, "gateway_response_size_bytes",
+                "Size of the bodies of the responses of the instances.",
+                CallMetrics::getResponseSize, false);
+
+        text.append("# HELP gateway_responses_total Number of forwarded calls per status class, "
+                + "where 'error' means that no response was received.\n");
+        text.append("# TYPE gateway_responses_total counter\n");
+        sorted.forEach((key, metrics) -> {
+            for (int i = 0; i < metrics.getStatusClasses().length(); i++) {
+                long count = metrics.getStatusClasses().get(i);
+                if (count > 0) {
+                    text.append("gateway_responses_total{").append(labels(key))
+                            .append(",class=\"").append(i == 0 ? "error" : i + "xx")
+                            .append("\"} ").append(count).append('\n');
+                }
+            }
+        });
+        return text.toString();
+    }
+
+    /**
+     * Appends a histogram of every series in the text format of Prometheus.
+     *
+     * @param text        is the text to append to.
+     * @param sorted      are the metrics of all series.
+     * @param name        is the name of the histogram.
+     * @param help        is the description of the histogram.
+     * @param histogram   selects the histogram of the metrics of a series.
+     * @param nanoseconds whether the values are nanoseconds, which are formatted as seconds.
+     */
+    private static void appendHistogram(StringBuilder text, Map<Series, CallMetrics> sorted,
+                                        String name, String help,
+                                        Function<CallMetrics, Histogram> histogram,
+                                        boolean nanoseconds) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(" histogram\n");
+        sorted.forEach((key, metrics) -> {
+            Histogram values = histogram.apply(metrics);
+            String labels = labels(key);
+            long[] bounds = values.getBounds();
+            long[] cumulative = values.getCumulativeCounts();
+            for (int i = 0; i < cumulative.length; i++) {
+                String bound = i < bounds.length
+                        ? format(bounds[i], nanoseconds)
+                        : "+Inf";
+                text.append(name).append("_bucket{").append(labels).append(",le=\"")
+                        .append(bound).append("\"} ").append(cumulative[i]).append('\n');
+            }
+            text.append(name).append("_sum{").append(labels).append("} ")
+                    .append(format(values.getSum(), nanoseconds)).append('\n');
+            text.append(name).append("_count{").append(labels).append("} ")
+                    .append(cumulative[cumulative.length - 1]).append('\n');
+        });
+    }
+
+    /**
+     * Formats a value, converting nanoseconds into seconds if needed.
+     *
+     * @param value       is the value.
+     * @param nanoseconds whether the value is in nanoseconds.
+     * @return the formatted value, without an exponent.
+     */
+    private static String format(long value, boolean nanoseconds) {
+        return nanoseconds
+                ? BigDecimal.valueOf(value, 9).stripTrailingZeros().toPlainString()
+                : String.valueOf(value);
+    }
+
+    /**
+     * Formats the labels of a series.
+     *
+     * @param key is the series.
+     * @return the labels, separated by commas.
+     */
+    private static String labels(Series key) {
+        return "target=\"" + escape(key.getTarget()) + "\",method=\"" + escape(key.getMethod())
+                + "\",route=\"" + escape(key.getRoute()) + "\",instance=\""
+                + escape(key.getInstance()) + "\"";
+    }
+
+    /**
+     * Escapes a label value.
+     *
+     * @param value is the label value.
+     * @return the escaped label value.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * A series of metrics: the calls with the same target, method, route and instance.
+     */
+    @Value
+    public static class Series implements Comparable<Series> {
+
+        // Orders the series by their labels
+        private static final Comparator<Series> ORDER = Comparator.comparing(Series::getTarget)
+                .thenComparing(Series::getMethod)
+                .thenComparing(Series::getRoute)
+                .thenComparing(Series::getInstance);
+
+        // Name of the target
+        String target;
+
+        // Method of the calls
+        String method;
+
+        // Route of the calls, e.g. /api/courses/get/{id}
+        String route;
+
+        // Remote address of the instance
+        String instance;
+
+        @Override
+        public int compareTo(Series other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+}
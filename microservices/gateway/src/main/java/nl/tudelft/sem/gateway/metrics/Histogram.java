@@ -0,0 +1,131 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative values with fixed buckets, which can be updated concurrently without
+ * locking. Percentiles are estimated by the upper bound of the bucket that contains them, hence
+ * they are never lower than the actual percentile.
+ */
+public class Histogram {
+
+    // Upper bounds of the buckets (inclusive), after which a final bucket holds the rest
+    private final transient long[] bounds;
+
+    // Number of values per bucket (not cumulative), including the final bucket
+    private final transient AtomicLongArray counts;
+
+    // Sum of all values
+    private final transient LongAdder sum;
+
+    // Highest value
+    private final transient LongAccumulator max;
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param bounds are the upper bounds of the buckets, in ascending order.
+     */
+    public Histogram(long... bounds) {
+        this.bounds = bounds.clone();
+        this.counts = new AtomicLongArray(bounds.length + 1);
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Adds a value to the histogram.
+     *
+     * @param value is the value.
+     */
+    public void record(long value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        counts.incrementAndGet(bucket);
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the upper bounds of the buckets, excluding the final bucket that holds the rest.
+     *
+     * @return the upper bounds.
+     */
+    public long[] getBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Returns the cumulative number of values per bucket: the number of values that are at most
+     * the upper bound of the bucket. The final element is the total number of values.
+     *
+     * @return the cumulative counts, one more than the number of upper bounds.
+     */
+    public long[] getCumulativeCounts() {
+        long[] cumulative = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += counts.get(i);
+            cumulative[i] = total;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Returns the number of values in the histogram.
+     *
+     * @return the number of values.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the sum of all values in the histogram.
+     *
+     * @return the sum.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the highest value in the histogram.
+     *
+     * @return the highest value, or 0 if the histogram is empty.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimates a percentile of the values by the upper bound of the bucket that contains it.
+     * Percentiles in the final bucket are estimated by the highest value.
+     *
+     * @param percentile is the percentile, between 0 and 1.
+     * @return the value, or 0 if the histogram is empty.
+     */
+    public long percentile(double percentile) {
+        long[] cumulative = getCumulativeCounts();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        for (int i = 0; i < bounds.length; i++) {
+            if (cumulative[i] >= rank) {
+                return Math.min(bounds[i], getMax());
+            }
+        }
+        return getMax();
+    }
+
+}
@@ -0,0 +1,50 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Histogram of latencies in nanoseconds, with buckets that grow roughly exponentially from one
+ * millisecond to ten seconds.
+ */
+public class LatencyHistogram extends Histogram {
+
+    // Upper bounds of the buckets (inclusive), after which a final bucket holds the rest
+    public static final List<Duration> DEFAULT_BUCKETS = List.of(Duration.ofMillis(1),
+            Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10));
+
+    /**
+     * Constructs an empty histogram with the default buckets.
+     */
+    public LatencyHistogram() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param buckets are the upper bounds of the buckets, in ascending order.
+     */
+    public LatencyHistogram(List<Duration> buckets) {
+        super(buckets.stream().mapToLong(Duration::toNanos).toArray());
+    }
+
+    /**
+     * Formats a latency in milliseconds, with up to one decimal.
+     *
+     * @param latencyNanos is the latency in nanoseconds.
+     * @return the formatted latency, e.g. 12.5ms.
+     */
+    public static String formatMillis(long latencyNanos) {
+        double millis = latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        return (millis == Math.rint(millis)
+                ? String.valueOf((long) millis)
+                : String.format(Locale.ROOT, "%.1f", millis)) + "ms";
+    }
+
+}
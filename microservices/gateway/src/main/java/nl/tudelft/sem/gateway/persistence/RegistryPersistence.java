@@ -0,0 +1,224 @@
+package nl.tudelft.sem.gateway.persistence;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.PreDestroy;
+import nl.tudelft.sem.gateway.config.PersistenceConfig;
+import nl.tudelft.sem.gateway.discovery.DiscoveryRegistry;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.health.HealthChecker;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Saves the registrations to a local file periodically, and restores them when the gateway starts.
+ * This allows the gateway to route calls right after a restart, instead of responding with 404
+ * until every microservice has sent its next heartbeat. Restored registrations are only added
+ * once they respond to a health probe, and expire as usual unless a heartbeat follows.
+ */
+@Component
+public class RegistryPersistence {
+
+    // Logger
+    private static final Logger logger = LoggerFactory.getLogger(RegistryPersistence.class);
+
+    // Type of the contents of the file
+    private static final TypeReference<Map<String, List<Registration>>> SNAPSHOT_TYPE =
+            new TypeReference<>() { };
+
+    // Settings of the persistence
+    private final transient PersistenceConfig config;
+
+    // Manages the registrations
+    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Probes the restored registrations
+    private final transient HealthChecker healthChecker;
+
+    // Manages the connection pools, which the probes create for the restored registrations
+    private final transient ConnectionPoolManager connectionPoolManager;
+
+    // Converts the registrations to and from JSON
+    private final transient ObjectMapper objectMapper;
+
+    // Whether the registrations have been restored, before which the file must not be overwritten
+    private transient volatile boolean restored;
+
+    /**
+     * Constructs the registry persistence.
+     *
+     * @param config                    is the configuration of the persistence.
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     * @param healthChecker             is used to probe the restored registrations.
+     * @param connectionPoolManager     is the manager of the connection pools.
+     */
+    @Autowired
+    public RegistryPersistence(PersistenceConfig config,
+                               DiscoveryRegistrarService discoveryRegistrarService,
+                               HealthChecker healthChecker,
+                               ConnectionPoolManager connectionPoolManager) {
+        this.config = config;
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.healthChecker = healthChecker;
+        this.connectionPoolManager = connectionPoolManager;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Restores the registrations once the gateway has started, without delaying the startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (config.isEnabled()) {
+            restore().subscribe(count -> logger.info("Restored {} registrations from '{}'",
+                    count, config.getFile()));
+        }
+    }
+
+    /**
+     * Periodically saves the registrations.
+     */
+    @Scheduled(fixedRateString = "${gateway.persistence.interval-millis:10000}")
+    public void onInterval() {
+        if (config.isEnabled()) {
+            save();
+        }
+    }
+
+    /**
+     * Saves the registrations when the gateway shuts down.
+     */
+    @PreDestroy
+    public void onShutdown() {
+        if (config.isEnabled()) {
+            save();
+        }
+    }
+
+    /**
+     * Restores the registrations from the file. Registrations that do not respond to a health
+     * probe are discarded, together with the connection pool that the probe created.
+     *
+     * @return the number of restored registrations, which becomes available in the future.
+     */
+    public Mono<Long> restore() {
+        Map<String, List<Registration>> snapshot = read();
+        return Flux.fromIterable(snapshot.entrySet())
+                .flatMap(entry -> Flux.fromIterable(entry.getValue())
+                        .filterWhen(registration -> healthChecker.probe(registration)
+                                .doOnNext(alive -> {
+                                    if (!alive) {
+                                        discard(registration);
+                                    }
+                                }))
+                        .doOnNext(registration -> discoveryRegistrarService
+                                .addRegistration(entry.getKey(), registration)))
+                .count()
+                .doFinally(signal -> restored = true);
+    }
+
+    /**
+     * Disposes the connection pool of a registration that was not restored, unless the
+     * registration has been registered by a heartbeat in the meantime.
+     *
+     * @param registration is the registration that was not restored.
+     */
+    private void discard(Registration registration) {
+        for (DiscoveryRegistry registry : discoveryRegistrarService.getRegistries().values()) {
+            for (RegisteredInstance instance : registry.getInstances()) {
+                if (instance.getRegistration().remoteAddress()
+                        .equals(registration.remoteAddress())) {
+                    return;
+                }
+            }
+        }
+        connectionPoolManager.dispose(registration);
+    }
+
+    /**
+     * Saves the registrations to the file, unless they have not been restored yet. The file is
+     * replaced atomically, so a crash while saving never leaves a partial file behind.
+     */
+    public void save() {
+        if (!restored) {
+            return;
+        }
+
+        Map<String, List<Registration>> snapshot = new TreeMap<>();
+        discoveryRegistrarService.getRegistries().forEach((target, registry) -> {
+            List<Registration> registrations = new ArrayList<>();
+            for (RegisteredInstance instance : registry.getInstances()) {
+                registrations.add(instance.getRegistration());
+            }
+            if (!registrations.isEmpty()) {
+                snapshot.put(target, registrations);
+            }
+        });
+
+        Path file = Paths.get(config.getFile()).toAbsolutePath();
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(file.getParent(), ".registrations", ".tmp");
+            objectMapper.writeValue(temporary.toFile(), snapshot);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to save the registrations to '{}'", file, e);
+            deleteQuietly(temporary);
+        }
+    }
+
+    /**
+     * Deletes a leftover temporary file, if it exists.
+     *
+     * @param temporary is the temporary file, or null if it was not created.
+     */
+    private static void deleteQuietly(Path temporary) {
+        if (temporary == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            logger.warn("Unable to delete '{}'", temporary, e);
+        }
+    }
+
+    /**
+     * Reads the registrations from the file.
+     *
+     * @return the registrations, keyed by target, or no registrations if the file cannot be read.
+     */
+    private Map<String, List<Registration>> read() {
+        Path file = Paths.get(config.getFile());
+        if (!Files.exists(file)) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), SNAPSHOT_TYPE);
+        } catch (IOException e) {
+            logger.warn("Unable to restore the registrations from '{}'", file, e);
+            return Map.of();
+        }
+    }
+
+}
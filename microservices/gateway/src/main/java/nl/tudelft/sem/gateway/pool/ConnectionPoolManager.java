@@ -0,0 +1,139 @@
+package nl.tudelft.sem.gateway.pool;
+
+import io.netty.channel.ChannelOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PreDestroy;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
+import nl.tudelft.sem.gateway.config.ConnectionPoolConfig;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.discovery.RegistrationEvictedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Manages a pool of keep-alive connections for every registration. Pools are created lazily when
+ * the first call is forwarded to a registration, and are disposed when the registration is
+ * evicted from the registry.
+ */
+@Component
+public class ConnectionPoolManager {
+
+    // Settings of the pools
+    private final transient ConnectionPoolConfig connectionPoolConfig;
+
+    // Pools, keyed by the remote address of their registration
+    private final transient ConcurrentMap<String, UpstreamPool> pools;
+
+    /**
+     * Constructs a ConnectionPoolManager instance.
+     *
+     * @param connectionPoolConfig is the configuration of the pools.
+     */
+    @Autowired
+    public ConnectionPoolManager(ConnectionPoolConfig connectionPoolConfig) {
+        this.connectionPoolConfig = connectionPoolConfig;
+        this.pools = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the web client that forwards calls to the registration, using its own pool.
+     *
+     * @param registration is the registration.
+     * @return the web client of the registration.
+     */
+    public WebClient getWebClient(Registration registration) {
+        return pools.computeIfAbsent(registration.remoteAddress(), this::createPool)
+                .getWebClient();
+    }
+
+    /**
+     * Returns the statistics of all pools.
+     *
+     * @return the statistics, keyed by the remote address of the registration.
+     */
+    public Map<String, PoolStatistics> getStatistics() {
+        Map<String, PoolStatistics> statistics = new TreeMap<>();
+        pools.forEach((address, pool) -> statistics.put(address, pool.getStatistics()));
+        return statistics;
+    }
+
+    /**
+     * Disposes the pool of an evicted registration.
+     *
+     * @param event is the eviction event.
+     */
+    @EventListener
+    public void onRegistrationEvicted(RegistrationEvictedEvent event) {
+        dispose(event.getRegistration());
+    }
+
+    /**
+     * Closes all connections to the registration, and removes its pool.
+     *
+     * @param registration is the registration.
+     */
+    public void dispose(Registration registration) {
+        UpstreamPool pool = pools.remove(registration.remoteAddress());
+        if (pool != null) {
+            pool.dispose();
+        }
+    }
+
+    /**
+     * Closes all pools when the gateway shuts down.
+     */
+    @PreDestroy
+    public void disposeAll() {
+        pools.keySet().forEach(address -> {
+            UpstreamPool pool = pools.remove(address);
+            if (pool != null) {
+                pool.dispose();
+            }
+        });
+    }
+
+    /**
+     * Creates the pool, and the web client that uses it, for a registration. The web client
+     * abandons calls once their deadline has passed.
+     *
+     * @param remoteAddress is the remote address of the registration.
+     * @return the pool.
+     */
+    private UpstreamPool createPool(String remoteAddress) {
+        AtomicReference<ConnectionPoolMetrics> metrics = new AtomicReference<>();
+        ConnectionProvider connectionProvider = ConnectionProvider
+                .builder("gateway-" + remoteAddress)
+                .maxConnections(connectionPoolConfig.getMaxConnections())
+                .pendingAcquireMaxCount(connectionPoolConfig.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(connectionPoolConfig.getPendingAcquireTimeout())
+                .maxIdleTime(connectionPoolConfig.getMaxIdleTime())
+                .maxLifeTime(connectionPoolConfig.getMaxLifeTime())
+                .evictInBackground(connectionPoolConfig.getEvictionInterval())
+                .metrics(true, () -> (poolName, id, address, poolMetrics) ->
+                        metrics.set(poolMetrics))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .tcpConfiguration(tcpClient -> tcpClient.option(
+                        ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        (int) connectionPoolConfig.getConnectTimeout().toMillis()))
+                .responseTimeout(connectionPoolConfig.getResponseTimeout());
+
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new DeadlineExchangeFilter())
+                .build();
+        return new UpstreamPool(connectionProvider, webClient, metrics);
+    }
+
+}
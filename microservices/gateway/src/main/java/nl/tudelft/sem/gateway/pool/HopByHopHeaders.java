@@ -0,0 +1,40 @@
+package nl.tudelft.sem.gateway.pool;
+
+import java.util.List;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Filter for the headers of a response of a microservice that only apply to the connection with
+ * the microservice (RFC 7230, section 6.1). These must not be forwarded to the caller, as the
+ * connection with the caller is managed by the gateway itself.
+ */
+public class HopByHopHeaders {
+
+    // Headers that only apply to the connection with the microservice
+    private static final List<String> HOP_BY_HOP_HEADERS = List.of(HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION,
+            HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.UPGRADE);
+
+    private HopByHopHeaders() {
+
+    }
+
+    /**
+     * Copies the headers of a response without the hop-by-hop headers, including the headers that
+     * the Connection header lists.
+     *
+     * @param headers is a collection of headers that is part of the response.
+     * @return the headers that may be forwarded.
+     */
+    public static HttpHeaders withoutHopByHopHeaders(HttpHeaders headers) {
+        HttpHeaders forwarded = new HttpHeaders();
+        forwarded.addAll(headers);
+        for (String connection : headers.getConnection()) {
+            forwarded.remove(connection.trim());
+        }
+        HOP_BY_HOP_HEADERS.forEach(forwarded::remove);
+        return forwarded;
+    }
+
+}
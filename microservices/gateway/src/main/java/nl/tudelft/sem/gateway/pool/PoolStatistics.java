@@ -0,0 +1,27 @@
+package nl.tudelft.sem.gateway.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Statistics of the connection pool of a single registration.
+ */
+@AllArgsConstructor
+@Data
+public class PoolStatistics {
+
+    // Maximum number of connections of the pool
+    private int maxConnections;
+
+    // Number of connections that are currently in use
+    private int acquired;
+
+    // Number of connections that are currently open (in use and idle)
+    private int allocated;
+
+    // Number of idle connections
+    private int idle;
+
+    // Number of calls that are waiting for a connection
+    private int pendingAcquire;
+}
@@ -0,0 +1,68 @@
+package nl.tudelft.sem.gateway.pool;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+/**
+ * Exchange with a microservice whose response body is streamed to the caller. The admission
+ * control and the measurements of such a call must span the body as well, as the connection is
+ * only returned to the pool once the body has been read. Since the response is needed to start
+ * streaming the body, it is delivered separately from the call, which completes with the body.
+ */
+public class StreamedExchange {
+
+    private StreamedExchange() {
+
+    }
+
+    /**
+     * Performs an exchange, and keeps the call open until the body of the response completes,
+     * fails or is cancelled.
+     *
+     * @param exchange   is the exchange with the microservice.
+     * @param lifetime   wraps the call in the admission control and measurements, which end when
+     *                   the call terminates.
+     * @param toResponse creates the response to the initial request from the response of the
+     *                   microservice and its body, which must be streamed or released.
+     * @param <R>        is the type of the response to the initial request.
+     * @return response that will become available in the future.
+     */
+    public static <R> Mono<R> stream(Mono<ClientResponse> exchange,
+                                     UnaryOperator<Mono<ClientResponse>> lifetime,
+                                     BiFunction<ClientResponse, Flux<DataBuffer>, R> toResponse) {
+        return Mono.create(sink -> {
+            AtomicBoolean delivered = new AtomicBoolean();
+            Disposable.Swap call = Disposables.swap();
+            sink.onCancel(call);
+
+            // The call emits the response once its body has terminated
+            Mono<ClientResponse> streamed = exchange.flatMap(response -> {
+                MonoProcessor<ClientResponse> completion = MonoProcessor.create();
+                Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                        .doOnComplete(() -> completion.onNext(response))
+                        .doOnError(completion::onError)
+                        .doOnCancel(call::dispose);
+                R result = toResponse.apply(response, body);
+                delivered.set(true);
+                sink.success(result);
+                return completion;
+            });
+
+            // Errors of the body are recorded by the call, but have already reached the caller
+            call.update(lifetime.apply(streamed).subscribe(response -> { }, error -> {
+                if (!delivered.get()) {
+                    sink.error(error);
+                }
+            }, sink::success));
+        });
+    }
+
+}
@@ -0,0 +1,46 @@
+package nl.tudelft.sem.gateway.pool;
+
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Connection pool of a single registration, together with the web client that uses it.
+ */
+@AllArgsConstructor
+class UpstreamPool {
+
+    // Provider of the pooled connections
+    private final transient ConnectionProvider connectionProvider;
+
+    // Web client that acquires its connections from the pool
+    @Getter
+    private final transient WebClient webClient;
+
+    // Metrics of the pool, available once the first connection has been acquired
+    private final transient AtomicReference<ConnectionPoolMetrics> metrics;
+
+    /**
+     * Returns the current statistics of the pool.
+     *
+     * @return the statistics.
+     */
+    PoolStatistics getStatistics() {
+        ConnectionPoolMetrics current = metrics.get();
+        if (current == null) {
+            return new PoolStatistics(connectionProvider.maxConnections(), 0, 0, 0, 0);
+        }
+        return new PoolStatistics(connectionProvider.maxConnections(), current.acquiredSize(),
+                current.allocatedSize(), current.idleSize(), current.pendingAcquireSize());
+    }
+
+    /**
+     * Closes all connections of the pool, without waiting for it to complete.
+     */
+    void dispose() {
+        connectionProvider.disposeLater().subscribe();
+    }
+}
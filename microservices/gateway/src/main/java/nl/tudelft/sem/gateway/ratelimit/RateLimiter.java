@@ -0,0 +1,157 @@
+package nl.tudelft.sem.gateway.ratelimit;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import nl.tudelft.sem.gateway.config.RateLimitConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Rate limiter for the calls to the configured routes. Every caller receives a token bucket per
+ * route, which is keyed by the user ID of its JWT token, or by its remote address if the call does
+ * not carry a valid token. The buckets are kept in a concurrent (segmented) cache, so callers do
+ * not contend on a global lock. Buckets that have not been used for a full period are discarded,
+ * as they would have been refilled completely anyway.
+ */
+@Component
+public class RateLimiter {
+
+    // Settings of the rate limiter
+    private final transient RateLimitConfig config;
+
+    // Source of time used to refill the buckets
+    private final transient Ticker ticker;
+
+    // Matches paths against the patterns of the routes
+    private final transient PathMatcher pathMatcher;
+
+    // The token buckets, keyed by route and caller
+    private final transient Cache<String, TokenBucket> buckets;
+
+    /**
+     * Constructs the rate limiter.
+     *
+     * @param config is the configuration of the rate limiter.
+     */
+    @Autowired
+    public RateLimiter(RateLimitConfig config) {
+        this(config, Ticker.systemTicker());
+    }
+
+    /**
+     * Constructs the rate limiter.
+     *
+     * @param config is the configuration of the rate limiter.
+     * @param ticker is the source of time used to refill the buckets.
+     */
+    public RateLimiter(RateLimitConfig config, Ticker ticker) {
+        this.config = config;
+        this.ticker = ticker;
+        this.pathMatcher = new AntPathMatcher();
+        this.buckets = CacheBuilder.newBuilder()
+                .maximumSize(config.getMaxBuckets())
+                .expireAfterAccess(config.getRoutes().values().stream()
+                        .map(RateLimitConfig.Route::getPeriod)
+                        .max(Duration::compareTo)
+                        .orElse(Duration.ofMinutes(1)))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Finds the rate limited route that a call belongs to.
+     *
+     * @param path is the path of the call, which is normalized before it is matched.
+     * @return the name of the route, or null if the call is not rate limited.
+     */
+    public String findRoute(String path) {
+        String normalized = normalizePath(path);
+        for (Map.Entry<String, RateLimitConfig.Route> route : config.getRoutes().entrySet()) {
+            if (pathMatcher.match(route.getValue().getPattern(), normalized)) {
+                return route.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Normalizes a path the way the microservices interpret it, so that a call cannot escape its
+     * route by percent-encoding its path, adding matrix parameters, empty segments or a trailing
+     * slash, or by walking through other segments with "." and "..".
+     *
+     * @param path is the raw path of the call.
+     * @return the decoded path without parameters, empty segments and dot segments.
+     */
+    public static String normalizePath(String path) {
+        Deque<String> segments = new ArrayDeque<>();
+        for (String rawSegment : path.split("/")) {
+            int parameters = rawSegment.indexOf(';');
+            String segment = parameters < 0 ? rawSegment : rawSegment.substring(0, parameters);
+            for (String part : decode(segment).split("/")) {
+                if ("..".equals(part)) {
+                    segments.pollLast();
+                } else if (!part.isEmpty() && !".".equals(part)) {
+                    segments.addLast(part);
+                }
+            }
+        }
+        return "/" + String.join("/", segments);
+    }
+
+    /**
+     * Percent-decodes a segment of a path.
+     *
+     * @param segment is the raw segment.
+     * @return the decoded segment, or the raw segment if it is not validly encoded.
+     */
+    private static String decode(String segment) {
+        try {
+            return UriUtils.decode(segment, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return segment;
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of the caller for the route.
+     *
+     * @param route         is the name of the route, as returned by {@link #findRoute}.
+     * @param userId        is the user ID of the caller, or null if the call has no valid token.
+     * @param remoteAddress is the remote address of the caller.
+     * @return null if the call may be forwarded, or the time after which the caller may retry.
+     */
+    public Duration tryAcquire(String route, Long userId, String remoteAddress) {
+        RateLimitConfig.Route settings = config.getRoutes().get(route);
+        String key = userId != null
+                ? route + " user:" + userId
+                : route + " address:" + remoteAddress;
+
+        long now = ticker.read();
+        long waitNanos = buckets.asMap()
+                .computeIfAbsent(key, k -> new TokenBucket(settings.getLimit(),
+                        settings.getPeriod().toNanos(), now))
+                .tryAcquire(now);
+        return waitNanos == 0 ? null : Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Formats the time after which a caller may retry as the value of a Retry-After header.
+     *
+     * @param retryAfter is the time after which the caller may retry.
+     * @return the number of seconds, rounded up.
+     */
+    public static String toRetryAfter(Duration retryAfter) {
+        long seconds = retryAfter.getSeconds() + (retryAfter.getNano() > 0 ? 1 : 0);
+        return String.valueOf(Math.max(seconds, 1));
+    }
+
+}
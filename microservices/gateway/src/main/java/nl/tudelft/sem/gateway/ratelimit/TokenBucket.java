@@ -0,0 +1,52 @@
+package nl.tudelft.sem.gateway.ratelimit;
+
+/**
+ * Token bucket of a single caller of a rate limited route. The bucket starts full, and is refilled
+ * continuously at a constant rate. Every call takes a single token.
+ */
+class TokenBucket {
+
+    // Maximum number of tokens in the bucket
+    private final transient int capacity;
+
+    // Number of nanoseconds it takes to add a single token
+    private final transient double nanosPerToken;
+
+    // Number of tokens in the bucket at the time of the last refill
+    private transient double tokens;
+
+    // Ticker time of the last refill
+    private transient long lastRefill;
+
+    /**
+     * Constructs a full token bucket.
+     *
+     * @param capacity     is the maximum number of tokens in the bucket.
+     * @param periodNanos  is the time in nanoseconds in which an empty bucket is refilled.
+     * @param now          is the current ticker time.
+     */
+    TokenBucket(int capacity, long periodNanos, long now) {
+        this.capacity = capacity;
+        this.nanosPerToken = (double) periodNanos / capacity;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Attempts to take a token from the bucket.
+     *
+     * @param now is the current ticker time.
+     * @return 0 if a token was taken, or the time in nanoseconds until a token becomes available.
+     */
+    synchronized long tryAcquire(long now) {
+        tokens = Math.min(capacity, tokens + Math.max(now - lastRefill, 0) / nanosPerToken);
+        lastRefill = now;
+
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * nanosPerToken);
+    }
+
+}
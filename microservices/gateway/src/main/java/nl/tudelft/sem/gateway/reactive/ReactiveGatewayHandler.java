@@ -0,0 +1,334 @@
+package nl.tudelft.sem.gateway.reactive;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.auth.IdentityPropagator;
+import nl.tudelft.sem.gateway.cache.ResponseCache;
+import nl.tudelft.sem.gateway.coalescing.RequestCoalescer;
+import nl.tudelft.sem.gateway.deadline.DeadlinePropagator;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.hedging.RequestHedger;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.pool.HopByHopHeaders;
+import nl.tudelft.sem.gateway.pool.StreamedExchange;
+import nl.tudelft.sem.gateway.ratelimit.RateLimiter;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler that forwards calls on the reactive (WebFlux/Netty) stack. The request and response
+ * bodies are piped through as raw data buffers, so no thread is held while waiting on the
+ * destination. Used when the gateway runs as a reactive web application.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayHandler {
+
+    // Manages the registrations
+    private final transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    // Manages the connection pools (and web clients) of the registrations
+    private final transient ConnectionPoolManager connectionPoolManager;
+
+    // Forwards the identity of the user
+    private final transient IdentityPropagator identityPropagator;
+
+    // Limits the rate of the calls to the configured routes
+    private final transient RateLimiter rateLimiter;
+
+    // Limits the number of concurrent calls per target
+    private final transient AdmissionManager admissionManager;
+
+    // Attaches the deadline to the forwarded calls
+    private final transient DeadlinePropagator deadlinePropagator;
+
+    // Caches the responses of the configured routes
+    private final transient ResponseCache responseCache;
+
+    // Lets identical concurrent GET calls share a single call to the destination
+    private final transient RequestCoalescer requestCoalescer;
+
+    // Sends slow GET calls to the configured routes to a second instance
+    private final transient RequestHedger requestHedger;
+
+    // Records the latencies, sizes and statuses of the forwarded calls
+    private final transient GatewayMetrics gatewayMetrics;
+
+    /**
+     * Constructs the ReactiveGatewayHandler class.
+     *
+     * @param discoveryRegistrarService is the service that manages the registrations.
+     * @param connectionPoolManager     is the manager of the connection pools.
+     * @param identityPropagator        is used to forward the identity of the user.
+     * @param rateLimiter               is used to limit the rate of the calls.
+     * @param admissionManager          is used to limit the number of concurrent calls.
+     * @param deadlinePropagator        is used to attach the deadline to the forwarded calls.
+     * @param responseCache             is the cache of the responses of the configured routes.
+     * @param requestCoalescer          is the coalescer of identical concurrent GET calls.
+     * @param requestHedger             is the hedger of slow GET calls.
+     * @param gatewayMetrics            records the metrics of the forwarded calls.
+     */
+    @Autowired
+    public ReactiveGatewayHandler(DiscoveryRegistrarService discoveryRegistrarService,
+                                  ConnectionPoolManager connectionPoolManager,
+                                  IdentityPropagator identityPropagator,
+                                  RateLimiter rateLimiter,
+                                  AdmissionManager admissionManager,
+                                  DeadlinePropagator deadlinePropagator,
+                                  ResponseCache responseCache,
+                                  RequestCoalescer requestCoalescer,
+                                  RequestHedger requestHedger,
+                                  GatewayMetrics gatewayMetrics) {
+        this.discoveryRegistrarService = discoveryRegistrarService;
+        this.connectionPoolManager = connectionPoolManager;
+        this.identityPropagator = identityPropagator;
+        this.rateLimiter = rateLimiter;
+        this.admissionManager = admissionManager;
+        this.deadlinePropagator = deadlinePropagator;
+        this.responseCache = responseCache;
+        this.requestCoalescer = requestCoalescer;
+        this.requestHedger = requestHedger;
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    /**
+     * Request handler for the base /api/ URL.
+     *
+     * @param request is the request.
+     * @return response from gateway.
+     */
+    public Mono<ServerResponse> getHelloMessage(ServerRequest request) {
+        return ServerResponse.ok().bodyValue("Hello from Gateway!");
+    }
+
+    /**
+     * Request forwarder used to intercept all api calls and forward them to their appropriate
+     * destination. The status code and headers of the response are passed through unchanged.
+     *
+     * @param request is the request, of which the <i>target</i> path variable is the name of
+     *                the targeted microservice.
+     * @return response that will become available in the future.
+     */
+    public Mono<ServerResponse> forward(ServerRequest request) {
+        String target = request.pathVariable("target");
+
+        // Reject the request if the caller exceeded the rate limit of the route
+        Duration retryAfter = checkRateLimit(request);
+        if (retryAfter != null) {
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, RateLimiter.toRetryAfter(retryAfter))
+                    .bodyValue("Rate limit exceeded, please try again later");
+        }
+
+        // Attempt to retrieve registration, routing by the user ID of the caller if the target
+        // uses consistent hashing
+        Long userId = identityPropagator.resolveUserId(request.headers().asHttpHeaders());
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target,
+                userId != null ? userId.toString() : null);
+        if (instance == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Could not find active microservice registration for '"
+                            + target
+                            + "' to forward request to"));
+        }
+
+        // Serve the request from the cache if its route is cached, and forward it otherwise
+        URI destination = resolveDestination(instance.getRegistration(), request);
+        HttpHeaders headers = deadlinePropagator.apply(
+                identityPropagator.propagate(request.headers().asHttpHeaders()));
+        String route = responseCache.findRoute(request.method(), request.path());
+        if (route != null) {
+            return forwardCachedCall(target, route, instance, destination, request, headers);
+        }
+        return forwardCall(target, instance, destination, request, headers);
+    }
+
+    /**
+     * Applies the rate limit of the route of a request, if it has one.
+     *
+     * @param request is the request.
+     * @return null if the request may be forwarded, or the time after which the caller may retry.
+     */
+    private Duration checkRateLimit(ServerRequest request) {
+        String route = rateLimiter.findRoute(request.path());
+        if (route == null) {
+            return null;
+        }
+        String remoteAddress = request.remoteAddress()
+                .map(InetSocketAddress::getHostString)
+                .orElse("unknown");
+        return rateLimiter.tryAcquire(route,
+                identityPropagator.resolveUserId(request.headers().asHttpHeaders()),
+                remoteAddress);
+    }
+
+    /**
+     * Determines the destination of a request, by replacing the host and port of the initial
+     * request with the ones of the registration. Registrations are always called over plain HTTP.
+     *
+     * @param registration is the registration of the selected instance.
+     * @param request      is the initial request.
+     * @return the destination address.
+     */
+    private static URI resolveDestination(Registration registration, ServerRequest request) {
+        return UriComponentsBuilder
+                .fromUri(request.uri())
+                .scheme("http")
+                .host(registration.getHost())
+                .port(registration.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    /**
+     * Forwards call to the appropriate microservice, once the admission control of the target
+     * admits it.
+     *
+     * @param target      is the name of the targeted microservice.
+     * @param instance    is the instance that the call is forwarded to.
+     * @param destination is the destination address.
+     * @param request     is the initial request.
+     * @param headers     is a collection of headers that is forwarded.
+     * @return response that will become available in the future.
+     */
+    private Mono<ServerResponse> forwardCall(String target, RegisteredInstance instance,
+                                             URI destination, ServerRequest request,
+                                             HttpHeaders headers) {
+        WebClient.RequestBodySpec spec = connectionPoolManager
+                .getWebClient(instance.getRegistration())
+                .method(request.method())
+                .uri(destination)
+                .headers(header -> header.addAll(headers));
+
+        // Only attach a body if the initial request has one, to avoid sending chunked empty bodies
+        if (headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING)) {
+            spec.body(BodyInserters.fromDataBuffers(request.bodyToFlux(DataBuffer.class)));
+        }
+
+        // Admit the call, and measure it until the response body has been streamed
+        return StreamedExchange.stream(spec.exchange(),
+                call -> gatewayMetrics.measure(target, request.method(), request.path(),
+                        instance.getRegistration(), Math.max(headers.getContentLength(), 0),
+                        admitted -> admissionManager.admit(target, instance, admitted),
+                        instance.measure(call,
+                                response -> HttpStatus.Series.resolve(response.rawStatusCode())
+                                        == HttpStatus.Series.SERVER_ERROR),
+                        ClientResponse::rawStatusCode,
+                        response -> response.headers().contentLength().orElse(-1)),
+                (response, body) -> ServerResponse
+                        .status(response.rawStatusCode())
+                        .headers(header -> header.addAll(HopByHopHeaders
+                                .withoutHopByHopHeaders(response.headers().asHttpHeaders())))
+                        .body(BodyInserters.fromDataBuffers(body)))
+                .flatMap(response -> response);
+    }
+
+    /**
+     * Serves a call to a cached route from the response cache, or forwards it to the appropriate
+     * microservice. Responses of cached routes are buffered as a whole, which allows identical
+     * concurrent calls to be coalesced into a single call, and slow calls to be hedged.
+     *
+     * @param target      is the name of the targeted microservice.
+     * @param route       is the name of the cached route.
+     * @param instance    is the instance that the call is forwarded to.
+     * @param destination is the destination address.
+     * @param request     is the initial request.
+     * @param headers     is a collection of headers that is forwarded.
+     * @return response that will become available in the future.
+     */
+    private Mono<ServerResponse> forwardCachedCall(String target, String route,
+                                                   RegisteredInstance instance, URI destination,
+                                                   ServerRequest request, HttpHeaders headers) {
+        String path = request.path();
+        String query = request.uri().getRawQuery();
+        String hedgedRoute = requestHedger.findRoute(request.method(), path);
+        Mono<ResponseEntity<String>> response = responseCache.execute(route, path, query, headers,
+                conditionalHeaders -> {
+                    HttpHeaders sentHeaders = new HttpHeaders();
+                    sentHeaders.addAll(headers);
+                    sentHeaders.putAll(conditionalHeaders);
+                    Mono<ResponseEntity<String>> exchange = hedgedRoute == null
+                            ? exchange(target, instance, destination, path, sentHeaders)
+                            : requestHedger.execute(hedgedRoute, target, instance, hedged ->
+                                    exchange(target, hedged,
+                                            redirect(destination, hedged.getRegistration()),
+                                            path, sentHeaders));
+                    return requestCoalescer.execute(RequestCoalescer.key(path, query, sentHeaders),
+                            exchange);
+                });
+
+        return response.flatMap(responseEntity -> {
+            ServerResponse.BodyBuilder builder = ServerResponse
+                    .status(responseEntity.getStatusCodeValue())
+                    .headers(header -> header.addAll(HopByHopHeaders
+                            .withoutHopByHopHeaders(responseEntity.getHeaders())));
+            return responseEntity.hasBody()
+                    ? builder.bodyValue(responseEntity.getBody())
+                    : builder.build();
+        });
+    }
+
+    /**
+     * Performs a buffered GET call to the microservice, once the admission control of the target
+     * admits it.
+     *
+     * @param target      is the name of the targeted microservice.
+     * @param instance    is the instance that the call is forwarded to.
+     * @param destination is the destination address.
+     * @param path        is the path of the initial request.
+     * @param headers     is a collection of headers that is sent to the microservice.
+     * @return response that will become available in the future.
+     */
+    private Mono<ResponseEntity<String>> exchange(String target, RegisteredInstance instance,
+                                                  URI destination, String path,
+                                                  HttpHeaders headers) {
+        Mono<ResponseEntity<String>> call = instance.measure(connectionPoolManager
+                .getWebClient(instance.getRegistration())
+                .get()
+                .uri(destination)
+                .headers(header -> header.addAll(headers))
+                .exchange()
+                .flatMap(clientResponse -> clientResponse.toEntity(String.class)),
+                responseEntity -> responseEntity.getStatusCode().is5xxServerError());
+
+        // Admit the call, and record it in the metrics
+        return gatewayMetrics.measure(target, HttpMethod.GET, path, instance.getRegistration(),
+                null, admitted -> admissionManager.admit(target, instance, admitted), call);
+    }
+
+    /**
+     * Replaces the host and port of a destination address with the ones of another registration.
+     *
+     * @param destination  is the destination address.
+     * @param registration is the registration of the other instance.
+     * @return the destination address at the other instance.
+     */
+    private static URI redirect(URI destination, Registration registration) {
+        return UriComponentsBuilder
+                .fromUri(destination)
+                .host(registration.getHost())
+                .port(registration.getPort())
+                .build(true)
+                .toUri();
+    }
+
+}
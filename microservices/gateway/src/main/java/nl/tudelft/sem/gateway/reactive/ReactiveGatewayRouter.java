@@ -0,0 +1,39 @@
+package nl.tudelft.sem.gateway.reactive;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.methods;
+import static org.springframework.web.reactive.function.server.RequestPredicates.path;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Routes of the gateway when it runs as a reactive web application, which replace the
+ * forwarding controllers. Enabled by setting <i>spring.main.web-application-type</i> to reactive.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayRouter {
+
+    /**
+     * Creates the routes that forward all api calls, and expose the metrics of the calls.
+     *
+     * @param handler        is the handler that forwards the calls.
+     * @param metricsHandler is the handler that exposes the metrics.
+     * @return the routes.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> gatewayRoutes(ReactiveGatewayHandler handler,
+                                                        ReactiveMetricsHandler metricsHandler) {
+        return route(GET("/api"), handler::getHelloMessage)
+                .andRoute(path("/api/{target}/**").and(methods(HttpMethod.GET, HttpMethod.PUT,
+                        HttpMethod.POST, HttpMethod.DELETE)), handler::forward)
+                .andRoute(GET("/gateway/metrics"), metricsHandler::getMetrics);
+    }
+
+}
@@ -0,0 +1,74 @@
+package nl.tudelft.sem.gateway.reactive;
+
+import java.net.InetSocketAddress;
+import nl.tudelft.sem.gateway.config.MetricsConfig;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Handler that exposes the metrics of the forwarded calls in the text format of Prometheus when
+ * the gateway runs as a reactive web application, in place of the metrics controller.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMetricsHandler {
+
+    // Content type of the text format of Prometheus
+    private static final MediaType PROMETHEUS_TEXT =
+            MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    // Records the metrics of the forwarded calls
+    private final transient GatewayMetrics gatewayMetrics;
+
+    // Settings of the metrics
+    private final transient MetricsConfig config;
+
+    /**
+     * Constructs the ReactiveMetricsHandler class.
+     *
+     * @param gatewayMetrics is an automatically injected dependency.
+     * @param config         is an automatically injected dependency.
+     */
+    @Autowired
+    public ReactiveMetricsHandler(GatewayMetrics gatewayMetrics, MetricsConfig config) {
+        this.gatewayMetrics = gatewayMetrics;
+        this.config = config;
+    }
+
+    /**
+     * Request handler for the /gateway/metrics endpoint. Returns the latency, queue time, size
+     * and status histograms of the forwarded calls, per target, method, route and instance.
+     *
+     * @param request is the request.
+     * @return the metrics in the text format of Prometheus, or 403 (Forbidden) if the caller is
+     *         not on the same machine, while the endpoint is only served locally.
+     */
+    public Mono<ServerResponse> getMetrics(ServerRequest request) {
+        if (config.isLocalOnly() && !request.remoteAddress().map(this::isLoopback).orElse(false)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
+                    "The metrics are only served locally"));
+        }
+        return ServerResponse.ok()
+                .contentType(PROMETHEUS_TEXT)
+                .bodyValue(gatewayMetrics.toPrometheusText());
+    }
+
+    /**
+     * Checks whether an address is a loopback address.
+     *
+     * @param address is the socket address.
+     * @return true if the address is a loopback address, false otherwise.
+     */
+    private boolean isLoopback(InetSocketAddress address) {
+        return address.getAddress() != null && address.getAddress().isLoopbackAddress();
+    }
+
+}
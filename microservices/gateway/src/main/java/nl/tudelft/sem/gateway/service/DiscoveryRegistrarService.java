@@ -1,28 +1,104 @@
 package nl.tudelft.sem.gateway.service;
 
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.validation.Valid;
-import lombok.Getter;
+import nl.tudelft.sem.gateway.balancing.factory.BalancingStrategyFactory;
+import nl.tudelft.sem.gateway.config.BalancingConfig;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+import nl.tudelft.sem.gateway.discovery.DiscoveryFeed;
 import nl.tudelft.sem.gateway.discovery.DiscoveryRegistry;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
 import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.discovery.RegistrationEvictedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 
+/**
+ * Service that keeps track of the discovery registries of all targets.
+ *
+ * <p>Registries are created atomically per target, so concurrent heartbeats never contend on a
+ * global lock. Request routing reads from an immutable snapshot of all targets, which is only
+ * replaced when a new target registers itself.
+ *
+ * <p>Every change of the registrations that calls can be forwarded to increments a version, which
+ * clients of the discovery feed can wait for.
+ */
 @Service
 public class DiscoveryRegistrarService {
 
     // Eviction time for internally stored registrations
     private static final int registryCacheEvictionTimeMinutes = 1;
 
+    // Configuration of the balancing strategies per target
+    private final transient BalancingConfig balancingConfig;
+
+    // Configuration of the circuit breakers of the registrations
+    private final transient CircuitBreakerConfig circuitBreakerConfig;
+
+    // Publishes the evictions of registrations
+    private final transient ApplicationEventPublisher eventPublisher;
+
     // Keeps track of all registered microservices
-    @Getter
-    private final Map<String, DiscoveryRegistry> registries;
+    private final transient ConcurrentMap<String, DiscoveryRegistry> registries;
+
+    // Read-optimized copy of the registries, used for routing
+    private final transient AtomicReference<Map<String, DiscoveryRegistry>> snapshot;
+
+    // Version of the registrations, incremented on every change
+    private final transient AtomicLong version;
+
+    // Completed with the new version (and replaced) on every change
+    private final transient AtomicReference<MonoProcessor<Long>> changes;
 
     /**
-     * Construct the registrar service object.
+     * Construct the registrar service object, using the default balancing strategy for all
+     * targets.
      */
     public DiscoveryRegistrarService() {
-        this.registries = new HashMap<>();
+        this(new BalancingConfig(), new CircuitBreakerConfig(), event -> { });
+    }
+
+    /**
+     * Construct the registrar service object.
+     *
+     * @param balancingConfig      is the configuration of the balancing strategies per target.
+     * @param circuitBreakerConfig is the configuration of the circuit breakers.
+     * @param eventPublisher       is used to publish the evictions of registrations.
+     */
+    @Autowired
+    public DiscoveryRegistrarService(BalancingConfig balancingConfig,
+                                     CircuitBreakerConfig circuitBreakerConfig,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.balancingConfig = balancingConfig;
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.eventPublisher = eventPublisher;
+        this.registries = new ConcurrentHashMap<>();
+        this.snapshot = new AtomicReference<>(Map.of());
+        this.version = new AtomicLong();
+        this.changes = new AtomicReference<>(MonoProcessor.create());
+    }
+
+    /**
+     * Returns an immutable view of all registered targets and their registries.
+     *
+     * @return the registries, keyed by target.
+     */
+    public Map<String, DiscoveryRegistry> getRegistries() {
+        return snapshot.get();
     }
 
     /**
@@ -34,7 +110,7 @@ public class DiscoveryRegistrarService {
      *         object.
      */
     public boolean containsRegistration(String target) {
-        return registries.containsKey(target);
+        return snapshot.get().containsKey(target);
     }
 
     /**
@@ -45,8 +121,47 @@ public class DiscoveryRegistrarService {
      * @return registration, if exists, otherwise null.
      */
     public Registration getRegistrationIfExists(String target) {
-        DiscoveryRegistry registry = registries.get(target);
-        return registry != null ? registry.getRegistration() : null;
+        RegisteredInstance instance = getInstanceIfExists(target);
+        return instance != null ? instance.getRegistration() : null;
+    }
+
+    /**
+     * Returns a valid registered instance for the given target, if available. Returns null if no
+     * suitable instance was found. The load statistics of the instance should be updated for
+     * every call that is forwarded to it.
+     *
+     * @param target is the target of which a valid instance is requested of.
+     * @return instance, if exists, otherwise null.
+     */
+    public RegisteredInstance getInstanceIfExists(String target) {
+        return getInstanceIfExists(target, null);
+    }
+
+    /**
+     * Returns a valid registered instance for the given target, if available, taking the hash key
+     * of the call into account. Returns null if no suitable instance was found.
+     *
+     * @param target  is the target of which a valid instance is requested of.
+     * @param hashKey is the hash key of the call (e.g., the user ID of the caller), or null.
+     * @return instance, if exists, otherwise null.
+     */
+    public RegisteredInstance getInstanceIfExists(String target, String hashKey) {
+        DiscoveryRegistry registry = snapshot.get().get(target);
+        return registry != null ? registry.getInstance(hashKey) : null;
+    }
+
+    /**
+     * Returns a valid registered instance for the given target other than the given instance, if
+     * available. Returns null if no other suitable instance was found.
+     *
+     * @param target   is the target of which a valid instance is requested of.
+     * @param excluded is the instance that must not be returned.
+     * @return instance, if exists, otherwise null.
+     */
+    public RegisteredInstance getOtherInstanceIfExists(String target,
+                                                       RegisteredInstance excluded) {
+        DiscoveryRegistry registry = snapshot.get().get(target);
+        return registry != null ? registry.getInstance(excluded) : null;
     }
 
     /**
@@ -56,10 +171,124 @@ public class DiscoveryRegistrarService {
      * @param registration is the registration that is added.
      */
     public void addRegistration(String target, @Valid Registration registration) {
-        if (!containsRegistration(target)) {
-            registries.put(target, new DiscoveryRegistry(registryCacheEvictionTimeMinutes));
+        DiscoveryRegistry registry = registries.get(target);
+        if (registry == null) {
+            registry = registries.computeIfAbsent(target, this::createRegistry);
+        }
+        if (registry.addRegistration(registration)) {
+            notifyChanged();
         }
-        registries.get(target).addRegistration(registration);
+    }
+
+    /**
+     * Drains a registration of the registrar service, after the instance deregistered itself. The
+     * registration no longer receives new calls, and is removed once its outstanding calls have
+     * completed, or once the timeout has passed.
+     *
+     * @param target       is the target of the registration.
+     * @param registration is the registration that is drained.
+     * @param timeout      is the maximum time that the registration is kept.
+     * @return true if the registration existed, false otherwise.
+     */
+    public boolean drainRegistration(String target, Registration registration,
+                                     Duration timeout) {
+        DiscoveryRegistry registry = snapshot.get().get(target);
+        if (registry == null || !registry.drain(registration, timeout)) {
+            return false;
+        }
+        notifyChanged();
+        return true;
+    }
+
+    /**
+     * Returns the registrations that calls can be forwarded to (the ones that are up and not
+     * draining), together with their version.
+     *
+     * @return the discovery feed.
+     */
+    public DiscoveryFeed getFeed() {
+        // Read the version first, so that a concurrent change results in a newer version later on
+        long current = version.get();
+        Map<String, List<Registration>> targets = new TreeMap<>();
+        snapshot.get().forEach((target, registry) -> {
+            List<Registration> registrations = new ArrayList<>();
+            for (RegisteredInstance instance : registry.getRoutableInstances()) {
+                registrations.add(instance.getRegistration());
+            }
+            targets.put(target, registrations);
+        });
+        return new DiscoveryFeed(current, targets);
+    }
+
+    /**
+     * Waits until the registrations change, unless they already changed since the given version.
+     *
+     * @param knownVersion is the version that the caller knows of.
+     * @param timeout      is the maximum time to wait.
+     * @return the version after the change, or the current version if the timeout has passed.
+     */
+    public Mono<Long> awaitChange(long knownVersion, Duration timeout) {
+        // Obtain the signal before the version, so that no change can be missed in between
+        MonoProcessor<Long> next = changes.get();
+        long current = version.get();
+        if (current != knownVersion) {
+            return Mono.just(current);
+        }
+        return next.timeout(timeout, Mono.fromSupplier(version::get));
+    }
+
+    /**
+     * Signals that the registrations that calls can be forwarded to have changed, which wakes up
+     * the clients that wait for a change.
+     */
+    public void notifyChanged() {
+        long updated = version.incrementAndGet();
+        changes.getAndSet(MonoProcessor.create()).onNext(updated);
+    }
+
+    /**
+     * Periodically removes expired and drained registrations of all targets, including targets
+     * that do not receive any traffic.
+     */
+    @Scheduled(fixedRateString = "${gateway.discovery.evictionIntervalMillis:30000}")
+    public void evictExpiredRegistrations() {
+        snapshot.get().values().forEach(DiscoveryRegistry::evictExpired);
+    }
+
+    /**
+     * Creates the registry for a new target, and publishes a new snapshot that includes it.
+     * Invoked atomically (at most once per target) by the concurrent map.
+     *
+     * @param target is the target to create the registry for.
+     * @return the created registry.
+     */
+    private DiscoveryRegistry createRegistry(String target) {
+        DiscoveryRegistry registry = new DiscoveryRegistry(registryCacheEvictionTimeMinutes,
+                BalancingStrategyFactory.create(balancingConfig.getStrategy(target),
+                        balancingConfig),
+                Ticker.systemTicker(), registration -> {
+                    notifyChanged();
+                    eventPublisher.publishEvent(
+                            new RegistrationEvictedEvent(this, target, registration));
+                },
+                circuitBreakerConfig);
+        publishSnapshot(target, registry);
+        return registry;
+    }
+
+    /**
+     * Publishes a new snapshot that contains the given registry. Registries of different targets
+     * may be created concurrently, hence the snapshot is replaced atomically.
+     *
+     * @param target   is the target of the registry.
+     * @param registry is the registry to include.
+     */
+    private void publishSnapshot(String target, DiscoveryRegistry registry) {
+        snapshot.updateAndGet(current -> {
+            Map<String, DiscoveryRegistry> updated = new HashMap<>(current);
+            updated.put(target, registry);
+            return Map.copyOf(updated);
+        });
     }
 
 }
@@ -0,0 +1,53 @@
+package nl.tudelft.sem.gateway.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.config.AdmissionConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AimdLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private transient AimdLimit limit;
+
+    @BeforeEach
+    void setup() {
+        AdmissionConfig config = new AdmissionConfig();
+        config.setInitialLimit(10);
+        config.setMinLimit(5);
+        config.setMaxLimit(12);
+        config.setLatencyThreshold(Duration.ofSeconds(1));
+        config.setBackoffRatio(0.5);
+        limit = new AimdLimit(config);
+    }
+
+    @Test
+    void testIncreasesWhileUsed() {
+        limit.onSample(FAST, 5, false);
+        assertEquals(11, limit.getLimit());
+        limit.onSample(FAST, 11, false);
+        limit.onSample(FAST, 11, false);
+        assertEquals(12, limit.getLimit());
+    }
+
+    @Test
+    void testDoesNotIncreaseWhileIdle() {
+        limit.onSample(FAST, 1, false);
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void testDecreasesOnOverload() {
+        limit.onSample(SLOW, 10, false);
+        assertEquals(5, limit.getLimit());
+        limit.onSample(FAST, 5, true);
+        assertEquals(5, limit.getLimit());
+    }
+
+}
@@ -0,0 +1,125 @@
+package nl.tudelft.sem.gateway.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class TargetLimiterTest {
+
+    private static final String TARGET = "courses";
+
+    private transient long nanos;
+
+    private transient Ticker ticker;
+
+    private transient TargetLimiter targetLimiter;
+
+    @BeforeEach
+    void setup() {
+        nanos = 0;
+        ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        };
+        targetLimiter = new TargetLimiter(TARGET, new FixedLimit(2), 1,
+                Duration.ofSeconds(10), ticker);
+    }
+
+    /**
+     * Asserts that a call has been shed with status 503.
+     *
+     * @param call is the admitted call.
+     */
+    private static void assertShed(MonoProcessor<String> call) {
+        assertThatThrownBy(() -> call.block(Duration.ofSeconds(5)))
+                .isInstanceOf(ResponseStatusException.class)
+                .extracting(error -> ((ResponseStatusException) error).getStatus())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void testCallsWithinLimitAreForwarded() {
+        MonoProcessor<String> upstream = MonoProcessor.create();
+        MonoProcessor<String> first = targetLimiter.admit(upstream).toProcessor();
+        final MonoProcessor<String> second = targetLimiter.admit(upstream).toProcessor();
+        assertEquals(new AdmissionStatistics(2, 2, 0, 0), targetLimiter.getStatistics());
+
+        upstream.onNext("course");
+        assertEquals("course", first.block());
+        assertEquals("course", second.block());
+        assertEquals(new AdmissionStatistics(2, 0, 0, 0), targetLimiter.getStatistics());
+    }
+
+    @Test
+    void testQueuedCallIsForwardedOnRelease() {
+        MonoProcessor<String> slow = MonoProcessor.create();
+        final MonoProcessor<String> first = targetLimiter.admit(slow).toProcessor();
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+
+        // The third call waits until one of the calls in flight completes
+        MonoProcessor<String> third = targetLimiter.admit(Mono.just("queued")).toProcessor();
+        assertThat(third.isTerminated()).isFalse();
+        assertEquals(new AdmissionStatistics(2, 2, 1, 0), targetLimiter.getStatistics());
+
+        slow.onNext("course");
+        assertEquals("course", first.block());
+        assertEquals("queued", third.block(Duration.ofSeconds(5)));
+        assertEquals(new AdmissionStatistics(2, 1, 0, 0), targetLimiter.getStatistics());
+    }
+
+    @Test
+    void testCallIsShedWhenQueueIsFull() {
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+
+        assertShed(targetLimiter.admit(Mono.just("course")).toProcessor());
+        assertEquals(new AdmissionStatistics(2, 2, 1, 1), targetLimiter.getStatistics());
+    }
+
+    @Test
+    void testCallIsShedAfterQueueTimeout() {
+        targetLimiter = new TargetLimiter(TARGET, new FixedLimit(1), 1,
+                Duration.ofMillis(50), ticker);
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+
+        assertShed(targetLimiter.admit(Mono.just("course")).toProcessor());
+        assertEquals(new AdmissionStatistics(1, 1, 0, 1), targetLimiter.getStatistics());
+    }
+
+    @Test
+    void testCancelledCallLeavesQueue() {
+        MonoProcessor<String> slow = MonoProcessor.create();
+        targetLimiter.admit(slow).subscribe();
+        targetLimiter.admit(Mono.<String>never()).subscribe();
+        Disposable queued = targetLimiter.admit(Mono.just("queued")).subscribe();
+        queued.dispose();
+        assertEquals(new AdmissionStatistics(2, 2, 0, 0), targetLimiter.getStatistics());
+
+        // The permit of the completed call is not handed to the cancelled call
+        slow.onNext("course");
+        assertEquals(new AdmissionStatistics(2, 1, 0, 0), targetLimiter.getStatistics());
+    }
+
+    @Test
+    void testFailedCallsReleaseTheirPermit() {
+        MonoProcessor<String> failing = targetLimiter
+                .admit(Mono.<String>error(new IllegalStateException()))
+                .toProcessor();
+        assertThatThrownBy(failing::block).isInstanceOf(IllegalStateException.class);
+        assertEquals(new AdmissionStatistics(2, 0, 0, 0), targetLimiter.getStatistics());
+    }
+
+}
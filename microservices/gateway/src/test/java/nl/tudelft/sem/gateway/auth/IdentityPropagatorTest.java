@@ -0,0 +1,155 @@
+package nl.tudelft.sem.gateway.auth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Date;
+import javax.crypto.spec.SecretKeySpec;
+import nl.tudelft.sem.gateway.config.IdentityConfig;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
+import nl.tudelft.sem.jwt.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+public class IdentityPropagatorTest {
+
+    private static final String SECRET = "correcthorsebatterystaplecorrecthorsebatterystaple";
+
+    private transient IdentityConfig config;
+
+    private transient JwtUtils jwtUtils;
+
+    private transient IdentityPropagator identityPropagator;
+
+    @BeforeEach
+    void setup() {
+        config = new IdentityConfig();
+        config.setEnabled(true);
+        jwtUtils = new JwtUtils(SECRET);
+        identityPropagator = new IdentityPropagator(config, jwtUtils);
+    }
+
+    /**
+     * Creates headers with a bearer token that is valid for 10 minutes.
+     *
+     * @param userId is the user ID of the user.
+     * @param role   is the role of the user.
+     * @return the headers.
+     */
+    private HttpHeaders headersWithToken(long userId, String role) {
+        return headersWithToken(userId, role, new Date(System.currentTimeMillis() + 600000));
+    }
+
+    /**
+     * Creates headers with a bearer token.
+     *
+     * @param userId     is the user ID of the user.
+     * @param role       is the role of the user.
+     * @param expiration is the time at which the token expires.
+     * @return the headers.
+     */
+    private HttpHeaders headersWithToken(long userId, String role, Date expiration) {
+        Claims claims = Jwts.claims().setSubject(String.valueOf(userId));
+        claims.put("role", role);
+        String token = Jwts.builder()
+                .setClaims(claims)
+                .setExpiration(expiration)
+                .signWith(new SecretKeySpec(SECRET.getBytes(),
+                        SignatureAlgorithm.HS256.getJcaName()))
+                .compact();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return headers;
+    }
+
+    @Test
+    void testIdentityIsForwarded() {
+        HttpHeaders headers = headersWithToken(42, "LECTURER");
+        HttpHeaders forwarded = identityPropagator.propagate(headers);
+
+        assertEquals(headers.getFirst(HttpHeaders.AUTHORIZATION),
+                forwarded.getFirst(HttpHeaders.AUTHORIZATION));
+        assertEquals(new Identity(42, "LECTURER"), jwtUtils.verifyIdentity(
+                forwarded.getFirst(IdentityResolver.IDENTITY_HEADER)));
+
+        // The original headers are left untouched
+        assertFalse(headers.containsKey(IdentityResolver.IDENTITY_HEADER));
+    }
+
+    @Test
+    void testExpiredTokenIsNotServedFromCache() throws InterruptedException {
+        // The expiration of a token only has a precision of seconds
+        long expiration = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        HttpHeaders headers = headersWithToken(42, "LECTURER", new Date(expiration));
+        assertEquals(42L, identityPropagator.resolveUserId(headers));
+
+        Thread.sleep(Math.max(expiration - System.currentTimeMillis(), 0) + 100);
+        assertNull(identityPropagator.resolveUserId(headers));
+        assertNull(identityPropagator.propagate(headers)
+                .getFirst(IdentityResolver.IDENTITY_HEADER));
+    }
+
+    @Test
+    void testIdentityOfTokenIsCached() {
+        HttpHeaders headers = headersWithToken(42, "LECTURER");
+        assertEquals(identityPropagator.propagate(headers)
+                        .getFirst(IdentityResolver.IDENTITY_HEADER),
+                identityPropagator.propagate(headers).getFirst(IdentityResolver.IDENTITY_HEADER));
+    }
+
+    @Test
+    void testInvalidTokenHasNoIdentity() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("corrupted");
+        assertNull(identityPropagator.propagate(headers)
+                .getFirst(IdentityResolver.IDENTITY_HEADER));
+        assertNull(identityPropagator.propagate(new HttpHeaders())
+                .getFirst(IdentityResolver.IDENTITY_HEADER));
+    }
+
+    @Test
+    void testIdentityOfCallerIsReplaced() {
+        HttpHeaders headers = headersWithToken(42, "STUDENT");
+        headers.set(IdentityResolver.IDENTITY_HEADER, "1.ADMIN.9999999999999.forged");
+
+        HttpHeaders forwarded = identityPropagator.propagate(headers);
+        assertEquals(new Identity(42, "STUDENT"), jwtUtils.verifyIdentity(
+                forwarded.getFirst(IdentityResolver.IDENTITY_HEADER)));
+    }
+
+    @Test
+    void testIdentityOfCallerIsRemovedWhenDisabled() {
+        config.setEnabled(false);
+        HttpHeaders headers = headersWithToken(42, "STUDENT");
+        headers.set(IdentityResolver.IDENTITY_HEADER, "1.ADMIN.9999999999999.forged");
+
+        HttpHeaders forwarded = identityPropagator.propagate(headers);
+        assertFalse(forwarded.containsKey(IdentityResolver.IDENTITY_HEADER));
+        assertEquals(headers.getFirst(HttpHeaders.AUTHORIZATION),
+                forwarded.getFirst(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void testResolveUserId() {
+        assertEquals(42L, identityPropagator.resolveUserId(headersWithToken(42, "STUDENT")));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("corrupted");
+        assertNull(identityPropagator.resolveUserId(headers));
+        assertNull(identityPropagator.resolveUserId(new HttpHeaders()));
+    }
+
+    @Test
+    void testResolveUserIdWhenDisabled() {
+        config.setEnabled(false);
+        assertEquals(42L, identityPropagator.resolveUserId(headersWithToken(42, "STUDENT")));
+    }
+
+}
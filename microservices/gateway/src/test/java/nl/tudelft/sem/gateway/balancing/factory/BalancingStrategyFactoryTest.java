@@ -0,0 +1,45 @@
+package nl.tudelft.sem.gateway.balancing.factory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import nl.tudelft.sem.gateway.balancing.strategies.ConsistentHashStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.LeastOutstandingStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.PeakEwmaStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.RoundRobinStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.StrategyType;
+import nl.tudelft.sem.gateway.balancing.strategies.WeightedLoadStrategy;
+import org.junit.jupiter.api.Test;
+
+public class BalancingStrategyFactoryTest {
+
+    @Test
+    void testCreateRoundRobin() {
+        assertThat(BalancingStrategyFactory.create(StrategyType.ROUND_ROBIN))
+                .isInstanceOf(RoundRobinStrategy.class);
+    }
+
+    @Test
+    void testCreateLeastOutstanding() {
+        assertThat(BalancingStrategyFactory.create(StrategyType.LEAST_OUTSTANDING))
+                .isInstanceOf(LeastOutstandingStrategy.class);
+    }
+
+    @Test
+    void testCreatePeakEwma() {
+        assertThat(BalancingStrategyFactory.create(StrategyType.PEAK_EWMA))
+                .isInstanceOf(PeakEwmaStrategy.class);
+    }
+
+    @Test
+    void testCreateConsistentHash() {
+        assertThat(BalancingStrategyFactory.create(StrategyType.CONSISTENT_HASH))
+                .isInstanceOf(ConsistentHashStrategy.class);
+    }
+
+    @Test
+    void testCreateWeightedLoad() {
+        assertThat(BalancingStrategyFactory.create(StrategyType.WEIGHTED_LOAD))
+                .isInstanceOf(WeightedLoadStrategy.class);
+    }
+
+}
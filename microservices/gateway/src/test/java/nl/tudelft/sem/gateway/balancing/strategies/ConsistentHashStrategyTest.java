@@ -0,0 +1,98 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.base.Ticker;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+
+public class ConsistentHashStrategyTest {
+
+    private static final int USERS = 1000;
+
+    private final transient List<RegisteredInstance> instances = IntStream.range(0, 4)
+            .mapToObj(i -> new RegisteredInstance(new Registration("host" + i, 8080),
+                    Ticker.systemTicker()))
+            .collect(Collectors.toList());
+
+    private final transient BalancingStrategy strategy = new ConsistentHashStrategy(1.25);
+
+    @Test
+    void testSameKeySelectsSameInstance() {
+        RegisteredInstance selected = strategy.select(instances, "42");
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(instances, "42")).isSameAs(selected);
+        }
+
+        // The order of the instances does not matter
+        List<RegisteredInstance> reversed = new ArrayList<>(instances);
+        Collections.reverse(reversed);
+        assertThat(strategy.select(reversed, "42")).isSameAs(selected);
+    }
+
+    @Test
+    void testKeysAreSpread() {
+        Map<RegisteredInstance, Integer> counts = new HashMap<>();
+        for (int user = 0; user < USERS; user++) {
+            counts.merge(strategy.select(instances, String.valueOf(user)), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(instances.size());
+        assertThat(counts.values()).allMatch(count -> count > USERS / instances.size() / 2);
+    }
+
+    @Test
+    void testMinimalRemappingWhenInstanceLeaves() {
+        RegisteredInstance removed = instances.get(0);
+        List<RegisteredInstance> remaining = instances.subList(1, instances.size());
+        for (int user = 0; user < USERS; user++) {
+            String key = String.valueOf(user);
+            RegisteredInstance before = strategy.select(instances, key);
+
+            // Only the keys of the instance that left are remapped
+            if (before != removed) {
+                assertThat(strategy.select(remaining, key)).isSameAs(before);
+            }
+        }
+    }
+
+    @Test
+    void testOverloadedInstanceIsSkipped() {
+        RegisteredInstance preferred = strategy.select(instances, "42");
+        for (int i = 0; i < 4; i++) {
+            preferred.onRequestStarted();
+        }
+
+        // Capacity is ceil(1.25 * 5 / 4) = 2, which the preferred instance exceeds
+        RegisteredInstance selected = strategy.select(instances, "42");
+        assertThat(selected).isNotSameAs(preferred);
+
+        // Once the load is gone, the key is routed to the preferred instance again
+        for (int i = 0; i < 4; i++) {
+            preferred.onRequestFinished();
+        }
+        assertThat(strategy.select(instances, "42")).isSameAs(preferred);
+    }
+
+    @Test
+    void testCallsWithoutKeySelectLeastOutstanding() {
+        instances.forEach(RegisteredInstance::onRequestStarted);
+        instances.get(2).onRequestFinished();
+        assertThat(strategy.select(instances, null)).isSameAs(instances.get(2));
+        assertThat(strategy.select(instances)).isSameAs(instances.get(2));
+    }
+
+    @Test
+    void testInvalidLoadFactor() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashStrategy(0.5));
+    }
+
+}
@@ -0,0 +1,42 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+
+public class LeastOutstandingStrategyTest {
+
+    private final transient List<RegisteredInstance> instances = List.of(
+            new RegisteredInstance(new Registration("a", 1), Ticker.systemTicker()),
+            new RegisteredInstance(new Registration("b", 2), Ticker.systemTicker()),
+            new RegisteredInstance(new Registration("c", 3), Ticker.systemTicker()));
+
+    @Test
+    void testSelectsLeastOutstanding() {
+        instances.get(0).onRequestStarted();
+        instances.get(0).onRequestStarted();
+        instances.get(2).onRequestStarted();
+
+        BalancingStrategy strategy = new LeastOutstandingStrategy();
+        for (int i = 0; i < instances.size(); i++) {
+            assertThat(strategy.select(instances)).isSameAs(instances.get(1));
+        }
+    }
+
+    @Test
+    void testTiesAreSpread() {
+        BalancingStrategy strategy = new LeastOutstandingStrategy();
+        Set<RegisteredInstance> selected = new HashSet<>();
+        for (int i = 0; i < instances.size(); i++) {
+            selected.add(strategy.select(instances));
+        }
+        assertThat(selected).containsExactlyInAnyOrderElementsOf(instances);
+    }
+
+}
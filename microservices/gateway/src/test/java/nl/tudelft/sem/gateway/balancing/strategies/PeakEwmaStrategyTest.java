@@ -0,0 +1,54 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+
+public class PeakEwmaStrategyTest {
+
+    private final transient RegisteredInstance fast =
+            new RegisteredInstance(new Registration("fast", 1), Ticker.systemTicker());
+
+    private final transient RegisteredInstance slow =
+            new RegisteredInstance(new Registration("slow", 2), Ticker.systemTicker());
+
+    @Test
+    void testSingleInstance() {
+        assertThat(new PeakEwmaStrategy().select(List.of(slow))).isSameAs(slow);
+    }
+
+    @Test
+    void testPrefersLowerLatency() {
+        fast.recordLatency(TimeUnit.MILLISECONDS.toNanos(5));
+        slow.recordLatency(TimeUnit.MILLISECONDS.toNanos(500));
+
+        BalancingStrategy strategy = new PeakEwmaStrategy();
+        for (int i = 0; i < 10; i++) {
+            assertThat(strategy.select(List.of(fast, slow))).isSameAs(fast);
+        }
+    }
+
+    @Test
+    void testCostGrowsWithOutstandingRequests() {
+        fast.recordLatency(TimeUnit.MILLISECONDS.toNanos(5));
+        double idle = PeakEwmaStrategy.cost(fast);
+
+        fast.onRequestStarted();
+        assertThat(PeakEwmaStrategy.cost(fast)).isEqualTo(2 * idle);
+    }
+
+    @Test
+    void testUnknownLatencyWithOutstandingRequestsIsPenalized() {
+        fast.recordLatency(TimeUnit.MILLISECONDS.toNanos(5));
+        slow.onRequestStarted();
+
+        assertThat(PeakEwmaStrategy.cost(slow)).isGreaterThan(PeakEwmaStrategy.cost(fast));
+        assertThat(new PeakEwmaStrategy().select(List.of(fast, slow))).isSameAs(fast);
+    }
+
+}
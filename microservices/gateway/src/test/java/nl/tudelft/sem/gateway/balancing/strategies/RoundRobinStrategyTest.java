@@ -0,0 +1,41 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.List;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+
+public class RoundRobinStrategyTest {
+
+    @Test
+    void testCyclesInOrder() {
+        List<RegisteredInstance> instances = List.of(
+                new RegisteredInstance(new Registration("a", 1), Ticker.systemTicker()),
+                new RegisteredInstance(new Registration("b", 2), Ticker.systemTicker()));
+        BalancingStrategy strategy = new RoundRobinStrategy();
+
+        int first = instances.indexOf(strategy.select(instances));
+        assertThat(strategy.select(instances)).isSameAs(instances.get((first + 1) % 2));
+        assertThat(strategy.select(instances)).isSameAs(instances.get(first));
+    }
+
+    @Test
+    void testThreadsKeepTheirOwnCursor() throws InterruptedException {
+        List<RegisteredInstance> instances = List.of(
+                new RegisteredInstance(new Registration("a", 1), Ticker.systemTicker()),
+                new RegisteredInstance(new Registration("b", 2), Ticker.systemTicker()),
+                new RegisteredInstance(new Registration("c", 3), Ticker.systemTicker()));
+        BalancingStrategy strategy = new RoundRobinStrategy();
+
+        int first = instances.indexOf(strategy.select(instances));
+        Thread other = new Thread(() -> strategy.select(instances));
+        other.start();
+        other.join();
+
+        assertThat(strategy.select(instances)).isSameAs(instances.get((first + 1) % 3));
+    }
+
+}
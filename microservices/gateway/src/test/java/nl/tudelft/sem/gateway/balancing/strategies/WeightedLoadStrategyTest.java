@@ -0,0 +1,57 @@
+package nl.tudelft.sem.gateway.balancing.strategies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.gateway.discovery.LoadReport;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+
+public class WeightedLoadStrategyTest {
+
+    private final transient List<RegisteredInstance> instances = List.of(
+            new RegisteredInstance(new Registration("a", 1), Ticker.systemTicker()),
+            new RegisteredInstance(new Registration("b", 2), Ticker.systemTicker()));
+
+    @Test
+    void testWeightWithoutReport() {
+        assertThat(WeightedLoadStrategy.weight(instances.get(0))).isEqualTo(1.0);
+        instances.get(0).onRequestStarted();
+        assertThat(WeightedLoadStrategy.weight(instances.get(0))).isEqualTo(0.5);
+    }
+
+    @Test
+    void testWeightUsesHighestSignal() {
+        instances.get(0).reportLoad(new LoadReport(1, 0.5, 0.25, 10));
+        assertThat(WeightedLoadStrategy.weight(instances.get(0))).isEqualTo(0.25);
+
+        // Event loop lag beyond the maximum counts as fully loaded
+        instances.get(0).reportLoad(new LoadReport(0, 0.1, 0.1, 500));
+        assertThat(WeightedLoadStrategy.weight(instances.get(0))).isEqualTo(0.05);
+
+        // Signals that cannot be measured are ignored
+        instances.get(0).reportLoad(new LoadReport(0, -1, -1, -1));
+        assertThat(WeightedLoadStrategy.weight(instances.get(0))).isEqualTo(1.0);
+    }
+
+    @Test
+    void testOverloadedInstanceShedsTraffic() {
+        instances.get(0).reportLoad(new LoadReport(0, 0.95, 0.5, 0));
+        instances.get(1).reportLoad(new LoadReport(0, 0.2, 0.5, 0));
+
+        BalancingStrategy strategy = new WeightedLoadStrategy();
+        Map<RegisteredInstance, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            counts.merge(strategy.select(instances), 1, Integer::sum);
+        }
+
+        // Weights are 0.05 and 0.5, hence the overloaded instance receives about 1/11th
+        assertThat(counts.getOrDefault(instances.get(0), 0)).isLessThan(200);
+        assertThat(counts.get(instances.get(1))).isGreaterThan(800);
+    }
+
+}
@@ -0,0 +1,177 @@
+package nl.tudelft.sem.gateway.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import nl.tudelft.sem.gateway.config.ResponseCacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+public class ResponseCacheTest {
+
+    private static final String ROUTE = "courses";
+    private static final String PATH = "/api/courses/get/1";
+    private static final String ETAG = "\"v1\"";
+
+    private transient long nanos;
+
+    private transient ResponseCacheConfig.Route settings;
+
+    private transient ResponseCache responseCache;
+
+    // Conditional headers of the calls that reached the destination
+    private transient List<HttpHeaders> calls;
+
+    // Response returned by the destination
+    private transient ResponseEntity<String> upstreamResponse;
+
+    @BeforeEach
+    void setup() {
+        nanos = 0;
+        settings = new ResponseCacheConfig.Route();
+        settings.setPattern("/api/courses/get/**");
+        settings.setTtl(Duration.ofMinutes(1));
+
+        ResponseCacheConfig config = new ResponseCacheConfig();
+        config.setRoutes(Map.of(ROUTE, settings));
+        responseCache = new ResponseCache(config, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+
+        calls = new ArrayList<>();
+        upstreamResponse = ResponseEntity.ok().eTag(ETAG).body("course");
+    }
+
+    /**
+     * Performs a call through the cache, as the given user.
+     *
+     * @param authorization is the Authorization header of the call.
+     * @param ifNoneMatch   is the If-None-Match header of the call, or null.
+     * @return the response.
+     */
+    private ResponseEntity<String> call(String authorization, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return responseCache.execute(ROUTE, PATH, null, headers, conditionalHeaders -> {
+            calls.add(conditionalHeaders);
+            return Mono.just(upstreamResponse);
+        }).block();
+    }
+
+    @Test
+    void testFindRoute() {
+        assertEquals(ROUTE, responseCache.findRoute(HttpMethod.GET, PATH));
+        assertNull(responseCache.findRoute(HttpMethod.POST, PATH));
+        assertNull(responseCache.findRoute(HttpMethod.GET, "/api/users/get/1"));
+    }
+
+    @Test
+    void testFreshResponseIsServedFromCache() {
+        assertEquals("course", call("alice", null).getBody());
+        nanos += Duration.ofSeconds(59).toNanos();
+        assertEquals("course", call("alice", null).getBody());
+
+        assertThat(calls).hasSize(1);
+        assertEquals(new CacheStatistics(1, 1, 0), responseCache.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testResponsesAreScopedByAuthorization() {
+        call("alice", null);
+        call("bob", null);
+        assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    void testSharedResponses() {
+        settings.setScope(CacheScope.SHARED);
+        call("alice", null);
+        call("bob", null);
+        assertThat(calls).hasSize(1);
+    }
+
+    @Test
+    void testStaleResponseIsRevalidated() {
+        call("alice", null);
+        nanos += Duration.ofMinutes(2).toNanos();
+
+        // The destination confirms that the cached response is still valid
+        upstreamResponse = ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        ResponseEntity<String> response = call("alice", null);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("course", response.getBody());
+        assertThat(calls.get(1).getIfNoneMatch()).containsExactly(ETAG);
+
+        // The revalidated response is fresh again
+        call("alice", null);
+        assertThat(calls).hasSize(2);
+        assertEquals(new CacheStatistics(1, 1, 1), responseCache.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testStaleResponseIsReplaced() {
+        call("alice", null);
+        nanos += Duration.ofMinutes(2).toNanos();
+
+        upstreamResponse = ResponseEntity.ok().eTag("\"v2\"").body("updated course");
+        assertEquals("updated course", call("alice", null).getBody());
+        assertEquals("updated course", call("alice", null).getBody());
+        assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    void testStaleResponseWithoutEtagIsFetchedAgain() {
+        upstreamResponse = ResponseEntity.ok("course");
+        call("alice", null);
+        nanos += Duration.ofMinutes(2).toNanos();
+
+        call("alice", null);
+        assertThat(calls).hasSize(2);
+        assertThat(calls.get(1).getIfNoneMatch()).isEmpty();
+    }
+
+    @Test
+    void testNotModifiedForMatchingCaller() {
+        call("alice", null);
+
+        ResponseEntity<String> response = call("alice", ETAG);
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(ETAG, response.getHeaders().getETag());
+    }
+
+    @Test
+    void testUnsuccessfulResponsesAreNotCached() {
+        upstreamResponse = ResponseEntity.status(HttpStatus.NOT_FOUND).body("not found");
+        call("alice", null);
+        call("alice", null);
+        assertThat(calls).hasSize(2);
+    }
+
+    @Test
+    void testNoStoreResponsesAreNotCached() {
+        upstreamResponse = ResponseEntity.ok().cacheControl(CacheControl.noStore()).body("secret");
+        call("alice", null);
+        call("alice", null);
+        assertThat(calls).hasSize(2);
+    }
+
+}
@@ -0,0 +1,33 @@
+package nl.tudelft.sem.gateway.capture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class TokenRedactorTest {
+
+    private static final String RUN_ID = "1a2b3c4d";
+
+    @Test
+    void testPlaceholdersArePrefixedWithRun() {
+        TokenRedactor redactor = new TokenRedactor(List.of(), 10, RUN_ID);
+        assertEquals("Bearer ${token:1a2b3c4d-0}", redactor.redactHeader("Bearer secret-1"));
+        assertEquals("${token:1a2b3c4d-1}", redactor.redactHeader("secret-2"));
+        assertEquals("${token:1a2b3c4d-0}", redactor.redactHeader("secret-1"));
+    }
+
+    @Test
+    void testLeastRecentlySeenTokenIsForgotten() {
+        TokenRedactor redactor = new TokenRedactor(List.of(), 2, RUN_ID);
+        redactor.redactHeader("secret-1");
+        redactor.redactHeader("secret-2");
+        redactor.redactHeader("secret-1");
+
+        // The third token replaces the second one, which has been seen least recently
+        assertEquals("${token:1a2b3c4d-2}", redactor.redactHeader("secret-3"));
+        assertEquals("${token:1a2b3c4d-0}", redactor.redactHeader("secret-1"));
+        assertEquals("${token:1a2b3c4d-3}", redactor.redactHeader("secret-2"));
+    }
+
+}
@@ -0,0 +1,154 @@
+package nl.tudelft.sem.gateway.capture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import nl.tudelft.sem.gateway.config.CaptureConfig;
+import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+public class TrafficRecorderTest {
+
+    @TempDir
+    transient Path directory;
+
+    private transient CaptureConfig config;
+
+    private transient Path file;
+
+    @BeforeEach
+    void setup() {
+        file = directory.resolve("capture.jsonl");
+        config = new CaptureConfig();
+        config.setEnabled(true);
+        config.setFile(file.toString());
+    }
+
+    /**
+     * Creates the headers of a request of a user.
+     *
+     * @param token is the token of the user.
+     * @return the headers.
+     */
+    private static HttpHeaders headers(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Not-Captured", "value");
+        return headers;
+    }
+
+    @Test
+    void testCaptureIsRedacted() throws IOException {
+        TrafficRecorder recorder = new TrafficRecorder(config);
+        recorder.record(HttpMethod.POST, "/api/auth/login", "a=1", headers("secret-1"),
+                "{\"username\":\"admin\",\"password\":\"hunter2\"}",
+                () -> Mono.just(ResponseEntity.ok("token"))).block();
+        recorder.record(HttpMethod.GET, "/api/courses/get/1", null, headers("secret-2"), null,
+                () -> Mono.error(new MonoForwardingException(HttpStatus.NOT_FOUND,
+                        new HttpHeaders(), "Not found"))).onErrorResume(e -> Mono.empty()).block();
+        recorder.record(HttpMethod.GET, "/api/courses/get/2", null, headers("secret-1"), null,
+                () -> Mono.just(ResponseEntity.ok("course"))).block();
+        recorder.flush();
+
+        String contents = Files.readString(file);
+        assertThat(contents).doesNotContain("secret-1", "secret-2", "hunter2", "X-Not-Captured");
+
+        List<CapturedRequest> requests = TrafficReplayer.readCapture(file);
+        assertEquals(3, requests.size());
+        CapturedRequest login = requests.get(0);
+        assertEquals("POST", login.getMethod());
+        assertEquals("a=1", login.getQuery());
+        assertEquals(200, login.getStatus());
+        assertEquals("{\"username\":\"admin\",\"password\":\"${redacted}\"}", login.getBody());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE,
+                login.getHeaders().get(HttpHeaders.CONTENT_TYPE));
+        assertEquals(404, requests.get(1).getStatus());
+
+        // Every distinct token has its own placeholder, prefixed with the ID of the run
+        String placeholder = login.getHeaders().get(HttpHeaders.AUTHORIZATION);
+        assertThat(placeholder).matches("Bearer \\$\\{token:[0-9a-f]{8}-0}");
+        assertEquals(placeholder.replace("-0}", "-1}"),
+                requests.get(1).getHeaders().get(HttpHeaders.AUTHORIZATION));
+        assertEquals(placeholder, requests.get(2).getHeaders().get(HttpHeaders.AUTHORIZATION));
+
+        // The placeholders of the next run, which appends to the same file, do not collide
+        TrafficRecorder restarted = new TrafficRecorder(config);
+        restarted.record(HttpMethod.GET, "/api/courses/get/3", null, headers("secret-3"), null,
+                () -> Mono.just(ResponseEntity.ok("course"))).block();
+        restarted.flush();
+        List<CapturedRequest> bothRuns = TrafficReplayer.readCapture(file);
+        assertEquals("/api/courses/get/3", bothRuns.get(3).getPath());
+        assertThat(bothRuns.get(3).getRunId()).isNotEqualTo(login.getRunId());
+        String next = bothRuns.get(3).getHeaders().get(HttpHeaders.AUTHORIZATION);
+        assertThat(next).endsWith("-0}").isNotEqualTo(placeholder);
+    }
+
+    @Test
+    void testLargeBodyIsOmitted() throws IOException {
+        config.setMaxBodySize(DataSize.ofBytes(4));
+        TrafficRecorder recorder = new TrafficRecorder(config);
+        recorder.record(HttpMethod.POST, "/api/users/add", null, new HttpHeaders(), "too large",
+                () -> Mono.just(ResponseEntity.ok(""))).block();
+        recorder.flush();
+
+        CapturedRequest request = TrafficReplayer.readCapture(file).get(0);
+        assertNull(request.getBody());
+        assertTrue(request.isBodyOmitted());
+    }
+
+    @Test
+    void testRejectedRequestIsCaptured() throws IOException {
+        TrafficRecorder recorder = new TrafficRecorder(config);
+        assertThatThrownBy(() -> recorder.record(HttpMethod.GET, "/api/unknown/get", null,
+                new HttpHeaders(), null, () -> {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+                })).isInstanceOf(ResponseStatusException.class);
+        recorder.flush();
+
+        assertEquals(404, TrafficReplayer.readCapture(file).get(0).getStatus());
+    }
+
+    @Test
+    void testRequestsAreDroppedWhenQueueIsFull() throws IOException {
+        config.setMaxPending(1);
+        TrafficRecorder recorder = new TrafficRecorder(config);
+        for (int i = 0; i < 3; i++) {
+            recorder.record(HttpMethod.GET, "/api/courses/get/" + i, null, new HttpHeaders(),
+                    null, () -> Mono.just(ResponseEntity.ok(""))).block();
+        }
+        recorder.flush();
+
+        assertEquals(1, TrafficReplayer.readCapture(file).size());
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        TrafficRecorder recorder = new TrafficRecorder(config);
+        recorder.record(HttpMethod.GET, "/api/courses/get/1", null, new HttpHeaders(), null,
+                () -> Mono.just(ResponseEntity.ok(""))).block();
+        recorder.close();
+
+        assertFalse(Files.exists(file));
+    }
+
+}
@@ -0,0 +1,167 @@
+package nl.tudelft.sem.gateway.capture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+
+public class TrafficReplayerTest {
+
+    private transient MockWebServer mockWebServer;
+
+    private transient TrafficReplayer replayer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        replayer = new TrafficReplayer(WebClient.create(), mockWebServer.url("/").toString(), 2,
+                List.of("token-a", "token-b"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Creates a captured request.
+     *
+     * @param runId        is the ID of the run that captured the request.
+     * @param offsetMillis is the time at which the request was received.
+     * @param method       is the method of the request.
+     * @param path         is the path of the request.
+     * @param token        is the placeholder of the token of the request.
+     * @param body         is the body of the request.
+     * @return the captured request.
+     */
+    private static CapturedRequest request(String runId, long offsetMillis, String method,
+                                           String path, String token, String body) {
+        return new CapturedRequest(runId, offsetMillis, method, path, null,
+                Map.of(HttpHeaders.AUTHORIZATION, "Bearer " + token), body, false, 200, 0);
+    }
+
+    /**
+     * Creates a captured request of the first run.
+     *
+     * @param offsetMillis is the time at which the request was received.
+     * @param method       is the method of the request.
+     * @param path         is the path of the request.
+     * @param token        is the placeholder of the token of the request.
+     * @param body         is the body of the request.
+     * @return the captured request.
+     */
+    private static CapturedRequest request(long offsetMillis, String method, String path,
+                                           String token, String body) {
+        return request("1a2b3c4d", offsetMillis, method, path, token, body);
+    }
+
+    @Test
+    void testReplay() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+
+        ReplayReport report = replayer.replay(List.of(
+                request(1000, "GET", "/api/courses/get/1", "${token:0}", null),
+                request(1100, "GET", "/api/courses/get/2", "${token:1}", null),
+                request(1200, "POST", "/api/users/add", "${token:2}", "{\"id\":\"${token:1}\"}")))
+                .block();
+
+        // The requests are spread over (200 / 2) milliseconds
+        assertThat(report.getElapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+
+        Set<String> authorizations = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            RecordedRequest recorded = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+            authorizations.add(recorded.getHeader(HttpHeaders.AUTHORIZATION));
+            if ("POST".equals(recorded.getMethod())) {
+                assertEquals("/api/users/add", recorded.getPath());
+                assertEquals("{\"id\":\"token-b\"}", recorded.getBody().readUtf8());
+            }
+        }
+        assertThat(authorizations).containsExactlyInAnyOrder("Bearer token-a", "Bearer token-b");
+
+        assertThat(report.getHistograms()).containsOnlyKeys("GET /api/courses/get/{id}",
+                "POST /api/users/add");
+        assertEquals(2, report.getHistograms().get("GET /api/courses/get/{id}").getCount());
+        assertEquals(1, report.getErrors("GET /api/courses/get/{id}")
+                + report.getErrors("POST /api/users/add"));
+        assertThat(report.format()).contains("Replayed 3 requests", "GET /api/courses/get/{id}");
+    }
+
+    @Test
+    void testConnectionErrorsAreReported() throws IOException {
+        mockWebServer.shutdown();
+        ReplayReport report = replayer.replay(List.of(
+                request(0, "GET", "/api/courses/get/1", "${token:0}", null))).block();
+        assertEquals(1, report.getErrors("GET /api/courses/get/{id}"));
+    }
+
+    @Test
+    void testRewriteWithoutTokens() {
+        TrafficReplayer withoutTokens = new TrafficReplayer(WebClient.create(),
+                "http://localhost", 1, List.of());
+        assertEquals("Bearer ${token:3}", withoutTokens.rewrite("Bearer ${token:3}"));
+    }
+
+    @Test
+    void testRewriteByRunAndIndex() {
+        // The same index of different runs belongs to different users
+        assertEquals("Bearer token-a", replayer.rewrite("Bearer ${token:1a2b3c4d-3}"));
+        assertEquals("Bearer token-b", replayer.rewrite("Bearer ${token:5e6f7a8b-3}"));
+        assertEquals("Bearer token-a", replayer.rewrite("Bearer ${token:1a2b3c4d-3}"));
+        assertEquals("Bearer token-b", replayer.rewrite("Bearer ${token:5e6f7a8b-3}"));
+    }
+
+    @Test
+    void testRunsAreReadOneAfterAnother(@TempDir Path directory) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<CapturedRequest> captured = List.of(
+                request("1a2b3c4d", 0, "GET", "/first/a", "${token:1a2b3c4d-0}", null),
+                request("1a2b3c4d", 500, "GET", "/first/b", "${token:1a2b3c4d-0}", null),
+                request("5e6f7a8b", 100, "GET", "/second/b", "${token:5e6f7a8b-0}", null),
+                request("5e6f7a8b", 0, "GET", "/second/a", "${token:5e6f7a8b-0}", null));
+        List<String> lines = new ArrayList<>();
+        for (CapturedRequest request : captured) {
+            lines.add(objectMapper.writeValueAsString(request));
+        }
+        Path file = directory.resolve("capture.jsonl");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        // The second run starts where the first one ended, instead of interleaving with it
+        List<CapturedRequest> requests = TrafficReplayer.readCapture(file);
+        assertThat(requests).extracting(CapturedRequest::getPath)
+                .containsExactly("/first/a", "/first/b", "/second/a", "/second/b");
+        assertThat(requests).extracting(CapturedRequest::getOffsetMillis)
+                .containsExactly(0L, 500L, 500L, 600L);
+    }
+
+    @Test
+    void testInvalidSpeed() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new TrafficReplayer(
+                WebClient.create(), "http://localhost", 0, List.of()));
+    }
+
+}
@@ -0,0 +1,242 @@
+package nl.tudelft.sem.gateway.circuit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private transient long nanos;
+
+    private transient CircuitBreakerConfig config;
+
+    private transient CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setup() {
+        nanos = 0;
+        config = new CircuitBreakerConfig();
+        config.setWindowSize(10);
+        config.setMinimumCalls(5);
+        config.setFailureRateThreshold(0.5);
+        config.setLatencyPercentile(0.8);
+        config.setLatencyThreshold(Duration.ofSeconds(1));
+        config.setOpenDuration(Duration.ofSeconds(30));
+        circuitBreaker = new CircuitBreaker(config, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    @Test
+    void testClosedByDefault() {
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+    }
+
+    @Test
+    void testMinimumCalls() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+
+        circuitBreaker.onFailure(FAST);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void testFailureRate() {
+        // 4 failures out of 9 calls stays below the threshold
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onSuccess(FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+
+        // 5 failures out of 10 calls reaches it
+        circuitBreaker.onFailure(FAST);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    void testOldCallsLeaveTheWindow() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onSuccess(FAST);
+        }
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onSuccess(FAST);
+        }
+
+        // The earlier failures have left the window
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void testLatencyPercentile() {
+        // The 80th percentile of 10 calls is the 8th fastest call, so 2 slow calls are fine
+        for (int i = 0; i < 8; i++) {
+            circuitBreaker.onSuccess(FAST);
+        }
+        circuitBreaker.onSuccess(SLOW);
+        circuitBreaker.onSuccess(SLOW);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+
+        // A third slow call (replacing a fast one) pushes the percentile over the threshold
+        circuitBreaker.onSuccess(SLOW);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    void testProbeSuccessClosesCircuit() {
+        open();
+
+        // A single probe is let through once the open duration has passed
+        nanos += TimeUnit.SECONDS.toNanos(29);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+        nanos += TimeUnit.SECONDS.toNanos(1);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        long probe = circuitBreaker.acquire();
+        assertThat(probe).isNotEqualTo(CircuitBreaker.NO_PROBE);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+        circuitBreaker.onSuccess(FAST, probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+    }
+
+    @Test
+    void testProbeFailureReopensCircuit() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        long probe = circuitBreaker.acquire();
+
+        // A slow probe counts as a failure, and the open duration starts over
+        circuitBreaker.onSuccess(SLOW, probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+        nanos += TimeUnit.SECONDS.toNanos(10);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void testSelectionReservesProbe() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+
+        // Only the first lookup may select the instance
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+        // The reserved probe is claimed by the first dispatched call
+        long probe = circuitBreaker.acquire();
+        assertThat(probe).isNotEqualTo(CircuitBreaker.NO_PROBE);
+        assertThat(circuitBreaker.acquire()).isEqualTo(CircuitBreaker.NO_PROBE);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+        circuitBreaker.onSuccess(FAST, probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void testUndispatchedProbeIsReplaced() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+
+        // The selected call is never dispatched, so the reservation is lost after the open duration
+        nanos += TimeUnit.SECONDS.toNanos(29);
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+        nanos += TimeUnit.SECONDS.toNanos(1);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void testOnlyProbeDecidesHalfOpen() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        long probe = circuitBreaker.acquire();
+
+        // Calls that were forwarded before the probe complete without effect
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onFailure(FAST, probe + 1);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertThat(circuitBreaker.acquire()).isEqualTo(CircuitBreaker.NO_PROBE);
+
+        circuitBreaker.onFailure(FAST, probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+    @Test
+    void testReleasedProbeIsReplaced() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        long probe = circuitBreaker.acquire();
+        assertThat(circuitBreaker.isCallPermitted()).isFalse();
+
+        // The probe is cancelled, so another one is let through right away
+        circuitBreaker.release(probe);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        long replacement = circuitBreaker.acquire();
+        assertThat(replacement).isNotEqualTo(CircuitBreaker.NO_PROBE).isNotEqualTo(probe);
+
+        // The outcome of the released probe no longer counts
+        circuitBreaker.onFailure(FAST, probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+        circuitBreaker.onSuccess(FAST, replacement);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+    @Test
+    void testLostProbeIsReplaced() {
+        open();
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        long probe = circuitBreaker.acquire();
+
+        // The probe never completes, so another one is let through after the open duration
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+        assertThat(circuitBreaker.acquire()).isNotEqualTo(probe);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.onFailure(SLOW);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(circuitBreaker.isCallPermitted()).isTrue();
+    }
+
+    private void open() {
+        for (int i = 0; i < 5; i++) {
+            circuitBreaker.onFailure(FAST);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+    }
+
+}
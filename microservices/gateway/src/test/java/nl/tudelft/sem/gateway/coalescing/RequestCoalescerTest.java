@@ -0,0 +1,112 @@
+package nl.tudelft.sem.gateway.coalescing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import nl.tudelft.sem.gateway.config.CoalescingConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class RequestCoalescerTest {
+
+    private static final String KEY = "/api/courses/get/1 - ";
+
+    private transient CoalescingConfig config;
+
+    private transient RequestCoalescer requestCoalescer;
+
+    // Number of calls that reached the destination
+    private transient AtomicInteger calls;
+
+    // Response of the destination, which is completed manually
+    private transient MonoProcessor<ResponseEntity<String>> upstream;
+
+    @BeforeEach
+    void setup() {
+        config = new CoalescingConfig();
+        requestCoalescer = new RequestCoalescer(config);
+        calls = new AtomicInteger();
+        upstream = MonoProcessor.create();
+    }
+
+    /**
+     * Creates a call to the destination.
+     *
+     * @return the call.
+     */
+    private Mono<ResponseEntity<String>> call() {
+        return upstream.doOnSubscribe(subscription -> calls.incrementAndGet());
+    }
+
+    @Test
+    void testConcurrentCallsShareResponse() {
+        MonoProcessor<ResponseEntity<String>> first = requestCoalescer.execute(KEY, call())
+                .toProcessor();
+        MonoProcessor<ResponseEntity<String>> second = requestCoalescer.execute(KEY, call())
+                .toProcessor();
+
+        ResponseEntity<String> response = ResponseEntity.ok("course");
+        upstream.onNext(response);
+        assertSame(response, first.block());
+        assertSame(response, second.block());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testCompletedCallsAreNotShared() {
+        upstream.onNext(ResponseEntity.ok("course"));
+        requestCoalescer.execute(KEY, call()).block();
+        requestCoalescer.execute(KEY, call()).block();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testDifferentCallsAreNotShared() {
+        requestCoalescer.execute(KEY, call()).subscribe();
+        requestCoalescer.execute("/api/courses/get/2 - ", call()).subscribe();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testErrorsAreShared() {
+        MonoProcessor<ResponseEntity<String>> first = requestCoalescer.execute(KEY, call())
+                .toProcessor();
+        MonoProcessor<ResponseEntity<String>> second = requestCoalescer.execute(KEY, call())
+                .toProcessor();
+
+        upstream.onError(new IllegalStateException());
+        assertEquals("failed", first.onErrorReturn(ResponseEntity.ok("failed")).block().getBody());
+        assertEquals("failed", second.onErrorReturn(ResponseEntity.ok("failed")).block().getBody());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        requestCoalescer.execute(KEY, call()).subscribe();
+        requestCoalescer.execute(KEY, call()).subscribe();
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testKeyDependsOnCaller() {
+        HttpHeaders alice = new HttpHeaders();
+        alice.setBearerAuth("alice");
+        HttpHeaders bob = new HttpHeaders();
+        bob.setBearerAuth("bob");
+
+        assertEquals(RequestCoalescer.key("/api/courses", "id=1", alice),
+                RequestCoalescer.key("/api/courses", "id=1", alice));
+        assertNotEquals(RequestCoalescer.key("/api/courses", "id=1", alice),
+                RequestCoalescer.key("/api/courses", "id=1", bob));
+        assertNotEquals(RequestCoalescer.key("/api/courses", "id=1", alice),
+                RequestCoalescer.key("/api/courses", "id=2", alice));
+    }
+
+}
@@ -0,0 +1,72 @@
+package nl.tudelft.sem.gateway.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.Test;
+
+public class ContentEncodingTest {
+
+    @Test
+    void testNegotiatePrefersGzip() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate(List.of("gzip, deflate")));
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate(List.of("deflate, gzip")));
+        assertEquals(ContentEncoding.DEFLATE, ContentEncoding.negotiate(List.of("deflate")));
+    }
+
+    @Test
+    void testNegotiateQualityValues() {
+        assertEquals(ContentEncoding.DEFLATE,
+                ContentEncoding.negotiate(List.of("gzip;q=0.5, deflate;q=0.8")));
+        assertEquals(ContentEncoding.DEFLATE,
+                ContentEncoding.negotiate(List.of("GZIP; q=0", "deflate")));
+        assertNull(ContentEncoding.negotiate(List.of("gzip;q=0, deflate;q=0")));
+    }
+
+    @Test
+    void testNegotiateWildcard() {
+        assertEquals(ContentEncoding.GZIP, ContentEncoding.negotiate(List.of("*")));
+        assertEquals(ContentEncoding.DEFLATE,
+                ContentEncoding.negotiate(List.of("gzip;q=0, *;q=0.5")));
+        assertNull(ContentEncoding.negotiate(List.of("br, *;q=0")));
+    }
+
+    @Test
+    void testNegotiateUnsupported() {
+        assertNull(ContentEncoding.negotiate(List.of()));
+        assertNull(ContentEncoding.negotiate(List.of("identity, br")));
+    }
+
+    @Test
+    void testEncode() throws IOException {
+        byte[] body = "{\"hello\": \"compressed world\"}".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(body, decode(new GZIPInputStream(
+                new ByteArrayInputStream(encode(body, ContentEncoding.GZIP)))));
+        assertArrayEquals(body, decode(new InflaterInputStream(
+                new ByteArrayInputStream(encode(body, ContentEncoding.DEFLATE)))));
+    }
+
+    private static byte[] encode(byte[] body, ContentEncoding encoding) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = encoding.encode(compressed)) {
+            outputStream.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decode(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package nl.tudelft.sem.gateway.compression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import nl.tudelft.sem.gateway.config.CompressionConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+public class ResponseCompressorTest {
+
+    private static final String BODY = "[" + "{\"userId\": 1234},".repeat(50) + "{}]";
+
+    private transient CompressionConfig config;
+
+    private transient ResponseCompressor responseCompressor;
+
+    @BeforeEach
+    void setup() {
+        config = new CompressionConfig();
+        config.setEnabled(true);
+        config.setMinResponseSize(DataSize.ofBytes(256));
+        responseCompressor = new ResponseCompressor(config);
+    }
+
+    private static HttpHeaders acceptGzip() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        return headers;
+    }
+
+    private static ResponseEntity<String> response(MediaType contentType, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        headers.setContentLength(body.length());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    @Test
+    void testCompress() throws IOException {
+        ResponseEntity<?> compressed = responseCompressor.compress(acceptGzip(),
+                response(MediaType.APPLICATION_JSON, BODY));
+
+        HttpHeaders headers = compressed.getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+        assertFalse(headers.containsKey(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(MediaType.APPLICATION_JSON, headers.getContentType());
+
+        byte[] body = (byte[]) compressed.getBody();
+        assertTrue(body.length < BODY.length());
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(BODY, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testSkipsBelowThreshold() {
+        ResponseEntity<String> response = response(MediaType.APPLICATION_JSON, "{}");
+        assertSame(response, responseCompressor.compress(acceptGzip(), response));
+    }
+
+    @Test
+    void testSkipsWithoutAcceptedEncoding() {
+        ResponseEntity<String> response = response(MediaType.APPLICATION_JSON, BODY);
+        assertSame(response, responseCompressor.compress(new HttpHeaders(), response));
+    }
+
+    @Test
+    void testSkipsUncompressibleMediaType() {
+        ResponseEntity<String> response = response(MediaType.IMAGE_PNG, BODY);
+        assertSame(response, responseCompressor.compress(acceptGzip(), response));
+    }
+
+    @Test
+    void testSkipsAlreadyEncoded() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        headers.set(HttpHeaders.CONTENT_ENCODING, "br");
+        assertNull(responseCompressor.select(acceptGzip(), headers, -1));
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        ResponseEntity<String> response = response(MediaType.APPLICATION_JSON, BODY);
+        assertSame(response, responseCompressor.compress(acceptGzip(), response));
+        assertTrue(responseCompressor.negotiateUpstream(acceptGzip())
+                .containsKey(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void testNegotiateUpstream() {
+        assertFalse(responseCompressor.negotiateUpstream(acceptGzip())
+                .containsKey(HttpHeaders.ACCEPT_ENCODING));
+
+        config.setPassthrough(true);
+        assertTrue(responseCompressor.negotiateUpstream(acceptGzip())
+                .containsKey(HttpHeaders.ACCEPT_ENCODING));
+    }
+}
@@ -0,0 +1,31 @@
+package nl.tudelft.sem.gateway.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import nl.tudelft.sem.gateway.balancing.strategies.StrategyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "gateway.balancing.default-strategy=least-outstanding",
+    "gateway.balancing.strategies.hiring-procedure=peak-ewma"
+})
+public class BalancingConfigTest {
+
+    @Autowired
+    private transient BalancingConfig balancingConfig;
+
+    @Test
+    void testConfiguredStrategy() {
+        assertThat(balancingConfig.getStrategy("hiring-procedure"))
+                .isEqualTo(StrategyType.PEAK_EWMA);
+    }
+
+    @Test
+    void testDefaultStrategy() {
+        assertThat(balancingConfig.getStrategy("courses"))
+                .isEqualTo(StrategyType.LEAST_OUTSTANDING);
+    }
+
+}
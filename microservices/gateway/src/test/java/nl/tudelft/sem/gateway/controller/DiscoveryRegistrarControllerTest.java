@@ -1,9 +1,12 @@
 package nl.tudelft.sem.gateway.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.google.gson.Gson;
@@ -17,6 +20,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 @AutoConfigureMockMvc
 @SpringBootTest
@@ -63,8 +67,13 @@ public class DiscoveryRegistrarControllerTest {
                     .andExpect(status().isOk());
         }
 
-        // The pool should remain ordered
-        for (var registration : registrations) {
+        // The pool should remain ordered, starting at the offset of the round-robin cursor
+        String first = mockMvc.perform(get("/discovery/multi-pool"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int offset = registrations.indexOf(new Gson().fromJson(first, Registration.class));
+        for (int i = 1; i <= registrations.size(); i++) {
+            Registration registration = registrations.get((offset + i) % registrations.size());
             mockMvc.perform(get("/discovery/multi-pool"))
                     .andExpect(status().isOk())
                     .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
@@ -73,4 +82,54 @@ public class DiscoveryRegistrarControllerTest {
         }
     }
 
+    @Test
+    void testDeregisterMicroservice() throws Exception {
+        Registration draining = new Registration("draining.link", 5678);
+        Registration other = new Registration("other.link", 5679);
+        for (var registration : List.of(draining, other)) {
+            mockMvc.perform(post("/discovery/register/draining-pool")
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .content(new Gson().toJson(registration)))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/discovery/deregister/draining-pool")
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .content(new Gson().toJson(draining)))
+                .andExpect(status().isOk());
+
+        // Only the other registration should be returned
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/discovery/draining-pool"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(new Gson().toJson(other)));
+        }
+    }
+
+    @Test
+    void testDeregisterUnknownMicroservice() throws Exception {
+        mockMvc.perform(post("/discovery/deregister/unknown-pool")
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .content(new Gson().toJson(new Registration("unknown.link", 1234))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testFeed() throws Exception {
+        Registration registration = new Registration("feed.link", 5678);
+        mockMvc.perform(post("/discovery/register/feed-pool")
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .content(new Gson().toJson(registration)))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/discovery/feed"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").isNumber())
+                .andExpect(jsonPath("$.targets['feed-pool'][0].host").value("feed.link"))
+                .andExpect(jsonPath("$.targets['feed-pool'][0].port").value(5678));
+    }
+
 }
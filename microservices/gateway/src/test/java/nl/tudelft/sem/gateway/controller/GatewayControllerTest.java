@@ -3,19 +3,31 @@ package nl.tudelft.sem.gateway.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
 import nl.tudelft.sem.gateway.discovery.Registration;
 import nl.tudelft.sem.gateway.exceptions.MonoForwardingException;
 import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -37,7 +49,16 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import reactor.core.publisher.Mono;
 
 @AutoConfigureMockMvc
-@SpringBootTest
+@SpringBootTest(properties = {
+        "gateway.cache.routes.cached.pattern=/api/cached-route/**",
+        "gateway.rate-limit.routes.limited.pattern=/api/limited-route/**",
+        "gateway.rate-limit.routes.limited.limit=2",
+        "gateway.rate-limit.routes.bypassed.pattern=/api/bypassed-route/**",
+        "gateway.rate-limit.routes.bypassed.limit=2",
+        "gateway.deadline.enabled=true",
+        "gateway.compression.enabled=true",
+        "gateway.compression.min-response-size=64B"
+})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
 public class GatewayControllerTest {
 
@@ -109,6 +130,96 @@ public class GatewayControllerTest {
         assertEquals(authorizationToken, recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
     }
 
+    @Test
+    void testGatewayCompressesResponse() throws Exception {
+        // Register listener
+        String target = "compressed-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a response that exceeds the minimum size
+        String body = "[" + "{\"declarationId\": 1},".repeat(20) + "{}]";
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body));
+
+        // Perform call that accepts compressed responses
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate;q=0.5, gzip"))
+                .andReturn();
+        MvcResult compressed = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andReturn();
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(
+                compressed.getResponse().getContentAsByteArray()))) {
+            assertEquals(body, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        // The microservice should have been asked for an uncompressed response
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertNull(recordedRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void testGatewayRemovesIdentityOfCaller() throws Exception {
+        // Register listener
+        String target = "spoofed-identity";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello test!"));
+
+        // Perform call with an identity header, which only the gateway may set
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(IdentityResolver.IDENTITY_HEADER, "1.ADMIN.1.forged"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertNull(recordedRequest.getHeader(IdentityResolver.IDENTITY_HEADER));
+    }
+
+    @Test
+    void testGatewayAttachesDeadline() throws Exception {
+        // Register listener
+        String target = "deadline";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello test!"));
+
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        // The call is forwarded with a deadline, of which the budget has not been used up
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        String deadline = recordedRequest.getHeader(Deadline.HEADER);
+        assertNotNull(deadline);
+        assertTrue(Long.parseLong(deadline) > System.currentTimeMillis());
+    }
+
+    @Test
+    void testGatewayRejectsExpiredDeadline() throws Exception {
+        // Register listener
+        String target = "expired-deadline";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // The caller has already given up on the call, hence it is not forwarded
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(Deadline.HEADER, System.currentTimeMillis() - 1000))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isGatewayTimeout());
+        assertEquals(0, mockWebServer.getRequestCount());
+    }
+
     @Test
     void testGatewayWithRegistrationInValidResponse() throws Exception {
         // Register listener
@@ -164,7 +275,7 @@ public class GatewayControllerTest {
 
         // Perform manual call to check the Mono response
         // This should be a forwarded exception (MonoForwardingException)
-        Mono<ResponseEntity<String>> response = gatewayController
+        Mono<ResponseEntity<?>> response = gatewayController
                 .getRequest(target, "", new HttpHeaders(), requestMock);
 
         // Verify that the mono contains a forwarded exception
@@ -180,4 +291,232 @@ public class GatewayControllerTest {
         assertEquals(HttpMethod.GET.name(), recordedRequest.getMethod());
     }
 
+    @Test
+    void testGatewayMeasuresForwardedCall() throws Exception {
+        // Register listener
+        String target = "measured-call";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse().setBody("Measured!"));
+
+        // Perform call to registered listener, and wait for the response
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+
+        // The load statistics of the instance should have been updated
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target);
+        assertEquals(0, instance.getOutstandingRequests());
+        assertTrue(instance.getPeakEwmaLatency() > 0);
+    }
+
+    @Test
+    void testGatewayServesCachedRoute() throws Exception {
+        // Register listener
+        String target = "cached-route";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a single response to mock server
+        mockWebServer.enqueue(new MockResponse().setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setBody("Cached!"));
+
+        // Perform the same call twice, of which only the first reaches the listener
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(get(API_PREFIX + target + "/1")
+                            .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Cached!"));
+        }
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testGatewayCoalescesConcurrentCalls() throws Exception {
+        // Register listener
+        String target = "coalesced-call";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a single, slow response to mock server
+        mockWebServer.enqueue(new MockResponse().setBody("Coalesced!")
+                .setHeadersDelay(200, TimeUnit.MILLISECONDS));
+
+        // Perform identical calls while the first one is still in flight
+        MvcResult first = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                .andReturn();
+        MvcResult second = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                .andReturn();
+
+        // Both calls receive the response of the single call to the listener
+        for (MvcResult result : new MvcResult[] {first, second}) {
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("Coalesced!"));
+        }
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testGatewayRejectsCallsOverRateLimit() throws Exception {
+        // Register listener
+        String target = "limited-route";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // The first two calls are forwarded
+        for (int i = 0; i < 2; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Limited!"));
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + target)
+                            .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        }
+
+        // The third call is rejected without reaching the listener
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + target)
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testGatewayRateLimitCannotBeBypassedThroughPath() throws Exception {
+        // Register listener
+        String target = "bypassed-route";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Exhaust the rate limit
+        for (int i = 0; i < 2; i++) {
+            mockWebServer.enqueue(new MockResponse().setBody("Limited!"));
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + target)
+                            .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk());
+        }
+
+        // Encoded paths and dot segments still belong to the route
+        for (String path : new String[] {"/api/%62ypassed-route", "/api/x/../bypassed-route/"}) {
+            MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(URI.create(path))
+                            .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isTooManyRequests());
+        }
+
+        // And so do the sub-requests of a batch
+        String batch = "["
+                + "{\"method\": \"POST\", \"path\": \"/api/./bypassed-route\"},"
+                + "{\"method\": \"POST\", \"path\": \"/api/x/../bypassed-route\"}"
+                + "]";
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + "batch")
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(429))
+                .andExpect(jsonPath("$[1].status").value(429));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    /**
+     * Registers a listener that responds to /a with 200 OK, and to all other paths with 404 Not
+     * Found, regardless of the order in which the calls arrive.
+     *
+     * @param target is the name of the listener.
+     */
+    private void registerBatchListener(String target) {
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return request.getPath().endsWith("/a")
+                        ? new MockResponse().setBody("Found " + request.getMethod())
+                        : new MockResponse().setResponseCode(404).setBody("Not found");
+            }
+        });
+    }
+
+    @Test
+    void testGatewayBatchReturnsResponsesInOrder() throws Exception {
+        String target = "batch-target";
+        registerBatchListener(target);
+        String batch = "["
+                + "{\"id\": \"first\", \"path\": \"/api/batch-target/a\"},"
+                + "{\"method\": \"POST\", \"path\": \"/api/batch-target/b\", \"body\": \"x\"},"
+                + "{\"path\": \"/api/unknown-batch-target/a\"},"
+                + "{\"path\": \"/users\"},"
+                + "{\"method\": \"PATCH\", \"path\": \"/api/batch-target/a\"}"
+                + "]";
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + "batch")
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("first"))
+                .andExpect(jsonPath("$[0].status").value(200))
+                .andExpect(jsonPath("$[0].body").value("Found GET"))
+                .andExpect(jsonPath("$[1].id").value("1"))
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].body").value("Not found"))
+                .andExpect(jsonPath("$[2].status").value(404))
+                .andExpect(jsonPath("$[3].status").value(400))
+                .andExpect(jsonPath("$[4].status").value(400));
+
+        // The sub-requests inherit the Authorization header of the batch
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(authorizationToken, recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testGatewayBatchStreamsNdjson() throws Exception {
+        String target = "streamed-batch-target";
+        registerBatchListener(target);
+        String batch = "["
+                + "{\"path\": \"/api/streamed-batch-target/a\"},"
+                + "{\"path\": \"/api/streamed-batch-target/b\"}"
+                + "]";
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + "batch")
+                        .accept("application/x-ndjson")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[1].startsWith("{"));
+    }
+
+    @Test
+    void testGatewayRejectsEmptyBatch() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post(API_PREFIX + "batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
 }
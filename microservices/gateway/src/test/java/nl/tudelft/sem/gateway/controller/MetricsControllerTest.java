@@ -0,0 +1,76 @@
+package nl.tudelft.sem.gateway.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "gateway.metrics.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class MetricsControllerTest {
+
+    @Autowired
+    private transient MockMvc mockMvc;
+
+    @Autowired
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    private transient MockWebServer mockWebServer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testForwardedCallsAreExposed() throws Exception {
+        HttpUrl url = mockWebServer.url("/");
+        discoveryRegistrarService.addRegistration("metrics-target",
+                new Registration(url.host(), url.port()));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello test!"));
+
+        MvcResult result = mockMvc.perform(get("/api/metrics-target/get/12")).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/gateway/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(containsString("gateway_responses_total{"
+                        + "target=\"metrics-target\",method=\"GET\","
+                        + "route=\"/api/metrics-target/get/{id}\",instance=\""
+                        + url.host() + ":" + url.port() + "\",class=\"2xx\"} 1")));
+    }
+
+    @Test
+    void testRemoteCallerIsForbidden() throws Exception {
+        mockMvc.perform(get("/gateway/metrics").with(request -> {
+            request.setRemoteAddr("10.0.0.1");
+            return request;
+        })).andExpect(status().isForbidden());
+    }
+
+}
@@ -0,0 +1,114 @@
+package nl.tudelft.sem.gateway.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import nl.tudelft.sem.gateway.admission.AdmissionManager;
+import nl.tudelft.sem.gateway.cache.ResponseCache;
+import nl.tudelft.sem.gateway.discovery.LoadReport;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "gateway.pool.max-connections=12",
+        "gateway.cache.routes.courses.pattern=/api/courses/get/**"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class StatisticsControllerTest {
+
+    @Autowired
+    private transient MockMvc mockMvc;
+
+    @Autowired
+    private transient ConnectionPoolManager connectionPoolManager;
+
+    @Autowired
+    private transient ResponseCache responseCache;
+
+    @Autowired
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    @Autowired
+    private transient AdmissionManager admissionManager;
+
+    @Test
+    void testPoolStatistics() throws Exception {
+        connectionPoolManager.getWebClient(new Registration("my.amazing.link", 5678));
+
+        mockMvc.perform(get("/gateway/pools"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['my.amazing.link:5678'].maxConnections").value(12))
+                .andExpect(jsonPath("$['my.amazing.link:5678'].acquired").value(0));
+    }
+
+    @Test
+    void testCacheStatistics() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            responseCache.execute("courses", "/api/courses/get/1", null, new HttpHeaders(),
+                    headers -> Mono.just(ResponseEntity.ok("course"))).block();
+        }
+
+        mockMvc.perform(get("/gateway/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.hits").value(2))
+                .andExpect(jsonPath("$.courses.misses").value(1))
+                .andExpect(jsonPath("$.courses.revalidations").value(0));
+    }
+
+    @Test
+    void testCircuitStates() throws Exception {
+        discoveryRegistrarService.addRegistration("users", new Registration("localhost", 4321));
+
+        mockMvc.perform(get("/gateway/circuits"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users['localhost:4321']").value("CLOSED"));
+    }
+
+    @Test
+    void testHealth() throws Exception {
+        discoveryRegistrarService.addRegistration("courses", new Registration("localhost", 4322));
+
+        mockMvc.perform(get("/gateway/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses['localhost:4322']").value("UP"));
+    }
+
+    @Test
+    void testLoad() throws Exception {
+        Registration registration = new Registration("localhost", 4323);
+        registration.setLoad(new LoadReport(3, 0.5, 0.25, 2));
+        discoveryRegistrarService.addRegistration("users", registration);
+
+        mockMvc.perform(get("/gateway/load"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users['localhost:4323'].inFlightRequests").value(3))
+                .andExpect(jsonPath("$.users['localhost:4323'].cpuLoad").value(0.5))
+                .andExpect(jsonPath("$.users['localhost:4323'].heapUsage").value(0.25))
+                .andExpect(jsonPath("$.users['localhost:4323'].eventLoopLagMillis").value(2));
+    }
+
+    @Test
+    void testAdmissionStatistics() throws Exception {
+        admissionManager.admit("courses", Mono.just("course")).block();
+
+        mockMvc.perform(get("/gateway/admission"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courses.limit").value(50))
+                .andExpect(jsonPath("$.courses.inFlight").value(0))
+                .andExpect(jsonPath("$.courses.queued").value(0))
+                .andExpect(jsonPath("$.courses.rejected").value(0));
+    }
+
+}
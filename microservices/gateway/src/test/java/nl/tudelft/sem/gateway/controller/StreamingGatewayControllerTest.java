@@ -0,0 +1,366 @@
+package nl.tudelft.sem.gateway.controller;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.metrics.CallMetrics;
+import nl.tudelft.sem.gateway.metrics.GatewayMetrics;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "gateway.streaming.enabled=true",
+        "gateway.compression.enabled=true",
+        "gateway.compression.min-response-size=64B",
+        "gateway.compression.passthrough=true",
+        "gateway.metrics.enabled=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class StreamingGatewayControllerTest {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String authorizationToken = "myToken";
+
+    @Autowired
+    private transient MockMvc mockMvc;
+
+    private transient MockWebServer mockWebServer;
+
+    @Autowired
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    @Autowired
+    private transient GatewayMetrics gatewayMetrics;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Performs the call and waits until both the upstream response and its streamed body are
+     * available.
+     *
+     * @param result is the result of the initial call.
+     * @return the result after the body has been streamed.
+     */
+    private MvcResult awaitStreamed(MvcResult result) throws Exception {
+        MvcResult dispatched = mockMvc.perform(asyncDispatch(result)).andReturn();
+        dispatched.getAsyncResult(1000);
+        return dispatched;
+    }
+
+    @Test
+    void testDefaultGatewayResponse() throws Exception {
+        mockMvc.perform(get("/api"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Hello from Gateway!"));
+    }
+
+    @Test
+    void testGatewayNoRegistration() throws Exception {
+        mockMvc.perform(get("/api/non-existing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamingValidResponse() throws Exception {
+        // Register listener
+        String target = "streaming-valid-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("Hello stream!"));
+
+        // Perform call to registered listener
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.AUTHORIZATION, authorizationToken))
+                .andReturn();
+
+        // Wait for the streamed response
+        MvcResult streamed = awaitStreamed(result);
+        assertEquals(200, streamed.getResponse().getStatus());
+        assertEquals("Hello stream!", streamed.getResponse().getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE,
+                streamed.getResponse().getHeader(HttpHeaders.CONTENT_TYPE));
+
+        // Perform additional verification
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(HttpMethod.GET.name(), recordedRequest.getMethod());
+        assertEquals(0, recordedRequest.getBodySize());
+        assertEquals(authorizationToken, recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void testStreamingCompressesResponse() throws Exception {
+        // Register listener
+        String target = "streaming-compressed-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue an uncompressed response that exceeds the minimum size
+        String body = "[" + "{\"userId\": 1},".repeat(20) + "{}]";
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body));
+
+        // Perform call that accepts compressed responses
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn();
+
+        // The gateway should have compressed the streamed body
+        MvcResult streamed = awaitStreamed(result);
+        assertEquals("gzip", streamed.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(streamed.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH));
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(
+                streamed.getResponse().getContentAsByteArray()))) {
+            assertEquals(body, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+
+        // The encodings of the caller should have been passed on
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals("gzip", recordedRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    @Test
+    void testStreamingPassesCompressedResponseThrough() throws Exception {
+        // Register listener
+        String target = "streaming-passthrough-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a response that the microservice compressed itself
+        String body = "[" + "{\"userId\": 2},".repeat(20) + "{}]";
+        Buffer compressed = new Buffer();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed.outputStream())) {
+            outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        byte[] compressedBody = compressed.snapshot().toByteArray();
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .addHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .setBody(compressed));
+
+        // Perform call that accepts compressed responses
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn();
+
+        // The compressed body should have been passed through without compressing it again
+        MvcResult streamed = awaitStreamed(result);
+        assertEquals("gzip", streamed.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(compressedBody, streamed.getResponse().getContentAsByteArray());
+    }
+
+    @Test
+    void testStreamingStripsHopByHopHeaders() throws Exception {
+        // Register listener
+        String target = "streaming-hop-by-hop-headers";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a chunked response with headers that only apply to the upstream connection
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONNECTION, "X-Upstream")
+                .addHeader("X-Upstream", "connection")
+                .addHeader("Keep-Alive", "timeout=5")
+                .addHeader("X-Custom", "custom")
+                .setChunkedBody("Hello chunks!", 4));
+
+        // Perform call to registered listener
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+
+        // Only the end-to-end headers should have been passed on
+        MvcResult streamed = awaitStreamed(result);
+        assertEquals("Hello chunks!", streamed.getResponse().getContentAsString());
+        assertEquals("custom", streamed.getResponse().getHeader("X-Custom"));
+        assertNull(streamed.getResponse().getHeader(HttpHeaders.TRANSFER_ENCODING));
+        assertNull(streamed.getResponse().getHeader(HttpHeaders.CONNECTION));
+        assertNull(streamed.getResponse().getHeader("Keep-Alive"));
+        assertNull(streamed.getResponse().getHeader("X-Upstream"));
+    }
+
+    @Test
+    void testStreamedCallIsRecordedInMetrics() throws Exception {
+        // Register listener
+        String target = "streaming-metrics";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target);
+
+        // Stream a response with a known length
+        mockWebServer.enqueue(new MockResponse().setBody("Measured!"));
+        MvcResult streamed = awaitStreamed(mockMvc.perform(get(API_PREFIX + target + "/get/3"))
+                .andReturn());
+        assertEquals("Measured!", streamed.getResponse().getContentAsString());
+        awaitNoOutstandingRequests(instance);
+
+        // The call is recorded once its body has been streamed
+        CallMetrics metrics = gatewayMetrics.getSeries().get(new GatewayMetrics.Series(target,
+                "GET", API_PREFIX + target + "/get/{id}", url.host() + ":" + url.port()));
+        assertNotNull(metrics);
+        assertEquals(1, metrics.getStatusClasses().get(2));
+        assertEquals(9, metrics.getResponseSize().getSum());
+    }
+
+    @Test
+    void testTimeoutBeforeResponseCancelsCall() throws Exception {
+        // Register listener
+        String target = "streaming-timeout";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target);
+
+        // The request times out before the listener responds
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS)
+                .setBody("Too late!"));
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+        assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+        assertEquals(1, instance.getOutstandingRequests());
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+
+        // The call is cancelled, and no longer counts as outstanding
+        awaitNoOutstandingRequests(instance);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testAbortBeforeStreamingReleasesBody() throws Exception {
+        // Register listener
+        String target = "streaming-abort";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target);
+
+        // The response is available, but its body is only released once it has been streamed
+        mockWebServer.enqueue(new MockResponse().setBody("Never streamed!"));
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+        assertNotNull(result.getAsyncResult(1000));
+        assertEquals(1, instance.getOutstandingRequests());
+
+        // The caller disconnects before the streaming starts
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onError(new AsyncEvent(asyncContext, new IOException("Broken pipe")));
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+        awaitNoOutstandingRequests(instance);
+    }
+
+    /**
+     * Waits until the body of the call to an instance has been streamed or released.
+     *
+     * @param instance is the instance.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private static void awaitNoOutstandingRequests(RegisteredInstance instance)
+            throws InterruptedException {
+        for (int i = 0; i < 100 && instance.getOutstandingRequests() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, instance.getOutstandingRequests());
+    }
+
+    @Test
+    void testStreamingRequestBody() throws Exception {
+        // Register listener
+        String target = "streaming-request-body";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse().setBody("Created"));
+
+        // Perform call to registered listener
+        MvcResult result = mockMvc.perform(post(API_PREFIX + target)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"streamed\": true}"))
+                .andReturn();
+
+        // Wait for the streamed response
+        MvcResult streamed = awaitStreamed(result);
+        assertEquals("Created", streamed.getResponse().getContentAsString());
+
+        // Verify that the body arrived unchanged
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(HttpMethod.POST.name(), recordedRequest.getMethod());
+        assertEquals("{\"streamed\": true}", recordedRequest.getBody().readUtf8());
+    }
+
+    @Test
+    void testStreamingErrorResponsePassedThrough() throws Exception {
+        // Register listener
+        String target = "streaming-error-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(400)
+                .addHeader("X-Custom", "custom")
+                .setBody("No! This is bad!"));
+
+        // Perform call to registered listener
+        MvcResult result = mockMvc.perform(get(API_PREFIX + target)).andReturn();
+
+        // Status code, headers and body should be passed through unchanged
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("X-Custom", "custom"));
+    }
+
+}
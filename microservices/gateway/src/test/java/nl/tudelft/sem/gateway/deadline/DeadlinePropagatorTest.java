@@ -0,0 +1,62 @@
+package nl.tudelft.sem.gateway.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.gateway.config.DeadlineConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+public class DeadlinePropagatorTest {
+
+    private transient DeadlineConfig config;
+
+    private transient DeadlinePropagator deadlinePropagator;
+
+    @BeforeEach
+    void setup() {
+        config = new DeadlineConfig();
+        config.setEnabled(true);
+        config.setTimeout(Duration.ofSeconds(10));
+        deadlinePropagator = new DeadlinePropagator(config);
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        HttpHeaders headers = deadlinePropagator.apply(new HttpHeaders());
+        assertFalse(headers.containsKey(Deadline.HEADER));
+    }
+
+    @Test
+    void testAttachesTimeout() {
+        long before = System.currentTimeMillis();
+        Deadline deadline = Deadline.from(deadlinePropagator.apply(new HttpHeaders()));
+        assertNotNull(deadline);
+        assertTrue(deadline.getEpochMillis() >= before + 10_000);
+        assertTrue(deadline.getEpochMillis() <= System.currentTimeMillis() + 10_000);
+    }
+
+    @Test
+    void testKeepsEarlierDeadlineOfCaller() {
+        HttpHeaders headers = new HttpHeaders();
+        Deadline early = Deadline.after(Duration.ofSeconds(2));
+        early.applyTo(headers);
+        assertEquals(early, Deadline.from(deadlinePropagator.apply(headers)));
+    }
+
+    @Test
+    void testClampsLaterDeadlineOfCaller() {
+        HttpHeaders headers = new HttpHeaders();
+        Deadline late = Deadline.after(Duration.ofHours(1));
+        late.applyTo(headers);
+        Deadline deadline = Deadline.from(deadlinePropagator.apply(headers));
+        assertNotNull(deadline);
+        assertTrue(deadline.getEpochMillis() < late.getEpochMillis());
+    }
+}
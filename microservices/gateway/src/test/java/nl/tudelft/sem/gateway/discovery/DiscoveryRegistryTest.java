@@ -4,31 +4,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
-import com.google.common.cache.Cache;
-import java.util.LinkedList;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import org.junit.jupiter.api.BeforeEach;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import nl.tudelft.sem.gateway.balancing.strategies.ConsistentHashStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.RoundRobinStrategy;
+import nl.tudelft.sem.gateway.circuit.CircuitState;
 import org.junit.jupiter.api.Test;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Mono;
 
 public class DiscoveryRegistryTest {
 
     private static final String LOCALHOST = "localhost";
 
-    @Mock
-    private transient Cache<String, Registration> cacheMock;
-
-    @BeforeEach
-    private void setupEach() {
-        // Create fresh mocks
-        MockitoAnnotations.initMocks(this);
-    }
-
     @Test
     void testConstructor() {
         DiscoveryRegistry registry = new DiscoveryRegistry(1);
@@ -65,14 +59,16 @@ public class DiscoveryRegistryTest {
         // Should not exist at the start
         assertNull(registry.getRegistration());
 
-        // Add the registries, and verify that they are in the correct order (+ cyclic)
+        // Add the registries, and verify that they are in the correct order (+ cyclic), starting
+        // at the random offset of the round-robin cursor
         for (var registration : registrations) {
             registry.addRegistration(registration);
         }
-        registrations.forEach(
-                registration -> assertThat(registration).isEqualTo(registry.getRegistration()));
-        registrations.forEach(
-                registration -> assertThat(registration).isEqualTo(registry.getRegistration()));
+        int offset = registrations.indexOf(registry.getRegistration());
+        for (int i = 1; i <= 2 * registrations.size(); i++) {
+            assertThat(registry.getRegistration())
+                    .isEqualTo(registrations.get((offset + i) % registrations.size()));
+        }
     }
 
     @Test
@@ -90,27 +86,267 @@ public class DiscoveryRegistryTest {
     }
 
     @Test
-    void testGetRegistrationReRegistrations() {
-        LinkedList<Registration> registrations = new LinkedList<>();
+    void testHeartbeatPostponesEviction() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
         Registration registration = new Registration(LOCALHOST, 1234);
-        registrations.add(registration);
+        registry.addRegistration(registration);
 
-        // Create the registry using the test objects
-        DiscoveryRegistry registry = new DiscoveryRegistry(registrations, cacheMock);
+        // Heartbeat just before the registration would expire
+        ticker.advance(Duration.ofSeconds(55));
+        registry.addRegistration(registration);
 
-        // Configure behaviour of mock
-        when(cacheMock.size()).thenReturn(1L);
-        when(cacheMock.getIfPresent(registration.remoteAddress())).thenReturn(registration);
+        // Registration should still be available after the initial expiry time
+        ticker.advance(Duration.ofSeconds(55));
+        assertThat(registry.getRegistration()).isEqualTo(registration);
+    }
+
+    @Test
+    void testLookupsDoNotPostponeEviction() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
+        Registration registration = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(registration);
+
+        // Frequent lookups without heartbeats should not keep the registration alive
+        for (int i = 0; i < 5; i++) {
+            ticker.advance(Duration.ofSeconds(10));
+            assertThat(registry.getRegistration()).isEqualTo(registration);
+        }
+        ticker.advance(Duration.ofSeconds(10));
+        assertNull(registry.getRegistration());
+    }
+
+    @Test
+    void testExpiredRegistrationIsSkipped() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
+        Registration expired = new Registration(LOCALHOST, 1234);
+        Registration alive = new Registration("tudelft.nl", 8080);
+        registry.addRegistration(expired);
+        ticker.advance(Duration.ofSeconds(30));
+        registry.addRegistration(alive);
+
+        // Only the registration that is still alive should be returned
+        ticker.advance(Duration.ofSeconds(45));
+        assertThat(registry.getRegistration()).isEqualTo(alive);
+        assertThat(registry.getRegistration()).isEqualTo(alive);
+
+        // Once expired, it can be added again
+        registry.addRegistration(expired);
+        assertThat(List.of(registry.getRegistration(), registry.getRegistration()))
+                .containsExactlyInAnyOrder(alive, expired);
+    }
+
+    @Test
+    void testEvictExpiredNotifiesListener() {
+        FakeTicker ticker = new FakeTicker();
+        List<Registration> evicted = new ArrayList<>();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker,
+                evicted::add);
+        Registration registration = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(registration);
+
+        // Nothing should be evicted before the registration expires
+        registry.evictExpired();
+        assertThat(evicted).isEmpty();
+
+        // Expired registrations are evicted without any lookups, exactly once
+        ticker.advance(Duration.ofMinutes(1));
+        registry.evictExpired();
+        registry.evictExpired();
+        assertThat(evicted).containsExactly(registration);
+        assertNull(registry.getRegistration());
+    }
+
+    @Test
+    void testRoutableInstancesExcludeExpiredRegistrations() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
+        Registration expired = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(expired);
+        ticker.advance(Duration.ofSeconds(30));
+        Registration alive = new Registration("tudelft.nl", 8080);
+        registry.addRegistration(alive);
+
+        // The expired registration is left out, without being evicted
+        ticker.advance(Duration.ofSeconds(30));
+        assertThat(registry.getRoutableInstances())
+                .extracting(RegisteredInstance::getRegistration)
+                .containsExactly(alive);
+        assertThat(registry.getInstances()).hasSize(2);
+    }
+
+    @Test
+    void testEjectedRegistrationIsSkipped() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
+        Registration ejected = new Registration(LOCALHOST, 1234);
+        Registration healthy = new Registration("tudelft.nl", 8080);
+        registry.addRegistration(ejected);
+        registry.addRegistration(healthy);
+
+        // Let all calls to the first registration fail, until its circuit opens
+        RegisteredInstance instance = registry.getInstances().get(0);
+        for (int i = 0; i < 20; i++) {
+            instance.recordFailure(0);
+        }
+        assertThat(instance.getCircuitBreaker().getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(List.of(registry.getRegistration(), registry.getRegistration()))
+                .containsExactly(healthy, healthy);
+
+        // After the open duration, it is selected for a single probe, and skipped until it returns
+        ticker.advance(Duration.ofSeconds(30));
+        assertThat(List.of(registry.getRegistration(), registry.getRegistration(),
+                registry.getRegistration())).containsExactlyInAnyOrder(ejected, healthy, healthy);
+        instance.recordLatency(0);
+        assertThat(instance.getCircuitBreaker().getState()).isEqualTo(CircuitState.HALF_OPEN);
+        instance.measure(Mono.just("probe")).block();
+        assertThat(instance.getCircuitBreaker().getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(List.of(registry.getRegistration(), registry.getRegistration()))
+                .containsExactlyInAnyOrder(ejected, healthy);
+    }
+
+    @Test
+    void testExcludedRegistrationIsSkipped() {
+        DiscoveryRegistry registry = new DiscoveryRegistry(1);
+        registry.addRegistration(new Registration(LOCALHOST, 1234));
+        RegisteredInstance excluded = registry.getInstances().get(0);
+        assertNull(registry.getInstance(excluded));
+
+        Registration other = new Registration("tudelft.nl", 8080);
+        registry.addRegistration(other);
+        for (int i = 0; i < 3; i++) {
+            assertThat(registry.getInstance(excluded).getRegistration()).isEqualTo(other);
+        }
+    }
+
+    @Test
+    void testHashKeyFallsBackWhenEjected() {
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new ConsistentHashStrategy(1.25));
+        registry.addRegistration(new Registration(LOCALHOST, 1234));
+        registry.addRegistration(new Registration("tudelft.nl", 8080));
+        RegisteredInstance preferred = registry.getInstance("42");
+        assertThat(registry.getInstance("42")).isSameAs(preferred);
+
+        // Once the preferred instance is ejected, the key is routed to the other instance
+        for (int i = 0; i < 20; i++) {
+            preferred.recordFailure(0);
+        }
+        RegisteredInstance fallback = registry.getInstance("42");
+        assertThat(fallback).isNotNull().isNotSameAs(preferred);
+        assertThat(registry.getInstance("42")).isSameAs(fallback);
+    }
+
+    @Test
+    void testHeartbeatReportsLoad() {
+        DiscoveryRegistry registry = new DiscoveryRegistry(1);
+        Registration registration = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(registration);
+        RegisteredInstance instance = registry.getInstances().get(0);
+        assertNull(instance.getLoad());
+
+        // Heartbeats with load signals update them, heartbeats without retain them
+        Registration heartbeat = new Registration(LOCALHOST, 1234);
+        heartbeat.setLoad(new LoadReport(5, 0.9, 0.5, 10));
+        registry.addRegistration(heartbeat);
+        registry.addRegistration(registration);
+        assertThat(instance.getLoad()).isEqualTo(heartbeat.getLoad());
+        assertThat(registry.getInstances()).hasSize(1);
+    }
+
+    @Test
+    void testDrainedRegistrationIsRemovedWhenIdle() {
+        List<Registration> evicted = new ArrayList<>();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(),
+                new FakeTicker(), evicted::add);
+        Registration draining = new Registration(LOCALHOST, 1234);
+        Registration other = new Registration("tudelft.nl", 8080);
+        registry.addRegistration(draining);
+        registry.addRegistration(other);
+        RegisteredInstance instance = registry.getInstances().get(0);
+        instance.onRequestStarted();
+
+        // The draining registration no longer receives calls, but is kept while it has calls
+        assertThat(registry.drain(draining, Duration.ofSeconds(30))).isTrue();
+        assertThat(List.of(registry.getRegistration(), registry.getRegistration()))
+                .containsExactly(other, other);
+        registry.evictExpired();
+        assertThat(registry.getInstances()).hasSize(2);
+
+        // Once its calls have completed, it is removed
+        instance.onRequestFinished();
+        registry.evictExpired();
+        assertThat(evicted).containsExactly(draining);
+        assertThat(registry.drain(draining, Duration.ofSeconds(30))).isFalse();
+    }
+
+    @Test
+    void testDrainedRegistrationIsRemovedAfterTimeout() {
+        FakeTicker ticker = new FakeTicker();
+        DiscoveryRegistry registry = new DiscoveryRegistry(1, new RoundRobinStrategy(), ticker);
+        Registration registration = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(registration);
+        registry.getInstances().get(0).onRequestStarted();
+        registry.drain(registration, Duration.ofSeconds(10));
+        assertNull(registry.getRegistration());
+
+        ticker.advance(Duration.ofSeconds(10));
+        registry.evictExpired();
+        assertThat(registry.getInstances()).isEmpty();
+    }
+
+    @Test
+    void testHeartbeatCancelsDraining() {
+        DiscoveryRegistry registry = new DiscoveryRegistry(1);
+        Registration registration = new Registration(LOCALHOST, 1234);
+        registry.addRegistration(registration);
+        registry.getInstances().get(0).onRequestStarted();
+        registry.drain(registration, Duration.ofSeconds(10));
+        assertNull(registry.getRegistration());
 
-        // Add it, and verify that it was added (and remains added)
         registry.addRegistration(registration);
         assertThat(registry.getRegistration()).isEqualTo(registration);
+    }
 
-        // Assert that there is no eviction time due to the custom cache
-        assertThat(registry.getCacheEvictionTimeMinutes()).isEqualTo(-1);
+    @Test
+    void testConcurrentLookups() throws Exception {
+        DiscoveryRegistry registry = new DiscoveryRegistry(1);
+        List<Registration> registrations = List.of(new Registration(LOCALHOST, 2020),
+                new Registration("tudelft.nl", 8080));
+        registrations.forEach(registry::addRegistration);
+
+        // Every lookup from every thread should yield one of the live registrations
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> IntStream.range(0, 10_000)
+                        .allMatch(j -> registrations.contains(registry.getRegistration()))));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        // Verify that the registration got re-registered once by the getRegistration method
-        verify(cacheMock, times(1)).put(registration.remoteAddress(), registration);
+    /**
+     * Ticker of which the time can be advanced manually.
+     */
+    private static class FakeTicker extends Ticker {
+
+        private transient long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(Duration duration) {
+            nanos += duration.toNanos();
+        }
     }
 
 }
@@ -0,0 +1,149 @@
+package nl.tudelft.sem.gateway.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.circuit.CircuitBreaker;
+import nl.tudelft.sem.gateway.circuit.CircuitState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+public class RegisteredInstanceTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private transient long nanos;
+
+    private transient RegisteredInstance instance;
+
+    @BeforeEach
+    void setup() {
+        nanos = 0;
+        Ticker ticker = new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        };
+        instance = new RegisteredInstance(new Registration("localhost", 8080), ticker);
+    }
+
+    @Test
+    void testExpiry() {
+        instance.setExpiresAt(100);
+        assertFalse(instance.isExpired(99));
+        assertTrue(instance.isExpired(100));
+    }
+
+    @Test
+    void testOutstandingRequests() {
+        instance.onRequestStarted();
+        instance.onRequestStarted();
+        assertEquals(2, instance.getOutstandingRequests());
+
+        instance.onRequestFinished();
+        assertEquals(1, instance.getOutstandingRequests());
+    }
+
+    @Test
+    void testPeakIsAdoptedImmediately() {
+        instance.recordLatency(10 * MILLIS);
+        nanos += TimeUnit.SECONDS.toNanos(1);
+        instance.recordLatency(500 * MILLIS);
+        assertEquals(500 * MILLIS, instance.getPeakEwmaLatency());
+    }
+
+    @Test
+    void testImprovementsDecayGradually() {
+        instance.recordLatency(500 * MILLIS);
+
+        // A fast sample shortly after the peak barely moves the average
+        nanos += 100 * MILLIS;
+        instance.recordLatency(10 * MILLIS);
+        assertThat(instance.getPeakEwmaLatency()).isGreaterThan(400 * MILLIS);
+
+        // After a long time, the fast sample dominates
+        nanos += TimeUnit.MINUTES.toNanos(1);
+        instance.recordLatency(10 * MILLIS);
+        assertThat(instance.getPeakEwmaLatency()).isLessThan(20 * MILLIS);
+    }
+
+    @Test
+    void testFailuresArePenalized() {
+        instance.recordFailure(MILLIS);
+        assertEquals(TimeUnit.SECONDS.toNanos(1), instance.getPeakEwmaLatency());
+    }
+
+    @Test
+    void testMeasuredCall() {
+        Mono<String> call = instance.track(instance.measure(Mono.fromCallable(() -> {
+            assertEquals(1, instance.getOutstandingRequests());
+            nanos += 20 * MILLIS;
+            return "response";
+        })));
+
+        // Nothing is measured until the call is subscribed to
+        assertEquals(0, instance.getPeakEwmaLatency());
+        assertEquals("response", call.block());
+        assertEquals(0, instance.getOutstandingRequests());
+        assertEquals(20 * MILLIS, instance.getPeakEwmaLatency());
+    }
+
+    @Test
+    void testQueuedCallIsOutstanding() {
+        // A call that waits for admission already counts, before it is measured
+        Disposable queued = instance.track(Mono.never()).subscribe();
+        assertEquals(1, instance.getOutstandingRequests());
+        assertEquals(0, instance.getPeakEwmaLatency());
+
+        queued.dispose();
+        assertEquals(0, instance.getOutstandingRequests());
+    }
+
+    @Test
+    void testMeasuredErrorResponse() {
+        Mono<Integer> call = instance.measure(Mono.just(503), status -> status >= 500);
+
+        assertEquals(503, call.block());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), instance.getPeakEwmaLatency());
+    }
+
+    @Test
+    void testMeasuredFailure() {
+        Mono<String> call = instance.measure(Mono.error(new IllegalStateException()));
+
+        assertThat(call.onErrorReturn("failed").block()).isEqualTo("failed");
+        assertEquals(0, instance.getOutstandingRequests());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), instance.getPeakEwmaLatency());
+    }
+
+    @Test
+    void testCancelledProbeIsReleased() {
+        for (int i = 0; i < 20; i++) {
+            instance.recordFailure(MILLIS);
+        }
+        nanos += TimeUnit.SECONDS.toNanos(30);
+        CircuitBreaker circuitBreaker = instance.getCircuitBreaker();
+
+        // The probe is only taken once the call is subscribed to
+        Mono<String> call = instance.measure(Mono.never());
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.OPEN);
+        Disposable subscription = call.subscribe();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+        assertFalse(circuitBreaker.isCallPermitted());
+
+        // Cancelling the call lets another probe through
+        subscription.dispose();
+        assertEquals(0, instance.getOutstandingRequests());
+        assertTrue(circuitBreaker.isCallPermitted());
+        assertEquals("response", instance.measure(Mono.just("response")).block());
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitState.CLOSED);
+    }
+
+}
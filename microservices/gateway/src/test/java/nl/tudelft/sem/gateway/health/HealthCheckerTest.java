@@ -0,0 +1,113 @@
+package nl.tudelft.sem.gateway.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.config.ConnectionPoolConfig;
+import nl.tudelft.sem.gateway.config.HealthCheckConfig;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class HealthCheckerTest {
+
+    private static final String TARGET = "hour-management";
+
+    private transient MockWebServer mockWebServer;
+
+    private transient ConnectionPoolManager connectionPoolManager;
+
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    private transient HealthChecker healthChecker;
+
+    private transient RegisteredInstance instance;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        HealthCheckConfig config = new HealthCheckConfig();
+        config.setEnabled(true);
+        config.setPath("/ping");
+        config.setUnhealthyThreshold(2);
+        config.setHealthyThreshold(1);
+
+        HttpUrl url = mockWebServer.url("/");
+        discoveryRegistrarService = new DiscoveryRegistrarService();
+        discoveryRegistrarService.addRegistration(TARGET, new Registration(url.host(), url.port()));
+        instance = discoveryRegistrarService.getRegistries().get(TARGET).getInstances().get(0);
+
+        connectionPoolManager = new ConnectionPoolManager(new ConnectionPoolConfig());
+        healthChecker = new HealthChecker(config, discoveryRegistrarService,
+                connectionPoolManager);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionPoolManager.disposeAll();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testProbeUsesConfiguredPath() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        healthChecker.probeAll().block();
+
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        assertEquals("/ping", request.getPath());
+        assertThat(instance.getHealth()).isEqualTo(HealthState.UP);
+    }
+
+    @Test
+    void testInstanceIsMarkedDownAfterConsecutiveFailures() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        healthChecker.probeAll().block();
+        assertThat(instance.getHealth()).isEqualTo(HealthState.UP);
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        healthChecker.probeAll().block();
+        assertThat(instance.getHealth()).isEqualTo(HealthState.DOWN);
+        assertNull(discoveryRegistrarService.getInstanceIfExists(TARGET));
+
+        // A single successful probe brings the instance back into the rotation
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        healthChecker.probeAll().block();
+        assertThat(instance.getHealth()).isEqualTo(HealthState.UP);
+        assertThat(discoveryRegistrarService.getInstanceIfExists(TARGET)).isSameAs(instance);
+    }
+
+    @Test
+    void testUnreachableInstanceIsMarkedDown() throws IOException {
+        mockWebServer.shutdown();
+        healthChecker.probeAll().block();
+        healthChecker.probeAll().block();
+        assertThat(instance.getHealth()).isEqualTo(HealthState.DOWN);
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        for (int i = 0; i < 3; i++) {
+            healthChecker.probeAll().block();
+        }
+        assertThat(instance.getHealth()).isEqualTo(HealthState.UP);
+    }
+
+}
@@ -0,0 +1,219 @@
+package nl.tudelft.sem.gateway.hedging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import nl.tudelft.sem.gateway.config.HedgingConfig;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class RequestHedgerTest {
+
+    private static final String TARGET = "hour-management";
+
+    private static final String ROUTE = "declarations";
+
+    private static final Registration SLOW = new Registration("localhost", 1234);
+
+    private static final Registration FAST = new Registration("localhost", 1235);
+
+    private transient HedgingConfig config;
+
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    private transient RegisteredInstance slowInstance;
+
+    // Response of the slow instance, which is completed manually
+    private transient MonoProcessor<String> slowResponse;
+
+    // Whether the call to the slow instance has been cancelled
+    private transient AtomicBoolean cancelled;
+
+    @BeforeEach
+    void setup() {
+        config = new HedgingConfig();
+        config.setEnabled(true);
+        config.setRoutes(Map.of(ROUTE, "/api/hour-management/declaration/**"));
+        config.setMaxDelay(Duration.ofMillis(20));
+        config.setBudgetRatio(1);
+
+        discoveryRegistrarService = new DiscoveryRegistrarService();
+        discoveryRegistrarService.addRegistration(TARGET, SLOW);
+        discoveryRegistrarService.addRegistration(TARGET, FAST);
+        slowInstance = discoveryRegistrarService.getRegistries().get(TARGET).getInstances().get(0);
+        slowResponse = MonoProcessor.create();
+        cancelled = new AtomicBoolean();
+    }
+
+    /**
+     * Performs a call to an instance. The slow instance responds once its response is completed,
+     * whereas the fast instance responds right away.
+     *
+     * @param instance is the instance that is called.
+     * @return the response of the instance.
+     */
+    private Mono<String> call(RegisteredInstance instance) {
+        if (instance == slowInstance) {
+            return slowResponse.doOnCancel(() -> cancelled.set(true));
+        }
+        return Mono.just("fast");
+    }
+
+    @Test
+    void testFindRoute() {
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        assertEquals(ROUTE, requestHedger.findRoute(HttpMethod.GET,
+                "/api/hour-management/declaration/1"));
+        assertNull(requestHedger.findRoute(HttpMethod.POST,
+                "/api/hour-management/declaration/1"));
+        assertNull(requestHedger.findRoute(HttpMethod.GET, "/api/users/by-userid"));
+
+        config.setEnabled(false);
+        assertNull(requestHedger.findRoute(HttpMethod.GET,
+                "/api/hour-management/declaration/1"));
+    }
+
+    @Test
+    void testSlowCallIsHedged() {
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        String response = requestHedger.execute(ROUTE, TARGET, slowInstance, this::call)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("fast", response);
+        assertThat(cancelled.get()).isTrue();
+        assertEquals(new HedgingStatistics(1, 1, 1, 0),
+                requestHedger.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testFastCallIsNotHedged() {
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        slowResponse.onNext("slow");
+        String response = requestHedger.execute(ROUTE, TARGET, slowInstance, this::call)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("slow", response);
+        assertEquals(new HedgingStatistics(1, 0, 0, 0),
+                requestHedger.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testHedgingIsBoundedByBudget() throws InterruptedException {
+        config.setBudgetRatio(0.5);
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        RegisteredInstance fastInstance = discoveryRegistrarService.getRegistries().get(TARGET)
+                .getInstances().get(1);
+
+        // Two calls earn a full token, which is spent on hedging the second call
+        assertEquals("fast", requestHedger.execute(ROUTE, TARGET, fastInstance, this::call)
+                .block(Duration.ofSeconds(5)));
+        assertEquals("fast", requestHedger.execute(ROUTE, TARGET, slowInstance, this::call)
+                .block(Duration.ofSeconds(5)));
+
+        // The third call only earns half a token, so it waits for the slow instance
+        MonoProcessor<String> third = requestHedger
+                .execute(ROUTE, TARGET, slowInstance, this::call)
+                .toProcessor();
+        HedgingStatistics statistics = awaitBudgetExhausted(requestHedger);
+        slowResponse.onNext("slow");
+        assertEquals("slow", third.block(Duration.ofSeconds(5)));
+        assertEquals(new HedgingStatistics(3, 1, 1, 1), statistics);
+    }
+
+    /**
+     * Waits until a call of the route could not be hedged due to the budget.
+     *
+     * @param requestHedger is the request hedger.
+     * @return the statistics of the route once the budget has been exhausted.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private static HedgingStatistics awaitBudgetExhausted(RequestHedger requestHedger)
+            throws InterruptedException {
+        HedgingStatistics statistics = requestHedger.getStatistics().get(ROUTE);
+        for (int i = 0; i < 100 && statistics.getBudgetExhausted() == 0; i++) {
+            Thread.sleep(10);
+            statistics = requestHedger.getStatistics().get(ROUTE);
+        }
+        return statistics;
+    }
+
+    @Test
+    void testSingleInstanceIsNotHedged() {
+        discoveryRegistrarService = new DiscoveryRegistrarService();
+        discoveryRegistrarService.addRegistration(TARGET, SLOW);
+        slowInstance = discoveryRegistrarService.getRegistries().get(TARGET).getInstances().get(0);
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+
+        MonoProcessor<String> response = requestHedger
+                .execute(ROUTE, TARGET, slowInstance, this::call)
+                .toProcessor();
+        slowResponse.onNext("slow");
+        assertEquals("slow", response.block(Duration.ofSeconds(5)));
+        assertEquals(new HedgingStatistics(1, 0, 0, 0),
+                requestHedger.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testFailedCallWaitsForHedge() {
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        slowResponse.onError(new IllegalStateException("slow"));
+        String response = requestHedger.execute(ROUTE, TARGET, slowInstance, this::call)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("fast", response);
+        assertEquals(new HedgingStatistics(1, 1, 1, 0),
+                requestHedger.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testCallFailsOnceBothCallsFail() {
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        Mono<String> response = requestHedger.execute(ROUTE, TARGET, slowInstance,
+                instance -> Mono.error(new IllegalStateException(
+                        instance == slowInstance ? "slow" : "fast")));
+
+        assertThatThrownBy(() -> response.block(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("slow");
+        assertEquals(new HedgingStatistics(1, 1, 0, 0),
+                requestHedger.getStatistics().get(ROUTE));
+    }
+
+    @Test
+    void testFailedCallWithoutHedgeFails() {
+        discoveryRegistrarService = new DiscoveryRegistrarService();
+        discoveryRegistrarService.addRegistration(TARGET, SLOW);
+        slowInstance = discoveryRegistrarService.getRegistries().get(TARGET).getInstances().get(0);
+        RequestHedger requestHedger = new RequestHedger(config, discoveryRegistrarService);
+        slowResponse.onError(new IllegalStateException("slow"));
+
+        assertThatThrownBy(() -> requestHedger.execute(ROUTE, TARGET, slowInstance, this::call)
+                .block(Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("slow");
+    }
+
+    @Test
+    void testDelayFollowsLatencyPercentile() {
+        LatencyWindow window = new LatencyWindow(4);
+        for (long latency : List.of(40L, 10L, 30L, 20L, 50L)) {
+            window.record(latency);
+        }
+        assertEquals(4, window.size());
+        assertEquals(50, window.percentile(0.95));
+        assertEquals(20, window.percentile(0.5));
+    }
+
+}
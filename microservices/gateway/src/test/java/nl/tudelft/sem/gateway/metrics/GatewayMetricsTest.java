@@ -0,0 +1,148 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.function.Function;
+import nl.tudelft.sem.gateway.config.MetricsConfig;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+public class GatewayMetricsTest {
+
+    private static final Registration REGISTRATION = new Registration("localhost", 1234);
+
+    private static final Function<Mono<ResponseEntity<String>>, Mono<ResponseEntity<String>>>
+            ADMIT = Function.identity();
+
+    private transient MetricsConfig config;
+
+    private transient GatewayMetrics metrics;
+
+    @BeforeEach
+    void setup() {
+        config = new MetricsConfig();
+        config.setEnabled(true);
+        metrics = new GatewayMetrics(config);
+    }
+
+    /**
+     * Measures a call that responds with the given status and body.
+     *
+     * @param path   is the path of the call.
+     * @param status is the status of the response.
+     * @param body   is the body of the response.
+     */
+    private void call(String path, HttpStatus status, String body) {
+        metrics.measure("courses", HttpMethod.GET, path, REGISTRATION, "request", ADMIT,
+                Mono.just(ResponseEntity.status(status).body(body))).block();
+    }
+
+    @Test
+    void testRouteTemplate() {
+        assertEquals("/api/courses/get/{id}", GatewayMetrics.routeTemplate("/api/courses/get/42"));
+        assertEquals("/api/users/{id}/role", GatewayMetrics.routeTemplate("/api/users/7/role"));
+        assertEquals("/api/files/{id}", GatewayMetrics.routeTemplate(
+                "/api/files/123e4567-e89b-12d3-a456-426614174000"));
+        assertEquals("/api/courses/v2", GatewayMetrics.routeTemplate("/api/courses/v2"));
+    }
+
+    @Test
+    void testCallsAreRecordedPerRoute() {
+        call("/api/courses/get/1", HttpStatus.OK, "course");
+        call("/api/courses/get/2", HttpStatus.NOT_FOUND, "");
+        call("/api/courses/get-all", HttpStatus.OK, "x".repeat(2000));
+
+        Map<GatewayMetrics.Series, CallMetrics> series = metrics.getSeries();
+        assertEquals(2, series.size());
+        CallMetrics single = series.get(new GatewayMetrics.Series("courses", "GET",
+                "/api/courses/get/{id}", "localhost:1234"));
+        assertEquals(2, single.getUpstreamLatency().getCount());
+        assertEquals(2, single.getQueueTime().getCount());
+        assertEquals(1, single.getStatusClasses().get(2));
+        assertEquals(1, single.getStatusClasses().get(4));
+        assertEquals(14, single.getRequestSize().getSum());
+        assertEquals(6, single.getResponseSize().getSum());
+    }
+
+    @Test
+    void testFailedCallIsRecordedAsError() {
+        metrics.measure("courses", HttpMethod.GET, "/api/courses/get/1", REGISTRATION, null,
+                ADMIT, Mono.error(new ConnectException())).onErrorResume(e -> Mono.empty())
+                .block();
+
+        CallMetrics single = metrics.getSeries().values().iterator().next();
+        assertEquals(1, single.getStatusClasses().get(0));
+        assertEquals(0, single.getResponseSize().getCount());
+    }
+
+    @Test
+    void testShedCallIsRecordedAsServerError() {
+        metrics.measure("courses", HttpMethod.GET, "/api/courses/get/1", REGISTRATION, null,
+                call -> Mono.error(new IllegalStateException("shed")),
+                Mono.just(ResponseEntity.ok(""))).onErrorResume(e -> Mono.empty()).block();
+
+        CallMetrics single = metrics.getSeries().values().iterator().next();
+        assertEquals(1, single.getStatusClasses().get(5));
+        assertEquals(1, single.getQueueTime().getCount());
+        assertEquals(0, single.getUpstreamLatency().getCount());
+        assertEquals(0, single.getRequestSize().getCount());
+    }
+
+    @Test
+    void testStreamedCallWithUnknownResponseSize() {
+        metrics.measure("courses", HttpMethod.POST, "/api/courses/create", REGISTRATION, 12,
+                Function.<Mono<Integer>>identity(), Mono.just(201), status -> status,
+                status -> -1).block();
+
+        CallMetrics single = metrics.getSeries().values().iterator().next();
+        assertEquals(1, single.getStatusClasses().get(2));
+        assertEquals(12, single.getRequestSize().getSum());
+        assertEquals(0, single.getResponseSize().getCount());
+    }
+
+    @Test
+    void testSeriesAreBounded() {
+        config.setMaxSeries(1);
+        call("/api/courses/get/1", HttpStatus.OK, "");
+        call("/api/courses/get-all", HttpStatus.OK, "");
+        call("/api/courses/create", HttpStatus.OK, "");
+
+        assertThat(metrics.getSeries().keySet())
+                .extracting(GatewayMetrics.Series::getRoute)
+                .containsExactly("/api/courses/get/{id}", GatewayMetrics.OTHER_ROUTE);
+    }
+
+    @Test
+    void testDisabled() {
+        config.setEnabled(false);
+        call("/api/courses/get/1", HttpStatus.OK, "");
+        assertThat(metrics.getSeries()).isEmpty();
+    }
+
+    @Test
+    void testPrometheusText() {
+        call("/api/courses/get/1", HttpStatus.OK, "course");
+
+        String labels = "target=\"courses\",method=\"GET\",route=\"/api/courses/get/{id}\","
+                + "instance=\"localhost:1234\"";
+        assertThat(metrics.toPrometheusText())
+                .contains("# TYPE gateway_upstream_latency_seconds histogram\n")
+                .contains("gateway_upstream_latency_seconds_bucket{" + labels
+                        + ",le=\"+Inf\"} 1\n")
+                .contains("gateway_upstream_latency_seconds_count{" + labels + "} 1\n")
+                .contains("gateway_queue_time_seconds_bucket{" + labels + ",le=\"0.0001\"}")
+                .contains("gateway_request_size_bytes_bucket{" + labels + ",le=\"256\"} 1\n")
+                .contains("gateway_response_size_bytes_sum{" + labels + "} 6\n")
+                .contains("gateway_responses_total{" + labels + ",class=\"2xx\"} 1\n")
+                .doesNotContain("E-");
+    }
+
+}
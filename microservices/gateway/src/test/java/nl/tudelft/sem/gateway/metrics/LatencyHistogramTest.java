@@ -0,0 +1,69 @@
+package nl.tudelft.sem.gateway.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+    @Test
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(LatencyHistogram.DEFAULT_BUCKETS.size() + 1,
+                histogram.getCumulativeCounts().length);
+    }
+
+    @Test
+    void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram(List.of(Duration.ofMillis(10),
+                Duration.ofMillis(100)));
+        histogram.record(5 * MILLIS);
+        histogram.record(10 * MILLIS);
+        histogram.record(50 * MILLIS);
+        histogram.record(500 * MILLIS);
+
+        assertThat(histogram.getCumulativeCounts()).containsExactly(2, 3, 4);
+        assertEquals(4, histogram.getCount());
+        assertEquals(565 * MILLIS, histogram.getSum());
+        assertEquals(500 * MILLIS, histogram.getMax());
+    }
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(List.of(Duration.ofMillis(10),
+                Duration.ofMillis(100)));
+        for (int i = 0; i < 90; i++) {
+            histogram.record(5 * MILLIS);
+        }
+        for (int i = 0; i < 9; i++) {
+            histogram.record(50 * MILLIS);
+        }
+        histogram.record(300 * MILLIS);
+
+        assertEquals(10 * MILLIS, histogram.percentile(0.5));
+        assertEquals(10 * MILLIS, histogram.percentile(0.9));
+        assertEquals(100 * MILLIS, histogram.percentile(0.99));
+        assertEquals(300 * MILLIS, histogram.percentile(1));
+    }
+
+    @Test
+    void testPercentileDoesNotExceedMax() {
+        LatencyHistogram histogram = new LatencyHistogram(List.of(Duration.ofMillis(10)));
+        histogram.record(2 * MILLIS);
+        assertEquals(2 * MILLIS, histogram.percentile(0.5));
+    }
+
+    @Test
+    void testFormatMillis() {
+        assertEquals("25ms", LatencyHistogram.formatMillis(25 * MILLIS));
+        assertEquals("2.5ms", LatencyHistogram.formatMillis(2500000));
+    }
+
+}
@@ -0,0 +1,109 @@
+package nl.tudelft.sem.gateway.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nl.tudelft.sem.gateway.config.ConnectionPoolConfig;
+import nl.tudelft.sem.gateway.config.HealthCheckConfig;
+import nl.tudelft.sem.gateway.config.PersistenceConfig;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.health.HealthChecker;
+import nl.tudelft.sem.gateway.pool.ConnectionPoolManager;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RegistryPersistenceTest {
+
+    private static final String TARGET = "hour-management";
+
+    @TempDir
+    transient Path directory;
+
+    private transient MockWebServer mockWebServer;
+
+    private transient ConnectionPoolManager connectionPoolManager;
+
+    private transient PersistenceConfig config;
+
+    private transient Registration alive;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        HttpUrl url = mockWebServer.url("/");
+        alive = new Registration(url.host(), url.port());
+
+        connectionPoolManager = new ConnectionPoolManager(new ConnectionPoolConfig());
+        config = new PersistenceConfig();
+        config.setEnabled(true);
+        config.setFile(directory.resolve("registrations.json").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionPoolManager.disposeAll();
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Creates the persistence of a (restarted) gateway.
+     *
+     * @param discoveryRegistrarService is the registrar of the gateway.
+     * @return the persistence.
+     */
+    private RegistryPersistence createPersistence(
+            DiscoveryRegistrarService discoveryRegistrarService) {
+        return new RegistryPersistence(config, discoveryRegistrarService,
+                new HealthChecker(new HealthCheckConfig(), discoveryRegistrarService,
+                        connectionPoolManager), connectionPoolManager);
+    }
+
+    @Test
+    void testRegistrationsSurviveRestart() {
+        DiscoveryRegistrarService before = new DiscoveryRegistrarService();
+        RegistryPersistence persistence = createPersistence(before);
+        assertEquals(0, persistence.restore().block());
+        before.addRegistration(TARGET, alive);
+        before.addRegistration(TARGET, new Registration("localhost", 1));
+        persistence.save();
+
+        // Only the registration that responds to the probe is restored
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        DiscoveryRegistrarService after = new DiscoveryRegistrarService();
+        assertEquals(1, createPersistence(after).restore().block());
+        assertThat(after.getRegistrationIfExists(TARGET)).isEqualTo(alive);
+        assertThat(after.getRegistries().get(TARGET).getInstances()).hasSize(1);
+
+        // The pool that was created to probe the discarded registration is disposed
+        assertThat(connectionPoolManager.getStatistics()).containsOnlyKeys(alive.remoteAddress());
+    }
+
+    @Test
+    void testNothingIsSavedBeforeRestore() {
+        DiscoveryRegistrarService discoveryRegistrarService = new DiscoveryRegistrarService();
+        discoveryRegistrarService.addRegistration(TARGET, alive);
+        createPersistence(discoveryRegistrarService).save();
+        assertFalse(Files.exists(directory.resolve("registrations.json")));
+    }
+
+    @Test
+    void testCorruptFileIsIgnored() throws IOException {
+        Files.writeString(directory.resolve("registrations.json"), "{not json");
+        DiscoveryRegistrarService discoveryRegistrarService = new DiscoveryRegistrarService();
+        assertEquals(0, createPersistence(discoveryRegistrarService).restore().block());
+        assertNull(discoveryRegistrarService.getRegistrationIfExists(TARGET));
+    }
+
+}
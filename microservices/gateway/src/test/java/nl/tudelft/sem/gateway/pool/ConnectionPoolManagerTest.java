@@ -0,0 +1,110 @@
+package nl.tudelft.sem.gateway.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import nl.tudelft.sem.gateway.config.ConnectionPoolConfig;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.discovery.RegistrationEvictedEvent;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConnectionPoolManagerTest {
+
+    private transient MockWebServer mockWebServer;
+
+    private transient ConnectionPoolManager connectionPoolManager;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+
+        ConnectionPoolConfig config = new ConnectionPoolConfig();
+        config.setMaxConnections(7);
+        connectionPoolManager = new ConnectionPoolManager(config);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionPoolManager.disposeAll();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testPoolPerRegistration() {
+        Registration first = new Registration("localhost", 8081);
+        Registration second = new Registration("localhost", 8082);
+
+        assertSame(connectionPoolManager.getWebClient(first),
+                connectionPoolManager.getWebClient(new Registration("localhost", 8081)));
+        assertNotSame(connectionPoolManager.getWebClient(first),
+                connectionPoolManager.getWebClient(second));
+        assertThat(connectionPoolManager.getStatistics())
+                .containsOnlyKeys("localhost:8081", "localhost:8082");
+    }
+
+    @Test
+    void testStatisticsOfUnusedPool() {
+        Registration registration = new Registration("localhost", 8081);
+        connectionPoolManager.getWebClient(registration);
+
+        PoolStatistics statistics = connectionPoolManager.getStatistics().get("localhost:8081");
+        assertEquals(new PoolStatistics(7, 0, 0, 0, 0), statistics);
+    }
+
+    @Test
+    void testConnectionIsKeptAlive() throws InterruptedException {
+        HttpUrl url = mockWebServer.url("/");
+        Registration registration = new Registration(url.host(), url.port());
+        mockWebServer.enqueue(new MockResponse().setBody("pooled"));
+
+        String body = connectionPoolManager.getWebClient(registration)
+                .get()
+                .uri(url.toString())
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+        assertEquals("pooled", body);
+
+        // The connection is released back into the pool (asynchronously) instead of being closed
+        PoolStatistics statistics = awaitReleased(registration);
+        assertEquals(1, statistics.getAllocated());
+        assertEquals(1, statistics.getIdle());
+    }
+
+    /**
+     * Waits until none of the connections of the pool of a registration are acquired anymore.
+     *
+     * @param registration is the registration to wait for.
+     * @return the statistics of the pool once all connections have been released.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    private PoolStatistics awaitReleased(Registration registration) throws InterruptedException {
+        PoolStatistics statistics = connectionPoolManager.getStatistics()
+                .get(registration.remoteAddress());
+        for (int i = 0; i < 100 && statistics.getAcquired() > 0; i++) {
+            Thread.sleep(10);
+            statistics = connectionPoolManager.getStatistics().get(registration.remoteAddress());
+        }
+        return statistics;
+    }
+
+    @Test
+    void testPoolIsDisposedOnEviction() {
+        Registration registration = new Registration("localhost", 8081);
+        connectionPoolManager.getWebClient(registration);
+
+        connectionPoolManager.onRegistrationEvicted(
+                new RegistrationEvictedEvent(this, "courses", registration));
+        assertThat(connectionPoolManager.getStatistics()).isEmpty();
+    }
+
+}
@@ -0,0 +1,93 @@
+package nl.tudelft.sem.gateway.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+public class StreamedExchangeTest {
+
+    private transient DirectProcessor<DataBuffer> upstreamBody;
+
+    private transient ClientResponse response;
+
+    private transient AtomicReference<SignalType> terminated;
+
+    @BeforeEach
+    void setup() {
+        upstreamBody = DirectProcessor.create();
+        response = mock(ClientResponse.class);
+        when(response.bodyToFlux(DataBuffer.class)).thenReturn(upstreamBody);
+        terminated = new AtomicReference<>();
+    }
+
+    /**
+     * Performs a streamed exchange that records how its call terminates.
+     *
+     * @param exchange is the exchange with the microservice.
+     * @return the body that is streamed to the caller.
+     */
+    private Flux<DataBuffer> stream(Mono<ClientResponse> exchange) {
+        return StreamedExchange.stream(exchange,
+                call -> call.doFinally(terminated::set),
+                (clientResponse, body) -> body).block();
+    }
+
+    @Test
+    void testCallEndsWithBody() {
+        Flux<DataBuffer> body = stream(Mono.just(response));
+        assertThat(terminated.get()).isNull();
+
+        body.subscribe();
+        assertThat(terminated.get()).isNull();
+        upstreamBody.onComplete();
+        assertThat(terminated.get()).isEqualTo(SignalType.ON_COMPLETE);
+    }
+
+    @Test
+    void testCallFailsWithBody() {
+        Flux<DataBuffer> body = stream(Mono.just(response));
+
+        body.subscribe(buffer -> { }, error -> { });
+        upstreamBody.onError(new IllegalStateException());
+        assertThat(terminated.get()).isEqualTo(SignalType.ON_ERROR);
+    }
+
+    @Test
+    void testCallIsCancelledWithBody() {
+        Flux<DataBuffer> body = stream(Mono.just(response));
+
+        Disposable subscription = body.subscribe();
+        subscription.dispose();
+        assertThat(terminated.get()).isEqualTo(SignalType.CANCEL);
+    }
+
+    @Test
+    void testExchangeFailure() {
+        assertThatThrownBy(() -> stream(Mono.error(new IllegalStateException())))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(terminated.get()).isEqualTo(SignalType.ON_ERROR);
+    }
+
+    @Test
+    void testCancelledBeforeResponse() {
+        Disposable subscription = StreamedExchange.stream(Mono.<ClientResponse>never(),
+                call -> call.doFinally(terminated::set),
+                (clientResponse, body) -> body).subscribe();
+
+        subscription.dispose();
+        assertThat(terminated.get()).isEqualTo(SignalType.CANCEL);
+    }
+
+}
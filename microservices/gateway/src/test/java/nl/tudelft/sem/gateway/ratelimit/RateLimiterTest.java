@@ -0,0 +1,101 @@
+package nl.tudelft.sem.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Map;
+import nl.tudelft.sem.gateway.config.RateLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    private static final String ROUTE = "declarations";
+    private static final String ADDRESS = "127.0.0.1";
+
+    private transient long nanos;
+
+    private transient RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup() {
+        nanos = 0;
+        RateLimitConfig.Route settings = new RateLimitConfig.Route();
+        settings.setPattern("/api/hour-management/declaration/**");
+        settings.setLimit(3);
+        settings.setPeriod(Duration.ofSeconds(3));
+
+        RateLimitConfig config = new RateLimitConfig();
+        config.setRoutes(Map.of(ROUTE, settings));
+        rateLimiter = new RateLimiter(config, new Ticker() {
+            @Override
+            public long read() {
+                return nanos;
+            }
+        });
+    }
+
+    @Test
+    void testFindRoute() {
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management/declaration"));
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management/declaration/1"));
+        assertNull(rateLimiter.findRoute("/api/users/by-userid"));
+    }
+
+    @Test
+    void testFindRouteNormalizesPath() {
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management/%64eclaration"));
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management/./declaration"));
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management/x/../declaration"));
+        assertEquals(ROUTE, rateLimiter.findRoute("/api//hour-management/declaration/"));
+        assertEquals(ROUTE, rateLimiter.findRoute("/api/hour-management;v=1/declaration"));
+        assertNull(rateLimiter.findRoute("/api/hour-management/declaration/../../users"));
+    }
+
+    @Test
+    void testBurstUpToLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS));
+        }
+        assertEquals(Duration.ofSeconds(1), rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS));
+    }
+
+    @Test
+    void testTokensAreReplenished() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS);
+        }
+
+        // Half a token has been added after half a second
+        nanos += Duration.ofMillis(500).toNanos();
+        assertEquals(Duration.ofMillis(500), rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS));
+
+        // A full token has been added after a second
+        nanos += Duration.ofMillis(500).toNanos();
+        assertNull(rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS));
+        assertThat(rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS)).isNotNull();
+    }
+
+    @Test
+    void testCallersHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS);
+        }
+        assertThat(rateLimiter.tryAcquire(ROUTE, 42L, ADDRESS)).isNotNull();
+
+        // Other users, and callers without a valid token, are limited separately
+        assertNull(rateLimiter.tryAcquire(ROUTE, 43L, ADDRESS));
+        assertNull(rateLimiter.tryAcquire(ROUTE, null, ADDRESS));
+    }
+
+    @Test
+    void testToRetryAfter() {
+        assertEquals("1", RateLimiter.toRetryAfter(Duration.ofMillis(1)));
+        assertEquals("2", RateLimiter.toRetryAfter(Duration.ofMillis(1001)));
+        assertEquals("30", RateLimiter.toRetryAfter(Duration.ofSeconds(30)));
+    }
+
+}
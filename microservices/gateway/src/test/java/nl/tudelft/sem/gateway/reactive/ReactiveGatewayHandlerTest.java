@@ -0,0 +1,221 @@
+package nl.tudelft.sem.gateway.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.gateway.controller.GatewayController;
+import nl.tudelft.sem.gateway.discovery.RegisteredInstance;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@AutoConfigureWebTestClient
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "gateway.cache.routes.cached.pattern=/api/reactive-cached-route/**",
+        "gateway.cache.routes.cached-hop-by-hop.pattern=/api/reactive-cached-hop-by-hop/**"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ReactiveGatewayHandlerTest {
+
+    private static final String API_PREFIX = "/api/";
+    private static final String authorizationToken = "myToken";
+
+    @Autowired
+    private transient WebTestClient webTestClient;
+
+    @Autowired
+    private transient ApplicationContext applicationContext;
+
+    @Autowired
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    private transient MockWebServer mockWebServer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void testServletControllersAreDisabled() {
+        assertThat(applicationContext.getBeansOfType(GatewayController.class)).isEmpty();
+    }
+
+    @Test
+    void testDefaultGatewayResponse() {
+        webTestClient.get().uri("/api")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello from Gateway!");
+    }
+
+    @Test
+    void testGatewayNoRegistration() {
+        webTestClient.get().uri("/api/non-existing")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testGatewayForwardsRequest() throws Exception {
+        // Register listener
+        String target = "reactive-registration";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("Hello test!"));
+
+        // Perform call to registered listener
+        webTestClient.post().uri(API_PREFIX + target + "/nested?page=2")
+                .header(HttpHeaders.AUTHORIZATION, authorizationToken)
+                .bodyValue("Request body")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(String.class).isEqualTo("Hello test!");
+
+        // Perform additional verification
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(HttpMethod.POST.name(), recordedRequest.getMethod());
+        assertEquals(API_PREFIX + target + "/nested?page=2", recordedRequest.getPath());
+        assertEquals(authorizationToken, recordedRequest.getHeader(HttpHeaders.AUTHORIZATION));
+        assertEquals("Request body", recordedRequest.getBody().readUtf8());
+    }
+
+    @Test
+    void testGatewayPassesErrorResponse() throws Exception {
+        // Register listener
+        String target = "reactive-invalid-response";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(400)
+                .setBody("No! This is bad!"));
+
+        // Perform call to registered listener
+        webTestClient.get().uri(API_PREFIX + target)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("No! This is bad!");
+
+        // A request without a body should be forwarded without one
+        RecordedRequest recordedRequest = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(recordedRequest);
+        assertEquals(0, recordedRequest.getBodySize());
+        assertThat(recordedRequest.getHeader(HttpHeaders.TRANSFER_ENCODING)).isNull();
+    }
+
+    @Test
+    void testGatewayMeasuresForwardedCall() throws InterruptedException {
+        // Register listener
+        String target = "reactive-measured-call";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue request to mock server
+        mockWebServer.enqueue(new MockResponse().setBody("Measured!"));
+
+        // Perform call to registered listener
+        webTestClient.get().uri(API_PREFIX + target)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Measured!");
+
+        // The load statistics of the instance should have been updated once the body was streamed
+        RegisteredInstance instance = discoveryRegistrarService.getInstanceIfExists(target);
+        for (int i = 0; i < 100 && instance.getOutstandingRequests() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, instance.getOutstandingRequests());
+        assertTrue(instance.getPeakEwmaLatency() > 0);
+    }
+
+    @Test
+    void testGatewayServesCachedRoute() {
+        // Register listener
+        String target = "reactive-cached-route";
+        HttpUrl url = mockWebServer.url(API_PREFIX + target);
+        discoveryRegistrarService.addRegistration(target, new Registration(url.host(), url.port()));
+
+        // Enqueue a single response to mock server
+        mockWebServer.enqueue(new MockResponse().setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setBody("Cached!"));
+
+        // Perform the same call twice, of which only the first reaches the listener
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri(API_PREFIX + target + "/1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).isEqualTo("Cached!");
+        }
+
+        // Callers that already have the response receive a 304 (Not Modified)
+        webTestClient.get().uri(API_PREFIX + target + "/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"v1\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testGatewayStripsHopByHopHeaders() {
+        // Register listeners
+        for (String target : new String[] {"reactive-hop-by-hop", "reactive-cached-hop-by-hop"}) {
+            HttpUrl url = mockWebServer.url(API_PREFIX + target);
+            discoveryRegistrarService.addRegistration(target,
+                    new Registration(url.host(), url.port()));
+        }
+
+        // Both streamed and cached responses only pass on the end-to-end headers
+        for (String path : new String[] {"reactive-hop-by-hop", "reactive-cached-hop-by-hop/1"}) {
+            mockWebServer.enqueue(new MockResponse()
+                    .addHeader(HttpHeaders.CONNECTION, "X-Upstream")
+                    .addHeader("X-Upstream", "connection")
+                    .addHeader("Keep-Alive", "timeout=5")
+                    .addHeader("X-Custom", "custom")
+                    .setChunkedBody("Hello chunks!", 4));
+
+            webTestClient.get().uri(API_PREFIX + path)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals("X-Custom", "custom")
+                    .expectHeader().doesNotExist(HttpHeaders.CONNECTION)
+                    .expectHeader().doesNotExist("Keep-Alive")
+                    .expectHeader().doesNotExist("X-Upstream")
+                    .expectBody(String.class).isEqualTo("Hello chunks!");
+        }
+    }
+
+}
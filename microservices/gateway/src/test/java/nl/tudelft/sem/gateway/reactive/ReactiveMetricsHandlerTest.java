@@ -0,0 +1,100 @@
+package nl.tudelft.sem.gateway.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import nl.tudelft.sem.gateway.service.DiscoveryRegistrarService;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "gateway.metrics.enabled=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class ReactiveMetricsHandlerTest {
+
+    @Autowired
+    private transient ApplicationContext applicationContext;
+
+    @Autowired
+    private transient DiscoveryRegistrarService discoveryRegistrarService;
+
+    private transient MockWebServer mockWebServer;
+
+    @BeforeEach
+    void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    /**
+     * Creates a client of which the calls arrive from the given address.
+     *
+     * @param address is the IP address of the caller.
+     * @return the client.
+     */
+    private WebTestClient clientFrom(String address) {
+        InetSocketAddress remoteAddress = new InetSocketAddress(address, 12345);
+        return WebTestClient.bindToApplicationContext(applicationContext)
+                .webFilter((exchange, chain) -> chain.filter(exchange.mutate()
+                        .request(new ServerHttpRequestDecorator(exchange.getRequest()) {
+                            @Override
+                            public InetSocketAddress getRemoteAddress() {
+                                return remoteAddress;
+                            }
+                        })
+                        .build()))
+                .build();
+    }
+
+    @Test
+    void testForwardedCallsAreExposed() {
+        HttpUrl url = mockWebServer.url("/");
+        discoveryRegistrarService.addRegistration("reactive-metrics-target",
+                new Registration(url.host(), url.port()));
+        mockWebServer.enqueue(new MockResponse().setBody("Hello test!"));
+
+        WebTestClient client = clientFrom("127.0.0.1");
+        client.get().uri("/api/reactive-metrics-target/get/12")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Hello test!");
+
+        String metrics = client.get().uri("/gateway/metrics")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+                .expectBody(String.class).returnResult().getResponseBody();
+        assertThat(metrics).contains("gateway_responses_total{"
+                + "target=\"reactive-metrics-target\",method=\"GET\","
+                + "route=\"/api/reactive-metrics-target/get/{id}\",instance=\""
+                + url.host() + ":" + url.port() + "\",class=\"2xx\"} 1");
+    }
+
+    @Test
+    void testRemoteCallerIsForbidden() {
+        clientFrom("10.0.0.1").get().uri("/gateway/metrics")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+}
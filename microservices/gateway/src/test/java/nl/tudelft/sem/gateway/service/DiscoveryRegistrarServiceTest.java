@@ -0,0 +1,146 @@
+package nl.tudelft.sem.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nl.tudelft.sem.gateway.balancing.strategies.PeakEwmaStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.RoundRobinStrategy;
+import nl.tudelft.sem.gateway.balancing.strategies.StrategyType;
+import nl.tudelft.sem.gateway.config.BalancingConfig;
+import nl.tudelft.sem.gateway.config.CircuitBreakerConfig;
+import nl.tudelft.sem.gateway.discovery.DiscoveryFeed;
+import nl.tudelft.sem.gateway.discovery.Registration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class DiscoveryRegistrarServiceTest {
+
+    private static final String TARGET = "courses";
+
+    @Test
+    void testEmptyRegistrar() {
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService();
+        assertFalse(service.containsRegistration(TARGET));
+        assertNull(service.getRegistrationIfExists(TARGET));
+        assertThat(service.getRegistries()).isEmpty();
+    }
+
+    @Test
+    void testAddRegistration() {
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService();
+        Registration registration = new Registration("localhost", 8082);
+        service.addRegistration(TARGET, registration);
+
+        assertTrue(service.containsRegistration(TARGET));
+        assertThat(service.getRegistrationIfExists(TARGET)).isEqualTo(registration);
+        assertThat(service.getRegistries()).containsOnlyKeys(TARGET);
+    }
+
+    @Test
+    void testConfiguredBalancingStrategy() {
+        BalancingConfig config = new BalancingConfig();
+        config.setStrategies(Map.of(TARGET, StrategyType.PEAK_EWMA));
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService(config,
+                new CircuitBreakerConfig(), event -> { });
+        service.addRegistration(TARGET, new Registration("localhost", 8082));
+        service.addRegistration("users", new Registration("localhost", 8083));
+
+        assertThat(service.getRegistries().get(TARGET).getBalancingStrategy())
+                .isInstanceOf(PeakEwmaStrategy.class);
+        assertThat(service.getRegistries().get("users").getBalancingStrategy())
+                .isInstanceOf(RoundRobinStrategy.class);
+    }
+
+    @Test
+    void testConcurrentHeartbeatsOfManyInstances() throws Exception {
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // Every thread registers its own instance for a few shared targets at the same time
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int port = 9000 + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int target = 0; target < 4; target++) {
+                        service.addRegistration("target-" + target,
+                                new Registration("localhost", port));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // No registry or registration should have been lost
+        assertThat(service.getRegistries()).hasSize(4);
+        for (int target = 0; target < 4; target++) {
+            List<Integer> ports = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                ports.add(service.getRegistrationIfExists("target-" + target).getPort());
+            }
+            assertThat(ports).doesNotHaveDuplicates().hasSize(threads);
+        }
+    }
+
+    @Test
+    void testFeedContainsRoutableRegistrations() {
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService();
+        Registration draining = new Registration("localhost", 8082);
+        Registration other = new Registration("localhost", 8083);
+        Registration ejected = new Registration("localhost", 8084);
+        service.addRegistration(TARGET, draining);
+        service.addRegistration(TARGET, other);
+        service.addRegistration(TARGET, ejected);
+        service.getRegistries().get(TARGET).getInstances().get(0).onRequestStarted();
+        service.drainRegistration(TARGET, draining, Duration.ofSeconds(30));
+        for (int i = 0; i < 20; i++) {
+            service.getRegistries().get(TARGET).getInstances().get(2).recordFailure(0);
+        }
+
+        DiscoveryFeed feed = service.getFeed();
+        assertThat(feed.getVersion()).isEqualTo(4);
+        assertThat(feed.getTargets()).containsOnlyKeys(TARGET);
+        assertThat(feed.getTargets().get(TARGET)).containsExactly(other);
+    }
+
+    @Test
+    void testAwaitChange() {
+        DiscoveryRegistrarService service = new DiscoveryRegistrarService();
+        service.addRegistration(TARGET, new Registration("localhost", 8082));
+        long version = service.getFeed().getVersion();
+
+        // Versions that are outdated are answered immediately
+        assertThat(service.awaitChange(version - 1, Duration.ZERO).block()).isEqualTo(version);
+
+        // Heartbeats of existing registrations are not a change, hence the wait times out
+        Mono<Long> change = service.awaitChange(version, Duration.ofSeconds(5)).cache();
+        change.subscribe();
+        service.addRegistration(TARGET, new Registration("localhost", 8082));
+        assertThat(service.awaitChange(version, Duration.ofMillis(10)).block())
+                .isEqualTo(version);
+
+        // New registrations are
+        service.addRegistration(TARGET, new Registration("localhost", 8083));
+        assertThat(change.block(Duration.ofSeconds(1))).isEqualTo(version + 1);
+    }
+
+}
@@ -1,5 +1,7 @@
 package nl.tudelft.sem.hiring.procedure;
 
+import nl.tudelft.sem.deadline.DeadlineConfig;
+import nl.tudelft.sem.discovery.DiscoveryClientConfig;
 import nl.tudelft.sem.heartbeat.HeartbeatConfig;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.boot.SpringApplication;
@@ -7,7 +9,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
-@Import({HeartbeatConfig.class, JwtUtils.class})
+@Import({DeadlineConfig.class, DiscoveryClientConfig.class, HeartbeatConfig.class,
+        JwtUtils.class})
 public class HiringProcedureMain {
 
     public static void main(String[] args) {
@@ -3,6 +3,8 @@ package nl.tudelft.sem.hiring.procedure.cache;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.time.Duration;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -38,17 +40,19 @@ public class CourseInfoResponseCache {
                 .maximumSize(100)
                 .expireAfterWrite(CACHE_INVALIDATION)
                 .build();
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     /**
      * Retrieves the course info response from the cache. If the response is not in the cache,
      * fetch it from the course microservice.
      *
+     * @param headers  are the headers of the request, of which the Authorization and deadline
+     *                 headers are forwarded.
      * @param courseId is the id of the course to retrieve the response for.
      * @return the course info response that might become available in the future.
      */
-    public Mono<String> getCourseInfoResponse(String authorization, long courseId) {
+    public Mono<String> getCourseInfoResponse(HttpHeaders headers, long courseId) {
         String response = courseInfoCache.getIfPresent(courseId);
         if (response != null) {
             return Mono.just(response);
@@ -62,7 +66,8 @@ public class CourseInfoResponseCache {
                         .port(gatewayConfig.getPort())
                         .pathSegment("api", "courses", "get", String.valueOf(courseId))
                         .toUriString())
-                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(clientResponse -> {
                     if (clientResponse.statusCode().isError()) {
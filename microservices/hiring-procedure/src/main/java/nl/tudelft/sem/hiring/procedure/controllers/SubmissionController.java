@@ -12,6 +12,8 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import lombok.Data;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.cache.CourseInfoResponseCache;
 import nl.tudelft.sem.hiring.procedure.contracts.Contract;
 import nl.tudelft.sem.hiring.procedure.contracts.ContractDto;
@@ -72,7 +74,7 @@ public class SubmissionController {
         this.submissionService = submissionService;
         this.notificationService = notificationService;
         this.courseInfoCache = courseInfoCache;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
         this.jwtUtils = jwtUtils;
         this.gatewayConfig = gatewayConfig;
         this.validatorDirector = new AsyncValidatorDirector(jwtUtils, gatewayConfig,
@@ -177,7 +179,7 @@ public class SubmissionController {
             notificationService.notify(userId,
                     String.format("Your submission with id %s has been approved.",
                             submissionId),
-                    authHeader.getFirst(HttpHeaders.AUTHORIZATION));
+                    authHeader);
             return Mono.empty();
         });
     }
@@ -218,7 +220,7 @@ public class SubmissionController {
             notificationService.notify(submission.getUserId(),
                     String.format("Your submission with id %s has been rejected.",
                             submissionId),
-                    headers.getFirst(HttpHeaders.AUTHORIZATION));
+                    headers);
             return Mono.empty();
         });
     }
@@ -288,13 +290,12 @@ public class SubmissionController {
 
         return head.validate(headers, "").flatMap(value -> {
             Contract contract = new Contract();
-            String token = headers.getFirst(HttpHeaders.AUTHORIZATION);
-            Mono<JsonObject> courseInfo = getCourseInfoFromCourseId(courseId, token);
+            Mono<JsonObject> courseInfo = getCourseInfoFromCourseId(courseId, headers);
             long ownUserId = getUserIdFromToken(headers);
 
             if (userId != null && userId != ownUserId) {
                 // Only admin/lecturers are allowed to do this
-                return getNameFromUserId(userId, token)
+                return getNameFromUserId(userId, headers)
                         .doOnError(e -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
                                 USER_NOT_FOUND)))
                         .flatMap(retrievedName -> {
@@ -491,7 +492,7 @@ public class SubmissionController {
         return jwtUtils.getUserId(userClaims);
     }
 
-    private Mono<String> getNameFromUserId(Long userId, String token) {
+    private Mono<String> getNameFromUserId(Long userId, HttpHeaders headers) {
         return webClient.get()
                 .uri(UriComponentsBuilder.newInstance()
                         .scheme("http")
@@ -500,7 +501,8 @@ public class SubmissionController {
                         .pathSegment("api", "users", "by_userid")
                         .queryParam("userId", userId)
                         .toUriString())
-                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(clientResponse -> {
                     if (clientResponse.statusCode().isError()) {
@@ -516,7 +518,7 @@ public class SubmissionController {
                 });
     }
 
-    private Mono<JsonObject> getCourseInfoFromCourseId(Long courseId, String token) {
+    private Mono<JsonObject> getCourseInfoFromCourseId(Long courseId, HttpHeaders headers) {
         return webClient.get()
                 .uri(UriComponentsBuilder.newInstance()
                         .scheme("http")
@@ -524,7 +526,8 @@ public class SubmissionController {
                         .port(gatewayConfig.getPort())
                         .pathSegment("api", "courses", "get", courseId.toString())
                         .toUriString())
-                .header(HttpHeaders.AUTHORIZATION, token)
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(clientResponse -> {
                     if (clientResponse.statusCode().isError()) {
@@ -68,37 +68,37 @@ public class RecommendationController {
                         Set.of(AsyncRoleValidator.Roles.LECTURER, AsyncRoleValidator.Roles.ADMIN)))
                 .build();
         return head.validate(headers, body).flatMap(value ->
-                parseBodyAndRecommend(body, headers.getFirst(HttpHeaders.AUTHORIZATION)));
+                parseBodyAndRecommend(body, headers));
     }
 
 
     /**
      * A helper method that selects the specified strategy and makes recommendations.
      *
-     * @param req   the object with the parameters for recommendation
-     * @param jwt   the jwt token of the caller
+     * @param req     the object with the parameters for recommendation
+     * @param headers the headers of the request of the caller
      * @return the list of recommendations for candidate TAs based on the specified metric
      *         (wrapped in the mono). The size of the list is at most `amount`.
      */
-    private Mono<List<Recommendation>> recommend(RecommendationRequest req, String jwt) {
+    private Mono<List<Recommendation>> recommend(RecommendationRequest req, HttpHeaders headers) {
         Recommender strategy = RecommenderFactory
-            .create(repo, gatewayConfig, jwt, req.getStrategy());
+            .create(repo, gatewayConfig, headers, req.getStrategy());
         return strategy.recommend(req.getCourseId(), req.getAmount(), req.getMinValue());
     }
 
     /**
      * A helper method to parse the request JSON body and recommend candidate TAs.
      *
-     * @param body          HTTP request body
-     * @param authorization the authorization token of the caller
+     * @param body    HTTP request body
+     * @param headers the headers of the request of the caller
      * @return the list of recommendations for candidate TAs based on the specified metric
      *         (wrapped in the mono).
      */
-    private Mono<List<Recommendation>> parseBodyAndRecommend(String body, String authorization) {
+    private Mono<List<Recommendation>> parseBodyAndRecommend(String body, HttpHeaders headers) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             RecommendationRequest req = mapper.readValue(body, RecommendationRequest.class);
-            return recommend(req, authorization);
+            return recommend(req, headers);
         } catch (JsonProcessingException e) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Invalid request body format"));
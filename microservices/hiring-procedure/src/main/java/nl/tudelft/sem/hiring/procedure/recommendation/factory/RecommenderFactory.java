@@ -8,6 +8,7 @@ import nl.tudelft.sem.hiring.procedure.recommendation.strategies.TimesSelectedSt
 import nl.tudelft.sem.hiring.procedure.recommendation.strategies.TotalTimesSelectedStrategy;
 import nl.tudelft.sem.hiring.procedure.repositories.SubmissionRepository;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
+import org.springframework.http.HttpHeaders;
 
 /**
  * A factory class that creates different recommenders
@@ -24,22 +25,22 @@ public class RecommenderFactory {
      *
      * @param repo              the submission repository
      * @param config            the gateway config
-     * @param jwt               the jwt token of the requester
+     * @param headers           the headers of the request of the requester
      * @param strategyType      the type of the recommendation strategy
      * @return recommender object with the required strategy
      */
     public static Recommender create(SubmissionRepository repo, GatewayConfig config,
-                                     String jwt, StrategyType strategyType) {
+                                     HttpHeaders headers, StrategyType strategyType) {
         switch (strategyType) {
             case TOTAL_TIMES_SELECTED:
-                return new TotalTimesSelectedStrategy(repo, config, jwt);
+                return new TotalTimesSelectedStrategy(repo, config, headers);
             case TIMES_SELECTED:
-                return new TimesSelectedStrategy(repo, config, jwt);
+                return new TimesSelectedStrategy(repo, config, headers);
             case GRADE:
-                return new GradeStrategy(repo, config, jwt);
+                return new GradeStrategy(repo, config, headers);
             //HOURS
             default:
-                return new HoursStrategy(repo, config, jwt);
+                return new HoursStrategy(repo, config, headers);
         }
     }
 }
@@ -7,6 +7,7 @@ import java.util.List;
 import nl.tudelft.sem.hiring.procedure.recommendation.entities.Recommendation;
 import nl.tudelft.sem.hiring.procedure.repositories.SubmissionRepository;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
@@ -23,11 +24,11 @@ public class HoursStrategy extends RecommendationStrategyBase {
      *
      * @param repo          the TA application repository.
      * @param gatewayConfig the gateway configuration.
-     * @param authorization the authorization token of the caller.
+     * @param headers       the headers of the request of the caller.
      */
     public HoursStrategy(SubmissionRepository repo, GatewayConfig gatewayConfig,
-                         String authorization) {
-        super(repo, gatewayConfig, authorization);
+                         HttpHeaders headers) {
+        super(repo, gatewayConfig, headers);
     }
 
     /**
@@ -51,8 +52,10 @@ public class HoursStrategy extends RecommendationStrategyBase {
                     "Could not find any applicants"));
         }
 
-        String uri = buildUriWithCourseId(gatewayConfig.getHost(), gatewayConfig.getPort(),
-            courseId, "api", "courses", "get-all-editions");
+        String uri = gatewayConfig.uriBuilder("courses")
+            .pathSegment("api", "courses", "get-all-editions")
+            .queryParam("courseId", courseId)
+            .toUriString();
         return this.get(uri, authorization)
                 .flatMap(response -> processMono(response, body ->
                                 processMonoBodyFromCourses(body, amount, minHours, applicants)));
@@ -83,8 +86,9 @@ public class HoursStrategy extends RecommendationStrategyBase {
             objectNode.set("userIds", mapper.valueToTree(userIds));
             objectNode.set("courseIds", mapper.valueToTree(courseIds));
 
-            String uri = buildUri(gatewayConfig.getHost(), gatewayConfig.getPort(),
-                "api", "hour-management", "statistics", "total-user-hours");
+            String uri = gatewayConfig.uriBuilder("hour-management")
+                .pathSegment("api", "hour-management", "statistics", "total-user-hours")
+                .toUriString();
             return this.post(uri, objectNode.toString(), authorization)
                     .flatMap(response ->
                             processMono(response, this::processMonoBodyFromHours));
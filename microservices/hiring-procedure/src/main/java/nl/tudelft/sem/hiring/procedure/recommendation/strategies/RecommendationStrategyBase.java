@@ -8,6 +8,8 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.recommendation.entities.Recommendation;
 import nl.tudelft.sem.hiring.procedure.repositories.SubmissionRepository;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
@@ -38,6 +40,8 @@ public abstract class RecommendationStrategyBase implements Recommender {
 
     protected final transient String authorization;
 
+    protected final transient HttpHeaders headers;
+
     private static final transient String SCHEME = "http";
 
     /**
@@ -45,14 +49,16 @@ public abstract class RecommendationStrategyBase implements Recommender {
      *
      * @param repo          the TA application repository.
      * @param gatewayConfig the gateway configuration.
-     * @param authorization the authorization token of the caller.
+     * @param headers       the headers of the request of the caller, of which the Authorization
+     *                      and deadline headers are forwarded.
      */
     public RecommendationStrategyBase(SubmissionRepository repo, GatewayConfig gatewayConfig,
-                                      String authorization) {
+                                      HttpHeaders headers) {
         this.repo = repo;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
         this.gatewayConfig = gatewayConfig;
-        this.authorization = authorization;
+        this.authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        this.headers = headers;
     }
 
     /**
@@ -69,6 +75,7 @@ public abstract class RecommendationStrategyBase implements Recommender {
             .post()
             .uri(uri)
             .header(HttpHeaders.AUTHORIZATION, authorization)
+            .headers(Deadline.propagate(headers))
             .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .body(Mono.just(body), String.class)
             .exchange();
@@ -88,6 +95,7 @@ public abstract class RecommendationStrategyBase implements Recommender {
             .get()
             .uri(uri)
             .header(HttpHeaders.AUTHORIZATION, authorization)
+            .headers(Deadline.propagate(headers))
             .exchange();
     }
 
@@ -6,6 +6,7 @@ import nl.tudelft.sem.hiring.procedure.recommendation.entities.Recommendation;
 import nl.tudelft.sem.hiring.procedure.repositories.SubmissionRepository;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
@@ -22,11 +23,11 @@ public class TotalTimesSelectedStrategy extends RecommendationStrategyBase {
      *
      * @param repo the TA application repository
      * @param gatewayConfig the gateway configuration.
-     * @param authorization the authorization token of the caller.
+     * @param headers       the headers of the request of the caller.
      */
     public TotalTimesSelectedStrategy(SubmissionRepository repo, GatewayConfig gatewayConfig,
-                                      String authorization) {
-        super(repo, gatewayConfig, authorization);
+                                      HttpHeaders headers) {
+        super(repo, gatewayConfig, headers);
     }
 
     /**
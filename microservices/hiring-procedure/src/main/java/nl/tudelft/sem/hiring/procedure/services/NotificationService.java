@@ -2,12 +2,13 @@ package nl.tudelft.sem.hiring.procedure.services;
 
 import com.google.gson.JsonObject;
 import lombok.Getter;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 @Getter
@@ -23,7 +24,7 @@ public class NotificationService {
      * @param gatewayConfig is the gateway configuration.
      */
     public NotificationService(GatewayConfig gatewayConfig) {
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
         this.gatewayConfig = gatewayConfig;
     }
 
@@ -32,21 +33,20 @@ public class NotificationService {
      *
      * @param userId             is the ID of the user to send the notification to.
      * @param message            is the message of the notification.
-     * @param authorizationToken is the authorization token of the user.
+     * @param headers            are the headers of the request, of which the Authorization and
+     *                           deadline headers are forwarded.
      */
-    public Mono<Void> notify(long userId, String message, String authorizationToken) {
+    public Mono<Void> notify(long userId, String message, HttpHeaders headers) {
         JsonObject requestBody = new JsonObject();
         requestBody.addProperty("userId", userId);
         requestBody.addProperty("message", message);
 
         return webClient.post()
-                .uri(UriComponentsBuilder.newInstance()
-                        .scheme("http")
-                        .host(getGatewayConfig().getHost())
-                        .port(getGatewayConfig().getPort())
+                .uri(getGatewayConfig().uriBuilder("auth")
                         .pathSegment("api", "auth", "notifications", "add")
                         .toUriString())
-                .header(HttpHeaders.AUTHORIZATION, authorizationToken)
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .body(Mono.just(requestBody.toString()), String.class)
                 .exchange()
                 .flatMap(response -> {
@@ -1,9 +1,13 @@
 package nl.tudelft.sem.hiring.procedure.utils;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import nl.tudelft.sem.discovery.DiscoveryClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @Getter
 @Setter
@@ -12,4 +16,37 @@ import org.springframework.context.annotation.Configuration;
 public class GatewayConfig {
     private String host;
     private int port;
+
+    // Discovery client used to call microservices directly, or null if not available
+    @Getter(AccessLevel.NONE)
+    private transient DiscoveryClient discoveryClient;
+
+    /**
+     * Sets the discovery client, which is used to call microservices directly instead of through
+     * the gateway.
+     *
+     * @param discoveryClient is the discovery client.
+     */
+    @Autowired(required = false)
+    public void setDiscoveryClient(DiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
+    /**
+     * Creates a URI builder for a call to the target microservice. The discovery client decides
+     * where the call goes if it is available (see {@link DiscoveryClient#uriBuilder(String)}), and
+     * the builder points to the gateway otherwise.
+     *
+     * @param target is the name of the targeted microservice.
+     * @return the URI builder, of which the scheme, host and port are set.
+     */
+    public UriComponentsBuilder uriBuilder(String target) {
+        if (discoveryClient != null) {
+            return discoveryClient.uriBuilder(target);
+        }
+        return UriComponentsBuilder.newInstance()
+                .scheme("http")
+                .host(host)
+                .port(port);
+    }
 }
@@ -1,6 +1,7 @@
 package nl.tudelft.sem.hiring.procedure.validation;
 
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,9 @@ public class AsyncAuthValidator extends AsyncBaseValidator {
     // JWT utility token
     private final transient JwtUtils jwtUtils;
 
+    // Resolves the identity of the user from the identity header or the JWT token
+    private final transient IdentityResolver identityResolver;
+
     /**
      * Constructor.
      *
@@ -19,6 +23,7 @@ public class AsyncAuthValidator extends AsyncBaseValidator {
      */
     public AsyncAuthValidator(JwtUtils jwtUtils) {
         this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
     }
 
     @Override
@@ -37,8 +42,8 @@ public class AsyncAuthValidator extends AsyncBaseValidator {
                     "Invalid JWT token, please try again."));
         }
 
-        // Check validity of JWT token, in case of failure, return error
-        if (jwtUtils.validateAndParseClaims(token) == null) {
+        // Check validity of the identity header or JWT token, in case of failure, return error
+        if (identityResolver.resolve(headers) == null) {
             return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
                     "Invalid authorization token. Try to login before proceeding."));
         }
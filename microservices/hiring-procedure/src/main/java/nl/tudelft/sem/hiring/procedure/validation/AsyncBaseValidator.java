@@ -2,8 +2,11 @@ package nl.tudelft.sem.hiring.procedure.validation;
 
 import javax.validation.constraints.NotNull;
 import lombok.Getter;
+import nl.tudelft.sem.deadline.Deadline;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 public abstract class AsyncBaseValidator implements AsyncValidator {
@@ -18,7 +21,8 @@ public abstract class AsyncBaseValidator implements AsyncValidator {
     }
 
     /**
-     * Evaluates the next validator in the chain, if exists.
+     * Evaluates the next validator in the chain, if exists. The chain is abandoned once the
+     * deadline of the request has passed.
      *
      * @param headers The headers of the request.
      * @param body    The body of the request.
@@ -28,6 +32,11 @@ public abstract class AsyncBaseValidator implements AsyncValidator {
         if (next == null) {
             return Mono.just(true);
         }
+        Deadline deadline = Deadline.from(headers);
+        if (deadline != null && deadline.isExpired()) {
+            return Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "The deadline of the request has passed"));
+        }
         return next.validate(headers, body);
     }
 }
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.entities.Submission;
 import nl.tudelft.sem.hiring.procedure.services.SubmissionService;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
@@ -50,7 +52,7 @@ public class AsyncCourseCandidacyValidator extends AsyncBaseValidator {
         this.submissionService = submissionService;
         this.gatewayConfig = gatewayConfig;
         this.courseId = courseId;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
@@ -68,6 +70,7 @@ public class AsyncCourseCandidacyValidator extends AsyncBaseValidator {
                         .pathSegment("api", "courses", "get-multiple")
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .body(Mono.just(requestBody.toString()), String.class)
                 .exchange()
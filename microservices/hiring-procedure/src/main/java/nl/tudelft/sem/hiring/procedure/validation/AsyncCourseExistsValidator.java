@@ -29,8 +29,7 @@ public class AsyncCourseExistsValidator extends AsyncBaseValidator {
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        return courseInfoCache.getCourseInfoResponse(headers.getFirst(HttpHeaders.AUTHORIZATION),
-                        courseId)
+        return courseInfoCache.getCourseInfoResponse(headers, courseId)
                 .flatMap(response -> evaluateNext(headers, body));
     }
 }
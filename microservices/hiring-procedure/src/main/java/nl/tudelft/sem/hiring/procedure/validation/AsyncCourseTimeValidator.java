@@ -32,8 +32,7 @@ public class AsyncCourseTimeValidator extends AsyncBaseValidator {
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        String authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
-        return courseInfoCache.getCourseInfoResponse(authorization, courseId)
+        return courseInfoCache.getCourseInfoResponse(headers, courseId)
                 .flatMap(responseBody -> {
                     var response = JsonParser.parseString(responseBody).getAsJsonObject();
                     var start = ZonedDateTime.parse(response.get("startDate").getAsString());
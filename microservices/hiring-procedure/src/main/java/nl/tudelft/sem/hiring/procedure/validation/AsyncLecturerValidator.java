@@ -1,22 +1,23 @@
 package nl.tudelft.sem.hiring.procedure.validation;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 public class AsyncLecturerValidator extends AsyncBaseValidator {
     // WebClient used to communicate with the hiring microservice
     private final transient WebClient webClient;
 
-    // JWT utility library for parsing the authorization header
-    private final transient JwtUtils jwtUtils;
+    // Resolves the identity of the user from the identity header or the JWT token
+    private final transient IdentityResolver identityResolver;
 
     // Gateway configuration
     private final transient GatewayConfig gatewayConfig;
@@ -32,36 +33,33 @@ public class AsyncLecturerValidator extends AsyncBaseValidator {
      * @param courseId      The ID of the course.
      */
     public AsyncLecturerValidator(JwtUtils jwtUtils, GatewayConfig gatewayConfig, Long courseId) {
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
         this.gatewayConfig = gatewayConfig;
         this.courseId = courseId;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        // Parse the authorization token to retrieve the role and user ID
-        String token = jwtUtils.resolveToken(headers.getFirst(HttpHeaders.AUTHORIZATION));
-        Jws<Claims> claims = jwtUtils.validateAndParseClaims(token);
+        // Resolve the identity of the user to retrieve the role and user ID
+        Identity identity = identityResolver.resolve(headers);
 
         // Admins do not have to be lecturers, therefore they should be able to bypass this check
-        if (jwtUtils.getRole(claims).equals(AsyncRoleValidator.Roles.ADMIN.name())) {
+        if (identity.getRole().equals(AsyncRoleValidator.Roles.ADMIN.name())) {
             return evaluateNext(headers, body);
         }
 
-        // Retrieve the ID of the user from the token
-        Long userId = jwtUtils.getUserId(claims);
+        // Retrieve the ID of the user from the identity
+        Long userId = identity.getUserId();
 
         // Initiate the request and forward the response to the next validator (if any)
         return webClient.get()
-                .uri(UriComponentsBuilder.newInstance()
-                        .scheme("http")
-                        .host(gatewayConfig.getHost())
-                        .port(gatewayConfig.getPort())
+                .uri(gatewayConfig.uriBuilder("courses")
                         .pathSegment("api", "courses", "get", "teaches",
                                 String.valueOf(userId), String.valueOf(courseId))
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(response -> {
                     if (response.statusCode().isError()) {
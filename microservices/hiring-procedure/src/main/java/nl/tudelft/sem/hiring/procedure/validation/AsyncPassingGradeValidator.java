@@ -1,6 +1,8 @@
 package nl.tudelft.sem.hiring.procedure.validation;
 
 import com.google.gson.JsonParser;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
@@ -38,7 +40,7 @@ public class AsyncPassingGradeValidator extends AsyncBaseValidator {
         this.jwtUtils = jwtUtils;
         this.gatewayConfig = gatewayConfig;
         this.courseId = courseId;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
@@ -60,6 +62,7 @@ public class AsyncPassingGradeValidator extends AsyncBaseValidator {
                         .queryParam("userId", userId)
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, token)
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(clientResponse -> {
                     if (clientResponse.statusCode().isError()) {
@@ -1,9 +1,9 @@
 package nl.tudelft.sem.hiring.procedure.validation;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import java.util.Set;
 import lombok.Getter;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -18,7 +18,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
         ADMIN
     }
 
-    private final transient JwtUtils jwtUtils;
+    private final transient IdentityResolver identityResolver;
 
     @Getter
     private final transient Set<Roles> authorizedRoles;
@@ -29,7 +29,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
      * @param jwtUtils A JWTUtils library instance to help with the validation.
      */
     public AsyncRoleValidator(JwtUtils jwtUtils) {
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
         this.authorizedRoles = Set.of(Roles.ADMIN);
     }
 
@@ -40,18 +40,17 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
      * @param authorizedRoles List of roles that are authorized to access the endpoint.
      */
     public AsyncRoleValidator(JwtUtils jwtUtils, Set<Roles> authorizedRoles) {
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
         this.authorizedRoles = authorizedRoles;
 
     }
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        // Because each chain start with Auth, it is fine to directly extract the JWT token
-        Jws<Claims> claims = jwtUtils.validateAndParseClaims(
-                jwtUtils.resolveToken(headers.getFirst("Authorization")));
+        // Because each chain start with Auth, it is fine to directly extract the identity
+        Identity identity = identityResolver.resolve(headers);
 
-        if (!authorizedRoles.contains(Roles.valueOf(jwtUtils.getRole(claims)))) {
+        if (!authorizedRoles.contains(Roles.valueOf(identity.getRole()))) {
             return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
                     "You do not have the permission to access this service."));
         }
@@ -35,8 +35,7 @@ public class AsyncTaLimitValidator extends AsyncBaseValidator {
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        return courseInfoCache.getCourseInfoResponse(headers.getFirst(HttpHeaders.AUTHORIZATION),
-                        courseId)
+        return courseInfoCache.getCourseInfoResponse(headers, courseId)
                 .flatMap(responseBody -> {
                     var response = JsonParser.parseString(responseBody).getAsJsonObject();
 
@@ -1,6 +1,8 @@
 package nl.tudelft.sem.hiring.procedure.validation;
 
 import com.google.gson.JsonObject;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -32,7 +34,7 @@ public class AsyncUserExistsValidator extends AsyncBaseValidator {
     public AsyncUserExistsValidator(GatewayConfig gatewayConfig, long userId) {
         this.gatewayConfig = gatewayConfig;
         this.userId = userId;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
@@ -45,6 +47,7 @@ public class AsyncUserExistsValidator extends AsyncBaseValidator {
                         .queryParam("userId", userId)
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(clientResponse -> {
                     if (clientResponse.statusCode().isError()) {
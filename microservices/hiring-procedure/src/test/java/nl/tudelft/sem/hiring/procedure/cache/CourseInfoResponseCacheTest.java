@@ -7,9 +7,11 @@ import static org.mockito.Mockito.when;
 
 import com.google.gson.JsonObject;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import nl.tudelft.sem.deadline.Deadline;
 import nl.tudelft.sem.hiring.procedure.utils.GatewayConfig;
 import okhttp3.HttpUrl;
 import okhttp3.mockwebserver.MockResponse;
@@ -60,6 +62,48 @@ public class CourseInfoResponseCacheTest {
         mockWebServer.shutdown();
     }
 
+    /**
+     * Creates the headers of a request with the authorization token.
+     *
+     * @return the headers.
+     */
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, AUTHORIZATION_TOKEN);
+        return headers;
+    }
+
+    @Test
+    public void testGetCourseInfoForwardsDeadline() throws InterruptedException {
+        // Enqueue response and setup parameters
+        long courseId = 1337;
+        mockWebServer.enqueue(new MockResponse().setBody(new JsonObject().toString()));
+        HttpHeaders headers = headers();
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        deadline.applyTo(headers);
+
+        // Fetch course information
+        assertEquals(new JsonObject().toString(),
+                cache.getCourseInfoResponse(headers, courseId).block());
+
+        // Verify that the deadline was forwarded
+        RecordedRequest request = mockWebServer.takeRequest(10, TimeUnit.MILLISECONDS);
+        assertNotNull(request);
+        assertEquals(deadline.toString(), request.getHeader(Deadline.HEADER));
+    }
+
+    @Test
+    public void testGetCourseInfoExpiredDeadline() {
+        HttpHeaders headers = headers();
+        Deadline.at(System.currentTimeMillis() - 1).applyTo(headers);
+
+        // The request is abandoned without being sent
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> cache.getCourseInfoResponse(headers, 1337).block());
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, exception.getStatus());
+        assertEquals(0, mockWebServer.getRequestCount());
+    }
+
     @Test
     public void testGetCourseInfoNonExisting() throws InterruptedException {
         // Enqueue response and setup parameters
@@ -67,7 +111,7 @@ public class CourseInfoResponseCacheTest {
         mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.NOT_FOUND.value()));
 
         // Fetch course information
-        Mono<String> courseInfo = cache.getCourseInfoResponse(AUTHORIZATION_TOKEN, courseId);
+        Mono<String> courseInfo = cache.getCourseInfoResponse(headers(), courseId);
 
         // Verify that the response object is not available
         assertThrows(ResponseStatusException.class, courseInfo::block);
@@ -87,7 +131,7 @@ public class CourseInfoResponseCacheTest {
         mockWebServer.enqueue(new MockResponse().setBody(new JsonObject().toString()));
 
         // Fetch course information
-        Mono<String> courseInfo = cache.getCourseInfoResponse(AUTHORIZATION_TOKEN, courseId);
+        Mono<String> courseInfo = cache.getCourseInfoResponse(headers(), courseId);
 
         // Verify that the response object is not available
         assertEquals(new JsonObject().toString(), courseInfo.block());
@@ -120,7 +164,8 @@ public class CourseInfoResponseCacheTest {
         for (int i = 0; i < repeat; i++) {
             for (int j = 0; j < courseIds.size(); j++) {
                 assertEquals(responses.get(j),
-                        cache.getCourseInfoResponse("", courseIds.get(j)).block());
+                        cache.getCourseInfoResponse(new HttpHeaders(),
+                                courseIds.get(j)).block());
             }
         }
 
@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -51,6 +52,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @AutoConfigureMockMvc
 @SpringBootTest
@@ -120,6 +122,8 @@ public class SubmissionControllerTest {
         HttpUrl url = mockWebServer.url(BASE_URL);
         when(gatewayConfig.getPort()).thenReturn(url.port());
         when(gatewayConfig.getHost()).thenReturn(url.host());
+        when(gatewayConfig.uriBuilder(anyString())).thenAnswer(invocation -> UriComponentsBuilder
+                .newInstance().scheme("http").host(url.host()).port(url.port()));
 
         // Invalidate the cache before each test
         courseInfoResponseCache.invalidateCache();
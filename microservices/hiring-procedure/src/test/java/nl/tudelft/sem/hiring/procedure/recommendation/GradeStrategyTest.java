@@ -65,7 +65,9 @@ class GradeStrategyTest {
         Mockito.when(gatewayConfig.getHost()).thenReturn(url.host());
         Mockito.when(gatewayConfig.getPort()).thenReturn(url.port());
 
-        strategy = new GradeStrategy(repo, gatewayConfig, jwtToken);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, jwtToken);
+        strategy = new GradeStrategy(repo, gatewayConfig, headers);
         mapper = new ObjectMapper();
 
         // Clear the database
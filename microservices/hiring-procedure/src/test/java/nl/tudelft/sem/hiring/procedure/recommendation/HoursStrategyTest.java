@@ -28,6 +28,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @SpringBootTest
 public class HoursStrategyTest {
@@ -100,8 +101,13 @@ public class HoursStrategyTest {
         GatewayConfig gatewayConfig = Mockito.mock(GatewayConfig.class);
         Mockito.when(gatewayConfig.getHost()).thenReturn(url.host());
         Mockito.when(gatewayConfig.getPort()).thenReturn(url.port());
+        Mockito.when(gatewayConfig.uriBuilder(Mockito.anyString())).thenAnswer(invocation ->
+                UriComponentsBuilder.newInstance().scheme("http").host(url.host())
+                        .port(url.port()));
 
-        strategy = new HoursStrategy(repo, gatewayConfig, jwtToken);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, jwtToken);
+        strategy = new HoursStrategy(repo, gatewayConfig, headers);
         mapper = new ObjectMapper();
 
         // Clear the database
@@ -40,6 +40,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.util.UriComponentsBuilder;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -80,6 +81,9 @@ public class RecommendationControllerTest {
         HttpUrl url = mockWebServer.url("/");
         Mockito.when(gatewayConfig.getHost()).thenReturn(url.host());
         Mockito.when(gatewayConfig.getPort()).thenReturn(url.port());
+        Mockito.when(gatewayConfig.uriBuilder(Mockito.anyString())).thenAnswer(invocation ->
+                UriComponentsBuilder.newInstance().scheme("http").host(url.host())
+                        .port(url.port()));
 
         // Clear the database
         repo.deleteAll();
@@ -73,7 +73,9 @@ public class TimesSelectedStrategyTest {
         mockWebServer.start();
 
         gatewayConfig = Mockito.mock(GatewayConfig.class);
-        strategy = new TimesSelectedStrategy(repo, gatewayConfig, jwtToken);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, jwtToken);
+        strategy = new TimesSelectedStrategy(repo, gatewayConfig, headers);
         mapper = new ObjectMapper();
 
         // Clear the database
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.server.ResponseStatusException;
 
 
@@ -35,7 +36,7 @@ public class TotalTimesSelectedStrategyTest {
      */
     @BeforeEach
     public void setup() {
-        this.strategy = new TotalTimesSelectedStrategy(repo, null, "placeholder");
+        this.strategy = new TotalTimesSelectedStrategy(repo, null, new HttpHeaders());
 
         // Clear the database
         repo.deleteAll();
@@ -3,6 +3,7 @@ package nl.tudelft.sem.hiring.procedure.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 import com.google.gson.JsonObject;
@@ -22,7 +23,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 @AutoConfigureMockMvc
@@ -33,6 +36,7 @@ public class NotificationServiceTest {
 
     private transient long userId;
     private transient String message;
+    private transient HttpHeaders headers;
 
     @Autowired
     private transient NotificationService notificationService;
@@ -50,6 +54,8 @@ public class NotificationServiceTest {
         // Set user id and message to random values
         userId = ThreadLocalRandom.current().nextLong();
         message = RandomStringUtils.random(20);
+        headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, AUTH_TOKEN);
     }
 
     @BeforeEach
@@ -57,6 +63,8 @@ public class NotificationServiceTest {
         HttpUrl url = mockWebServer.url("/");
         when(gatewayConfig.getHost()).thenReturn(url.host());
         when(gatewayConfig.getPort()).thenReturn(url.port());
+        when(gatewayConfig.uriBuilder(anyString())).thenAnswer(invocation -> UriComponentsBuilder
+                .newInstance().scheme("http").host(url.host()).port(url.port()));
     }
 
     @AfterEach
@@ -74,7 +82,7 @@ public class NotificationServiceTest {
     void testNotifySuccessful() throws InterruptedException {
         mockWebServer.enqueue(new MockResponse());
 
-        Mono<Void> result = notificationService.notify(userId, message, AUTH_TOKEN);
+        Mono<Void> result = notificationService.notify(userId, message, headers);
         assertThat(result.block()).isNull();
 
         // check that request was made to correct place
@@ -92,7 +100,7 @@ public class NotificationServiceTest {
     void testNotifyFail() throws InterruptedException {
         mockWebServer.enqueue(new MockResponse().setResponseCode(409));
 
-        Mono<Void> result = notificationService.notify(userId, message, AUTH_TOKEN);
+        Mono<Void> result = notificationService.notify(userId, message, headers);
         assertThatExceptionOfType(ResponseStatusException.class).isThrownBy(result::block);
 
         // check that request was made to correct place
@@ -0,0 +1,39 @@
+package nl.tudelft.sem.hiring.procedure.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.sem.discovery.DiscoveryClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.util.UriComponentsBuilder;
+
+public class GatewayConfigTest {
+
+    private transient GatewayConfig gatewayConfig;
+
+    @BeforeEach
+    void setup() {
+        gatewayConfig = new GatewayConfig();
+        gatewayConfig.setHost("gateway");
+        gatewayConfig.setPort(8080);
+    }
+
+    @Test
+    void testUriBuilderWithoutDiscoveryClient() {
+        assertThat(gatewayConfig.uriBuilder("courses").path("/api").toUriString())
+                .isEqualTo("http://gateway:8080/api");
+    }
+
+    @Test
+    void testUriBuilderDelegatesToDiscoveryClient() {
+        DiscoveryClient discoveryClient = Mockito.mock(DiscoveryClient.class);
+        when(discoveryClient.uriBuilder("courses")).thenReturn(UriComponentsBuilder.newInstance()
+                .scheme("http").host("courses-1").port(1234));
+        gatewayConfig.setDiscoveryClient(discoveryClient);
+
+        assertThat(gatewayConfig.uriBuilder("courses").path("/api").toUriString())
+                .isEqualTo("http://courses-1:1234/api");
+    }
+}
@@ -28,6 +28,7 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 
 @ExtendWith(SpringExtension.class)
@@ -56,6 +57,8 @@ public class AsyncLecturerValidatorTest {
         gatewayConfig = Mockito.mock(GatewayConfig.class);
         when(gatewayConfig.getHost()).thenReturn(url.host());
         when(gatewayConfig.getPort()).thenReturn(url.port());
+        when(gatewayConfig.uriBuilder(anyString())).thenAnswer(invocation -> UriComponentsBuilder
+                .newInstance().scheme("http").host(url.host()).port(url.port()));
 
         when(jwtUtils.resolveToken(anyString())).thenReturn("");
         when(jwtUtils.validateAndParseClaims(anyString())).thenReturn(jwsMock);
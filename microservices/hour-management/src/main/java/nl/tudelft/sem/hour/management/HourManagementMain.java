@@ -1,5 +1,6 @@
 package nl.tudelft.sem.hour.management;
 
+import nl.tudelft.sem.deadline.DeadlineConfig;
 import nl.tudelft.sem.heartbeat.HeartbeatConfig;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.boot.SpringApplication;
@@ -7,7 +8,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
-@Import({HeartbeatConfig.class, JwtUtils.class})
+@Import({DeadlineConfig.class, HeartbeatConfig.class, JwtUtils.class})
 public class HourManagementMain {
 
     public static void main(String[] args) {
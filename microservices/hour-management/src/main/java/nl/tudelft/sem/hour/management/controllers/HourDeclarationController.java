@@ -188,7 +188,7 @@ public class HourDeclarationController {
             // Add a notification to the student's notification pool
             return notificationService.notify(hourDeclaration.get().getStudentId(),
                     String.format("Your declaration with id %s has been rejected.", declarationId),
-                    headers.getFirst(HttpHeaders.AUTHORIZATION));
+                    headers);
         });
     }
 
@@ -237,7 +237,7 @@ public class HourDeclarationController {
             // Add a notification to the student's notification pool
             return notificationService.notify(hourDeclaration.get().getStudentId(),
                     String.format("Your declaration with id %s has been approved.", declarationId),
-                    headers.getFirst(HttpHeaders.AUTHORIZATION));
+                    headers);
         });
 
     }
@@ -2,6 +2,8 @@ package nl.tudelft.sem.hour.management.services;
 
 import com.google.gson.JsonObject;
 import lombok.Getter;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hour.management.config.GatewayConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
@@ -23,7 +25,7 @@ public class NotificationService {
      * @param gatewayConfig is the gateway configuration.
      */
     public NotificationService(GatewayConfig gatewayConfig) {
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
         this.gatewayConfig = gatewayConfig;
     }
 
@@ -32,9 +34,10 @@ public class NotificationService {
      *
      * @param userId             is the ID of the user to send the notification to.
      * @param message            is the message of the notification.
-     * @param authorizationToken is the authorization token of the user.
+     * @param headers            are the headers of the request, of which the Authorization and
+     *                           deadline headers are forwarded.
      */
-    public Mono<Void> notify(long userId, String message, String authorizationToken) {
+    public Mono<Void> notify(long userId, String message, HttpHeaders headers) {
         JsonObject requestBody = new JsonObject();
         requestBody.addProperty("userId", userId);
         requestBody.addProperty("message", message);
@@ -46,7 +49,8 @@ public class NotificationService {
                         .port(getGatewayConfig().getPort())
                         .pathSegment("api", "auth", "notifications", "add")
                         .toUriString())
-                .header(HttpHeaders.AUTHORIZATION, authorizationToken)
+                .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .body(Mono.just(requestBody.toString()), String.class)
                 .exchange()
                 .flatMap(response -> {
@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import java.time.Period;
 import java.time.ZonedDateTime;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hour.management.config.GatewayConfig;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -26,7 +28,7 @@ public class AsyncCourseTimeValidator extends AsyncBaseValidator {
      */
     public AsyncCourseTimeValidator(GatewayConfig gatewayConfig) {
         super(gatewayConfig);
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
@@ -43,6 +45,7 @@ public class AsyncCourseTimeValidator extends AsyncBaseValidator {
                         .pathSegment("api", "courses", "get", parsed.get("courseId").getAsString())
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(response -> {
                     if (response.statusCode().isError()) {
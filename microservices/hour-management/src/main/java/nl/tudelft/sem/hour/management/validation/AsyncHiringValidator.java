@@ -4,6 +4,8 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hour.management.config.GatewayConfig;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
@@ -30,7 +32,7 @@ public class AsyncHiringValidator extends AsyncBaseValidator {
     public AsyncHiringValidator(GatewayConfig gatewayConfig, JwtUtils jwtUtils) {
         super(gatewayConfig);
         this.jwtUtils = jwtUtils;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
@@ -57,6 +59,7 @@ public class AsyncHiringValidator extends AsyncBaseValidator {
                         .queryParam("courseId", parsed.get("courseId"))
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(response -> {
                     if (response.statusCode().isError()) {
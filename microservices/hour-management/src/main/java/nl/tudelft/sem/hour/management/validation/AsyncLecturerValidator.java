@@ -1,8 +1,10 @@
 package nl.tudelft.sem.hour.management.validation;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import nl.tudelft.sem.deadline.Deadline;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
 import nl.tudelft.sem.hour.management.config.GatewayConfig;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,8 +18,8 @@ public class AsyncLecturerValidator extends AsyncBaseValidator {
     // WebClient used to communicate with the hiring microservice
     private final transient WebClient webClient;
 
-    // JWT utility library for parsing the authorization header
-    private final transient JwtUtils jwtUtils;
+    // Resolves the identity of the user from the identity header or the JWT token
+    private final transient IdentityResolver identityResolver;
 
     // ID of the course that the user is supposed to teach
     private final transient long courseId;
@@ -32,24 +34,23 @@ public class AsyncLecturerValidator extends AsyncBaseValidator {
     public AsyncLecturerValidator(GatewayConfig gatewayConfig, JwtUtils jwtUtils,
                                   Long courseId) {
         super(gatewayConfig);
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
         this.courseId = courseId;
-        this.webClient = WebClient.create();
+        this.webClient = DeadlineExchangeFilter.createWebClient();
     }
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        // Parse the authorization token to retrieve the role and user ID
-        String token = jwtUtils.resolveToken(headers.getFirst(HttpHeaders.AUTHORIZATION));
-        Jws<Claims> claims = jwtUtils.validateAndParseClaims(token);
+        // Resolve the identity of the user to retrieve the role and user ID
+        Identity identity = identityResolver.resolve(headers);
 
         // Admins do not have to be lecturers, therefore they should be able to bypass this check
-        if (jwtUtils.getRole(claims).equals(AsyncRoleValidator.Roles.ADMIN.name())) {
+        if (identity.getRole().equals(AsyncRoleValidator.Roles.ADMIN.name())) {
             return evaluateNext(headers, body);
         }
 
-        // Retrieve the ID of the user from the token
-        Long userId = jwtUtils.getUserId(claims);
+        // Retrieve the ID of the user from the identity
+        Long userId = identity.getUserId();
 
         // Initiate the request and forward the response to the next validator (if any)
         return webClient.get()
@@ -61,6 +62,7 @@ public class AsyncLecturerValidator extends AsyncBaseValidator {
                                 String.valueOf(userId), String.valueOf(courseId))
                         .toUriString())
                 .header(HttpHeaders.AUTHORIZATION, headers.getFirst(HttpHeaders.AUTHORIZATION))
+                .headers(Deadline.propagate(headers))
                 .exchange()
                 .flatMap(response -> {
                     if (response.statusCode().isError()) {
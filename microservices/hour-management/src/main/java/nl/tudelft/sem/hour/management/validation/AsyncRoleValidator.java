@@ -1,11 +1,11 @@
 package nl.tudelft.sem.hour.management.validation;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import java.util.Optional;
 import java.util.Set;
 import lombok.Getter;
 import nl.tudelft.sem.hour.management.config.GatewayConfig;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,7 +20,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
         ADMIN
     }
 
-    private final transient JwtUtils jwtUtils;
+    private final transient IdentityResolver identityResolver;
 
     @Getter
     private final transient Set<Roles> authorizedRoles;
@@ -35,7 +35,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
      */
     public AsyncRoleValidator(GatewayConfig gatewayConfig, JwtUtils jwtUtils) {
         super(gatewayConfig);
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
 
         this.authorizedRoles = Set.of(Roles.ADMIN);
         this.authorizedUser = Optional.empty();
@@ -51,7 +51,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
     public AsyncRoleValidator(GatewayConfig gatewayConfig,
                               JwtUtils jwtUtils, Set<Roles> authorizedRoles) {
         super(gatewayConfig);
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
 
         this.authorizedRoles = authorizedRoles;
         this.authorizedUser = Optional.empty();
@@ -68,7 +68,7 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
     public AsyncRoleValidator(GatewayConfig gatewayConfig,
                               JwtUtils jwtUtils, Set<Roles> authorizedRoles, Long userId) {
         super(gatewayConfig);
-        this.jwtUtils = jwtUtils;
+        this.identityResolver = new IdentityResolver(jwtUtils);
 
         this.authorizedRoles = authorizedRoles;
         this.authorizedUser = Optional.of(userId);
@@ -76,16 +76,15 @@ public class AsyncRoleValidator extends AsyncBaseValidator {
 
     @Override
     public Mono<Boolean> validate(HttpHeaders headers, String body) {
-        // Because each chain start with Auth, it is fine to directly extract the JWT token
-        Jws<Claims> claims = jwtUtils.validateAndParseClaims(
-                jwtUtils.resolveToken(headers.getFirst("Authorization")));
+        // Because each chain start with Auth, it is fine to directly extract the identity
+        Identity identity = identityResolver.resolve(headers);
 
         // Check if the user is authorized (in case of special permission case).
         // If the user does not have the correct role, check if his ID matches the authorized
         // user ID.
-        if (!authorizedRoles.contains(Roles.valueOf(jwtUtils.getRole(claims)))) {
+        if (!authorizedRoles.contains(Roles.valueOf(identity.getRole()))) {
             if (authorizedUser.isEmpty()
-                    || !authorizedUser.get().equals(jwtUtils.getUserId(claims))) {
+                    || !authorizedUser.get().equals(identity.getUserId())) {
                 return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
                         "You do not have the permission to access this service."));
             }
@@ -2,6 +2,8 @@ package nl.tudelft.sem.hour.management.controllers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.matchesRegex;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.matches;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
@@ -385,9 +387,9 @@ public class HourDeclarationControllerTest {
         // associated to the declaration ID
         mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.OK.value()));
 
-        when(notificationService.notify(1234L,
-                yourDeclaration + saved.getDeclarationId() + " has been rejected.",
-                ""))
+        when(notificationService.notify(eq(1234L),
+                eq(yourDeclaration + saved.getDeclarationId() + " has been rejected."),
+                any(HttpHeaders.class)))
                 .thenReturn(Mono.empty());
 
         MvcResult mvcResult = mockMvc.perform(delete(declarationPath
@@ -432,9 +434,9 @@ public class HourDeclarationControllerTest {
         // associated to the declaration ID
         mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.OK.value()));
 
-        when(notificationService.notify(1234L,
-                yourDeclaration + saved.getDeclarationId() + " has been rejected.",
-                ""))
+        when(notificationService.notify(eq(1234L),
+                eq(yourDeclaration + saved.getDeclarationId() + " has been rejected."),
+                any(HttpHeaders.class)))
                 .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
                         "Failed to register notification")));
 
@@ -486,9 +488,9 @@ public class HourDeclarationControllerTest {
         // associated to the declaration ID
         mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.OK.value()));
 
-        when(notificationService.notify(1234L,
-                yourDeclaration + saved.getDeclarationId() +  " has been approved.",
-                ""))
+        when(notificationService.notify(eq(1234L),
+                eq(yourDeclaration + saved.getDeclarationId() +  " has been approved."),
+                any(HttpHeaders.class)))
                 .thenReturn(Mono.empty());
 
         MvcResult mvcResult = mockMvc.perform(put(declarationPath
@@ -536,9 +538,9 @@ public class HourDeclarationControllerTest {
         // associated to the declaration ID
         mockWebServer.enqueue(new MockResponse().setResponseCode(HttpStatus.OK.value()));
 
-        when(notificationService.notify(1234L,
-                yourDeclaration + saved.getDeclarationId() + " has been approved.",
-                ""))
+        when(notificationService.notify(eq(1234L),
+                eq(yourDeclaration + saved.getDeclarationId() + " has been approved."),
+                any(HttpHeaders.class)))
                 .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
                         "Failed to register notification")));
 
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
@@ -32,6 +33,8 @@ public class NotificationServiceTest {
     private static final String MESSAGE = "Hello";
     private static final String AUTH_TOKEN = "Bearer VALIDVALID";
 
+    private transient HttpHeaders headers;
+
     @Autowired
     private transient NotificationService notificationService;
 
@@ -51,6 +54,9 @@ public class NotificationServiceTest {
         HttpUrl url = mockWebServer.url("/");
         when(gatewayConfig.getHost()).thenReturn(url.host());
         when(gatewayConfig.getPort()).thenReturn(url.port());
+
+        headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, AUTH_TOKEN);
     }
 
     @AfterAll
@@ -68,7 +74,7 @@ public class NotificationServiceTest {
     void testNotifySuccessful() throws InterruptedException {
         mockWebServer.enqueue(new MockResponse());
 
-        Mono<Void> result = notificationService.notify(USER_ID, MESSAGE, AUTH_TOKEN);
+        Mono<Void> result = notificationService.notify(USER_ID, MESSAGE, headers);
         assertThat(result.block()).isNull();
 
         // check that request was made to correct place
@@ -91,7 +97,7 @@ public class NotificationServiceTest {
         mockWebServer.enqueue(new MockResponse()
                 .setResponseCode(409));
 
-        Mono<Void> result = notificationService.notify(USER_ID, MESSAGE, AUTH_TOKEN);
+        Mono<Void> result = notificationService.notify(USER_ID, MESSAGE, headers);
         assertThatExceptionOfType(ResponseStatusException.class).isThrownBy(result::block);
 
         // check that request was made to correct place
@@ -1,5 +1,6 @@
 package nl.tudelft.sem.users;
 
+import nl.tudelft.sem.deadline.DeadlineConfig;
 import nl.tudelft.sem.heartbeat.HeartbeatConfig;
 import nl.tudelft.sem.jwt.JwtUtils;
 import org.springframework.boot.SpringApplication;
@@ -7,7 +8,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
-@Import({JwtUtils.class, HeartbeatConfig.class})
+@Import({JwtUtils.class, HeartbeatConfig.class, DeadlineConfig.class})
 public class UsersMain {
 
     public static void main(String[] args) {
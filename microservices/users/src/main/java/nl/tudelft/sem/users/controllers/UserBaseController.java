@@ -1,19 +1,23 @@
 package nl.tudelft.sem.users.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import nl.tudelft.sem.deadline.DeadlineExchangeFilter;
+import nl.tudelft.sem.jwt.Identity;
+import nl.tudelft.sem.jwt.IdentityResolver;
 import nl.tudelft.sem.jwt.JwtUtils;
 import nl.tudelft.sem.users.config.GatewayConfig;
 import nl.tudelft.sem.users.entities.User;
 import nl.tudelft.sem.users.entities.UserRole;
 import nl.tudelft.sem.users.services.UserService;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -27,6 +31,8 @@ public abstract class UserBaseController {
 
     protected final transient JwtUtils jwtUtils;
 
+    protected final transient IdentityResolver identityResolver;
+
     protected final transient WebClient webClient;
 
     protected final transient GatewayConfig gatewayConfig;
@@ -49,7 +55,8 @@ public abstract class UserBaseController {
                               GatewayConfig gatewayConfig) {
         this.userService = userService;
         this.jwtUtils = jwtUtils;
-        this.webClient = WebClient.create();
+        this.identityResolver = new IdentityResolver(jwtUtils);
+        this.webClient = DeadlineExchangeFilter.createWebClient();
         this.gatewayConfig = gatewayConfig;
     }
 
@@ -118,6 +125,8 @@ public abstract class UserBaseController {
 
     /**
      * A helper method to validate the requester using JWT token.
+     *   If the gateway has attached a valid identity header to the current request,
+     *   the identity is taken from that header instead of parsing the JWT token again.
      *
      * @param jwtPrefixed   the JWT token extracted from 'Authorization' header
      * @param allowedRoles  the roles that the token can contain to perform the operation
@@ -130,17 +139,31 @@ public abstract class UserBaseController {
                         "'Authorization' header must start with 'Bearer '");
         }
 
-        Jws<Claims> claimsJws = jwtUtils.validateAndParseClaims(jwt);
-        if (claimsJws == null) {
+        Identity identity = identityResolver.resolve(jwtPrefixed, getIdentityHeader());
+        if (identity == null) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN,
                         "JWT token is invalid or has been expired");
         }
 
-        if (!allowedRoles.contains(jwtUtils.getRole(claimsJws).toUpperCase(Locale.ROOT))) {
+        if (!allowedRoles.contains(identity.getRole().toUpperCase(Locale.ROOT))) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Operation not allowed!");
         }
     }
 
+    /**
+     * A helper method to get the identity header of the request that is currently handled.
+     *
+     * @return the value of the identity header, or null if there is none.
+     */
+    private static String getIdentityHeader() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return ((ServletRequestAttributes) attributes).getRequest()
+                .getHeader(IdentityResolver.IDENTITY_HEADER);
+    }
+
     /**
      * A helper method to get a user with the given user ID if (s)he exists.
      *
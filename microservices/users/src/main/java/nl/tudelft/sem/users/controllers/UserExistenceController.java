@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.deadline.Deadline;
 import nl.tudelft.sem.jwt.JwtUtils;
 import nl.tudelft.sem.users.config.GatewayConfig;
 import nl.tudelft.sem.users.entities.UserRole;
@@ -66,6 +67,7 @@ public class UserExistenceController extends UserBaseController {
             .post()
             .uri(buildUri("api", "auth", "register"))
             .header(HttpHeaders.CONTENT_TYPE, String.valueOf(MediaType.APPLICATION_JSON))
+            .headers(Deadline.propagate(req))
             .body(Mono.just(json), String.class)
             .exchange()
             .flatMap(res -> {
@@ -107,6 +109,7 @@ public class UserExistenceController extends UserBaseController {
             .uri(buildUri("api", "auth", "delete"))
             .header(HttpHeaders.CONTENT_TYPE, String.valueOf(MediaType.APPLICATION_JSON))
             .header(HttpHeaders.AUTHORIZATION, prefixedJwt)
+            .headers(Deadline.propagate(req))
             .body(Mono.just(json), String.class)
             .exchange()
             .flatMap(res -> {
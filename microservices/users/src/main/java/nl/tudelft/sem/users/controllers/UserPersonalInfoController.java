@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.util.Locale;
 import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
+import nl.tudelft.sem.deadline.Deadline;
 import nl.tudelft.sem.jwt.JwtUtils;
 import nl.tudelft.sem.users.config.GatewayConfig;
 import nl.tudelft.sem.users.entities.UserRole;
@@ -68,6 +69,7 @@ public class UserPersonalInfoController extends UserBaseController {
             .uri(buildUri("api", "auth", "change_role"))
             .header(HttpHeaders.CONTENT_TYPE, String.valueOf(MediaType.APPLICATION_JSON))
             .header(HttpHeaders.AUTHORIZATION, prefixedJwt)
+            .headers(Deadline.propagate(req))
             .body(Mono.just(json), String.class)
             .exchange()
             .flatMap(res -> {